@@ -0,0 +1,147 @@
+-- Converts the footsteps table into a table that is partitioned by month on its timestamp.
+--
+-- Nearly every footstep query is bounded by a time window, so with monthly partitions the planner only has to look at
+-- the months that overlap the requested window (partition pruning) instead of at the full footstep history. Next to
+-- that, old months can be removed by detaching (and dropping) their partition, which is a catalog-only operation,
+-- instead of by deleting millions of rows.
+--
+-- Some remarks:
+-- - Every unique constraint on a partitioned table must include the partition key, so the primary key becomes
+--   (id, timestamp). The ids are still drawn from the original sequence, hence they stay unique by themselves.
+-- - PostgreSQL 11 does not support foreign keys that reference a partitioned table. The footstep_positions table has
+--   no timestamp to be partitioned on either, so it stays a regular table without its foreign key to footsteps.
+--   The ON DELETE CASCADE of that foreign key is replaced by a trigger. When dropping a detached partition, the
+--   positions of its footsteps should be deleted first:
+--       DELETE FROM footstep_positions WHERE footstep_id IN (SELECT id FROM footsteps_2020_01);
+-- - Besides the (wearable_id, timestamp) index, every partition gets a BRIN index on the timestamp. Footsteps arrive
+--   (roughly) in chronological order, so a BRIN index is tiny and suits scans on time only, e.g. counting the
+--   footsteps of all wearables within a time window.
+-- - Partitions are created up to a year ahead. Footsteps outside of the created partitions end up in the default
+--   partition. Note that a new partition cannot be created for a month for which the default partition already
+--   contains footsteps.
+-- - RLS is enabled on the partitions themselves without any policies, so they cannot be queried directly by other
+--   users than the owner. Queries on the footsteps table are subject to the policies defined on footsteps only.
+
+ALTER TABLE footsteps RENAME TO footsteps_unpartitioned;
+
+CREATE TABLE footsteps (
+    id bigint NOT NULL DEFAULT nextval('footsteps_id_seq'),
+    wearable_id character varying(255) NOT NULL,
+    timestamp timestamp without time zone NOT NULL,
+    floor_id bigint
+) PARTITION BY RANGE (timestamp);
+
+-- Creates the partition that holds the footsteps of the month of the given date, if it does not exist yet.
+-- Returns the name of the partition, e.g. footsteps_2020_01.
+CREATE FUNCTION create_footsteps_partition(partition_month date) RETURNS text AS $$
+DECLARE
+    partition_begin timestamp := date_trunc('month', partition_month::timestamp);
+    partition_name text := 'footsteps_' || to_char(partition_begin, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF footsteps FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        partition_begin,
+        partition_begin + interval '1 month'
+    );
+    EXECUTE format('ALTER TABLE %I ENABLE ROW LEVEL SECURITY', partition_name);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the partition that holds the footsteps of the month of the given date, such that it can be archived or
+-- dropped. Returns the name of the (now detached) partition.
+CREATE FUNCTION detach_footsteps_partition(partition_month date) RETURNS text AS $$
+DECLARE
+    partition_name text := 'footsteps_' || to_char(partition_month, 'YYYY_MM');
+BEGIN
+    EXECUTE format('ALTER TABLE footsteps DETACH PARTITION %I', partition_name);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE footsteps_default PARTITION OF footsteps DEFAULT;
+ALTER TABLE footsteps_default
+    ENABLE ROW LEVEL SECURITY;
+
+-- Create a partition for every month from the first footstep up to a year from now.
+DO $$
+DECLARE
+    partition_month date := date_trunc('month', COALESCE((SELECT min(timestamp) FROM footsteps_unpartitioned), now()));
+    last_month date := date_trunc('month', now()) + interval '12 months';
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        PERFORM create_footsteps_partition(partition_month);
+        partition_month := partition_month + interval '1 month';
+    END LOOP;
+END;
+$$;
+
+-- Copy the footsteps in chronological order, which keeps the BRIN indexes (created below) selective.
+INSERT INTO footsteps (id, wearable_id, timestamp, floor_id)
+SELECT id, wearable_id, timestamp, floor_id
+FROM footsteps_unpartitioned
+ORDER BY timestamp;
+
+ALTER TABLE footstep_positions
+    DROP CONSTRAINT FK_footstep_position;
+ALTER SEQUENCE footsteps_id_seq OWNED BY footsteps.id;
+DROP TABLE footsteps_unpartitioned;
+
+-- The indexes and constraints are created after copying the footsteps, as that is faster than maintaining them during.
+ALTER TABLE footsteps
+    ADD CONSTRAINT footsteps_pkey PRIMARY KEY (id, timestamp);
+ALTER TABLE footsteps
+    ADD CONSTRAINT FK_footstep_wearable FOREIGN KEY (wearable_id) REFERENCES wearables(id) ON UPDATE CASCADE ON DELETE RESTRICT;
+ALTER TABLE footsteps
+    ADD CONSTRAINT FK_footstep_floor FOREIGN KEY (floor_id) REFERENCES floors(id) ON UPDATE CASCADE ON DELETE RESTRICT;
+CREATE UNIQUE INDEX ON footsteps (wearable_id DESC, timestamp DESC);
+CREATE INDEX footsteps_timestamp_brin_idx ON footsteps USING brin (timestamp);
+
+-- Replaces the ON DELETE CASCADE of the dropped foreign key from footstep_positions to footsteps.
+CREATE FUNCTION delete_footstep_position() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM footstep_positions WHERE footstep_id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER footstep_position_delete_trigger
+    AFTER DELETE ON footsteps
+    FOR EACH ROW EXECUTE PROCEDURE delete_footstep_position();
+
+-- The policies of the original table were dropped along with it, recreate them (as they were defined in V48 and V51).
+ALTER TABLE footsteps
+    ENABLE ROW LEVEL SECURITY;
+-- For direct users, allow selection of footsteps that fall in the timeframe of their tenant's lease(s).
+-- For composite users, allow selection of footsteps that fall in the timeframe of their sub-users' tenant's lease(s)
+CREATE POLICY footstep_select_isolation_policy ON footsteps
+    FOR SELECT
+    USING (
+        EXISTS(
+            SELECT 1
+            FROM tenant_wearable_leases AS twl
+            WHERE footsteps.wearable_id = twl.wearable_id
+            AND twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+            AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+        )
+        OR
+        EXISTS(
+            SELECT 1
+            FROM users AS u
+            INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+            WHERE footsteps.wearable_id = twl.wearable_id
+            AND u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+            AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+        )
+    );
+-- Creating, updating and deleting footsteps is not managed through endpoints, so there is no need for constraints.
+CREATE POLICY footstep_insert_isolation_policy ON footsteps
+    FOR INSERT
+    WITH CHECK (true);
+CREATE POLICY footstep_update_isolation_policy ON footsteps
+    FOR UPDATE
+    USING (true);
+CREATE POLICY footstep_delete_isolation_policy ON footsteps
+    FOR DELETE
+    USING (true);
@@ -0,0 +1,138 @@
+-- Adds hourly rollups of the footsteps of every wearable, such that footstep counts (and other coarse indicators) over
+-- longer time windows do not have to be aggregated from the raw footsteps for every request.
+--
+-- `footstep_hourly_rollups` - For every (wearable, floor, hour) in which footsteps were made: the number of footsteps,
+--      the distance covered between consecutive positioned footsteps within that hour and the times of the first and
+--      the last footstep of that hour.
+-- `footstep_hourly_rollup_watermark` - A single row that keeps track of the last footstep (id) that has been rolled up
+--      and of the hour up to which the rollups are complete.
+--
+-- The rollups are maintained (incrementally) by refresh_footstep_hourly_rollups(), which is run periodically by the
+-- application. Footstep ids are drawn from a sequence, so every footstep that has been added since the previous refresh
+-- has an id greater than the watermark, regardless of its timestamp. The (wearable, floor, hour) buckets of those
+-- footsteps are recomputed from the raw footsteps, which also handles footsteps that arrive late.
+
+CREATE TABLE footstep_hourly_rollups (
+    wearable_id character varying(255) NOT NULL,
+    floor_id bigint, -- like the footsteps themselves, a rollup does not necessarily belong to a floor
+    hour timestamp without time zone NOT NULL,
+    step_count integer NOT NULL,
+    covered_distance double precision NOT NULL,
+    first_step_time timestamp without time zone NOT NULL,
+    last_step_time timestamp without time zone NOT NULL
+);
+
+CREATE UNIQUE INDEX footstep_hourly_rollups_wearable_floor_hour_idx
+    ON footstep_hourly_rollups (wearable_id, COALESCE(floor_id, -1), hour);
+CREATE INDEX footstep_hourly_rollups_hour_idx ON footstep_hourly_rollups (hour);
+
+CREATE TABLE footstep_hourly_rollup_watermark (
+    last_footstep_id bigint NOT NULL,
+    covered_until timestamp without time zone,
+    refreshed_at timestamp with time zone
+);
+
+INSERT INTO footstep_hourly_rollup_watermark (last_footstep_id) VALUES (0);
+
+-- Rolls up the footsteps that have been added since the previous refresh. Runs as the owner of the footsteps (SECURITY
+-- DEFINER), as the rollups cover the footsteps of all tenants. Concurrent refreshes are serialized by locking the
+-- watermark. Returns the number of (wearable, floor, hour) buckets that were recomputed.
+CREATE FUNCTION refresh_footstep_hourly_rollups() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    from_id bigint;
+    to_id bigint;
+    bucket_count integer := 0;
+BEGIN
+    SELECT last_footstep_id INTO from_id FROM footstep_hourly_rollup_watermark FOR UPDATE;
+    SELECT max(id) INTO to_id FROM footsteps;
+
+    IF to_id > from_id THEN
+        WITH affected_buckets AS (
+            SELECT DISTINCT wearable_id, floor_id, date_trunc('hour', timestamp) AS hour
+            FROM footsteps
+            WHERE id > from_id AND id <= to_id
+        )
+        INSERT INTO footstep_hourly_rollups (
+            wearable_id,
+            floor_id,
+            hour,
+            step_count,
+            covered_distance,
+            first_step_time,
+            last_step_time
+        )
+        SELECT
+            s.wearable_id,
+            s.floor_id,
+            s.hour,
+            count(*),
+            COALESCE(sum(s.distance), 0),
+            min(s.timestamp),
+            max(s.timestamp)
+        FROM (
+            SELECT
+                b.wearable_id,
+                b.floor_id,
+                b.hour,
+                f.timestamp,
+                -- The distance to the previous positioned footstep of the bucket (NULL for footsteps without position).
+                sqrt((p.x - lag(p.x) OVER w) ^ 2 + (p.y - lag(p.y) OVER w) ^ 2) AS distance
+            FROM affected_buckets AS b
+            INNER JOIN footsteps AS f ON f.wearable_id = b.wearable_id
+                AND f.floor_id IS NOT DISTINCT FROM b.floor_id
+                AND f.timestamp >= b.hour
+                AND f.timestamp < b.hour + interval '1 hour'
+            LEFT JOIN footstep_positions AS p ON p.footstep_id = f.id
+            WINDOW w AS (PARTITION BY b.wearable_id, b.floor_id, b.hour, p.x IS NULL ORDER BY f.timestamp)
+        ) AS s
+        GROUP BY s.wearable_id, s.floor_id, s.hour
+        ON CONFLICT (wearable_id, (COALESCE(floor_id, -1)), hour) DO UPDATE SET
+            step_count = EXCLUDED.step_count,
+            covered_distance = EXCLUDED.covered_distance,
+            first_step_time = EXCLUDED.first_step_time,
+            last_step_time = EXCLUDED.last_step_time;
+        GET DIAGNOSTICS bucket_count = ROW_COUNT;
+    END IF;
+
+    -- Footstep timestamps are in UTC. The current hour is not complete yet, so the rollups only cover the hours before.
+    UPDATE footstep_hourly_rollup_watermark
+    SET last_footstep_id = GREATEST(from_id, COALESCE(to_id, 0)),
+        covered_until = date_trunc('hour', now() AT TIME ZONE 'UTC'),
+        refreshed_at = now();
+    RETURN bucket_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Roll up the existing footsteps.
+SELECT refresh_footstep_hourly_rollups();
+
+-- The rollups of a wearable are visible to the same tenants (and composite users) as its footsteps, see V51. A rollup
+-- aggregates the footsteps of a complete hour, so it is only visible when that hour lies within a lease completely.
+ALTER TABLE footstep_hourly_rollups
+    ENABLE ROW LEVEL SECURITY;
+CREATE POLICY footstep_hourly_rollup_select_isolation_policy ON footstep_hourly_rollups
+    FOR SELECT
+    USING (
+        EXISTS(
+            SELECT 1
+            FROM tenant_wearable_leases AS twl
+            WHERE footstep_hourly_rollups.wearable_id = twl.wearable_id
+            AND twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+            AND footstep_hourly_rollups.hour >= twl.begin_time
+            AND footstep_hourly_rollups.hour + interval '1 hour' <= COALESCE(twl.end_time, NOW())
+        )
+        OR
+        EXISTS(
+            SELECT 1
+            FROM users AS u
+            INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+            WHERE footstep_hourly_rollups.wearable_id = twl.wearable_id
+            AND u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+            AND footstep_hourly_rollups.hour >= twl.begin_time
+            AND footstep_hourly_rollups.hour + interval '1 hour' <= COALESCE(twl.end_time, NOW())
+        )
+    );
+-- The rollups are only written by refresh_footstep_hourly_rollups(), so there are no policies for other operations.
@@ -0,0 +1,185 @@
+-- Adds a table that holds the latest fall risk profile of every user, such that looking up the latest fall risk profile
+-- of a user (or of all users of a group) is a primary key read instead of a query that joins the fall risk profiles
+-- with the user-wearable links and the fall risk profile removals.
+--
+-- `latest_fall_risk_profiles` - For every user that has one: the (non-removed) fall risk profile that ends last within
+--      any of the user-wearable links of the user. Like before, hidden fall risk profiles are not excluded.
+--
+-- The table is maintained by triggers on the tables that determine the latest fall risk profile of a user: the fall
+-- risk profiles themselves (which are inserted by the analysis pipeline), their removals (soft deletions) and the
+-- user-wearable links (e.g. when a wearable is re-linked to another user). The triggers recompute the latest fall risk
+-- profile of every user that is affected by the change. As a safety net, repair_latest_fall_risk_profiles() compares
+-- the whole table against a full recomputation and repairs any differences, it is run periodically by the application.
+--
+-- The latest fall risk profiles are computed as the owner of the tables (SECURITY DEFINER), so they do not depend on
+-- the tenant (or composite user) that made the change. Reading them is subject to RLS: a row is visible when its user
+-- is, and the fall risk profile it refers to is subject to the policies of the fall risk profiles table.
+
+CREATE TABLE latest_fall_risk_profiles (
+    user_id bigint NOT NULL,
+    fall_risk_profile_id bigint NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
+CREATE INDEX latest_fall_risk_profiles_frp_idx ON latest_fall_risk_profiles (fall_risk_profile_id);
+
+-- Recomputes the latest fall risk profile of the user with the given id.
+CREATE FUNCTION refresh_latest_fall_risk_profile(latest_user_id bigint) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    latest_frp_id bigint;
+BEGIN
+    SELECT frp.id INTO latest_frp_id
+    FROM user_wearable_links AS uwl
+    INNER JOIN users AS u ON u.id = uwl.user_id
+    INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+        AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+    LEFT JOIN fall_risk_profile_removals AS frp_rem ON frp.id = frp_rem.fall_risk_profile_id
+    WHERE uwl.user_id = latest_user_id
+    AND frp_rem.fall_risk_profile_id IS NULL
+    ORDER BY frp.end_time DESC, frp.id DESC
+    LIMIT 1;
+
+    IF latest_frp_id IS NULL THEN
+        DELETE FROM latest_fall_risk_profiles WHERE user_id = latest_user_id;
+    ELSE
+        INSERT INTO latest_fall_risk_profiles (user_id, fall_risk_profile_id)
+        VALUES (latest_user_id, latest_frp_id)
+        ON CONFLICT (user_id) DO UPDATE SET fall_risk_profile_id = EXCLUDED.fall_risk_profile_id
+        WHERE latest_fall_risk_profiles.fall_risk_profile_id <> EXCLUDED.fall_risk_profile_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the latest fall risk profile of every user that was linked to the given wearable at the given time, i.e.
+-- of every user that a fall risk profile of that wearable (ending at that time) belongs to.
+CREATE FUNCTION refresh_latest_fall_risk_profiles_of_wearable(frp_wearable_id character varying, frp_end_time timestamp)
+    RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    PERFORM refresh_latest_fall_risk_profile(user_id)
+    FROM (
+        SELECT DISTINCT uwl.user_id
+        FROM user_wearable_links AS uwl
+        WHERE uwl.wearable_id = frp_wearable_id
+        AND frp_end_time BETWEEN uwl.begin_time AND uwl.end_time
+    ) AS affected_users;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION fall_risk_profiles_refresh_latest() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_latest_fall_risk_profiles_of_wearable(OLD.wearable_id, OLD.end_time);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_latest_fall_risk_profiles_of_wearable(NEW.wearable_id, NEW.end_time);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION fall_risk_profile_removals_refresh_latest() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_latest_fall_risk_profiles_of_wearable(frp.wearable_id, frp.end_time)
+        FROM fall_risk_profiles AS frp
+        WHERE frp.id = OLD.fall_risk_profile_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_latest_fall_risk_profiles_of_wearable(frp.wearable_id, frp.end_time)
+        FROM fall_risk_profiles AS frp
+        WHERE frp.id = NEW.fall_risk_profile_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION user_wearable_links_refresh_latest() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_latest_fall_risk_profile(OLD.user_id);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.user_id <> OLD.user_id) THEN
+        PERFORM refresh_latest_fall_risk_profile(NEW.user_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER fall_risk_profiles_refresh_latest_trigger
+    AFTER INSERT OR UPDATE OF wearable_id, end_time OR DELETE ON fall_risk_profiles
+    FOR EACH ROW EXECUTE PROCEDURE fall_risk_profiles_refresh_latest();
+
+CREATE TRIGGER fall_risk_profile_removals_refresh_latest_trigger
+    AFTER INSERT OR UPDATE OF fall_risk_profile_id OR DELETE ON fall_risk_profile_removals
+    FOR EACH ROW EXECUTE PROCEDURE fall_risk_profile_removals_refresh_latest();
+
+CREATE TRIGGER user_wearable_links_refresh_latest_trigger
+    AFTER INSERT OR UPDATE OF user_id, wearable_id, begin_time, end_time OR DELETE ON user_wearable_links
+    FOR EACH ROW EXECUTE PROCEDURE user_wearable_links_refresh_latest();
+
+-- Compares the latest fall risk profiles against a full recomputation and repairs the differences. Returns the number
+-- of users for which the latest fall risk profile was repaired (0 when the table was consistent).
+CREATE FUNCTION repair_latest_fall_risk_profiles() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    repaired_count integer;
+BEGIN
+    WITH expected AS (
+        SELECT DISTINCT ON (uwl.user_id) uwl.user_id, frp.id AS fall_risk_profile_id
+        FROM user_wearable_links AS uwl
+        INNER JOIN users AS u ON u.id = uwl.user_id
+        INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+            AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+        LEFT JOIN fall_risk_profile_removals AS frp_rem ON frp.id = frp_rem.fall_risk_profile_id
+        WHERE frp_rem.fall_risk_profile_id IS NULL
+        ORDER BY uwl.user_id, frp.end_time DESC, frp.id DESC
+    ), deleted AS (
+        DELETE FROM latest_fall_risk_profiles AS l
+        WHERE NOT EXISTS(SELECT 1 FROM expected AS e WHERE e.user_id = l.user_id)
+        RETURNING l.user_id
+    ), upserted AS (
+        INSERT INTO latest_fall_risk_profiles (user_id, fall_risk_profile_id)
+        SELECT e.user_id, e.fall_risk_profile_id
+        FROM expected AS e
+        LEFT JOIN latest_fall_risk_profiles AS l ON l.user_id = e.user_id
+        WHERE l.fall_risk_profile_id IS DISTINCT FROM e.fall_risk_profile_id
+        ON CONFLICT (user_id) DO UPDATE SET fall_risk_profile_id = EXCLUDED.fall_risk_profile_id
+        RETURNING user_id
+    )
+    SELECT (SELECT count(*) FROM deleted) + (SELECT count(*) FROM upserted) INTO repaired_count;
+    RETURN repaired_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Compute the latest fall risk profiles of the existing users.
+SELECT repair_latest_fall_risk_profiles();
+
+ALTER TABLE latest_fall_risk_profiles
+    ENABLE ROW LEVEL SECURITY;
+CREATE POLICY latest_frp_select_isolation_policy ON latest_fall_risk_profiles
+    FOR SELECT
+    USING (
+        EXISTS(
+            SELECT 1
+            FROM users AS u
+            WHERE u.id = latest_fall_risk_profiles.user_id
+        )
+    );
+-- The table is only written by the (SECURITY DEFINER) functions above, so there are no policies for other operations.
@@ -0,0 +1,139 @@
+-- Keeps the removal state of a fall risk profile on the fall risk profile itself, such that reading the active (non-
+-- removed) fall risk profiles no longer requires an anti-join with the fall risk profile removals.
+--
+-- `fall_risk_profiles.removed_at` - The time at which the fall risk profile was (first) removed, NULL when it is not
+--      removed.
+--
+-- The fall risk profile removals remain the source of truth: removed_at is maintained by a trigger on the removals,
+-- within the transaction that inserts (or deletes) the removal. The trigger runs as the owner of the tables (SECURITY
+-- DEFINER), since the fall risk profiles can not be updated by the application (there is only a SELECT policy).
+
+ALTER TABLE fall_risk_profiles
+    ADD COLUMN removed_at timestamp without time zone;
+
+UPDATE fall_risk_profiles AS frp
+SET removed_at = frp_rem.deleted_at
+FROM (
+    SELECT fall_risk_profile_id, MIN(COALESCE(deleted_at, now())) AS deleted_at
+    FROM fall_risk_profile_removals
+    GROUP BY fall_risk_profile_id
+) AS frp_rem
+WHERE frp.id = frp_rem.fall_risk_profile_id;
+
+-- Recomputes the removal time of the fall risk profile with the given id from its removals.
+CREATE FUNCTION refresh_fall_risk_profile_removed_at(removed_frp_id bigint) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    UPDATE fall_risk_profiles AS frp
+    SET removed_at = frp_rem.deleted_at
+    FROM (
+        SELECT MIN(COALESCE(deleted_at, now())) AS deleted_at
+        FROM fall_risk_profile_removals
+        WHERE fall_risk_profile_id = removed_frp_id
+    ) AS frp_rem
+    WHERE frp.id = removed_frp_id
+    AND frp.removed_at IS DISTINCT FROM frp_rem.deleted_at;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION fall_risk_profile_removals_mark_removed() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_fall_risk_profile_removed_at(OLD.fall_risk_profile_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_fall_risk_profile_removed_at(NEW.fall_risk_profile_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER fall_risk_profile_removals_mark_removed_trigger
+    AFTER INSERT OR UPDATE OF fall_risk_profile_id, deleted_at OR DELETE ON fall_risk_profile_removals
+    FOR EACH ROW EXECUTE PROCEDURE fall_risk_profile_removals_mark_removed();
+
+-- The latest fall risk profiles (see V60) now follow the removal state of the fall risk profiles themselves: a change
+-- of removed_at replaces the trigger on the removals.
+DROP TRIGGER fall_risk_profile_removals_refresh_latest_trigger ON fall_risk_profile_removals;
+DROP FUNCTION fall_risk_profile_removals_refresh_latest();
+
+DROP TRIGGER fall_risk_profiles_refresh_latest_trigger ON fall_risk_profiles;
+CREATE TRIGGER fall_risk_profiles_refresh_latest_trigger
+    AFTER INSERT OR UPDATE OF wearable_id, end_time, removed_at OR DELETE ON fall_risk_profiles
+    FOR EACH ROW EXECUTE PROCEDURE fall_risk_profiles_refresh_latest();
+
+CREATE OR REPLACE FUNCTION refresh_latest_fall_risk_profile(latest_user_id bigint) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    latest_frp_id bigint;
+BEGIN
+    SELECT frp.id INTO latest_frp_id
+    FROM user_wearable_links AS uwl
+    INNER JOIN users AS u ON u.id = uwl.user_id
+    INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+        AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+    WHERE uwl.user_id = latest_user_id
+    AND frp.removed_at IS NULL
+    ORDER BY frp.end_time DESC, frp.id DESC
+    LIMIT 1;
+
+    IF latest_frp_id IS NULL THEN
+        DELETE FROM latest_fall_risk_profiles WHERE user_id = latest_user_id;
+    ELSE
+        INSERT INTO latest_fall_risk_profiles (user_id, fall_risk_profile_id)
+        VALUES (latest_user_id, latest_frp_id)
+        ON CONFLICT (user_id) DO UPDATE SET fall_risk_profile_id = EXCLUDED.fall_risk_profile_id
+        WHERE latest_fall_risk_profiles.fall_risk_profile_id <> EXCLUDED.fall_risk_profile_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION repair_latest_fall_risk_profiles() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    repaired_count integer;
+BEGIN
+    WITH expected AS (
+        SELECT DISTINCT ON (uwl.user_id) uwl.user_id, frp.id AS fall_risk_profile_id
+        FROM user_wearable_links AS uwl
+        INNER JOIN users AS u ON u.id = uwl.user_id
+        INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+            AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+        WHERE frp.removed_at IS NULL
+        ORDER BY uwl.user_id, frp.end_time DESC, frp.id DESC
+    ), deleted AS (
+        DELETE FROM latest_fall_risk_profiles AS l
+        WHERE NOT EXISTS(SELECT 1 FROM expected AS e WHERE e.user_id = l.user_id)
+        RETURNING l.user_id
+    ), upserted AS (
+        INSERT INTO latest_fall_risk_profiles (user_id, fall_risk_profile_id)
+        SELECT e.user_id, e.fall_risk_profile_id
+        FROM expected AS e
+        LEFT JOIN latest_fall_risk_profiles AS l ON l.user_id = e.user_id
+        WHERE l.fall_risk_profile_id IS DISTINCT FROM e.fall_risk_profile_id
+        ON CONFLICT (user_id) DO UPDATE SET fall_risk_profile_id = EXCLUDED.fall_risk_profile_id
+        RETURNING user_id
+    )
+    SELECT (SELECT count(*) FROM deleted) + (SELECT count(*) FROM upserted) INTO repaired_count;
+    RETURN repaired_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only active fall risk profiles are read by the application (apart from the listing of removed ones), so the indexes
+-- for those reads skip the removed fall risk profiles. The end time is included such that the range conditions on both
+-- the begin and end time can be checked from the index.
+CREATE INDEX frp_active_range_idx ON fall_risk_profiles (wearable_id, begin_time, end_time)
+    WHERE removed_at IS NULL;
+CREATE INDEX frp_active_created_at_idx ON fall_risk_profiles (wearable_id, created_at)
+    WHERE removed_at IS NULL;
+CREATE INDEX frp_removed_idx ON fall_risk_profiles (removed_at)
+    WHERE removed_at IS NOT NULL;
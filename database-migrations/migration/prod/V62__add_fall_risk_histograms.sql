@@ -0,0 +1,194 @@
+-- Adds histograms of the fall risk parameters (and fall risk scores) of every user per month, such that the percentiles
+-- of a population (a group or all users of a tenant) can be computed by merging the histograms of its users, instead of
+-- by sorting all fall risk profiles of the population.
+--
+-- `fall_risk_histogram_parameters` - For every parameter that is kept in a histogram: the range [lower_bound,
+--      upper_bound) that is divided into bin_count bins of equal width. The bins are numbered like width_bucket: bin 0
+--      holds the values below the range and bin bin_count + 1 the values at or above the upper bound.
+-- `fall_risk_histograms` - For every (user, month, parameter, bin): the number of (non-hidden, non-removed) fall risk
+--      profiles of the user that end in that month and of which the parameter falls into that bin. Bins without fall
+--      risk profiles are left out.
+--
+-- The histograms are kept up to date by triggers on the fall risk profiles (which are inserted by the analysis
+-- pipeline) and on the user-wearable links. Like the latest fall risk profiles (see V60), a change recomputes the
+-- histograms of the affected users and months from their fall risk profiles, as the owner of the tables (SECURITY
+-- DEFINER).
+
+CREATE TABLE fall_risk_histogram_parameters (
+    parameter character varying(32) NOT NULL,
+    lower_bound double precision NOT NULL,
+    upper_bound double precision NOT NULL,
+    bin_count integer NOT NULL,
+    PRIMARY KEY (parameter)
+);
+
+-- Walking speed in mm/s, step length in mm, step frequency in steps/s and the fall risk score on the 10 point scale.
+INSERT INTO fall_risk_histogram_parameters (parameter, lower_bound, upper_bound, bin_count)
+VALUES ('walking_speed', 0, 2000, 100),
+       ('step_length', 0, 2000, 100),
+       ('step_frequency', 0, 3, 100),
+       ('fall_risk_score', 0, 10, 100);
+
+CREATE TABLE fall_risk_histograms (
+    user_id bigint NOT NULL,
+    month timestamp without time zone NOT NULL,
+    parameter character varying(32) NOT NULL,
+    bin integer NOT NULL,
+    count integer NOT NULL,
+    PRIMARY KEY (user_id, parameter, month, bin)
+);
+
+-- The fall risk score (on the 10 point scale) of the given fall risk parameters. This mirrors
+-- FallRiskRegressionModel (and FallRiskScore.FALL_RISK_PROFILE_SQL) of the application, so it has to be replaced by a
+-- new migration whenever the coefficients of the model change.
+CREATE FUNCTION fall_risk_profile_score(
+    walking_speed double precision,
+    step_length double precision,
+    step_frequency double precision
+) RETURNS double precision
+    IMMUTABLE
+AS $$
+    SELECT CASE
+        WHEN walking_speed IS NULL OR step_length IS NULL OR step_frequency IS NULL THEN 0.0
+        WHEN t.total > 28.0 THEN 10.0
+        WHEN t.total <= 0.0 THEN 0.0
+        ELSE CAST(ROUND(CAST(t.total / 28.0 * 10.0 AS numeric), 2) AS double precision)
+    END
+    FROM (
+        SELECT 29.94 * walking_speed / 1000 + -10.845 * step_length / 1000 + -7.402 * step_frequency + 17.133 AS total
+    ) AS t;
+$$ LANGUAGE sql;
+
+-- Recomputes the histograms of the user with the given id, for the months from from_month up to and including to_month.
+CREATE FUNCTION refresh_fall_risk_histograms(
+    histogram_user_id bigint,
+    from_month timestamp,
+    to_month timestamp
+) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    DELETE FROM fall_risk_histograms
+    WHERE user_id = histogram_user_id
+    AND month BETWEEN from_month AND to_month;
+
+    WITH user_frps AS (
+        SELECT DISTINCT ON (frp.id)
+            date_trunc('month', frp.end_time) AS month,
+            frp.walking_speed,
+            frp.step_length,
+            frp.step_frequency
+        FROM user_wearable_links AS uwl
+        INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+            AND frp.begin_time >= uwl.begin_time
+            AND frp.end_time <= uwl.end_time
+        WHERE uwl.user_id = histogram_user_id
+        AND date_trunc('month', frp.end_time) BETWEEN from_month AND to_month
+        AND frp.hidden = false
+        AND frp.removed_at IS NULL
+    ), parameter_values AS (
+        SELECT month, 'walking_speed' AS parameter, walking_speed AS value FROM user_frps
+        UNION ALL
+        SELECT month, 'step_length', step_length FROM user_frps
+        UNION ALL
+        SELECT month, 'step_frequency', step_frequency FROM user_frps
+        UNION ALL
+        SELECT month, 'fall_risk_score', fall_risk_profile_score(walking_speed, step_length, step_frequency)
+        FROM user_frps
+    )
+    INSERT INTO fall_risk_histograms (user_id, month, parameter, bin, count)
+    SELECT
+        histogram_user_id,
+        v.month,
+        p.parameter,
+        width_bucket(v.value, p.lower_bound, p.upper_bound, p.bin_count) AS bin,
+        count(*)
+    FROM parameter_values AS v
+    INNER JOIN fall_risk_histogram_parameters AS p ON p.parameter = v.parameter
+    WHERE v.value IS NOT NULL
+    GROUP BY v.month, p.parameter, bin;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the histograms of the month of the given fall risk profile, for every user that it belongs to.
+CREATE FUNCTION refresh_fall_risk_histograms_of_profile(
+    frp_wearable_id character varying,
+    frp_begin_time timestamp,
+    frp_end_time timestamp
+) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    PERFORM refresh_fall_risk_histograms(
+        user_id,
+        date_trunc('month', frp_end_time),
+        date_trunc('month', frp_end_time)
+    )
+    FROM (
+        SELECT DISTINCT uwl.user_id
+        FROM user_wearable_links AS uwl
+        WHERE uwl.wearable_id = frp_wearable_id
+        AND frp_begin_time >= uwl.begin_time
+        AND frp_end_time <= uwl.end_time
+    ) AS affected_users;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION fall_risk_profiles_refresh_histograms() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_fall_risk_histograms_of_profile(OLD.wearable_id, OLD.begin_time, OLD.end_time);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_fall_risk_histograms_of_profile(NEW.wearable_id, NEW.begin_time, NEW.end_time);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION user_wearable_links_refresh_histograms() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_fall_risk_histograms(OLD.user_id, '-infinity', 'infinity');
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.user_id <> OLD.user_id) THEN
+        PERFORM refresh_fall_risk_histograms(NEW.user_id, '-infinity', 'infinity');
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER fall_risk_profiles_refresh_histograms_trigger
+    AFTER INSERT
+    OR UPDATE OF wearable_id, begin_time, end_time, hidden, removed_at, walking_speed, step_length, step_frequency
+    OR DELETE ON fall_risk_profiles
+    FOR EACH ROW EXECUTE PROCEDURE fall_risk_profiles_refresh_histograms();
+
+CREATE TRIGGER user_wearable_links_refresh_histograms_trigger
+    AFTER INSERT OR UPDATE OF user_id, wearable_id, begin_time, end_time OR DELETE ON user_wearable_links
+    FOR EACH ROW EXECUTE PROCEDURE user_wearable_links_refresh_histograms();
+
+-- Compute the histograms of the existing users.
+SELECT refresh_fall_risk_histograms(u.id, '-infinity', 'infinity') FROM users AS u;
+
+ALTER TABLE fall_risk_histograms
+    ENABLE ROW LEVEL SECURITY;
+CREATE POLICY fall_risk_histogram_select_isolation_policy ON fall_risk_histograms
+    FOR SELECT
+    USING (
+        EXISTS(
+            SELECT 1
+            FROM users AS u
+            WHERE u.id = fall_risk_histograms.user_id
+        )
+    );
+-- The histograms are only written by the (SECURITY DEFINER) functions above, so there are no policies for other
+-- operations. The histogram parameters are not tenant specific, so they are not subject to RLS.
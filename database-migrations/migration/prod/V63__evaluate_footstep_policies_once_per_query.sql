@@ -0,0 +1,65 @@
+-- Replaces the select policies of footsteps (see V58) and footstep_hourly_rollups (see V59) by cheaper equivalents.
+--
+-- The previous policies consist of EXISTS subqueries that are correlated with the footstep (or rollup) at hand, so the
+-- planner can only run them as a subplan that looks up the leases of the tenant (or composite user) for every
+-- candidate row. On large scans that is a nested loop per row, and none of the policy could be used to restrict the
+-- index scan on (wearable_id, timestamp) to the leased wearables.
+--
+-- The policies now look up the lease windows that are visible to the current access scope through
+-- visible_wearable_leases() instead:
+-- - The ids of the leased wearables are collected into an array by an uncorrelated subquery, which the planner runs
+--   once per query (as an InitPlan). The equality on wearable_id is leakproof, so the resulting
+--   `wearable_id = ANY (...)` condition can be used as an index condition, such that only the footsteps of the leased
+--   wearables are scanned.
+-- - The exact check, whether a footstep lies within one of the windows of its wearable, is still a correlated
+--   subquery, but on the result of a function that does not depend on the footstep. Its (materialized) result is
+--   reused for every row, so it no longer queries the leases (and users) per row.
+-- The function runs as its owner (SECURITY DEFINER, like refresh_footstep_hourly_rollups() of V59), so it is not
+-- subject to the RLS policies of the tables that it reads. It selects the leases of the current access scope itself,
+-- with the same conditions as the previous policies.
+
+-- Returns the lease windows of the wearables whose footsteps are visible to the tenant or composite user of the
+-- current access scope (see the app.tenant_id and app.composite_user_id configuration parameters). An open-ended lease
+-- is visible up to now.
+CREATE FUNCTION visible_wearable_leases()
+    RETURNS TABLE (
+        wearable_id character varying(255),
+        begin_time timestamp without time zone,
+        end_time timestamp without time zone
+    )
+    STABLE
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+    SELECT twl.wearable_id, twl.begin_time, COALESCE(twl.end_time, NOW())
+    FROM tenant_wearable_leases AS twl
+    WHERE twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+    UNION ALL
+    SELECT twl.wearable_id, twl.begin_time, COALESCE(twl.end_time, NOW())
+    FROM users AS u
+    INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+    WHERE u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+$$ LANGUAGE sql;
+
+ALTER POLICY footstep_select_isolation_policy ON footsteps
+    USING (
+        footsteps.wearable_id = ANY (ARRAY(SELECT vwl.wearable_id FROM visible_wearable_leases() AS vwl))
+        AND EXISTS(
+            SELECT 1
+            FROM visible_wearable_leases() AS vwl
+            WHERE footsteps.wearable_id = vwl.wearable_id
+            AND footsteps.timestamp BETWEEN vwl.begin_time AND vwl.end_time
+        )
+    );
+
+ALTER POLICY footstep_hourly_rollup_select_isolation_policy ON footstep_hourly_rollups
+    USING (
+        footstep_hourly_rollups.wearable_id = ANY (ARRAY(SELECT vwl.wearable_id FROM visible_wearable_leases() AS vwl))
+        AND EXISTS(
+            SELECT 1
+            FROM visible_wearable_leases() AS vwl
+            WHERE footstep_hourly_rollups.wearable_id = vwl.wearable_id
+            AND footstep_hourly_rollups.hour >= vwl.begin_time
+            AND footstep_hourly_rollups.hour + interval '1 hour' <= vwl.end_time
+        )
+    );
@@ -0,0 +1,31 @@
+-- V58 only created the footsteps partitions up to a year ahead of the migration. From now on, the application creates
+-- the partitions of the upcoming months periodically, through create_upcoming_footsteps_partitions(). A partition has
+-- to exist before the first footstep of its month arrives: footsteps of a month without a partition end up in the
+-- default partition, after which no partition can be created for that month anymore.
+--
+-- Attaching a partition requires ownership of the footsteps table, so the partitions are created as the owner (SECURITY
+-- DEFINER) rather than as the user of the application.
+
+-- Creates the partitions of the current month (in UTC, like the footstep timestamps) and of the given number of months
+-- ahead that do not exist yet. Concurrent calls are serialized by an advisory lock. Returns the number of partitions
+-- that were created.
+CREATE FUNCTION create_upcoming_footsteps_partitions(months_ahead integer) RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    current_month date := date_trunc('month', now() AT TIME ZONE 'UTC');
+    partition_month date;
+    created_count integer := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_upcoming_footsteps_partitions'));
+    FOR i IN 0..months_ahead LOOP
+        partition_month := current_month + i * interval '1 month';
+        IF to_regclass('footsteps_' || to_char(partition_month, 'YYYY_MM')) IS NULL THEN
+            PERFORM create_footsteps_partition(partition_month);
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,117 @@
+-- Replaces the footstep id watermark of the footstep hourly rollups (see V59) by a queue of the (wearable, floor, hour)
+-- buckets that have to be recomputed.
+--
+-- Footstep ids are drawn from the sequence when a footstep is inserted, not when it is committed. A footstep that was
+-- inserted before, but committed after, a footstep with a greater id could become visible only after a refresh had
+-- already moved the watermark past its id, in which case it was never rolled up. Instead, every inserted footstep now
+-- queues its bucket (by a trigger, so within the same transaction). A queued bucket becomes visible to a refresh at the
+-- same time as its footstep, so a refresh dequeues the buckets that it can see and recomputes them from the footsteps,
+-- which it can then see as well. The buckets of footsteps that are committed later stay queued for the next refresh.
+--
+-- The queue has no unique constraint, such that concurrent inserts never wait for each other or for a refresh. A bucket
+-- that is queued more than once is only recomputed once.
+
+CREATE TABLE footstep_hourly_rollup_queue (
+    wearable_id character varying(255) NOT NULL,
+    floor_id bigint,
+    hour timestamp without time zone NOT NULL
+);
+
+-- The queue is only written and read by the (SECURITY DEFINER) functions below, so there are no policies.
+ALTER TABLE footstep_hourly_rollup_queue
+    ENABLE ROW LEVEL SECURITY;
+
+CREATE FUNCTION queue_footstep_hourly_rollup() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    INSERT INTO footstep_hourly_rollup_queue (wearable_id, floor_id, hour)
+    VALUES (NEW.wearable_id, NEW.floor_id, date_trunc('hour', NEW.timestamp));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER footstep_hourly_rollup_queue_trigger
+    AFTER INSERT ON footsteps
+    FOR EACH ROW EXECUTE PROCEDURE queue_footstep_hourly_rollup();
+
+-- Recomputes the queued (wearable, floor, hour) buckets of the footsteps that have been committed since the previous
+-- refresh. Concurrent refreshes are serialized by locking the watermark. Returns the number of buckets that were
+-- recomputed.
+CREATE OR REPLACE FUNCTION refresh_footstep_hourly_rollups() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    bucket_count integer := 0;
+BEGIN
+    PERFORM 1 FROM footstep_hourly_rollup_watermark FOR UPDATE;
+
+    -- The queued buckets and the footsteps are read with the same snapshot, so every footstep of a dequeued bucket
+    -- that has been committed is part of its recomputation.
+    WITH dequeued_buckets AS (
+        DELETE FROM footstep_hourly_rollup_queue
+        RETURNING wearable_id, floor_id, hour
+    ), affected_buckets AS (
+        SELECT DISTINCT wearable_id, floor_id, hour
+        FROM dequeued_buckets
+    )
+    INSERT INTO footstep_hourly_rollups (
+        wearable_id,
+        floor_id,
+        hour,
+        step_count,
+        covered_distance,
+        first_step_time,
+        last_step_time
+    )
+    SELECT
+        s.wearable_id,
+        s.floor_id,
+        s.hour,
+        count(*),
+        COALESCE(sum(s.distance), 0),
+        min(s.timestamp),
+        max(s.timestamp)
+    FROM (
+        SELECT
+            b.wearable_id,
+            b.floor_id,
+            b.hour,
+            f.timestamp,
+            -- The distance to the previous positioned footstep of the bucket (NULL for footsteps without position).
+            sqrt((p.x - lag(p.x) OVER w) ^ 2 + (p.y - lag(p.y) OVER w) ^ 2) AS distance
+        FROM affected_buckets AS b
+        INNER JOIN footsteps AS f ON f.wearable_id = b.wearable_id
+            AND f.floor_id IS NOT DISTINCT FROM b.floor_id
+            AND f.timestamp >= b.hour
+            AND f.timestamp < b.hour + interval '1 hour'
+        LEFT JOIN footstep_positions AS p ON p.footstep_id = f.id
+        WINDOW w AS (PARTITION BY b.wearable_id, b.floor_id, b.hour, p.x IS NULL ORDER BY f.timestamp)
+    ) AS s
+    GROUP BY s.wearable_id, s.floor_id, s.hour
+    ON CONFLICT (wearable_id, (COALESCE(floor_id, -1)), hour) DO UPDATE SET
+        step_count = EXCLUDED.step_count,
+        covered_distance = EXCLUDED.covered_distance,
+        first_step_time = EXCLUDED.first_step_time,
+        last_step_time = EXCLUDED.last_step_time;
+    GET DIAGNOSTICS bucket_count = ROW_COUNT;
+
+    -- Footstep timestamps are in UTC. The current hour is not complete yet, so the rollups only cover the hours before.
+    UPDATE footstep_hourly_rollup_watermark
+    SET covered_until = date_trunc('hour', now() AT TIME ZONE 'UTC'),
+        refreshed_at = now();
+    RETURN bucket_count;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE footstep_hourly_rollup_watermark
+    DROP COLUMN last_footstep_id;
+
+-- Footsteps that were skipped by the id watermark may be part of any bucket, so recompute all of them.
+INSERT INTO footstep_hourly_rollup_queue (wearable_id, floor_id, hour)
+SELECT DISTINCT wearable_id, floor_id, date_trunc('hour', timestamp)
+FROM footsteps;
+
+SELECT refresh_footstep_hourly_rollups();
@@ -0,0 +1,91 @@
+-- Serializes the refreshes of the fall risk histograms (see V62) per user.
+--
+-- A refresh deletes the histograms of a user and inserts them again, computed from the fall risk profiles that it can
+-- see. When two transactions refreshed the histograms of the same user at the same time (e.g. both inserting a fall risk
+-- profile of that user), the second one could not delete the histograms inserted by the first one, and failed on the
+-- primary key when inserting its own, or it computed them from a snapshot without the fall risk profile of the first
+-- one. A refresh now first takes a transaction-level advisory lock on the histograms of the user. The statements after
+-- the lock see everything that the previous holder committed, and the histograms it inserted are deleted before they
+-- are recomputed. A user (rather than a (user, month)) is locked, as refreshes can span all months of a user.
+
+-- Recomputes the histograms of the user with the given id, for the months from from_month up to and including to_month.
+-- Holds the lock of the histograms of the user until the end of the transaction.
+CREATE OR REPLACE FUNCTION refresh_fall_risk_histograms(
+    histogram_user_id bigint,
+    from_month timestamp,
+    to_month timestamp
+) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('fall_risk_histograms'), hashtext(histogram_user_id::text));
+
+    DELETE FROM fall_risk_histograms
+    WHERE user_id = histogram_user_id
+    AND month BETWEEN from_month AND to_month;
+
+    WITH user_frps AS (
+        SELECT DISTINCT ON (frp.id)
+            date_trunc('month', frp.end_time) AS month,
+            frp.walking_speed,
+            frp.step_length,
+            frp.step_frequency
+        FROM user_wearable_links AS uwl
+        INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+            AND frp.begin_time >= uwl.begin_time
+            AND frp.end_time <= uwl.end_time
+        WHERE uwl.user_id = histogram_user_id
+        AND date_trunc('month', frp.end_time) BETWEEN from_month AND to_month
+        AND frp.hidden = false
+        AND frp.removed_at IS NULL
+    ), parameter_values AS (
+        SELECT month, 'walking_speed' AS parameter, walking_speed AS value FROM user_frps
+        UNION ALL
+        SELECT month, 'step_length', step_length FROM user_frps
+        UNION ALL
+        SELECT month, 'step_frequency', step_frequency FROM user_frps
+        UNION ALL
+        SELECT month, 'fall_risk_score', fall_risk_profile_score(walking_speed, step_length, step_frequency)
+        FROM user_frps
+    )
+    INSERT INTO fall_risk_histograms (user_id, month, parameter, bin, count)
+    SELECT
+        histogram_user_id,
+        v.month,
+        p.parameter,
+        width_bucket(v.value, p.lower_bound, p.upper_bound, p.bin_count) AS bin,
+        count(*)
+    FROM parameter_values AS v
+    INNER JOIN fall_risk_histogram_parameters AS p ON p.parameter = v.parameter
+    WHERE v.value IS NOT NULL
+    GROUP BY v.month, p.parameter, bin;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the histograms of the month of the given fall risk profile, for every user that it belongs to. The users
+-- are refreshed (and locked) in the order of their ids, such that concurrent refreshes do not deadlock.
+CREATE OR REPLACE FUNCTION refresh_fall_risk_histograms_of_profile(
+    frp_wearable_id character varying,
+    frp_begin_time timestamp,
+    frp_end_time timestamp
+) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    PERFORM refresh_fall_risk_histograms(
+        user_id,
+        date_trunc('month', frp_end_time),
+        date_trunc('month', frp_end_time)
+    )
+    FROM (
+        SELECT DISTINCT uwl.user_id
+        FROM user_wearable_links AS uwl
+        WHERE uwl.wearable_id = frp_wearable_id
+        AND frp_begin_time >= uwl.begin_time
+        AND frp_end_time <= uwl.end_time
+        ORDER BY uwl.user_id
+    ) AS affected_users;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,95 @@
+-- Serializes the refreshes of the latest fall risk profile (see V60 and V61) per user.
+--
+-- A refresh looks up the latest fall risk profile of a user with the snapshot of the transaction that triggered it, and
+-- upserts it. When a transaction inserted an older fall risk profile of a user while another transaction inserted a
+-- newer one, and committed after it, the refresh of the older one had not seen the newer one and replaced it. A refresh
+-- now first takes a transaction-level advisory lock on the latest fall risk profile of the user (like the histograms
+-- do, see V66), so it looks up the latest fall risk profile only after the previous holder has committed.
+--
+-- The repair compares all users against a single snapshot, so it could undo a refresh that was committed in the
+-- meantime in the same way. It now only determines which users differ, and refreshes those through the same (locked)
+-- function.
+
+-- Recomputes the latest fall risk profile of the user with the given id. Holds the lock of the latest fall risk profile
+-- of the user until the end of the transaction.
+CREATE OR REPLACE FUNCTION refresh_latest_fall_risk_profile(latest_user_id bigint) RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    latest_frp_id bigint;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('latest_fall_risk_profiles'), hashtext(latest_user_id::text));
+
+    SELECT frp.id INTO latest_frp_id
+    FROM user_wearable_links AS uwl
+    INNER JOIN users AS u ON u.id = uwl.user_id
+    INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+        AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+    WHERE uwl.user_id = latest_user_id
+    AND frp.removed_at IS NULL
+    ORDER BY frp.end_time DESC, frp.id DESC
+    LIMIT 1;
+
+    IF latest_frp_id IS NULL THEN
+        DELETE FROM latest_fall_risk_profiles WHERE user_id = latest_user_id;
+    ELSE
+        INSERT INTO latest_fall_risk_profiles (user_id, fall_risk_profile_id)
+        VALUES (latest_user_id, latest_frp_id)
+        ON CONFLICT (user_id) DO UPDATE SET fall_risk_profile_id = EXCLUDED.fall_risk_profile_id
+        WHERE latest_fall_risk_profiles.fall_risk_profile_id <> EXCLUDED.fall_risk_profile_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the latest fall risk profile of every user that was linked to the given wearable at the given time. The
+-- users are refreshed (and locked) in the order of their ids, such that concurrent refreshes do not deadlock.
+CREATE OR REPLACE FUNCTION refresh_latest_fall_risk_profiles_of_wearable(frp_wearable_id character varying, frp_end_time timestamp)
+    RETURNS void
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    PERFORM refresh_latest_fall_risk_profile(user_id)
+    FROM (
+        SELECT DISTINCT uwl.user_id
+        FROM user_wearable_links AS uwl
+        WHERE uwl.wearable_id = frp_wearable_id
+        AND frp_end_time BETWEEN uwl.begin_time AND uwl.end_time
+        ORDER BY uwl.user_id
+    ) AS affected_users;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Compares the latest fall risk profiles against a full recomputation and refreshes the users that differ. Returns the
+-- number of users for which the latest fall risk profile was repaired (0 when the table was consistent).
+CREATE OR REPLACE FUNCTION repair_latest_fall_risk_profiles() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    differing_user_id bigint;
+    repaired_count integer := 0;
+BEGIN
+    FOR differing_user_id IN
+        WITH expected AS (
+            SELECT DISTINCT ON (uwl.user_id) uwl.user_id, frp.id AS fall_risk_profile_id
+            FROM user_wearable_links AS uwl
+            INNER JOIN users AS u ON u.id = uwl.user_id
+            INNER JOIN fall_risk_profiles AS frp ON frp.wearable_id = uwl.wearable_id
+                AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time
+            WHERE frp.removed_at IS NULL
+            ORDER BY uwl.user_id, frp.end_time DESC, frp.id DESC
+        )
+        SELECT COALESCE(e.user_id, l.user_id)
+        FROM expected AS e
+        FULL JOIN latest_fall_risk_profiles AS l ON l.user_id = e.user_id
+        WHERE l.fall_risk_profile_id IS DISTINCT FROM e.fall_risk_profile_id
+        ORDER BY 1
+    LOOP
+        PERFORM refresh_latest_fall_risk_profile(differing_user_id);
+        repaired_count := repaired_count + 1;
+    END LOOP;
+    RETURN repaired_count;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,218 @@
+-- Partitions the footstep_positions table by month, like the footsteps table (see V58), and restores its foreign key to
+-- the footsteps.
+--
+-- V58 left footstep_positions as a regular table, as it had no timestamp to be partitioned on and as PostgreSQL 11 does
+-- not support foreign keys that reference a partitioned table. That meant that detaching a month of footsteps left the
+-- positions of that month behind, which then had to be removed by a mass delete. Instead, the positions now carry the
+-- timestamp of their footstep (backfilled from the footsteps) and are partitioned by the same monthly ranges. Every
+-- positions partition references the footsteps partition of the same month:
+--     footstep_positions_2020_01 (footstep_id, timestamp) -> footsteps_2020_01 (id, timestamp)
+-- which gives back the referential integrity and the ON DELETE CASCADE of the original foreign key (replacing the
+-- trigger of V58). A month is detached from both tables at once by detach_footsteps_partition(), after which both
+-- partitions can be archived or dropped together:
+--     DROP TABLE footstep_positions_2020_01, footsteps_2020_01;
+--
+-- Some remarks:
+-- - The positions are joined with their footsteps on both the id and the timestamp, such that only the positions
+--   partition of the month of a footstep has to be looked at.
+-- - The timestamp of a footstep can be updated within its month (which cascades to its position), but not to another
+--   month, as that would move the footstep to another partition (and cascade the delete to its position).
+-- - Positions of which the footstep does not exist anymore (which could only be left behind since V58) are not copied.
+
+ALTER TABLE footstep_positions RENAME TO footstep_positions_unpartitioned;
+
+CREATE TABLE footstep_positions (
+    footstep_id bigint NOT NULL,
+    timestamp timestamp without time zone NOT NULL,
+    x double precision NOT NULL,
+    y double precision NOT NULL
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE footstep_positions_default PARTITION OF footstep_positions DEFAULT;
+ALTER TABLE footstep_positions_default
+    ENABLE ROW LEVEL SECURITY;
+
+-- Create a positions partition for every (attached) footsteps partition. Their foreign keys are added after copying the
+-- positions, as that is faster than checking them during.
+DO $$
+DECLARE
+    partition_month date;
+    partition_name text;
+BEGIN
+    FOR partition_month IN
+        SELECT to_date(substring(c.relname FROM '^footsteps_(\d{4}_\d{2})$'), 'YYYY_MM')
+        FROM pg_inherits AS i
+        INNER JOIN pg_class AS c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'footsteps'::regclass
+        AND c.relname ~ '^footsteps_\d{4}_\d{2}$'
+    LOOP
+        partition_name := 'footstep_positions_' || to_char(partition_month, 'YYYY_MM');
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF footstep_positions FOR VALUES FROM (%L) TO (%L)',
+            partition_name,
+            partition_month::timestamp,
+            partition_month::timestamp + interval '1 month'
+        );
+        EXECUTE format('ALTER TABLE %I ENABLE ROW LEVEL SECURITY', partition_name);
+    END LOOP;
+END;
+$$;
+
+-- Copy the positions in chronological order, along with the timestamps of their footsteps.
+INSERT INTO footstep_positions (footstep_id, timestamp, x, y)
+SELECT p.footstep_id, f.timestamp, p.x, p.y
+FROM footstep_positions_unpartitioned AS p
+INNER JOIN footsteps AS f ON f.id = p.footstep_id
+ORDER BY f.timestamp;
+
+DROP TRIGGER footstep_position_delete_trigger ON footsteps;
+DROP FUNCTION delete_footstep_position();
+DROP TABLE footstep_positions_unpartitioned;
+
+ALTER TABLE footstep_positions
+    ADD CONSTRAINT footstep_positions_pkey PRIMARY KEY (footstep_id, timestamp);
+
+-- Adds the foreign key from the positions partition of the given month (or the default partition, when the month is
+-- NULL) to the footsteps partition of the same month.
+CREATE FUNCTION add_footstep_positions_partition_foreign_key(partition_month date) RETURNS void AS $$
+DECLARE
+    partition_suffix text := COALESCE(to_char(partition_month, 'YYYY_MM'), 'default');
+BEGIN
+    EXECUTE format(
+        'ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (footstep_id, timestamp) REFERENCES %I (id, timestamp) ' ||
+            'ON UPDATE CASCADE ON DELETE CASCADE',
+        'footstep_positions_' || partition_suffix,
+        'fk_footstep_position_' || partition_suffix,
+        'footsteps_' || partition_suffix
+    );
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    partition_month date;
+BEGIN
+    PERFORM add_footstep_positions_partition_foreign_key(NULL);
+    FOR partition_month IN
+        SELECT to_date(substring(c.relname FROM '^footstep_positions_(\d{4}_\d{2})$'), 'YYYY_MM')
+        FROM pg_inherits AS i
+        INNER JOIN pg_class AS c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'footstep_positions'::regclass
+        AND c.relname ~ '^footstep_positions_\d{4}_\d{2}$'
+    LOOP
+        PERFORM add_footstep_positions_partition_foreign_key(partition_month);
+    END LOOP;
+END;
+$$;
+
+-- Creates the partitions that hold the footsteps and the positions of the month of the given date, if they do not exist
+-- yet. Returns the name of the footsteps partition, e.g. footsteps_2020_01.
+CREATE OR REPLACE FUNCTION create_footsteps_partition(partition_month date) RETURNS text AS $$
+DECLARE
+    partition_begin timestamp := date_trunc('month', partition_month::timestamp);
+    partition_name text := 'footsteps_' || to_char(partition_begin, 'YYYY_MM');
+    positions_partition_name text := 'footstep_positions_' || to_char(partition_begin, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF footsteps FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        partition_begin,
+        partition_begin + interval '1 month'
+    );
+    EXECUTE format('ALTER TABLE %I ENABLE ROW LEVEL SECURITY', partition_name);
+    IF to_regclass(positions_partition_name) IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF footstep_positions FOR VALUES FROM (%L) TO (%L)',
+            positions_partition_name,
+            partition_begin,
+            partition_begin + interval '1 month'
+        );
+        EXECUTE format('ALTER TABLE %I ENABLE ROW LEVEL SECURITY', positions_partition_name);
+        PERFORM add_footstep_positions_partition_foreign_key(partition_begin::date);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the partitions that hold the footsteps and the positions of the month of the given date, such that they can
+-- be archived or dropped (together). Returns the name of the (now detached) footsteps partition.
+CREATE OR REPLACE FUNCTION detach_footsteps_partition(partition_month date) RETURNS text AS $$
+DECLARE
+    partition_name text := 'footsteps_' || to_char(partition_month, 'YYYY_MM');
+    positions_partition_name text := 'footstep_positions_' || to_char(partition_month, 'YYYY_MM');
+BEGIN
+    EXECUTE format('ALTER TABLE footstep_positions DETACH PARTITION %I', positions_partition_name);
+    EXECUTE format('ALTER TABLE footsteps DETACH PARTITION %I', partition_name);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Same as in V65, except that the positions are joined on the timestamp as well, such that only the positions partition
+-- of the month of a footstep is probed.
+CREATE OR REPLACE FUNCTION refresh_footstep_hourly_rollups() RETURNS integer
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+DECLARE
+    bucket_count integer := 0;
+BEGIN
+    PERFORM 1 FROM footstep_hourly_rollup_watermark FOR UPDATE;
+
+    -- The queued buckets and the footsteps are read with the same snapshot, so every footstep of a dequeued bucket
+    -- that has been committed is part of its recomputation.
+    WITH dequeued_buckets AS (
+        DELETE FROM footstep_hourly_rollup_queue
+        RETURNING wearable_id, floor_id, hour
+    ), affected_buckets AS (
+        SELECT DISTINCT wearable_id, floor_id, hour
+        FROM dequeued_buckets
+    )
+    INSERT INTO footstep_hourly_rollups (
+        wearable_id,
+        floor_id,
+        hour,
+        step_count,
+        covered_distance,
+        first_step_time,
+        last_step_time
+    )
+    SELECT
+        s.wearable_id,
+        s.floor_id,
+        s.hour,
+        count(*),
+        COALESCE(sum(s.distance), 0),
+        min(s.timestamp),
+        max(s.timestamp)
+    FROM (
+        SELECT
+            b.wearable_id,
+            b.floor_id,
+            b.hour,
+            f.timestamp,
+            -- The distance to the previous positioned footstep of the bucket (NULL for footsteps without position).
+            sqrt((p.x - lag(p.x) OVER w) ^ 2 + (p.y - lag(p.y) OVER w) ^ 2) AS distance
+        FROM affected_buckets AS b
+        INNER JOIN footsteps AS f ON f.wearable_id = b.wearable_id
+            AND f.floor_id IS NOT DISTINCT FROM b.floor_id
+            AND f.timestamp >= b.hour
+            AND f.timestamp < b.hour + interval '1 hour'
+        LEFT JOIN footstep_positions AS p ON p.footstep_id = f.id
+            AND p.timestamp = f.timestamp
+        WINDOW w AS (PARTITION BY b.wearable_id, b.floor_id, b.hour, p.x IS NULL ORDER BY f.timestamp)
+    ) AS s
+    GROUP BY s.wearable_id, s.floor_id, s.hour
+    ON CONFLICT (wearable_id, (COALESCE(floor_id, -1)), hour) DO UPDATE SET
+        step_count = EXCLUDED.step_count,
+        covered_distance = EXCLUDED.covered_distance,
+        first_step_time = EXCLUDED.first_step_time,
+        last_step_time = EXCLUDED.last_step_time;
+    GET DIAGNOSTICS bucket_count = ROW_COUNT;
+
+    -- Footstep timestamps are in UTC. The current hour is not complete yet, so the rollups only cover the hours before.
+    UPDATE footstep_hourly_rollup_watermark
+    SET covered_until = date_trunc('hour', now() AT TIME ZONE 'UTC'),
+        refreshed_at = now();
+    RETURN bucket_count;
+END;
+$$ LANGUAGE plpgsql;
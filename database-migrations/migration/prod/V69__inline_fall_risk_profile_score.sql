@@ -0,0 +1,27 @@
+-- Makes fall_risk_profile_score() (see V62) the only SQL copy of the fall risk regression model of the application
+-- (FallRiskRegressionModel). The application used to build the same formula from the Java coefficients
+-- (FallRiskScore.FALL_RISK_PROFILE_SQL), it now calls this function instead.
+--
+-- The function is rewritten to a single expression (without FROM clause), such that the planner inlines it into the
+-- queries that call it, which keeps it as cheap as the expression of the application was. Its result is unchanged.
+-- It still has to be replaced by a new migration whenever the coefficients of the model change, the integration tests
+-- compare it with FallRiskRegressionModel.
+CREATE OR REPLACE FUNCTION fall_risk_profile_score(
+    walking_speed double precision,
+    step_length double precision,
+    step_frequency double precision
+) RETURNS double precision
+    IMMUTABLE
+AS $$
+    SELECT CASE
+        WHEN walking_speed IS NULL OR step_length IS NULL OR step_frequency IS NULL THEN 0.0
+        WHEN 29.94 * walking_speed / 1000 + -10.845 * step_length / 1000 + -7.402 * step_frequency + 17.133 > 28.0
+            THEN 10.0
+        WHEN 29.94 * walking_speed / 1000 + -10.845 * step_length / 1000 + -7.402 * step_frequency + 17.133 <= 0.0
+            THEN 0.0
+        ELSE CAST(ROUND(CAST(
+            (29.94 * walking_speed / 1000 + -10.845 * step_length / 1000 + -7.402 * step_frequency + 17.133)
+                / 28.0 * 10.0 AS numeric
+        ), 2) AS double precision)
+    END;
+$$ LANGUAGE sql;
@@ -0,0 +1,29 @@
+-- Queues the (wearable, floor, hour) buckets of the footstep hourly rollups per insert statement, rather than per
+-- footstep (see V65).
+--
+-- The row-level trigger of V65 queued a row for every inserted footstep, so a batch of footsteps of the same wearable
+-- and hour queued the same bucket over and over, which every refresh then had to dequeue again. The statement-level
+-- trigger below reads the footsteps of the statement from its transition table and queues every distinct bucket once.
+-- Different statements (and transactions) may still queue the same bucket, so the queue keeps having no unique
+-- constraint and concurrent inserts still never wait for each other.
+-- Note: unlike row-level triggers, statement-level triggers of a partitioned table do not fire for statements on its
+-- partitions, so footsteps should be inserted into the footsteps table itself (rather than into one of its partitions).
+
+DROP TRIGGER footstep_hourly_rollup_queue_trigger ON footsteps;
+
+CREATE OR REPLACE FUNCTION queue_footstep_hourly_rollup() RETURNS trigger
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+BEGIN
+    INSERT INTO footstep_hourly_rollup_queue (wearable_id, floor_id, hour)
+    SELECT DISTINCT wearable_id, floor_id, date_trunc('hour', timestamp)
+    FROM inserted_footsteps;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER footstep_hourly_rollup_queue_trigger
+    AFTER INSERT ON footsteps
+    REFERENCING NEW TABLE AS inserted_footsteps
+    FOR EACH STATEMENT EXECUTE PROCEDURE queue_footstep_hourly_rollup();
@@ -0,0 +1,47 @@
+-- The prod migration V58 recreates the footsteps table (as a partitioned table) along with its policies, which undoes
+-- the loosened footsteps select policy of V51.1. Loosen it again, see V51.1 for the reasoning.
+ALTER POLICY footstep_select_isolation_policy ON footsteps
+    USING (
+        (current_setting('app.tenant_id', true) IS NOT NULL
+            AND (
+                EXISTS(
+                    SELECT 1
+                    FROM tenant_wearable_leases AS twl
+                    WHERE footsteps.wearable_id = twl.wearable_id
+                    AND twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+                    AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+                )
+                OR
+                EXISTS (
+                    SELECT 1
+                    FROM groups AS g
+                    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+                    WHERE g.tenant_id::TEXT = current_setting('app.tenant_id', true)
+                    AND footsteps.wearable_id = wgm.wearable_id
+                )
+            )
+        )
+        OR
+        (current_setting('app.composite_user_id', true) IS NOT NULL
+            AND (
+                EXISTS(
+                    SELECT 1
+                    FROM users AS u
+                    INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+                    WHERE footsteps.wearable_id = twl.wearable_id
+                    AND u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+                    AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+                )
+                OR
+                EXISTS (
+                    SELECT 1
+                    FROM groups AS g
+                    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+                    INNER JOIN group_users AS gu ON gu.group_id = g.id
+                    INNER JOIN users AS u ON u.id = gu.user_id
+                    WHERE u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+                    AND footsteps.wearable_id = wgm.wearable_id
+                )
+            )
+        )
+    );
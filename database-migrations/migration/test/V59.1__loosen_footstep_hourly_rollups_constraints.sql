@@ -0,0 +1,49 @@
+-- Like the footsteps select policy (see V51.1 and V58.1), loosen the footstep hourly rollups select policy of the prod
+-- migration V59 such that the rollups of a wearable can also be looked up based on wearable groups.
+ALTER POLICY footstep_hourly_rollup_select_isolation_policy ON footstep_hourly_rollups
+    USING (
+        (current_setting('app.tenant_id', true) IS NOT NULL
+            AND (
+                EXISTS(
+                    SELECT 1
+                    FROM tenant_wearable_leases AS twl
+                    WHERE footstep_hourly_rollups.wearable_id = twl.wearable_id
+                    AND twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+                    AND footstep_hourly_rollups.hour >= twl.begin_time
+                    AND footstep_hourly_rollups.hour + interval '1 hour' <= COALESCE(twl.end_time, NOW())
+                )
+                OR
+                EXISTS (
+                    SELECT 1
+                    FROM groups AS g
+                    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+                    WHERE g.tenant_id::TEXT = current_setting('app.tenant_id', true)
+                    AND footstep_hourly_rollups.wearable_id = wgm.wearable_id
+                )
+            )
+        )
+        OR
+        (current_setting('app.composite_user_id', true) IS NOT NULL
+            AND (
+                EXISTS(
+                    SELECT 1
+                    FROM users AS u
+                    INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+                    WHERE footstep_hourly_rollups.wearable_id = twl.wearable_id
+                    AND u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+                    AND footstep_hourly_rollups.hour >= twl.begin_time
+                    AND footstep_hourly_rollups.hour + interval '1 hour' <= COALESCE(twl.end_time, NOW())
+                )
+                OR
+                EXISTS (
+                    SELECT 1
+                    FROM groups AS g
+                    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+                    INNER JOIN group_users AS gu ON gu.group_id = g.id
+                    INNER JOIN users AS u ON u.id = gu.user_id
+                    WHERE u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+                    AND footstep_hourly_rollups.wearable_id = wgm.wearable_id
+                )
+            )
+        )
+    );
@@ -0,0 +1,35 @@
+-- The prod migration V63 replaces the loosened footsteps and footstep hourly rollups select policies of V58.1 and
+-- V59.1 by policies that look up the visible lease windows through visible_wearable_leases(). Loosen that function
+-- instead, such that the footsteps (and rollups) of the wearables of the wearable groups of the tenant's groups (or of
+-- the groups of the composite user's sub-users) are visible at any time, see V51.1 for the reasoning.
+CREATE OR REPLACE FUNCTION visible_wearable_leases()
+    RETURNS TABLE (
+        wearable_id character varying(255),
+        begin_time timestamp without time zone,
+        end_time timestamp without time zone
+    )
+    STABLE
+    SECURITY DEFINER
+    SET search_path = public
+AS $$
+    SELECT twl.wearable_id, twl.begin_time, COALESCE(twl.end_time, NOW())
+    FROM tenant_wearable_leases AS twl
+    WHERE twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+    UNION ALL
+    SELECT wgm.wearable_id, '-infinity'::timestamp, 'infinity'::timestamp
+    FROM groups AS g
+    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+    WHERE g.tenant_id::TEXT = current_setting('app.tenant_id', true)
+    UNION ALL
+    SELECT twl.wearable_id, twl.begin_time, COALESCE(twl.end_time, NOW())
+    FROM users AS u
+    INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+    WHERE u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+    UNION ALL
+    SELECT wgm.wearable_id, '-infinity'::timestamp, 'infinity'::timestamp
+    FROM groups AS g
+    INNER JOIN wearable_group_members AS wgm ON g.wearable_group_id = wgm.wearable_group_id
+    INNER JOIN group_users AS gu ON gu.group_id = g.id
+    INNER JOIN users AS u ON u.id = gu.user_id
+    WHERE u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+$$ LANGUAGE sql;
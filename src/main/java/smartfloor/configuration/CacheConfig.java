@@ -1,39 +1,65 @@
 package smartfloor.configuration;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import java.util.List;
-import java.util.Objects;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.Scheduled;
+import smartfloor.multitenancy.AccessScopedCache;
 
+/**
+ * Configures the local caches of the application. Every cache is bounded in size and in the time its entries are kept,
+ * see {@link CacheProperties}. The caches record their statistics, so Actuator exposes their hits, misses, evictions
+ * and sizes as "cache.*" metrics (tagged by cache name) through the metrics endpoint.
+ * Every cache scopes its keys to the access scope of the current request (see {@link AccessScopedCache}), so the
+ * results of the cached methods are never shared between tenants or principals.
+ */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
-    private static final String LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME = "latestFallRiskAssessments";
+    public static final String LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME = "latestFallRiskAssessments";
+    public static final String FALL_RISK_ASSESSMENTS_CACHE_NAME = "fallRiskAssessments";
+    public static final String GAIT_INDICATORS_CACHE_NAME = "gaitIndicators";
+    public static final String REHABILITATION_ANALYSES_CACHE_NAME = "rehabilitationAnalyses";
+    public static final String PRINCIPALS_CACHE_NAME = "principals";
+    public static final String ACCESS_GRAPHS_CACHE_NAME = "accessGraphs";
+
+    static final List<String> CACHE_NAMES = List.of(
+            LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME,
+            FALL_RISK_ASSESSMENTS_CACHE_NAME,
+            GAIT_INDICATORS_CACHE_NAME,
+            REHABILITATION_ANALYSES_CACHE_NAME,
+            PRINCIPALS_CACHE_NAME,
+            ACCESS_GRAPHS_CACHE_NAME
+    );
 
     /**
-     * TODO.
+     * Creates a cache manager with a bounded cache for each of the {@link #CACHE_NAMES}.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
-        ConcurrentMapCache latestFallRiskAssessmentsCache =
-                new ConcurrentMapCache(LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME);
-        cacheManager.setCaches(List.of(latestFallRiskAssessmentsCache));
+        cacheManager.setCaches(
+                CACHE_NAMES.stream()
+                        .map(cacheName -> createCache(cacheName, cacheProperties.getCacheSpec(cacheName)))
+                        .toList()
+        );
         return cacheManager;
     }
 
-    /**
-     * Clears the latest fall risk assessments cache periodically to remove no longer relevant entries.
-     */
-    @Scheduled(cron = "0 0 */3 * * *")
-    public void clearLatestFallRiskAssessmentsCache() {
-        Objects.requireNonNull(cacheManager().getCache(LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME)).clear();
+    static AccessScopedCache createCache(String cacheName, CacheProperties.CacheSpec cacheSpec) {
+        return new AccessScopedCache(
+                cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(cacheSpec.getMaximumSize())
+                        .expireAfterWrite(cacheSpec.getTimeToLive())
+                        .recordStats()
+                        .build()
+        );
     }
-
 }
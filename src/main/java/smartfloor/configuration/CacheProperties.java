@@ -0,0 +1,42 @@
+package smartfloor.configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The configuration of the local caches (see {@link CacheConfig}), bound from the "smartfloor.caches" properties. Every
+ * cache is configured by its name, e.g.:
+ * <pre>
+ * smartfloor.caches.latestFallRiskAssessments.maximum-size=1000
+ * smartfloor.caches.latestFallRiskAssessments.time-to-live=PT5M
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties("smartfloor")
+public class CacheProperties {
+
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    /**
+     * Get the configuration of the cache with the given name, or the default configuration if there is none.
+     */
+    public CacheSpec getCacheSpec(String cacheName) {
+        return caches.getOrDefault(cacheName, new CacheSpec());
+    }
+
+    /**
+     * The bounds of a single cache. Entries are evicted once the cache holds more than the maximum number of entries
+     * (least recently and least frequently used first), or once they were written longer than the time to live ago.
+     */
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private long maximumSize = 1000;
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
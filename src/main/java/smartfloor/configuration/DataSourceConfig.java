@@ -3,29 +3,35 @@ package smartfloor.configuration;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.Map;
 import java.util.Objects;
 import javax.sql.DataSource;
 import org.hibernate.jpa.HibernatePersistenceProvider;
-import org.postgresql.util.PSQLException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionDefinition;
 import smartfloor.domain.UserType;
 import smartfloor.multitenancy.AccessScopeContext;
 
@@ -33,38 +39,168 @@ public class DataSourceConfig {
 
 
 
+    /**
+     * <p>A data source that scopes every connection that it hands out to the tenant (or composite user) of the current
+     * access scope, by means of the configuration parameters that the RLS policies use.</p>
+     * The parameters are set for the session of the physical connection, so the access scope that was last applied to
+     * every physical connection is tracked and the parameters are only set (in a single round trip) when a checkout
+     * requires a different access scope. Since the parameters of the session are only changed here, a connection that
+     * is handed out always holds the access scope of the thread that checked it out.
+     */
     static class TenantAwareDataSource extends HikariDataSource {
 
         private static final Logger log = LoggerFactory.getLogger(TenantAwareDataSource.class);
 
+        private static final String SET_ACCESS_SCOPE_SQL =
+                "SELECT set_config('app.tenant_id', ?, false), set_config('app.composite_user_id', ?, false)";
+
+        // Weakly keyed (by identity), such that the entries of the physical connections that the pool closes are
+        // dropped.
+        private final Cache<Connection, AccessScope> appliedAccessScopes = Caffeine.newBuilder().weakKeys().build();
+
         @Override
         public Connection getConnection() throws SQLException {
             Connection connection = super.getConnection();
-            UserType currentUserType = AccessScopeContext.INSTANCE.getUserType();
-            if (currentUserType == UserType.COMPOSITE_USER) {
-                try (Statement sql = connection.createStatement()) {
-                    Long compositeUserId = AccessScopeContext.INSTANCE.getCompositeUserId();
-                    sql.execute(String.format("SET app.composite_user_id = '%d'", compositeUserId));
-                    sql.execute("SET app.tenant_id = 0");
-                } catch (PSQLException e) {
-                    log.error(
-                            "Unable to set app.composite_user_id parameter. Exception message: {}",
-                            e.getServerErrorMessage()
-                    );
+            applyAccessScope(connection, AccessScope.current());
+            return connection;
+        }
+
+        /**
+         * Apply the given access scope to the session of the given (pooled) connection, unless it was already the last
+         * access scope that was applied to its physical connection. When the access scope cannot be applied, the
+         * session may still hold the parameters of another access scope, so the connection is evicted from the pool
+         * (and closed) rather than handed out.
+         *
+         * @throws SQLException when the access scope cannot be applied
+         */
+        void applyAccessScope(Connection connection, AccessScope accessScope) throws SQLException {
+            Connection physicalConnection = connection.unwrap(Connection.class);
+            // A parameter that is set within a transaction is reset when the transaction is rolled back, so the applied
+            // access scope is only tracked when it is set outside a transaction (i.e. in auto-commit mode).
+            boolean isTracked = connection.getAutoCommit();
+            if (isTracked && accessScope.equals(appliedAccessScopes.getIfPresent(physicalConnection))) {
+                return;
+            }
+            appliedAccessScopes.invalidate(physicalConnection);
+            try (PreparedStatement sql = connection.prepareStatement(SET_ACCESS_SCOPE_SQL)) {
+                sql.setString(1, accessScope.tenantId());
+                sql.setString(2, accessScope.compositeUserId());
+                sql.execute();
+            } catch (SQLException e) {
+                log.error(
+                        "Unable to set app.tenant_id and app.composite_user_id parameters. Exception message: {}",
+                        e.getMessage()
+                );
+                evictConnection(connection);
+                try {
+                    connection.close();
+                } catch (SQLException closeException) {
+                    e.addSuppressed(closeException);
                 }
-            } else {
-                try (Statement sql = connection.createStatement()) {
-                    Long tenantId = AccessScopeContext.INSTANCE.getTenantId();
-                    sql.execute(String.format("SET app.tenant_id = '%d'", tenantId));
-                    sql.execute("SET app.composite_user_id = 0");
-                } catch (PSQLException e) {
-                    log.error(
-                            "Unable to set app.tenant_id parameter. Exception message: {}",
-                            e.getServerErrorMessage()
-                    );
+                throw new SQLException("Unable to apply the access scope to the connection", e);
+            }
+            if (isTracked) {
+                appliedAccessScopes.put(physicalConnection, accessScope);
+            }
+        }
+
+        /**
+         * The values of the app.tenant_id and app.composite_user_id parameters of an access scope.
+         */
+        record AccessScope(String tenantId, String compositeUserId) {
+
+            static AccessScope current() {
+                if (AccessScopeContext.INSTANCE.getUserType() == UserType.COMPOSITE_USER) {
+                    return new AccessScope("0", String.valueOf(AccessScopeContext.INSTANCE.getCompositeUserId()));
                 }
+                return new AccessScope(String.valueOf(AccessScopeContext.INSTANCE.getTenantId()), "0");
+            }
+        }
+    }
+
+    /**
+     * <p>Routes the connections of the transactions that are to be served by the read replica (see
+     * {@link ReadReplicaRouting}) to the replica, as long as it does not lag too far behind the primary (see
+     * {@link ReplicaLagMonitor}). All other connections are routed to the primary. Both are
+     * {@link TenantAwareDataSource}s, so a connection is scoped to the current access scope either way.</p>
+     * A connection is only obtained (and routed) when the first statement is run on it, so once its transaction has
+     * begun. A transaction that does not run any statement (e.g. of an analysis that is served from a cache) does not
+     * obtain a connection at all.
+     */
+    static class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final HikariDataSource primary;
+        private final HikariDataSource replica;
+        private final ReplicaLagMonitor replicaLagMonitor;
+
+        ReadReplicaRoutingDataSource(
+                HikariDataSource primary,
+                HikariDataSource replica,
+                ReadReplicaProperties readReplicaProperties
+        ) {
+            this.primary = primary;
+            this.replica = replica;
+            this.replicaLagMonitor = new ReplicaLagMonitor(replica, readReplicaProperties);
+            setTargetDataSource(new Router(primary, replica, replicaLagMonitor));
+            afterPropertiesSet();
+            replicaLagMonitor.start();
+        }
+
+        @Override
+        public void close() {
+            replicaLagMonitor.close();
+            replica.close();
+            primary.close();
+        }
+
+        private static class Router extends AbstractRoutingDataSource {
+
+            private static final String PRIMARY = "primary";
+            private static final String REPLICA = "replica";
+
+            private final ReplicaLagMonitor replicaLagMonitor;
+
+            Router(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+                this.replicaLagMonitor = replicaLagMonitor;
+                setTargetDataSources(Map.<Object, Object>of(PRIMARY, primary, REPLICA, replica));
+                setDefaultTargetDataSource(primary);
+                afterPropertiesSet();
+            }
+
+            @Override
+            protected Object determineCurrentLookupKey() {
+                if (ReadReplicaRouting.isRoutedToReplica() && replicaLagMonitor.isReplicaUpToDate()) {
+                    return REPLICA;
+                }
+                return PRIMARY;
+            }
+        }
+    }
+
+    /**
+     * A JPA transaction manager that keeps track of whether the transaction of the current thread is to be served by
+     * the read replica (see {@link ReadReplicaRouting}), for as long as the transaction runs.
+     */
+    static class ReadReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            ReadReplicaRouting.begin(definition);
+            try {
+                super.doBegin(transaction, definition);
+            } catch (RuntimeException e) {
+                ReadReplicaRouting.end();
+                throw e;
+            }
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            try {
+                super.doCleanupAfterCompletion(transaction);
+            } finally {
+                ReadReplicaRouting.end();
             }
-            return connection;
         }
     }
 
@@ -74,13 +210,18 @@ public class DataSourceConfig {
      */
     @Profile("prod")
     @Configuration
+    @EnableConfigurationProperties(ReadReplicaProperties.class)
     public static class DataSourceProdConfig {
 
         private static final String RDS_MIGRATION_SECRET_ENV_VAR_NAME = "RDS_MIGRATION_SECRET";
         private static final String RDS_MAIN_SECRET_ENV_VAR_NAME = "RDS_MAIN_SECRET";
+        private static final String RDS_REPLICA_SECRET_ENV_VAR_NAME = "RDS_REPLICA_SECRET";
 
         private final RDSSecret migrationsSecret;
         private final RDSSecret mainSecret;
+        // Null when no read replica is configured.
+        private final RDSSecret replicaSecret;
+        private final ReadReplicaProperties readReplicaProperties;
 
         private final Environment env;
         private final ObjectMapper objectMapper;
@@ -91,11 +232,19 @@ public class DataSourceConfig {
          * TODO.
          */
         @Autowired
-        public DataSourceProdConfig(Environment env, ObjectMapper objectMapper) throws JsonProcessingException {
+        public DataSourceProdConfig(
+                Environment env,
+                ObjectMapper objectMapper,
+                ReadReplicaProperties readReplicaProperties
+        ) throws JsonProcessingException {
             this.env = env;
             this.objectMapper = objectMapper;
+            this.readReplicaProperties = readReplicaProperties;
             migrationsSecret = extractEnvironmentRDSSecret(RDS_MIGRATION_SECRET_ENV_VAR_NAME);
             mainSecret = extractEnvironmentRDSSecret(RDS_MAIN_SECRET_ENV_VAR_NAME);
+            replicaSecret = env.containsProperty(RDS_REPLICA_SECRET_ENV_VAR_NAME) ?
+                    extractEnvironmentRDSSecret(RDS_REPLICA_SECRET_ENV_VAR_NAME) :
+                    null;
             log.info("Loaded data source production configuration.");
         }
 
@@ -105,10 +254,21 @@ public class DataSourceConfig {
             return createDataSourceBuilderFromSecret(migrationsSecret).type(HikariDataSource.class).build();
         }
 
+        /**
+         * The data source of the main database user. Read-only analysis transactions are routed to the read replica,
+         * if an RDS secret is injected for it as well (see {@link ReadReplicaRoutingDataSource}).
+         */
         @Primary
         @Bean(name = "mainDataSource")
         public DataSource mainDataSource() {
-            return createDataSourceBuilderFromSecret(mainSecret).type(TenantAwareDataSource.class).build();
+            TenantAwareDataSource primary =
+                    createDataSourceBuilderFromSecret(mainSecret).type(TenantAwareDataSource.class).build();
+            if (replicaSecret == null) {
+                return primary;
+            }
+            TenantAwareDataSource replica =
+                    createDataSourceBuilderFromSecret(replicaSecret).type(TenantAwareDataSource.class).build();
+            return new ReadReplicaRoutingDataSource(primary, replica, readReplicaProperties);
         }
 
         /**
@@ -116,7 +276,7 @@ public class DataSourceConfig {
          */
         @Bean(name = "transactionManager")
         public JpaTransactionManager jpaTransactionManager() {
-            JpaTransactionManager transactionManager = new JpaTransactionManager();
+            JpaTransactionManager transactionManager = new ReadReplicaRoutingTransactionManager();
             transactionManager.setEntityManagerFactory(entityManagerFactoryBean().getObject());
             return transactionManager;
         }
@@ -171,7 +331,7 @@ public class DataSourceConfig {
          * @param secret the RDS Secret containing credentials for the Postgres RDS instance
          * @return a (Postgres) data source builder object based on the secret that can be configured in more detail
          */
-        private static DataSourceBuilder createDataSourceBuilderFromSecret(RDSSecret secret) {
+        private static DataSourceBuilder<?> createDataSourceBuilderFromSecret(RDSSecret secret) {
             return DataSourceBuilder.create()
                     .url(
                             String.format(
@@ -283,7 +443,19 @@ public class DataSourceConfig {
      */
     @Configuration
     @Profile({"dev", "test"})
+    @EnableConfigurationProperties(ReadReplicaProperties.class)
     public static class DataSourceDevTestConfig {
+
+        private final ReadReplicaProperties readReplicaProperties;
+
+        /**
+         * Creates the configuration with the properties of the (optional) read replica.
+         */
+        @Autowired
+        public DataSourceDevTestConfig(ReadReplicaProperties readReplicaProperties) {
+            this.readReplicaProperties = readReplicaProperties;
+        }
+
         private static HibernateJpaVendorAdapter createHibernateVendorAdapter() {
             HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
             vendorAdapter.setShowSql(false);
@@ -313,15 +485,26 @@ public class DataSourceConfig {
         }
 
         /**
-         * TODO.
+         * The data source of the (RLS enabled) application user. Read-only analysis transactions are routed to the read
+         * replica, if its URL is configured as well (see {@link ReadReplicaRoutingDataSource}).
          */
         @Primary
         @Bean
         public DataSource mainDataSource() {
-            return dataSourceProperties()
+            TenantAwareDataSource primary = dataSourceProperties()
                     .initializeDataSourceBuilder()
                     .type(TenantAwareDataSource.class)
                     .build();
+            if (readReplicaProperties.getUrl() == null) {
+                return primary;
+            }
+            TenantAwareDataSource replica = DataSourceBuilder.create()
+                    .url(readReplicaProperties.getUrl())
+                    .username(readReplicaProperties.getUsername())
+                    .password(readReplicaProperties.getPassword())
+                    .type(TenantAwareDataSource.class)
+                    .build();
+            return new ReadReplicaRoutingDataSource(primary, replica, readReplicaProperties);
         }
 
         @Bean(name = "entityManagerFactory")
@@ -334,7 +517,7 @@ public class DataSourceConfig {
          */
         @Bean(name = "transactionManager")
         public JpaTransactionManager jpaTransactionManager() {
-            JpaTransactionManager transactionManager = new JpaTransactionManager();
+            JpaTransactionManager transactionManager = new ReadReplicaRoutingTransactionManager();
             transactionManager.setEntityManagerFactory(entityManagerFactoryBean().getObject());
             return transactionManager;
         }
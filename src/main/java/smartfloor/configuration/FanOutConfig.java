@@ -0,0 +1,20 @@
+package smartfloor.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import smartfloor.multitenancy.AccessScopedExecutor;
+
+/**
+ * Configures the executor that per-user work (e.g. a lookup for every user of a group) is fanned out to. The executor
+ * runs the work on virtual threads within the access scope of the request, see {@link AccessScopedExecutor}.
+ */
+@Configuration
+@EnableConfigurationProperties(FanOutProperties.class)
+public class FanOutConfig {
+
+    @Bean(destroyMethod = "close")
+    public AccessScopedExecutor accessScopedExecutor(FanOutProperties fanOutProperties) {
+        return new AccessScopedExecutor(fanOutProperties.getMaxConcurrency());
+    }
+}
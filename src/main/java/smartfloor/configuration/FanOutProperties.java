@@ -0,0 +1,21 @@
+package smartfloor.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The configuration of the executor that per-user work is fanned out to (see {@link FanOutConfig}), bound from the
+ * "smartfloor.fan-out" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("smartfloor.fan-out")
+public class FanOutProperties {
+
+    /**
+     * The maximum number of tasks that run at the same time (over all requests). Every task may hold a database
+     * connection, so this should stay well below the size of the connection pool.
+     */
+    private int maxConcurrency = 4;
+}
@@ -0,0 +1,54 @@
+package smartfloor.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The configuration of the read replica that read-only analysis transactions are routed to (see
+ * {@link ReadReplicaRouting}), bound from the "smartfloor.read-replica" properties. In production, the connection
+ * details are sourced from an RDS secret instead (see DataSourceConfig.DataSourceProdConfig).
+ */
+@Getter
+@Setter
+@ConfigurationProperties("smartfloor.read-replica")
+public class ReadReplicaProperties {
+
+    /**
+     * The query that returns how far (in seconds) the replica lags behind the primary. By default, a streaming
+     * replication standby is assumed. Its lag is unknown (NULL) unless its WAL receiver is streaming from the primary,
+     * as a standby that is disconnected (or still connecting) has replayed everything it received, yet it may be
+     * arbitrarily far behind. While streaming, it does not lag once it has replayed everything that it received,
+     * otherwise it lags by the time since the last transaction that it replayed. The status of the WAL receiver is only
+     * visible to members of pg_read_all_stats (e.g. through pg_monitor), so the replica's database user should be one;
+     * otherwise the lag is always unknown and every transaction is served by the primary.
+     */
+    public static final String STANDBY_LAG_QUERY = "SELECT CASE" +
+            " WHEN (SELECT status FROM pg_stat_wal_receiver) IS DISTINCT FROM 'streaming' THEN NULL" +
+            " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0" +
+            " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())" +
+            " END";
+
+    /**
+     * The JDBC URL of the replica (for the dev and test environments). No replica is used when it is not set.
+     */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * The lag beyond which (or when the lag is unknown) transactions are served by the primary instead.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * The delay between two (background) lookups of the lag. It should be well below the max lag, as a lookup only
+     * vouches for the replica until the max lag minus the lag that it found has passed.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    private String lagQuery = STANDBY_LAG_QUERY;
+}
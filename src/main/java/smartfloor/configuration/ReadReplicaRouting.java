@@ -0,0 +1,50 @@
+package smartfloor.configuration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+/**
+ * <p>Keeps track of whether the transaction of the current thread is to be served by the read replica (see
+ * {@link ReadReplicaProperties}). That is the case for read-only transactions that are labeled with {@link #LABEL},
+ * e.g. {@code @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)}.</p>
+ * Other read-only transactions are not routed, as the replica may lag behind the primary. For example, Spring Data runs
+ * every repository method (e.g. findById) in a read-only transaction of its own, which would not see a write that
+ * immediately preceded it. A labeled transaction is still served by the primary when no replica is configured or when
+ * the replica lags too far behind.
+ */
+public final class ReadReplicaRouting {
+
+    public static final String LABEL = "read-replica";
+
+    // A stack, as a transaction that requires a new transaction suspends the transaction of the thread until it ends.
+    private static final ThreadLocal<Deque<Boolean>> IS_ROUTED_TO_REPLICA = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private ReadReplicaRouting() {
+    }
+
+    /**
+     * Whether a (new) transaction with the given definition is to be served by the read replica.
+     */
+    static boolean isRoutedToReplica(TransactionDefinition definition) {
+        return definition.isReadOnly() &&
+                definition instanceof TransactionAttribute transactionAttribute &&
+                transactionAttribute.getLabels().contains(LABEL);
+    }
+
+    /**
+     * Whether the transaction of the current thread is to be served by the read replica.
+     */
+    static boolean isRoutedToReplica() {
+        return Boolean.TRUE.equals(IS_ROUTED_TO_REPLICA.get().peek());
+    }
+
+    static void begin(TransactionDefinition definition) {
+        IS_ROUTED_TO_REPLICA.get().push(isRoutedToReplica(definition));
+    }
+
+    static void end() {
+        IS_ROUTED_TO_REPLICA.get().poll();
+    }
+}
@@ -0,0 +1,117 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Decides whether the read replica is close enough to the primary to serve transactions, by looking up its lag (see
+ * {@link ReadReplicaProperties#getLagQuery()}) on a background thread once per lag check interval. Request threads
+ * only read the outcome of the last lookup, so a replica that is slow to respond (or unreachable) never holds them
+ * up.</p>
+ * A lookup that found a lag L only vouches for the replica until max lag - L has passed: if no later lookup has
+ * completed by then (e.g. because it is waiting for a connection to an unreachable replica), the replica may have
+ * fallen behind unnoticed and transactions are served by the primary. Until the lag has been looked up for the first
+ * time, or when the lookup fails, the replica is not used either.
+ */
+class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagNanos;
+    private final long lagCheckIntervalNanos;
+    private final LongSupplier nanoTime;
+    private final ScheduledExecutorService scheduler;
+
+    // The (System.nanoTime) time until which the replica is known to lag no further behind than the max lag.
+    private volatile long upToDateUntil;
+
+    ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties) {
+        this(replica, properties, System::nanoTime);
+    }
+
+    ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties, LongSupplier nanoTime) {
+        this.replica = replica;
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagNanos = properties.getMaxLag().toNanos();
+        this.lagCheckIntervalNanos = properties.getLagCheckInterval().toNanos();
+        this.nanoTime = nanoTime;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-lag-monitor").daemon().factory()
+        );
+        this.upToDateUntil = nanoTime.getAsLong();
+    }
+
+    /**
+     * Starts looking up the lag of the replica in the background, once per lag check interval.
+     */
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::checkLag, 0, lagCheckIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Whether the last lookup of the lag of the replica still vouches for it lagging no further behind than the max
+     * lag.
+     */
+    boolean isReplicaUpToDate() {
+        return nanoTime.getAsLong() - upToDateUntil < 0;
+    }
+
+    void checkLag() {
+        long checkTime = nanoTime.getAsLong();
+        Double lagSeconds = lookUpLagSeconds();
+        if (lagSeconds == null) {
+            upToDateUntil = checkTime;
+            return;
+        }
+        long lagNanos = (long) (lagSeconds * TimeUnit.SECONDS.toNanos(1));
+        if (lagNanos > maxLagNanos) {
+            log.warn("The read replica lags too far behind (lag: {} s), falling back to the primary.", lagSeconds);
+            upToDateUntil = checkTime;
+            return;
+        }
+        upToDateUntil = checkTime + maxLagNanos - lagNanos;
+    }
+
+    /**
+     * Looks up the lag of the replica, or returns null when it is unknown.
+     */
+    private Double lookUpLagSeconds() {
+        try (
+                Connection connection = replica.getConnection();
+                Statement sql = connection.createStatement()
+        ) {
+            // A lookup that takes longer than the max lag could not vouch for the replica anyway.
+            sql.setQueryTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(maxLagNanos)));
+            try (ResultSet resultSet = sql.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                double lagSeconds = resultSet.getDouble(1);
+                if (resultSet.wasNull()) {
+                    log.warn("The lag of the read replica is unknown, falling back to the primary.");
+                    return null;
+                }
+                return lagSeconds;
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Unable to look up the lag of the read replica, falling back to the primary.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package smartfloor.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the execution of scheduled tasks, such as the periodic refresh of the footstep hourly rollups. Scheduled
+ * tasks are not executed during tests, where the database is migrated (and cleaned) for every test suite.
+ */
+@Configuration
+@EnableScheduling
+@Profile({"prod", "dev"})
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package smartfloor.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +16,7 @@ import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.exception.UserNotFoundException;
 import smartfloor.domain.exception.WearableNotFoundException;
+import smartfloor.domain.indicators.Indicator;
 import smartfloor.domain.indicators.footstep.AverageSpeed;
 import smartfloor.domain.indicators.footstep.AverageStrideFrequency;
 import smartfloor.domain.indicators.footstep.AverageStrideLength;
@@ -184,4 +186,48 @@ public class AnalysisController {
         User user = userService.getUser(userId);
         return analysisService.getStrideFrequencyForUserWithinTimeWindow(user, new TimeWindow(beginTime, endTime));
     }
+
+    /*
+     ****************************************
+     * GAIT SUMMARY
+     ****************************************
+     */
+
+    /**
+     * Get all gait indicators (covered distance, first-to-last step distance, average speed, average stride length and
+     * average stride frequency) for a user within a time window, computed from a single fetch of the footsteps.
+     *
+     * @return the gait indicators for the user
+     */
+    @Operation(description = "Get all gait indicators of a user in a time frame")
+    @GetMapping("/gait-summary/users/{userId}")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Indicator> getGaitIndicatorsForUserWithinTimeWindow(
+            @PathVariable(value = "userId") Long userId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime
+    ) throws UserNotFoundException {
+        User user = userService.getUser(userId);
+        return analysisService.getGaitIndicatorsForUserWithinTimeWindow(user, new TimeWindow(beginTime, endTime));
+    }
+
+    /**
+     * Get all gait indicators for a wearable within a time window, computed from a single fetch of the footsteps.
+     *
+     * @return the gait indicators for the wearable
+     */
+    @Operation(description = "Get all gait indicators of a wearable in a time frame")
+    @GetMapping("/gait-summary/wearables/{wearableId}")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Indicator> getGaitIndicatorsForWearableWithinTimeWindow(
+            @PathVariable(value = "wearableId") String wearableId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime
+    ) throws WearableNotFoundException {
+        Wearable wearable = wearableService.getWearable(wearableId);
+        return analysisService.getGaitIndicatorsForWearableWithinTimeWindow(
+                wearable,
+                new TimeWindow(beginTime, endTime)
+        );
+    }
 }
@@ -6,7 +6,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
@@ -16,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import smartfloor.configuration.CacheConfig;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.User;
@@ -157,7 +157,7 @@ public class FallRiskAnalysisController {
     @GetMapping("/latest/groups/{groupId}")
     @ResponseStatus(HttpStatus.OK)
     @Cacheable(
-            value = "latestFallRiskAssessments",
+            value = CacheConfig.LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME,
             key = "{#groupId, #beginTime, T(smartfloor.controller.FallRiskAnalysisController" +
                     ".CacheKeyHelper).getLastFiveMinuteInterval(#endTime)}"
     )
@@ -166,11 +166,7 @@ public class FallRiskAnalysisController {
     ) throws GroupNotFoundException {
         Group group = groupService.getGroup(groupId);
         TimeWindow timeWindow = new TimeWindow(beginTime, endTime);
-        return group.getUsers().stream()
-                .map(u -> analysisService.computeLatestBestFallRiskAssessmentsForUserWithinTimeWindow(u, timeWindow))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .toList();
+        return analysisService.computeLatestBestFallRiskAssessmentsForGroupWithinTimeWindow(group, timeWindow);
     }
 
     /**
@@ -1,18 +1,27 @@
 package smartfloor.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.Date;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import smartfloor.domain.ColumnarFootsteps;
+import smartfloor.domain.FootstepPage;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.User;
@@ -20,6 +29,7 @@ import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.exception.UserNotFoundException;
 import smartfloor.domain.exception.WearableNotFoundException;
 import smartfloor.repository.jpa.FootstepRepository;
+import smartfloor.repository.jpa.projections.FootstepProjection;
 import smartfloor.service.FootstepService;
 import smartfloor.service.UserService;
 import smartfloor.service.WearableService;
@@ -29,9 +39,12 @@ import smartfloor.service.WearableService;
 @RequestMapping("/footsteps")
 public class FootstepController {
 
+    private static final String DEFAULT_PAGE_SIZE = "1000";
+
     private final FootstepService footstepService;
     private final WearableService wearableService;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     /**
      * TODO.
@@ -40,11 +53,13 @@ public class FootstepController {
     public FootstepController(
             FootstepService footstepService,
             WearableService wearableService,
-            UserService userService
+            UserService userService,
+            ObjectMapper objectMapper
     ) {
         this.footstepService = footstepService;
         this.wearableService = wearableService;
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(description = "Get all footsteps for a given user within a given time window.")
@@ -71,6 +86,131 @@ public class FootstepController {
         return footstepService.getForWearableWithinTimeWindow(wearable, new TimeWindow(beginTime, endTime));
     }
 
+    /**
+     * Get a page of the footsteps for a given user within a given time window (ordered by time). The first page is
+     * requested without a cursor, every next page with the cursor that was returned along with the previous page.
+     */
+    @Operation(description = "Get a page of the footsteps for a given user within a given time window.")
+    @GetMapping(value = "/users/{userId}/page")
+    @ResponseStatus(HttpStatus.OK)
+    public FootstepPage getPageForUserWithinTimeWindow(
+            @PathVariable("userId") Long userId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size
+    ) throws UserNotFoundException {
+        User user = userService.getUser(userId);
+        return footstepService.getPageForUserWithinTimeWindow(user, new TimeWindow(beginTime, endTime), cursor, size);
+    }
+
+    /**
+     * Get a page of the footsteps for a given wearable within a given time window (ordered by time).
+     * See also {@link #getPageForUserWithinTimeWindow}.
+     */
+    @Operation(description = "Get a page of the footsteps for a given wearable within a given time window.")
+    @GetMapping(value = "/wearables/{wearableId}/page")
+    @ResponseStatus(HttpStatus.OK)
+    public FootstepPage getPageForWearableWithinTimeWindow(
+            @PathVariable("wearableId") String wearableId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size
+    ) throws WearableNotFoundException {
+        Wearable wearable = wearableService.getWearable(wearableId);
+        return footstepService.getPageForWearableWithinTimeWindow(
+                wearable,
+                new TimeWindow(beginTime, endTime),
+                cursor,
+                size
+        );
+    }
+
+    /**
+     * Streams all footsteps for a given user within a given time window as newline-delimited JSON (one footstep per
+     * line). Footsteps are written to the response as they are read from the database, so the memory usage of this
+     * endpoint does not depend on the length of the time window.
+     */
+    @Operation(description = "Stream all footsteps for a given user within a given time window as NDJSON.")
+    @GetMapping(value = "/users/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void streamForUserWithinTimeWindow(
+            @PathVariable("userId") Long userId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            HttpServletResponse response
+    ) throws UserNotFoundException, IOException {
+        User user = userService.getUser(userId);
+        TimeWindow timeWindow = new TimeWindow(beginTime, endTime);
+        try (SequenceWriter writer = createNdjsonWriter(response)) {
+            footstepService.streamForUserWithinTimeWindow(user, timeWindow, writeTo(writer));
+        }
+    }
+
+    /**
+     * Streams all footsteps for a given wearable within a given time window as newline-delimited JSON (one footstep
+     * per line). See also {@link #streamForUserWithinTimeWindow}.
+     */
+    @Operation(description = "Stream all footsteps for a given wearable within a given time window as NDJSON.")
+    @GetMapping(value = "/wearables/{wearableId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void streamForWearableWithinTimeWindow(
+            @PathVariable("wearableId") String wearableId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            HttpServletResponse response
+    ) throws WearableNotFoundException, IOException {
+        Wearable wearable = wearableService.getWearable(wearableId);
+        TimeWindow timeWindow = new TimeWindow(beginTime, endTime);
+        try (SequenceWriter writer = createNdjsonWriter(response)) {
+            footstepService.streamForWearableWithinTimeWindow(wearable, timeWindow, writeTo(writer));
+        }
+    }
+
+    /**
+     * Get all footsteps for a given user within a given time window in their columnar representation, see
+     * {@link ColumnarFootsteps}. Clients request this representation through the Accept header. The timestamps can
+     * optionally be delta-encoded.
+     */
+    @Operation(description = "Get all footsteps for a given user within a given time window as columns.")
+    @GetMapping(value = "/users/{userId}", produces = ColumnarFootsteps.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.OK)
+    public ColumnarFootsteps getColumnarForUserWithinTimeWindow(
+            @PathVariable("userId") Long userId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "timeEncoding", defaultValue = "ABSOLUTE") ColumnarFootsteps.TimeEncoding timeEncoding
+    ) throws UserNotFoundException {
+        User user = userService.getUser(userId);
+        return footstepService.getColumnarForUserWithinTimeWindow(
+                user,
+                new TimeWindow(beginTime, endTime),
+                timeEncoding
+        );
+    }
+
+    /**
+     * Get all footsteps for a given wearable within a given time window in their columnar representation.
+     * See also {@link #getColumnarForUserWithinTimeWindow}.
+     */
+    @Operation(description = "Get all footsteps for a given wearable within a given time window as columns.")
+    @GetMapping(value = "/wearables/{wearableId}", produces = ColumnarFootsteps.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.OK)
+    public ColumnarFootsteps getColumnarForWearableWithinTimeWindow(
+            @PathVariable("wearableId") String wearableId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "timeEncoding", defaultValue = "ABSOLUTE") ColumnarFootsteps.TimeEncoding timeEncoding
+    ) throws WearableNotFoundException {
+        Wearable wearable = wearableService.getWearable(wearableId);
+        return footstepService.getColumnarForWearableWithinTimeWindow(
+                wearable,
+                new TimeWindow(beginTime, endTime),
+                timeEncoding
+        );
+    }
+
     /**
      * Retrieve number of footsteps made per wearable within a certain timeframe.
      */
@@ -81,6 +221,47 @@ public class FootstepController {
             @RequestParam("begin") long beginTime,
             @RequestParam("end") long endTime
     ) {
-        return footstepService.getCountsWithinTimeWindow(new Date(beginTime), new Date(endTime));
+        return footstepService.getCountsWithinTimeWindow(new TimeWindow(beginTime, endTime));
+    }
+
+    /**
+     * Get the hourly rollups (step count, covered distance, first and last step time) of the footsteps of a given
+     * wearable, for the hours that start within a given time window.
+     */
+    @Operation(description = "Get the hourly rollups of the footsteps of a given wearable within a given time window.")
+    @GetMapping(value = "/wearables/{wearableId}/hourly")
+    @ResponseStatus(HttpStatus.OK)
+    public List<FootstepRepository.HourlyFootstepRollup> getHourlyRollupsForWearableWithinTimeWindow(
+            @PathVariable("wearableId") String wearableId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime
+    ) throws WearableNotFoundException {
+        Wearable wearable = wearableService.getWearable(wearableId);
+        return footstepService.getHourlyRollupsForWearableWithinTimeWindow(
+                wearable,
+                new TimeWindow(beginTime, endTime)
+        );
+    }
+
+    /**
+     * Creates a writer that writes footsteps to the response body as newline-delimited JSON. We do not flush after
+     * every footstep, the servlet container sends the body in chunks whenever its response buffer is full.
+     */
+    private SequenceWriter createNdjsonWriter(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return objectMapper.writerFor(Footstep.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream());
+    }
+
+    private static Consumer<FootstepProjection> writeTo(SequenceWriter writer) {
+        return footstep -> {
+            try {
+                writer.write(footstep.toFootstep());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
     }
 }
@@ -2,22 +2,30 @@ package smartfloor.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import smartfloor.domain.dto.UserLimit;
 import smartfloor.domain.entities.Tenant;
 import smartfloor.domain.entities.User;
+import smartfloor.service.TenantService;
 
-@Tag(name = "Tenant API", description = "Provides a method for checking a tenant's user limit.")
+@Tag(name = "Tenant API", description = "Provides methods for checking a tenant's user limit and evicting its caches.")
 @RestController
 @RequestMapping("/tenants")
 public class TenantController {
 
-    public TenantController() {
+    private final TenantService tenantService;
+
+    @Autowired
+    public TenantController(TenantService tenantService) {
+        this.tenantService = tenantService;
     }
 
     /**
@@ -30,4 +38,14 @@ public class TenantController {
         Tenant tenant = user.getTenant();
         return new UserLimit(tenant.getUserLimit());
     }
+
+    /**
+     * Evict the cached results (e.g. analyses) that may contain data of the tenant with the given id.
+     */
+    @Operation(description = "Evict the cached results that may contain data of the tenant with given identifier.")
+    @DeleteMapping("/{tenantId}/caches")
+    @ResponseStatus(HttpStatus.OK)
+    public void evictCaches(@PathVariable Long tenantId) {
+        tenantService.evictCaches(tenantId);
+    }
 }
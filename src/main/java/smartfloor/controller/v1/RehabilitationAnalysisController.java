@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import smartfloor.configuration.CacheConfig;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
@@ -34,6 +36,12 @@ import smartfloor.service.WearableService;
 @RestController
 @RequestMapping("/v1/analyses/rehabilitation")
 public class RehabilitationAnalysisController {
+    /**
+     * The (access scoped, see CacheConfig) cache keys of the analyses of a user or a wearable within a time window.
+     */
+    private static final String USER_CACHE_KEY = "{#root.methodName, #userId, #beginTime, #endTime}";
+    private static final String WEARABLE_CACHE_KEY = "{#root.methodName, #wearableId, #beginTime, #endTime}";
+
     private final RehabilitationAnalysisService rehabilitationAnalysisService;
     private final RehabilitationService rehabilitationService;
     private final UserService userService;
@@ -62,6 +70,7 @@ public class RehabilitationAnalysisController {
     @Operation(description = "Get an ad-hoc ten meter walking test result for a given wearable id and time window.")
     @GetMapping("/tests/ten-meter-walking/wearables/{wearableId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public TenMeterWalking getTenMeterWalkingTestForWearableWithinTimeWindow(
             @PathVariable(value = "wearableId") String wearableId,
             @RequestParam("begin") long beginTime,
@@ -80,6 +89,7 @@ public class RehabilitationAnalysisController {
     @Operation(description = "Get all Ten Meter Walking test results for a given user and time window.")
     @GetMapping("/tests/ten-meter-walking/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = USER_CACHE_KEY)
     public List<TenMeterWalking> getTenMeterWalkingTestResultsForUserWithinTimeWindow(
             @PathVariable Long userId,
             @RequestParam("begin") long beginTime,
@@ -101,6 +111,7 @@ public class RehabilitationAnalysisController {
      */
     @GetMapping("/tests/timed-up-and-go/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = USER_CACHE_KEY)
     public List<TimedUpNGo> getTimedUpNGoTestResultsForUserWithinTimeWindow(
             @PathVariable Long userId,
             @RequestParam("begin") long beginTime,
@@ -126,6 +137,7 @@ public class RehabilitationAnalysisController {
     @Operation(description = "Get an ad-hoc six minute walking test result for a given wearable id and time window.")
     @GetMapping("/tests/six-minute-walking/wearables/{wearableId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public SixMinuteWalking getSixMinuteWalkingTestForWearableWithinTimeWindow(
             @PathVariable(value = "wearableId") String wearableId,
             @RequestParam("begin") long beginTime,
@@ -143,6 +155,7 @@ public class RehabilitationAnalysisController {
      */
     @GetMapping("/tests/six-minute-walking/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = USER_CACHE_KEY)
     public List<SixMinuteWalking> getSixMinuteWalkingTestResultsForUserWithinTimeWindow(
             @PathVariable Long userId,
             @RequestParam("begin") long beginTime,
@@ -165,6 +178,7 @@ public class RehabilitationAnalysisController {
     @Operation(description = "Get all Walk test results for a given user and time window.")
     @GetMapping("/tests/walk/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = USER_CACHE_KEY)
     public List<Walk> getWalkTestResultsForUserWithinTimeWindow(
             @PathVariable Long userId,
             @RequestParam("begin") long beginTime,
@@ -183,6 +197,7 @@ public class RehabilitationAnalysisController {
     @Operation(description = "Get an ad-hoc walk test result for a given wearable id and time window.")
     @GetMapping("/tests/walk/wearables/{wearableId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public Walk getWalkTestForWearableWithinTimeWindow(
             @PathVariable(value = "wearableId") String wearableId,
             @RequestParam("begin") long beginTime,
@@ -6,27 +6,53 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import smartfloor.configuration.CacheConfig;
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.ColumnarFallRiskScores;
+import smartfloor.domain.FallRiskParameter;
+import smartfloor.domain.FallRiskPercentiles;
 import smartfloor.domain.TimeWindow;
+import smartfloor.domain.TrendInterval;
+import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.fall.risk.profile.V1FallRiskScoreAssessment;
+import smartfloor.domain.exception.GroupNotFoundException;
 import smartfloor.domain.exception.UserNotFoundException;
+import smartfloor.repository.jpa.FallRiskProfileRepository;
 import smartfloor.service.FallRiskAnalysisService;
+import smartfloor.service.GroupService;
 import smartfloor.service.UserService;
 
 @Tag(name = "Fall risk analysis API", description = "Provides fall risk analyses based on footstep data.")
 @RestController
 @RequestMapping("/v1/analyses/fall-risk")
 public class V1FallRiskAnalysisController {
+    /**
+     * The (access scoped, see CacheConfig) cache keys of the fall risk assessments of a user.
+     */
+    private static final String LATEST_USER_CACHE_KEY = "{#root.methodName, #userId}";
+    private static final String USER_CACHE_KEY = "{#root.methodName, #userId, #beginTime, #endTime}";
+    private static final String LATEST_GROUP_CACHE_KEY = "{#root.methodName, #groupId}";
+    private static final String USER_TREND_CACHE_KEY = "{#root.methodName, #userId, #beginTime, #endTime, #interval}";
+    private static final String GROUP_PERCENTILES_CACHE_KEY =
+            "{#root.methodName, #groupId, #parameter, #beginTime, #endTime, #value}";
+    private static final String TENANT_PERCENTILES_CACHE_KEY =
+            "{#root.methodName, #tenantId, #parameter, #beginTime, #endTime, #value}";
+
     private final FallRiskAnalysisService fallRiskAnalysisService;
     private final UserService userService;
+    private final GroupService groupService;
 
     /**
      * TODO.
@@ -34,10 +60,12 @@ public class V1FallRiskAnalysisController {
     @Autowired
     public V1FallRiskAnalysisController(
             FallRiskAnalysisService fallRiskAnalysisService,
-            UserService userService
+            UserService userService,
+            GroupService groupService
     ) {
         this.fallRiskAnalysisService = fallRiskAnalysisService;
         this.userService = userService;
+        this.groupService = groupService;
     }
 
     /**
@@ -46,6 +74,7 @@ public class V1FallRiskAnalysisController {
     @Operation(description = "Get latest fall risk assessment (with indicators) of a given user.")
     @GetMapping("/latest/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = LATEST_USER_CACHE_KEY)
     public ResponseEntity<V1FallRiskScoreAssessment> getLatestFallRiskAssessmentOfUser(@PathVariable Long userId)
             throws UserNotFoundException {
         User user = userService.getUser(userId);
@@ -54,12 +83,26 @@ public class V1FallRiskAnalysisController {
         return ResponseEntity.status(HttpStatus.OK).body(latestFallRiskProfileAssessment.orElseGet(null));
     }
 
+    /**
+     * Get the latest fall risk assessment of every user of a group (that has one), in a single request.
+     */
+    @Operation(description = "Get latest fall risk assessment (with indicators) of every user of a given group.")
+    @GetMapping("/latest/groups/{groupId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = LATEST_GROUP_CACHE_KEY)
+    public List<V1FallRiskScoreAssessment> getLatestFallRiskAssessmentsOfGroup(@PathVariable Long groupId)
+            throws GroupNotFoundException {
+        Group group = groupService.getGroup(groupId);
+        return fallRiskAnalysisService.computeLatestV1FallRiskAssessmentsForGroup(group);
+    }
+
     /**
      * TODO.
      */
     @Operation(description = "Get fall risk assessments (with indicators) of a given user within a time window.")
     @GetMapping("/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = USER_CACHE_KEY)
     public List<V1FallRiskScoreAssessment> getFallRiskAssessmentsOfUserWithinTimeWindow(
             @PathVariable Long userId,
             @RequestParam("begin") long beginTime,
@@ -69,4 +112,111 @@ public class V1FallRiskAnalysisController {
         return new ArrayList<>(fallRiskAnalysisService
                 .computeV1FallRiskAssessmentsForUserWithinTimeWindow(user, new TimeWindow(beginTime, endTime)));
     }
+
+    /**
+     * Get the trend of the fall risk profiles of a user within a time window, i.e. the statistics (mean, min, max and
+     * count) of the indicators and the fall risk score per day, week or month. This replaces downloading (and
+     * aggregating) all fall risk assessments of the time window.
+     */
+    @Operation(description = "Get the trend (statistics per day, week or month) of the fall risk profiles of a given " +
+            "user within a time window.")
+    @GetMapping("/users/{userId}/trend")
+    @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = USER_TREND_CACHE_KEY)
+    public List<FallRiskProfileRepository.FallRiskProfileTrendBucket> getFallRiskTrendOfUserWithinTimeWindow(
+            @PathVariable Long userId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "interval", defaultValue = "WEEK") TrendInterval interval
+    ) throws UserNotFoundException {
+        User user = userService.getUser(userId);
+        return fallRiskAnalysisService.computeFallRiskTrendForUserWithinTimeWindow(
+                user,
+                new TimeWindow(beginTime, endTime),
+                interval
+        );
+    }
+
+    /**
+     * Get the percentiles of a fall risk parameter (or the fall risk score) within a group, and optionally the
+     * percentile rank of a value (e.g. of a patient of the group). The percentiles are derived from histograms that
+     * are kept per user and month, so the time window is widened to whole months.
+     */
+    @Operation(description = "Get the percentiles of a fall risk parameter within a given group over the months that " +
+            "overlap with a time window, and the percentile rank of a given value within the group.")
+    @GetMapping("/percentiles/groups/{groupId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = GROUP_PERCENTILES_CACHE_KEY)
+    public FallRiskPercentiles getFallRiskPercentilesOfGroupWithinTimeWindow(
+            @PathVariable Long groupId,
+            @RequestParam("parameter") FallRiskParameter parameter,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "value", required = false) Double value
+    ) throws GroupNotFoundException {
+        Group group = groupService.getGroup(groupId);
+        return fallRiskAnalysisService.computeFallRiskPercentilesForGroupWithinTimeWindow(
+                group,
+                parameter,
+                new TimeWindow(beginTime, endTime),
+                value
+        );
+    }
+
+    /**
+     * Get the percentiles of a fall risk parameter (or the fall risk score) within a tenant, see
+     * {@link #getFallRiskPercentilesOfGroupWithinTimeWindow}.
+     */
+    @Operation(description = "Get the percentiles of a fall risk parameter within a given tenant over the months " +
+            "that overlap with a time window, and the percentile rank of a given value within the tenant.")
+    @GetMapping("/percentiles/tenants/{tenantId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Cacheable(value = CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME, key = TENANT_PERCENTILES_CACHE_KEY)
+    public FallRiskPercentiles getFallRiskPercentilesOfTenantWithinTimeWindow(
+            @PathVariable Long tenantId,
+            @RequestParam("parameter") FallRiskParameter parameter,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime,
+            @RequestParam(value = "value", required = false) Double value
+    ) {
+        return fallRiskAnalysisService.computeFallRiskPercentilesForTenantWithinTimeWindow(
+                tenantId,
+                parameter,
+                new TimeWindow(beginTime, endTime),
+                value
+        );
+    }
+
+    /**
+     * Score many fall risk profiles at once, given their fall risk parameters as parallel arrays. Returns the totals,
+     * fall risk scores and (combined) threshold risk groups as parallel arrays in the same order, see
+     * {@link ColumnarFallRiskScores}.
+     */
+    @Operation(description = "Compute the fall risk scores and risk groups of many fall risk profiles at once, given " +
+            "their walking speeds, step lengths and step frequencies as parallel arrays.")
+    @PostMapping("/scores")
+    @ResponseStatus(HttpStatus.OK)
+    public ColumnarFallRiskScores computeFallRiskScores(@RequestBody ColumnarFallRiskProfiles fallRiskProfiles) {
+        return fallRiskAnalysisService.computeFallRiskScores(fallRiskProfiles);
+    }
+
+    /**
+     * Score the stored fall risk profiles of the users of a tenant within a time window at once, see
+     * {@link #computeFallRiskScores}. The fall risk profiles are scored on the server, in the order of their end time,
+     * and the response carries their ids as well.
+     */
+    @Operation(description = "Compute the fall risk scores and risk groups of all fall risk profiles of a given " +
+            "tenant within a time window at once, as parallel arrays together with the ids of the fall risk profiles.")
+    @GetMapping("/scores/tenants/{tenantId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ColumnarFallRiskScores computeFallRiskScoresOfTenantWithinTimeWindow(
+            @PathVariable Long tenantId,
+            @RequestParam("begin") long beginTime,
+            @RequestParam("end") long endTime
+    ) {
+        return fallRiskAnalysisService.computeFallRiskScoresForTenantWithinTimeWindow(
+                tenantId,
+                new TimeWindow(beginTime, endTime)
+        );
+    }
 }
@@ -0,0 +1,107 @@
+package smartfloor.domain;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>The edges that the authorization checks of the service layer follow, within a single access scope (tenant or
+ * composite user): the groups that every manager manages, the users that are a member of every group, the wearables
+ * of (the wearable group of) every group and the sub-users of every composite user.</p>
+ * The transitive relations that the checks need (e.g. the users that a manager manages through any of their groups) are
+ * computed once, when the graph is built, so every check is a constant time lookup. The graph is immutable, a change to
+ * any of the edges requires a new graph to be built.
+ */
+public final class AccessGraph {
+
+    public static final AccessGraph EMPTY = new AccessGraph(Map.of(), Map.of(), Map.of(), Map.of());
+
+    private final Map<Long, Set<Long>> managedGroupIds;
+    private final Map<Long, Set<Long>> subUserIds;
+    private final Map<Long, Set<Long>> managedUserIds = new HashMap<>();
+    private final Map<Long, Set<String>> managerWearableIds = new HashMap<>();
+    private final Map<Long, Set<String>> memberWearableIds = new HashMap<>();
+    private final Map<Long, Set<String>> compositeUserWearableIds = new HashMap<>();
+
+    /**
+     * Builds the access graph from its edges.
+     *
+     * @param managedGroupIds the ids of the groups that are managed, by the id of their manager
+     * @param memberIds       the ids of the users that are a member, by the id of their group
+     * @param wearableIds     the ids of the wearables of the wearable group, by the id of their group
+     * @param subUserIds      the ids of the sub-users, by the id of their composite user
+     */
+    public AccessGraph(
+            Map<Long, Set<Long>> managedGroupIds,
+            Map<Long, Set<Long>> memberIds,
+            Map<Long, Set<String>> wearableIds,
+            Map<Long, Set<Long>> subUserIds
+    ) {
+        this.managedGroupIds = managedGroupIds;
+        this.subUserIds = subUserIds;
+        managedGroupIds.forEach((managerId, groupIds) -> groupIds.forEach(groupId -> {
+            managedUserIds.computeIfAbsent(managerId, id -> new HashSet<>())
+                    .addAll(memberIds.getOrDefault(groupId, Set.of()));
+            managerWearableIds.computeIfAbsent(managerId, id -> new HashSet<>())
+                    .addAll(wearableIds.getOrDefault(groupId, Set.of()));
+        }));
+        memberIds.forEach((groupId, userIds) -> userIds.forEach(userId ->
+                memberWearableIds.computeIfAbsent(userId, id -> new HashSet<>())
+                        .addAll(wearableIds.getOrDefault(groupId, Set.of()))
+        ));
+        subUserIds.forEach((compositeUserId, userIds) -> userIds.forEach(userId ->
+                compositeUserWearableIds.computeIfAbsent(compositeUserId, id -> new HashSet<>())
+                        .addAll(memberWearableIds.getOrDefault(userId, Set.of()))
+        ));
+    }
+
+    /**
+     * Whether the manager with the given id manages the group with the given id.
+     */
+    public boolean isManagingGroup(Long managerId, Long groupId) {
+        return contains(managedGroupIds, managerId, groupId);
+    }
+
+    /**
+     * Whether the manager with the given id manages a group of which the user with the given id is a member.
+     */
+    public boolean isManagingUser(Long managerId, Long userId) {
+        return contains(managedUserIds, managerId, userId);
+    }
+
+    /**
+     * Whether the manager with the given id manages a group that is linked to a wearable group that has the wearable
+     * with the given id as its member.
+     */
+    public boolean isManagerAllowedToAccessWearable(Long managerId, String wearableId) {
+        return contains(managerWearableIds, managerId, wearableId);
+    }
+
+    /**
+     * Whether the user with the given id is a member of a group that is linked to a wearable group that has the
+     * wearable with the given id as its member.
+     */
+    public boolean isUserAllowedToAccessWearable(Long userId, String wearableId) {
+        return contains(memberWearableIds, userId, wearableId);
+    }
+
+    /**
+     * Whether a sub-user of the composite user with the given id is allowed to access the wearable with the given id,
+     * see {@link #isUserAllowedToAccessWearable(Long, String)}.
+     */
+    public boolean isCompositeUserAllowedToAccessWearable(Long compositeUserId, String wearableId) {
+        return contains(compositeUserWearableIds, compositeUserId, wearableId);
+    }
+
+    /**
+     * Whether the user with the given id is a sub-user of the composite user with the given id.
+     */
+    public boolean isSubUser(Long compositeUserId, Long userId) {
+        return contains(subUserIds, compositeUserId, userId);
+    }
+
+    private static <T> boolean contains(Map<Long, Set<T>> edges, Long source, T target) {
+        return source != null && target != null && edges.getOrDefault(source, Set.of()).contains(target);
+    }
+}
@@ -0,0 +1,140 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Arrays;
+
+/**
+ * <p>Columnar (struct-of-arrays) representation of the fall risk parameters of many fall risk profiles, as the input
+ * of {@link smartfloor.domain.indicators.fall.risk.BatchFallRiskScorer}: the i-th fall risk profile has walking speed
+ * walkingSpeed[i] (mm/s), step length stepLength[i] (mm) and step frequency stepFrequency[i] (steps/s).</p>
+ * A parameter that is missing (e.g. of a fall risk profile without footsteps) is NaN, or null in its JSON
+ * representation. The ids of the fall risk profiles (id[i]) are only known for stored fall risk profiles, see
+ * {@link Builder}, otherwise they are null.
+ */
+public final class ColumnarFallRiskProfiles {
+
+    private final long[] id;
+    private final double[] walkingSpeed;
+    private final double[] stepLength;
+    private final double[] stepFrequency;
+
+    /**
+     * Wrap the given (parallel) parameter arrays, without copying them.
+     */
+    public ColumnarFallRiskProfiles(double[] walkingSpeed, double[] stepLength, double[] stepFrequency) {
+        this(null, walkingSpeed, stepLength, stepFrequency);
+    }
+
+    private ColumnarFallRiskProfiles(long[] id, double[] walkingSpeed, double[] stepLength, double[] stepFrequency) {
+        if (walkingSpeed == null || stepLength == null || stepFrequency == null) {
+            throw new IllegalArgumentException("All fall risk parameters should be given.");
+        }
+        if (walkingSpeed.length != stepLength.length || walkingSpeed.length != stepFrequency.length) {
+            throw new IllegalArgumentException("All fall risk parameters should be given for every fall risk profile.");
+        }
+        this.id = id;
+        this.walkingSpeed = walkingSpeed;
+        this.stepLength = stepLength;
+        this.stepFrequency = stepFrequency;
+    }
+
+    @JsonCreator
+    private ColumnarFallRiskProfiles(
+            @JsonProperty("walkingSpeed") Double[] walkingSpeed,
+            @JsonProperty("stepLength") Double[] stepLength,
+            @JsonProperty("stepFrequency") Double[] stepFrequency
+    ) {
+        this(toPrimitive(walkingSpeed), toPrimitive(stepLength), toPrimitive(stepFrequency));
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    private static double toPrimitive(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static double[] toPrimitive(Double[] values) {
+        if (values == null) {
+            return null;
+        }
+        double[] primitives = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            primitives[i] = toPrimitive(values[i]);
+        }
+        return primitives;
+    }
+
+    public int size() {
+        return walkingSpeed.length;
+    }
+
+    public long[] getId() {
+        return id;
+    }
+
+    public double[] getWalkingSpeed() {
+        return walkingSpeed;
+    }
+
+    public double[] getStepLength() {
+        return stepLength;
+    }
+
+    public double[] getStepFrequency() {
+        return stepFrequency;
+    }
+
+    /**
+     * Collects the fall risk parameters of (stored) fall risk profiles, one fall risk profile at a time, into their
+     * columnar representation.
+     */
+    public static final class Builder {
+        private long[] id;
+        private double[] walkingSpeed;
+        private double[] stepLength;
+        private double[] stepFrequency;
+        private int size = 0;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.id = new long[capacity];
+            this.walkingSpeed = new double[capacity];
+            this.stepLength = new double[capacity];
+            this.stepFrequency = new double[capacity];
+        }
+
+        /**
+         * Adds the fall risk parameters of a fall risk profile, a parameter is null when it is missing.
+         */
+        public Builder add(long fallRiskProfileId, Double walkingSpeed, Double stepLength, Double stepFrequency) {
+            if (size == id.length) {
+                int capacity = id.length * 2;
+                this.id = Arrays.copyOf(this.id, capacity);
+                this.walkingSpeed = Arrays.copyOf(this.walkingSpeed, capacity);
+                this.stepLength = Arrays.copyOf(this.stepLength, capacity);
+                this.stepFrequency = Arrays.copyOf(this.stepFrequency, capacity);
+            }
+            this.id[size] = fallRiskProfileId;
+            this.walkingSpeed[size] = toPrimitive(walkingSpeed);
+            this.stepLength[size] = toPrimitive(stepLength);
+            this.stepFrequency[size] = toPrimitive(stepFrequency);
+            size++;
+            return this;
+        }
+
+        /**
+         * Collect the fall risk parameters that have been added, in the order in which they have been added.
+         */
+        public ColumnarFallRiskProfiles build() {
+            return new ColumnarFallRiskProfiles(
+                    Arrays.copyOf(id, size),
+                    Arrays.copyOf(walkingSpeed, size),
+                    Arrays.copyOf(stepLength, size),
+                    Arrays.copyOf(stepFrequency, size)
+            );
+        }
+    }
+}
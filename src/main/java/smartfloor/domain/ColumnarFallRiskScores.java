@@ -0,0 +1,51 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * <p>Columnar (struct-of-arrays) representation of the fall risk scores of many fall risk profiles, as the output of
+ * {@link smartfloor.domain.indicators.fall.risk.BatchFallRiskScorer}. The i-th element of every array belongs to the
+ * i-th fall risk profile of the {@link ColumnarFallRiskProfiles} that were scored:</p>
+ * <ul>
+ *     <li>id[i] is the id of the fall risk profile, when it was scored from the stored fall risk profiles (otherwise
+ *     the ids are left out).</li>
+ *     <li>total[i] is the "predicted" Tinetti score (see FallRiskScoreAssessment), 0 when a parameter is missing.</li>
+ *     <li>score[i] is the fall risk score on the 10 point scale (see FallRiskScore).</li>
+ *     <li>riskGroup[i] is the level of the combined fall risk group of the threshold model (see
+ *     FallRiskThresholdAssessment and FallRiskGroup), 0 when a parameter is missing.</li>
+ * </ul>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class ColumnarFallRiskScores {
+
+    private final long[] id;
+    private final double[] total;
+    private final double[] score;
+    private final int[] riskGroup;
+
+    /**
+     * Wrap the given (parallel) arrays, without copying them.
+     */
+    public ColumnarFallRiskScores(long[] id, double[] total, double[] score, int[] riskGroup) {
+        this.id = id;
+        this.total = total;
+        this.score = score;
+        this.riskGroup = riskGroup;
+    }
+
+    public long[] getId() {
+        return id;
+    }
+
+    public double[] getTotal() {
+        return total;
+    }
+
+    public double[] getScore() {
+        return score;
+    }
+
+    public int[] getRiskGroup() {
+        return riskGroup;
+    }
+}
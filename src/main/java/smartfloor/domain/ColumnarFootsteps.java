@@ -0,0 +1,161 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Columnar (struct-of-arrays) representation of a (time-ordered) list of footsteps. Instead of repeating the time,
+ * position, wearable and floor for every footstep, the ids of the wearables and floors appear only once and the
+ * footsteps are given by parallel arrays: the i-th footstep has time time[i] (epoch millis), position (x[i], y[i]) and
+ * was made by wearable wearableIds[wearable[i]] on floor floorIds[floor[i]].</p>
+ * To keep the payload small, the wearable (floor) index array is left out whenever all footsteps were made by the same
+ * wearable (on the same floor), the x and y arrays are null for a footstep without a position and the timestamps can
+ * be delta-encoded: the first timestamp is absolute and every next one is the difference with its predecessor.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class ColumnarFootsteps {
+
+    /**
+     * The media type through which clients can request this representation of footsteps.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.smartfloor.footsteps.columnar+json";
+
+    private final TimeEncoding timeEncoding;
+    private final List<String> wearableIds;
+    private final List<Long> floorIds;
+    private final long[] time;
+    private final Double[] x;
+    private final Double[] y;
+    private final int[] wearable;
+    private final int[] floor;
+
+    private ColumnarFootsteps(Builder builder) {
+        int size = builder.size;
+        this.timeEncoding = builder.timeEncoding;
+        this.wearableIds = builder.wearableIds;
+        this.floorIds = builder.floorIds;
+        this.time = Arrays.copyOf(builder.time, size);
+        this.x = Arrays.copyOf(builder.x, size);
+        this.y = Arrays.copyOf(builder.y, size);
+        this.wearable = builder.wearableIds.size() > 1 ? Arrays.copyOf(builder.wearable, size) : null;
+        this.floor = builder.floorIds.size() > 1 ? Arrays.copyOf(builder.floor, size) : null;
+        if (timeEncoding == TimeEncoding.DELTA) {
+            for (int i = size - 1; i > 0; i--) {
+                this.time[i] -= this.time[i - 1];
+            }
+        }
+    }
+
+    public static Builder builder(int expectedSize, TimeEncoding timeEncoding) {
+        return new Builder(expectedSize, timeEncoding);
+    }
+
+    public TimeEncoding getTimeEncoding() {
+        return timeEncoding;
+    }
+
+    public List<String> getWearableIds() {
+        return wearableIds;
+    }
+
+    public List<Long> getFloorIds() {
+        return floorIds;
+    }
+
+    public long[] getTime() {
+        return time;
+    }
+
+    public Double[] getX() {
+        return x;
+    }
+
+    public Double[] getY() {
+        return y;
+    }
+
+    public int[] getWearable() {
+        return wearable;
+    }
+
+    public int[] getFloor() {
+        return floor;
+    }
+
+    public enum TimeEncoding {
+        ABSOLUTE,
+        DELTA
+    }
+
+    /**
+     * Collects footsteps into their columnar representation. Footsteps are expected to be added in chronological
+     * order.
+     */
+    public static final class Builder {
+        private final TimeEncoding timeEncoding;
+        private final List<String> wearableIds = new ArrayList<>();
+        private final List<Long> floorIds = new ArrayList<>();
+        private final Map<String, Integer> wearableIndices = new HashMap<>();
+        private final Map<Long, Integer> floorIndices = new HashMap<>();
+        private long[] time;
+        private Double[] x;
+        private Double[] y;
+        private int[] wearable;
+        private int[] floor;
+        private int size = 0;
+
+        private Builder(int expectedSize, TimeEncoding timeEncoding) {
+            int capacity = Math.max(expectedSize, 16);
+            this.timeEncoding = timeEncoding;
+            this.time = new long[capacity];
+            this.x = new Double[capacity];
+            this.y = new Double[capacity];
+            this.wearable = new int[capacity];
+            this.floor = new int[capacity];
+        }
+
+        /**
+         * Adds a footstep. The x and y coordinates are null for a footstep without a position, the floor id is null
+         * for a footstep without a floor.
+         */
+        public Builder add(
+                LocalDateTime timestamp,
+                Double positionX,
+                Double positionY,
+                String wearableId,
+                Long floorId
+        ) {
+            if (size == time.length) {
+                int capacity = time.length * 2;
+                time = Arrays.copyOf(time, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                wearable = Arrays.copyOf(wearable, capacity);
+                floor = Arrays.copyOf(floor, capacity);
+            }
+            time[size] = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+            x[size] = positionX;
+            y[size] = positionY;
+            wearable[size] = wearableIndices.computeIfAbsent(wearableId, id -> {
+                wearableIds.add(id);
+                return wearableIds.size() - 1;
+            });
+            floor[size] = floorIndices.computeIfAbsent(floorId, id -> {
+                floorIds.add(id);
+                return floorIds.size() - 1;
+            });
+            size++;
+            return this;
+        }
+
+        public ColumnarFootsteps build() {
+            return new ColumnarFootsteps(this);
+        }
+    }
+}
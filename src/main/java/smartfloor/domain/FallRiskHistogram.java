@@ -0,0 +1,116 @@
+package smartfloor.domain;
+
+/**
+ * <p>The distribution of a fall risk parameter within a population (e.g. the users of a group), as a histogram with
+ * bins of equal width. The bins are numbered like PostgreSQL's width_bucket: bins 1 to binCount divide the range
+ * [lowerBound, upperBound), bin 0 holds the values below and bin binCount + 1 the values at or above that range.</p>
+ * Histograms can be merged by adding their counts, so the histogram of a population is the sum of the histograms of
+ * its users. The percentiles that are derived from a histogram are exact up to the width of a bin: the values within a
+ * bin are assumed to be spread evenly over the bin.
+ */
+public final class FallRiskHistogram {
+
+    private final double lowerBound;
+    private final double upperBound;
+    private final long[] counts;
+    private long totalCount = 0;
+
+    /**
+     * Create an empty histogram with the given range and number of bins.
+     */
+    public FallRiskHistogram(double lowerBound, double upperBound, int binCount) {
+        if (binCount < 1 || !(lowerBound < upperBound)) {
+            throw new IllegalArgumentException("A histogram should have at least one bin and a non-empty range.");
+        }
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.counts = new long[binCount + 2];
+    }
+
+    /**
+     * Create a histogram without any values (and a single bin).
+     */
+    public static FallRiskHistogram empty() {
+        return new FallRiskHistogram(0, 1, 1);
+    }
+
+    /**
+     * Add the given number of values to the given bin.
+     */
+    public void add(int bin, long count) {
+        if (bin < 0 || bin >= counts.length) {
+            throw new IllegalArgumentException(String.format("Bin %d is outside of the histogram.", bin));
+        }
+        counts[bin] += count;
+        totalCount += count;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    private int getBinCount() {
+        return counts.length - 2;
+    }
+
+    private double getBinWidth() {
+        return (upperBound - lowerBound) / getBinCount();
+    }
+
+    /**
+     * Estimate the value below which the given percentage of the values lies.
+     *
+     * @param percentile the percentage, in [0, 100]
+     * @return the estimated value, clamped to the range of the histogram, or null when the histogram is empty
+     */
+    public Double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("A percentile should be within [0, 100].");
+        }
+        if (totalCount == 0) {
+            return null;
+        }
+        double rank = percentile / 100 * totalCount;
+        long cumulativeCount = 0;
+        for (int bin = 0; bin < counts.length; bin++) {
+            if (counts[bin] > 0 && cumulativeCount + counts[bin] >= rank) {
+                if (bin == 0) {
+                    return lowerBound;
+                }
+                if (bin == counts.length - 1) {
+                    return upperBound;
+                }
+                double fraction = (rank - cumulativeCount) / counts[bin];
+                return lowerBound + (bin - 1 + fraction) * getBinWidth();
+            }
+            cumulativeCount += counts[bin];
+        }
+        return upperBound;
+    }
+
+    /**
+     * Estimate the percentage of the values that lies below the given value (its percentile rank).
+     *
+     * @return the percentile rank, in [0, 100], or null when the histogram is empty
+     */
+    public Double getPercentileRank(double value) {
+        if (totalCount == 0) {
+            return null;
+        }
+        double below;
+        if (value < lowerBound) {
+            below = 0;
+        } else if (value >= upperBound) {
+            below = totalCount - counts[counts.length - 1];
+        } else {
+            double position = (value - lowerBound) / getBinWidth();
+            int bin = Math.min((int) position + 1, getBinCount());
+            below = counts[0];
+            for (int i = 1; i < bin; i++) {
+                below += counts[i];
+            }
+            below += counts[bin] * (position - (bin - 1));
+        }
+        return below / totalCount * 100;
+    }
+}
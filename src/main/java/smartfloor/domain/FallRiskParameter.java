@@ -0,0 +1,25 @@
+package smartfloor.domain;
+
+/**
+ * The fall risk parameters (and the fall risk score) of which the distribution within a population is kept, see
+ * {@link FallRiskHistogram}.
+ */
+public enum FallRiskParameter {
+    WALKING_SPEED("walking_speed"),
+    STEP_LENGTH("step_length"),
+    STEP_FREQUENCY("step_frequency"),
+    FALL_RISK_SCORE("fall_risk_score");
+
+    private final String histogramParameter;
+
+    FallRiskParameter(final String histogramParameter) {
+        this.histogramParameter = histogramParameter;
+    }
+
+    /**
+     * The name of the parameter in the fall risk histograms (and their parameters) in the database.
+     */
+    public String getHistogramParameter() {
+        return histogramParameter;
+    }
+}
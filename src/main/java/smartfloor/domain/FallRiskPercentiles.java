@@ -0,0 +1,65 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The distribution of a fall risk parameter within a population (e.g. the users of a group) over a period of time: the
+ * number of fall risk profiles, a fixed set of percentiles and, when a value (e.g. the walking speed of a patient) is
+ * given, the percentile rank of that value within the population. See {@link FallRiskHistogram} for the accuracy.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class FallRiskPercentiles {
+
+    /**
+     * The percentiles that are reported.
+     */
+    public static final List<Integer> PERCENTILES = List.of(5, 10, 25, 50, 75, 90, 95);
+
+    private final FallRiskParameter parameter;
+    private final long count;
+    private final Map<Integer, Double> percentiles;
+    private final Double value;
+    private final Double percentileRank;
+
+    private FallRiskPercentiles(FallRiskParameter parameter, FallRiskHistogram histogram, Double value) {
+        this.parameter = parameter;
+        this.count = histogram.getTotalCount();
+        this.percentiles = new LinkedHashMap<>();
+        if (count > 0) {
+            PERCENTILES.forEach(percentile -> percentiles.put(percentile, histogram.getPercentile(percentile)));
+        }
+        this.value = value;
+        this.percentileRank = value != null ? histogram.getPercentileRank(value) : null;
+    }
+
+    /**
+     * Derive the percentiles of the given parameter (and the percentile rank of the given value, if any) from the
+     * given histogram.
+     */
+    public static FallRiskPercentiles of(FallRiskParameter parameter, FallRiskHistogram histogram, Double value) {
+        return new FallRiskPercentiles(parameter, histogram, value);
+    }
+
+    public FallRiskParameter getParameter() {
+        return parameter;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Map<Integer, Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public Double getPercentileRank() {
+        return percentileRank;
+    }
+}
@@ -0,0 +1,47 @@
+package smartfloor.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * <p>Position in a (time, id)-ordered sequence of footsteps, used for keyset pagination: a page contains the footsteps
+ * that come strictly after the cursor. Unlike an offset, the database can seek directly to the cursor through the
+ * footsteps(wearable_id, timestamp) index, so a deep page is as cheap as the first one.</p>
+ * Clients only ever see the encoded cursor, which should be treated as an opaque token.
+ */
+public record FootstepCursor(LocalDateTime time, long id) {
+
+    private static final String SEPARATOR = "/";
+
+    /**
+     * The cursor that precedes every footstep within the given time window, i.e. the cursor of the first page.
+     */
+    public static FootstepCursor first(TimeWindow timeWindow) {
+        return new FootstepCursor(timeWindow.getBeginTime(), Long.MIN_VALUE);
+    }
+
+    /**
+     * Decodes a cursor that was previously obtained through {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the given value is not a valid cursor
+     */
+    public static FootstepCursor decode(String encoded) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new FootstepCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("The provided footstep cursor is invalid.");
+        }
+    }
+
+    public String encode() {
+        String decoded = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
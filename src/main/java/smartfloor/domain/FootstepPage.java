@@ -0,0 +1,28 @@
+package smartfloor.domain;
+
+import java.util.Collections;
+import java.util.List;
+import smartfloor.domain.entities.Footstep;
+
+/**
+ * A page of footsteps (ordered by time) together with the cursor for the next page. The next cursor is null when
+ * there are no more footsteps within the requested time window.
+ */
+public final class FootstepPage {
+
+    private final List<Footstep> footsteps;
+    private final String nextCursor;
+
+    public FootstepPage(List<Footstep> footsteps, String nextCursor) {
+        this.footsteps = Collections.unmodifiableList(footsteps);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Footstep> getFootsteps() {
+        return footsteps;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,24 @@
+package smartfloor.domain;
+
+/**
+ * The size of the buckets in which a trend is aggregated. The buckets are aligned like PostgreSQL's date_trunc, i.e.
+ * days start at midnight, weeks on Monday and months on the first day of the month (all in UTC).
+ */
+public enum TrendInterval {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String dateTruncField;
+
+    TrendInterval(final String dateTruncField) {
+        this.dateTruncField = dateTruncField;
+    }
+
+    /**
+     * The field (precision) to pass to date_trunc to get the begin time of the bucket of a timestamp.
+     */
+    public String getDateTruncField() {
+        return dateTruncField;
+    }
+}
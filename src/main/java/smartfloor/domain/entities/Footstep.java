@@ -57,6 +57,15 @@ public class Footstep implements Comparable<Footstep>, Serializable {
     )
     private Position position;
 
+    /**
+     * The timestamp of the footstep, repeated in the secondary table as the partition key of 'footstep_positions'. It
+     * is only set along with the position, such that a footstep without position still has no entry in the secondary
+     * table.
+     */
+    @Column(name = "timestamp", table = "footstep_positions")
+    @JsonIgnore
+    private LocalDateTime positionTime;
+
     @Column(name = "timestamp", nullable = false)
     @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
     @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
@@ -91,11 +100,16 @@ public class Footstep implements Comparable<Footstep>, Serializable {
         this.time = time;
         this.floor = floor;
         this.wearable = wearable;
+        updatePositionTime();
     }
 
+    /**
+     * Copies the position and time of the given footstep.
+     */
     public Footstep(Footstep footstep) {
         this.position = footstep.getPosition();
         this.time = footstep.getTime();
+        updatePositionTime();
     }
 
     public Long getId() {
@@ -112,6 +126,7 @@ public class Footstep implements Comparable<Footstep>, Serializable {
 
     public void setPosition(Position position) {
         this.position = position;
+        updatePositionTime();
     }
 
     public LocalDateTime getTime() {
@@ -120,6 +135,11 @@ public class Footstep implements Comparable<Footstep>, Serializable {
 
     public void setTime(LocalDateTime time) {
         this.time = time;
+        updatePositionTime();
+    }
+
+    private void updatePositionTime() {
+        this.positionTime = position != null ? time : null;
     }
 
     public Floor getFloor() {
@@ -0,0 +1,52 @@
+package smartfloor.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * <p>Read-only view of a row of the footstep_positions table, which {@link Footstep} maps as its secondary table.</p>
+ * The secondary table of a footstep is joined on the footstep id only. Queries that read the positions of many
+ * footsteps join this entity on both the footstep id and the timestamp instead, such that the database only has to look
+ * at the footstep_positions partition of the month of a footstep (see the FootstepRepository).
+ */
+@Entity
+@Immutable
+@IdClass(FootstepPositionId.class)
+@Table(name = "footstep_positions")
+public class FootstepPosition {
+
+    @Id
+    @Column(name = "footstep_id")
+    private Long footstepId;
+
+    @Id
+    @Column(name = "timestamp")
+    private LocalDateTime time;
+
+    @Column(name = "x", nullable = false)
+    private double x;
+
+    @Column(name = "y", nullable = false)
+    private double y;
+
+    public Long getFootstepId() {
+        return footstepId;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+}
@@ -0,0 +1,35 @@
+package smartfloor.domain.entities;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Defines the composite primary key (footstepId, time) of a footstep position. The time is part of the key because it
+ * is the partition key of the footstep_positions table.
+ */
+public class FootstepPositionId implements Serializable {
+    private Long footstepId;
+    private LocalDateTime time;
+
+    public FootstepPositionId() {
+    }
+
+    public FootstepPositionId(Long footstepId, LocalDateTime time) {
+        this.footstepId = footstepId;
+        this.time = time;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FootstepPositionId that = (FootstepPositionId) o;
+        return footstepId.equals(that.footstepId) && time.equals(that.time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(footstepId, time);
+    }
+}
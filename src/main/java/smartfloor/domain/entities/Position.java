@@ -31,8 +31,10 @@ public class Position implements Serializable {
      * @param p - a given footstep position
      * @return Euclidean distance from this position to p
      */
-    public Double distanceTo(Position p) {
-        return Math.sqrt(Math.pow(this.x - p.getX(), 2) + Math.pow(this.y - p.getY(), 2));
+    public double distanceTo(Position p) {
+        double deltaX = this.x - p.getX();
+        double deltaY = this.y - p.getY();
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
     }
 
     public double getX() {
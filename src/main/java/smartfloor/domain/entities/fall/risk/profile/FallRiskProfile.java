@@ -26,9 +26,7 @@ import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Floor;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.Wearable;
-import smartfloor.domain.indicators.footstep.AverageSpeed;
-import smartfloor.domain.indicators.footstep.AverageStrideFrequency;
-import smartfloor.domain.indicators.footstep.AverageStrideLength;
+import smartfloor.domain.indicators.footstep.GaitSummary;
 import smartfloor.serializer.CustomLocalDateTimeSerializer;
 import smartfloor.serializer.views.Views;
 
@@ -187,30 +185,11 @@ public class FallRiskProfile implements Serializable {
      * @return an FRP based on the given set of footsteps.
      */
     public static FallRiskProfile fromFootsteps(List<Footstep> footsteps) {
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        if (!footstepsWithPosition.isEmpty()) {
-            Floor floor = footstepsWithPosition.get(0).getFloor();
-            Wearable wearable = footstepsWithPosition.get(0).getWearable();
-            LocalDateTime beginTime = footstepsWithPosition.get(0).getTime();
-            LocalDateTime endTime = footstepsWithPosition.get(footstepsWithPosition.size() - 1).getTime();
-            AverageSpeed speed = AverageSpeed.of(footstepsWithPosition);
-            AverageStrideLength strideLength = AverageStrideLength.of(footstepsWithPosition);
-            AverageStrideFrequency strideFrequency = AverageStrideFrequency.of(footstepsWithPosition);
-            return new FallRiskProfile(
-                    floor,
-                    wearable,
-                    beginTime,
-                    beginTime,
-                    endTime,
-                    speed.getValue(),
-                    strideLength.getValue(),
-                    strideFrequency.getValue(),
-                    0.0,
-                    false,
-                    "",
-                    null
-            );
+        GaitSummary gait = GaitSummary.of(footsteps).withPositionOnly();
+        if (!gait.isEmpty()) {
+            Footstep first = findFirstWithPosition(footsteps);
+            Footstep last = findLastWithPosition(footsteps);
+            return fromGaitSummary(gait, first, first.getTime(), last.getTime());
         } else {
             /* TODO: Should be improved as part of #449. */
             return new FallRiskProfile();
@@ -225,27 +204,13 @@ public class FallRiskProfile implements Serializable {
      * @return an FRP based on the given set of footsteps and a custom time window.
      */
     public static FallRiskProfile fromFootstepsAndTimeWindow(List<Footstep> footsteps, TimeWindow timeWindow) {
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        if (!footstepsWithPosition.isEmpty()) {
-            Floor floor = footstepsWithPosition.get(0).getFloor();
-            Wearable wearable = footstepsWithPosition.get(0).getWearable();
-            AverageSpeed speed = AverageSpeed.of(footstepsWithPosition);
-            AverageStrideLength strideLength = AverageStrideLength.of(footstepsWithPosition);
-            AverageStrideFrequency strideFrequency = AverageStrideFrequency.of(footstepsWithPosition);
-            return new FallRiskProfile(
-                    floor,
-                    wearable,
-                    timeWindow.getBeginTime(),
+        GaitSummary gait = GaitSummary.of(footsteps).withPositionOnly();
+        if (!gait.isEmpty()) {
+            return fromGaitSummary(
+                    gait,
+                    findFirstWithPosition(footsteps),
                     timeWindow.getBeginTime(),
-                    timeWindow.getEndTime(),
-                    speed.getValue(),
-                    strideLength.getValue(),
-                    strideFrequency.getValue(),
-                    0.0,
-                    false,
-                    "",
-                    null
+                    timeWindow.getEndTime()
             );
         } else {
             /* TODO: Should be improved as part of #449. */
@@ -253,6 +218,50 @@ public class FallRiskProfile implements Serializable {
         }
     }
 
+    /**
+     * Construct an FRP from the gait summary of the footsteps (with a position) of a wearable on a floor, as given by
+     * the first of those footsteps.
+     */
+    private static FallRiskProfile fromGaitSummary(
+            GaitSummary gait,
+            Footstep first,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    ) {
+        return new FallRiskProfile(
+                first.getFloor(),
+                first.getWearable(),
+                beginTime,
+                beginTime,
+                endTime,
+                gait.getAverageSpeed().getValue(),
+                gait.getAverageStrideLength().getValue(),
+                gait.getAverageStrideFrequency().getValue(),
+                0.0,
+                false,
+                "",
+                null
+        );
+    }
+
+    private static Footstep findFirstWithPosition(List<Footstep> footsteps) {
+        for (Footstep footstep : footsteps) {
+            if (footstep.hasPosition()) {
+                return footstep;
+            }
+        }
+        return null;
+    }
+
+    private static Footstep findLastWithPosition(List<Footstep> footsteps) {
+        for (int i = footsteps.size() - 1; i >= 0; i--) {
+            if (footsteps.get(i).hasPosition()) {
+                return footsteps.get(i);
+            }
+        }
+        return null;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,10 +1,6 @@
 package smartfloor.domain.entities.fall.risk.profile;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * Wrapper object for representing the fall risk statistics that will be communicated back to the user when viewing
@@ -106,74 +102,79 @@ public class FallRiskThresholdAssessment implements FallRiskAssessmentModel {
         compute();
     }
 
-    private void checkWalkingSpeed() {
-        this.walkingSpeed = FallRiskGroup.LOW;
-        if (fallRiskProfile.getWalkingSpeed() <= MODERATE_RISK_MAX_WALKING_SPEED) {
-            this.walkingSpeed = FallRiskGroup.MODERATE;
-            if (fallRiskProfile.getWalkingSpeed() <= HIGH_RISK_MAX_WALKING_SPEED) {
-                this.walkingSpeed = FallRiskGroup.HIGH;
-            }
+    /**
+     * Determine the fall risk group of a fall risk parameter value, given the (inclusive) maximum values of that
+     * parameter for the moderate and the high risk group.
+     */
+    public static FallRiskGroup classify(double value, double moderateRiskMax, double highRiskMax) {
+        if (value <= highRiskMax) {
+            return FallRiskGroup.HIGH;
         }
+        if (value <= moderateRiskMax) {
+            return FallRiskGroup.MODERATE;
+        }
+        return FallRiskGroup.LOW;
+    }
+
+    /**
+     * Determine the combined fall risk group of three fall risk parameters: the group that the majority of them is in,
+     * or the lowest risk group when all three are in a different group.
+     */
+    public static FallRiskGroup combine(FallRiskGroup first, FallRiskGroup second, FallRiskGroup third) {
+        if (first == second || first == third) {
+            return first;
+        }
+        if (second == third) {
+            return second;
+        }
+        return FallRiskGroup.LOW;
+    }
+
+    private void checkWalkingSpeed() {
+        this.walkingSpeed = classify(
+                fallRiskProfile.getWalkingSpeed(),
+                MODERATE_RISK_MAX_WALKING_SPEED,
+                HIGH_RISK_MAX_WALKING_SPEED
+        );
     }
 
     private void checkRmsVerticalAcceleration() {
         if (fallRiskProfile.getRmsVerticalAcceleration() != null) {
-            this.rmsVerticalAcceleration = FallRiskGroup.LOW;
-            if (fallRiskProfile.getRmsVerticalAcceleration() <= MODERATE_RISK_MAX_RMS_VERTICAL_ACCELERATION) {
-                this.rmsVerticalAcceleration = FallRiskGroup.MODERATE;
-                if (fallRiskProfile.getRmsVerticalAcceleration() <= HIGH_RISK_MAX_RMS_VERTICAL_ACCELERATION) {
-                    this.rmsVerticalAcceleration = FallRiskGroup.HIGH;
-                }
-            }
+            this.rmsVerticalAcceleration = classify(
+                    fallRiskProfile.getRmsVerticalAcceleration(),
+                    MODERATE_RISK_MAX_RMS_VERTICAL_ACCELERATION,
+                    HIGH_RISK_MAX_RMS_VERTICAL_ACCELERATION
+            );
         }
     }
 
     private void checkStepLength() {
-        this.stepLength = FallRiskGroup.LOW;
-        if (fallRiskProfile.getStepLength() <= MODERATE_RISK_MAX_STEP_LENGTH) {
-            this.stepLength = FallRiskGroup.MODERATE;
-            if (fallRiskProfile.getStepLength() <= HIGH_RISK_MAX_STEP_LENGTH) {
-                this.stepLength = FallRiskGroup.HIGH;
-            }
-        }
+        this.stepLength = classify(
+                fallRiskProfile.getStepLength(),
+                MODERATE_RISK_MAX_STEP_LENGTH,
+                HIGH_RISK_MAX_STEP_LENGTH
+        );
     }
 
     private void checkStepFrequency() {
-        this.stepFrequency = FallRiskGroup.LOW;
-        if (fallRiskProfile.getStepFrequency() <= MODERATE_RISK_MAX_STEP_FREQUENCY) {
-            this.stepFrequency = FallRiskGroup.MODERATE;
-            if (fallRiskProfile.getStepFrequency() <= HIGH_RISK_MAX_STEP_FREQUENCY) {
-                this.stepFrequency = FallRiskGroup.HIGH;
-            }
-        }
+        this.stepFrequency = classify(
+                fallRiskProfile.getStepFrequency(),
+                MODERATE_RISK_MAX_STEP_FREQUENCY,
+                HIGH_RISK_MAX_STEP_FREQUENCY
+        );
     }
 
     @Override
     public void compute() {
-        ArrayList<Integer> determinedFallRiskGroups = new ArrayList<>();
-
         checkWalkingSpeed();
         checkRmsVerticalAcceleration();
-        if (USE_RMS_INSTEAD_OF_WALKING_SPEED) {
-            determinedFallRiskGroups.add(rmsVerticalAcceleration.level);
-        } else {
-            determinedFallRiskGroups.add(walkingSpeed.level);
-        }
-
         checkStepLength();
-        determinedFallRiskGroups.add(stepLength.level);
-
-
         checkStepFrequency();
-        determinedFallRiskGroups.add(stepFrequency.level);
-
-        /* NOTE: This approach will only work for odd numbers of indicators (like the 3 we have now). */
-        List<Integer> frequencies = Arrays.stream(FallRiskGroup.values())
-                .map(frg -> Collections.frequency(determinedFallRiskGroups, frg.level))
-                .toList();
-        int majorityRiskGroupIndex = frequencies.indexOf(Collections.max(frequencies));
-
-        this.total = FallRiskGroup.values()[majorityRiskGroupIndex];
+        this.total = combine(
+                USE_RMS_INSTEAD_OF_WALKING_SPEED ? rmsVerticalAcceleration : walkingSpeed,
+                stepLength,
+                stepFrequency
+        );
     }
 
     /**
@@ -0,0 +1,72 @@
+package smartfloor.domain.indicators.fall.risk;
+
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.ColumnarFallRiskScores;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskGroup;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskThresholdAssessment;
+
+/**
+ * <p>Scores many fall risk profiles at once, given their parameters in columnar form. Every fall risk profile gets the
+ * same total, score and (combined) threshold classification as when it would have been wrapped in a
+ * FallRiskScoreAssessment, a {@link FallRiskScore} and a FallRiskThresholdAssessment respectively, but without
+ * creating any objects per fall risk profile.</p>
+ * Like FallRiskThresholdAssessment, the combined classification is based on the walking speed, the step length and the
+ * step frequency (not on the RMS of the vertical acceleration).
+ */
+public final class BatchFallRiskScorer {
+
+    /**
+     * The risk group "level" of a fall risk profile for which a parameter is missing.
+     */
+    public static final int UNKNOWN_RISK_GROUP = 0;
+
+    private BatchFallRiskScorer() {
+    }
+
+    /**
+     * Score the given fall risk profiles.
+     *
+     * @return the totals, scores and risk groups (and the ids, if known), in the order of the given fall risk profiles
+     */
+    public static ColumnarFallRiskScores score(ColumnarFallRiskProfiles fallRiskProfiles) {
+        int size = fallRiskProfiles.size();
+        double[] walkingSpeed = fallRiskProfiles.getWalkingSpeed();
+        double[] stepLength = fallRiskProfiles.getStepLength();
+        double[] stepFrequency = fallRiskProfiles.getStepFrequency();
+        double[] total = new double[size];
+        double[] score = new double[size];
+        int[] riskGroup = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (Double.isNaN(walkingSpeed[i]) || Double.isNaN(stepLength[i]) || Double.isNaN(stepFrequency[i])) {
+                total[i] = 0;
+                score[i] = FallRiskRegressionModel.BOTTOM_BOUND_FRP_SCORE;
+                riskGroup[i] = UNKNOWN_RISK_GROUP;
+                continue;
+            }
+            total[i] = FallRiskRegressionModel.computeTotal(walkingSpeed[i], stepLength[i], stepFrequency[i]);
+            score[i] = FallRiskRegressionModel.convertTotalToTenPointScale(total[i]);
+            riskGroup[i] = classify(walkingSpeed[i], stepLength[i], stepFrequency[i]).level;
+        }
+        return new ColumnarFallRiskScores(fallRiskProfiles.getId(), total, score, riskGroup);
+    }
+
+    private static FallRiskGroup classify(double walkingSpeed, double stepLength, double stepFrequency) {
+        return FallRiskThresholdAssessment.combine(
+                FallRiskThresholdAssessment.classify(
+                        walkingSpeed,
+                        FallRiskThresholdAssessment.MODERATE_RISK_MAX_WALKING_SPEED,
+                        FallRiskThresholdAssessment.HIGH_RISK_MAX_WALKING_SPEED
+                ),
+                FallRiskThresholdAssessment.classify(
+                        stepLength,
+                        FallRiskThresholdAssessment.MODERATE_RISK_MAX_STEP_LENGTH,
+                        FallRiskThresholdAssessment.HIGH_RISK_MAX_STEP_LENGTH
+                ),
+                FallRiskThresholdAssessment.classify(
+                        stepFrequency,
+                        FallRiskThresholdAssessment.MODERATE_RISK_MAX_STEP_FREQUENCY,
+                        FallRiskThresholdAssessment.HIGH_RISK_MAX_STEP_FREQUENCY
+                )
+        );
+    }
+}
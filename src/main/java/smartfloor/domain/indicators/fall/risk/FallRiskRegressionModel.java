@@ -0,0 +1,68 @@
+package smartfloor.domain.indicators.fall.risk;
+
+/**
+ * <p>The linear regression model behind the fall risk score. In this model, we try to "predict" (y) the Tinetti score
+ * (see Tinetti gait assessment test) in the range [0,28] given the values (x) for the relevant features/indicators
+ * walking speed, step length and step frequency. This is the single source of the coefficients, for the scoring of
+ * a single fall risk profile (see FallRiskScoreAssessment and {@link FallRiskScore}), of many fall risk profiles at
+ * once (see {@link BatchFallRiskScorer}). The database scores fall risk profiles (see
+ * {@link FallRiskScore#FALL_RISK_PROFILE_SQL} and the fall risk histograms) with its only copy of this model
+ * (fall_risk_profile_score, see migrations V62 and V69), which has to be replaced by a new migration whenever the
+ * coefficients change. The integration tests compare both.</p>
+ * Note: the coefficients for walking speed and stride length are assuming meters/second (m/s) while the distance on
+ * the floor (and hence between steps/strides) is measured in millimeters (mm). Therefore, we do a unit conversion on
+ * these indicators (walking speed, stride length) before multiplying with these coefficients. We could also have
+ * converted the coefficients itself but the small floating-point values we then get seem less intuitive/interpretable.
+ */
+public final class FallRiskRegressionModel {
+
+    public static final double WALKING_SPEED_COEFFICIENT = 29.940;
+    public static final double STRIDE_LENGTH_COEFFICIENT = -10.845;
+    public static final double STRIDE_FREQUENCY_COEFFICIENT = -7.402;
+
+    /**
+     * Y-intercept (y = "predicted" Tinetti score) obtained from the LR model.
+     */
+    public static final double Y_INTERCEPT = 17.133;
+
+    /**
+     * The total is "predicted" on the 28 point scale of the Tinetti score, but is shown on a 10 point scale in our
+     * client applications.
+     */
+    public static final double UPPER_BOUND_TINETTI_SCORE = 28;
+    public static final double UPPER_BOUND_FRP_SCORE = 10;
+    public static final double BOTTOM_BOUND_FRP_SCORE = 0;
+
+    private static final double MILLIMETERS_PER_METER = 1000;
+
+    private FallRiskRegressionModel() {
+    }
+
+    /**
+     * Compute the "predicted" Tinetti score of the given indicators.
+     *
+     * @param walkingSpeed the walking speed in mm/s
+     * @param stepLength the step length in mm
+     * @param stepFrequency the step frequency in steps/s
+     * @return the total, which is not clamped to the range of the Tinetti score
+     */
+    public static double computeTotal(double walkingSpeed, double stepLength, double stepFrequency) {
+        return WALKING_SPEED_COEFFICIENT * (walkingSpeed / MILLIMETERS_PER_METER) +
+                STRIDE_LENGTH_COEFFICIENT * (stepLength / MILLIMETERS_PER_METER) +
+                STRIDE_FREQUENCY_COEFFICIENT * stepFrequency +
+                Y_INTERCEPT;
+    }
+
+    /**
+     * Convert a total (on the 28 point scale) to the 10 point scale, rounded to two decimals and clamped to [0,10].
+     */
+    public static double convertTotalToTenPointScale(double total) {
+        if (total > UPPER_BOUND_TINETTI_SCORE) {
+            return UPPER_BOUND_FRP_SCORE;
+        }
+        if (total <= BOTTOM_BOUND_FRP_SCORE) {
+            return BOTTOM_BOUND_FRP_SCORE;
+        }
+        return (double) Math.round(((total / UPPER_BOUND_TINETTI_SCORE) * UPPER_BOUND_FRP_SCORE) * 100) / 100;
+    }
+}
@@ -7,6 +7,7 @@ import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
 import smartfloor.domain.indicators.Indicator;
+import smartfloor.domain.indicators.footstep.GaitSummary;
 
 /**
  * The fall risk total is calculated on a 28 point scale, but converted to a 10 point scale in our client applications.
@@ -14,13 +15,14 @@ import smartfloor.domain.indicators.Indicator;
  */
 public final class FallRiskScore implements Indicator {
 
-    private static final double UPPER_BOUND_TINETTI_SCORE = 28;
-    private static final double UPPER_BOUND_FRP_SCORE = 10;
-    private static final double BOTTOM_BOUND_FRP_SCORE = 0;
-    private static final double WALKING_SPEED_COEFFICIENT = 29.940;
-    private static final double STRIDE_LENGTH_COEFFICIENT = -10.845;
-    private static final double STRIDE_FREQUENCY_COEFFICIENT = -7.402;
-    private static final double Y_INTERCEPT = 17.133;
+    /**
+     * The value of {@link #ofFallRiskProfile} (on the 10 point scale) as an SQL expression over the columns of a fall
+     * risk profile "frp", such that the scores of fall risk profiles can be aggregated by the database. It calls the
+     * database copy of the {@link FallRiskRegressionModel} (fall_risk_profile_score, see migrations V62 and V69), which
+     * the fall risk histograms are computed with as well.
+     */
+    public static final String FALL_RISK_PROFILE_SQL =
+            "fall_risk_profile_score(frp.walking_speed, frp.step_length, frp.step_frequency)";
 
     private Double value;
     private final String unit = "SF-VRP";
@@ -48,6 +50,23 @@ public final class FallRiskScore implements Indicator {
         return new FallRiskScore(footsteps, beginTime, endTime);
     }
 
+    /**
+     * Constructs a FallRiskScore (FRS) from the gait summary of a path of footsteps. Like an FRP, the score is only
+     * based on the footsteps with a position, so this is equivalent to {@link #of(List)} without walking the
+     * footsteps again.
+     */
+    public static FallRiskScore of(GaitSummary gait) {
+        GaitSummary gaitWithPosition = gait.withPositionOnly();
+        if (gaitWithPosition.isEmpty()) {
+            return new FallRiskScore((double) 0);
+        }
+        return new FallRiskScore(computeTotal(
+                gaitWithPosition.getAverageSpeed().getValue(),
+                gaitWithPosition.getAverageStrideLength().getValue(),
+                gaitWithPosition.getAverageStrideFrequency().getValue()
+        ));
+    }
+
     /**
      * Constructs a FallRiskScore (FRS) using a FallRiskProfile's indicators to compute a total score.
      */
@@ -59,15 +78,12 @@ public final class FallRiskScore implements Indicator {
         if ((walkingSpeed == null) || (stepLength == null) || (stepFrequency == null)) {
             return new FallRiskScore((double) 0);
         } else {
-            return new FallRiskScore(WALKING_SPEED_COEFFICIENT * convertToMeters(fallRiskProfile.getWalkingSpeed()) +
-                    STRIDE_LENGTH_COEFFICIENT * convertToMeters(fallRiskProfile.getStepLength()) +
-                    STRIDE_FREQUENCY_COEFFICIENT * fallRiskProfile.getStepFrequency() +
-                    Y_INTERCEPT);
+            return new FallRiskScore(computeTotal(walkingSpeed, stepLength, stepFrequency));
         }
     }
 
-    private static Double convertToMeters(Double mm) {
-        return mm / 1000;
+    private static Double computeTotal(Double walkingSpeed, Double stepLength, Double stepFrequency) {
+        return FallRiskRegressionModel.computeTotal(walkingSpeed, stepLength, stepFrequency);
     }
 
     private Double compute(List<Footstep> footsteps) {
@@ -91,13 +107,7 @@ public final class FallRiskScore implements Indicator {
     }
 
     private Double convertTotalToTenPointScale(Double total) {
-        if (total > UPPER_BOUND_TINETTI_SCORE) {
-            return UPPER_BOUND_FRP_SCORE;
-        }
-        if (total <= BOTTOM_BOUND_FRP_SCORE) {
-            return BOTTOM_BOUND_FRP_SCORE;
-        }
-        return (double) Math.round(((total / UPPER_BOUND_TINETTI_SCORE) * UPPER_BOUND_FRP_SCORE) * 100) / 100;
+        return FallRiskRegressionModel.convertTotalToTenPointScale(total);
     }
 
     @Override
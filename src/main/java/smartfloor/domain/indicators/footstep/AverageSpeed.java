@@ -12,20 +12,16 @@ public final class AverageSpeed implements Indicator {
     private AverageSpeed() {
     }
 
-    private AverageSpeed(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
-    }
-
     private AverageSpeed(Double aggregate) {
         this.value = aggregate;
     }
 
-    private AverageSpeed(List<Footstep> footsteps, WalkingTime time) {
-        this.value = compute(footsteps, time);
+    public static AverageSpeed of(List<Footstep> footsteps) {
+        return GaitSummary.of(footsteps).getAverageSpeed();
     }
 
-    public static AverageSpeed of(List<Footstep> footsteps) {
-        return new AverageSpeed(footsteps);
+    public static AverageSpeed of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getAverageSpeed();
     }
 
     public static AverageSpeed of(Number aggregate) {
@@ -33,7 +29,11 @@ public final class AverageSpeed implements Indicator {
     }
 
     public static AverageSpeed withWalkingTime(List<Footstep> footsteps, WalkingTime time) {
-        return new AverageSpeed(footsteps, time);
+        return GaitSummary.of(footsteps).getAverageSpeed(time);
+    }
+
+    public static AverageSpeed withWalkingTime(FootstepSeries footsteps, WalkingTime time) {
+        return GaitSummary.of(footsteps).getAverageSpeed(time);
     }
 
     @Override
@@ -46,17 +46,4 @@ public final class AverageSpeed implements Indicator {
         return this.unit;
     }
 
-    private Double compute(List<Footstep> footsteps, WalkingTime time) {
-        CoveredDistance distance = CoveredDistance.of(footsteps);
-        if (time.getValue() > 0) {
-            return distance.getValue() / time.getValue();
-        }
-        return 0.0;
-    }
-
-    private Double compute(List<Footstep> footsteps) {
-        WalkingTime time = WalkingTime.of(footsteps);
-        return compute(footsteps, time);
-    }
-
 }
@@ -12,16 +12,19 @@ public final class AverageStrideFrequency implements Indicator {
     private AverageStrideFrequency() {
     }
 
-    private AverageStrideFrequency(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
-    }
-
     private AverageStrideFrequency(Double value) {
         this.value = value;
     }
 
     public static AverageStrideFrequency of(List<Footstep> footsteps) {
-        return new AverageStrideFrequency(footsteps);
+        return GaitSummary.of(footsteps).getAverageStrideFrequency();
+    }
+
+    /**
+     * See {@link GaitSummary#getAverageStrideFrequency()}.
+     */
+    public static AverageStrideFrequency of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getAverageStrideFrequency();
     }
 
     public static AverageStrideFrequency of(Number aggregate) {
@@ -37,22 +40,4 @@ public final class AverageStrideFrequency implements Indicator {
     public String getUnit() {
         return this.unit;
     }
-
-    /**
-     * <p>The average step frequency for a given list (path) of footsteps is determined by taking the amount of steps
-     * and dividing it by the time it took to walk the path (i.e. the time between the first and last footstep).</p>
-     * NOTE: When supplying a list of footsteps from a SINGLE wearable, we should consider this the average STRIDE
-     * frequency.
-     *
-     * @param footsteps an input list (path) of footsteps
-     * @return the average step frequency in steps/second
-     */
-    private Double compute(List<Footstep> footsteps) {
-        if (!footsteps.isEmpty()) {
-            final int amountOfSteps = footsteps.size();
-            WalkingTime walkingTime = WalkingTime.of(footsteps);
-            return amountOfSteps / walkingTime.getValue();
-        }
-        return 0.0;
-    }
 }
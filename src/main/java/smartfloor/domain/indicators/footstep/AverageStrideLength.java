@@ -16,12 +16,12 @@ public final class AverageStrideLength implements Indicator {
         this.value = value;
     }
 
-    private AverageStrideLength(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
+    public static AverageStrideLength of(List<Footstep> footsteps) {
+        return GaitSummary.of(footsteps).getAverageStrideLength();
     }
 
-    public static AverageStrideLength of(List<Footstep> footsteps) {
-        return new AverageStrideLength(footsteps);
+    public static AverageStrideLength of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getAverageStrideLength();
     }
 
     /**
@@ -41,13 +41,4 @@ public final class AverageStrideLength implements Indicator {
         return this.unit;
     }
 
-    private Double compute(List<Footstep> footsteps) {
-        CoveredDistance cd = CoveredDistance.of(footsteps);
-        final int amountOfSteps = footsteps.size();
-        if (amountOfSteps == 0) {
-            return 0.0;
-        }
-        return cd.getValue() / amountOfSteps;
-    }
-
 }
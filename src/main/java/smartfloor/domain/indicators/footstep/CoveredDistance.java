@@ -1,7 +1,6 @@
 package smartfloor.domain.indicators.footstep;
 
 import java.util.List;
-import java.util.stream.IntStream;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.indicators.Indicator;
 
@@ -17,16 +16,16 @@ public final class CoveredDistance implements Indicator {
     private CoveredDistance() {
     }
 
-    private CoveredDistance(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
-    }
-
     private CoveredDistance(Double aggregate) {
         this.value = aggregate;
     }
 
     public static CoveredDistance of(List<Footstep> footsteps) {
-        return new CoveredDistance(footsteps);
+        return GaitSummary.of(footsteps).getCoveredDistance();
+    }
+
+    public static CoveredDistance of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getCoveredDistance();
     }
 
     public static CoveredDistance of(Number aggregate) {
@@ -43,18 +42,4 @@ public final class CoveredDistance implements Indicator {
         return this.value;
     }
 
-    private Double compute(List<Footstep> footsteps) {
-        final List<Footstep> footstepsWithPosition = footsteps
-                .stream()
-                .filter(Footstep::hasPosition)
-                .toList();
-        return IntStream
-                .range(0, footstepsWithPosition.size() - 1)
-                .mapToDouble(i -> footstepsWithPosition.get(i).getPosition()
-                        .distanceTo(
-                                footstepsWithPosition.get(i + 1).getPosition())
-                )
-                .sum();
-    }
-
 }
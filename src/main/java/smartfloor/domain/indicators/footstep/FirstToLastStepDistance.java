@@ -17,7 +17,27 @@ public final class FirstToLastStepDistance implements Indicator {
     }
 
     public FirstToLastStepDistance(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
+        this.value = GaitSummary.of(footsteps).getFirstToLastStepDistance().getValue();
+    }
+
+    public FirstToLastStepDistance(FootstepSeries footsteps) {
+        this.value = GaitSummary.of(footsteps).getFirstToLastStepDistance().getValue();
+    }
+
+    private FirstToLastStepDistance(Double aggregate) {
+        this.value = aggregate;
+    }
+
+    /**
+     * Note: Only footsteps from which a position could be determined are used (for now). Otherwise, should either the
+     * first or last step be missing a position, we cannot correctly compute the distance.
+     */
+    public static FirstToLastStepDistance of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getFirstToLastStepDistance();
+    }
+
+    public static FirstToLastStepDistance of(Number aggregate) {
+        return new FirstToLastStepDistance(aggregate.doubleValue());
     }
 
     @Override
@@ -30,24 +50,4 @@ public final class FirstToLastStepDistance implements Indicator {
         return unit;
     }
 
-    /**
-     * Note: We only use footsteps from which a position could be determined (for now).
-     * Otherwise, should either the first or last step be missing a position, we cannot correctly compute the distance.
-     *
-     * @param footsteps an input list (path) of footsteps
-     * @return first to last step distance of the list (path) of footsteps in mm
-     */
-    Double compute(List<Footstep> footsteps) {
-        List<Footstep> footstepsWithPosition = footsteps
-                .stream()
-                .filter(Footstep::hasPosition)
-                .toList();
-        if (footstepsWithPosition.size() >= 2) {
-            Footstep first = footstepsWithPosition.get(0);
-            Footstep last = footstepsWithPosition.get(footstepsWithPosition.size() - 1);
-            return first.getPosition().distanceTo(last.getPosition());
-        }
-        return 0.0;
-    }
-
 }
@@ -0,0 +1,179 @@
+package smartfloor.domain.indicators.footstep;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import smartfloor.domain.entities.Footstep;
+
+/**
+ * <p>An immutable, array-backed series of footsteps that is used for computing the footstep indicators. The timestamps
+ * are stored as epoch milliseconds (UTC) and the positions as separate x and y coordinate arrays, such that iterating
+ * over a series does not allocate nor (un)box any values.</p>
+ * A footstep without a position is stored with NaN coordinates, see {@link #hasPositionAt(int)}. Like the lists of
+ * footsteps we get from the footstep service, a series is assumed to be ordered by time.
+ */
+public final class FootstepSeries {
+
+    private static final FootstepSeries EMPTY = new FootstepSeries(new long[0], new double[0], new double[0], 0);
+
+    private final long[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final int positionCount;
+
+    private FootstepSeries(long[] times, double[] xs, double[] ys, int positionCount) {
+        this.times = times;
+        this.xs = xs;
+        this.ys = ys;
+        this.positionCount = positionCount;
+    }
+
+    public static FootstepSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a series from a given (time-ordered) list of footsteps.
+     */
+    public static FootstepSeries of(List<Footstep> footsteps) {
+        Builder builder = builder(footsteps.size());
+        for (Footstep footstep : footsteps) {
+            if (footstep.hasPosition()) {
+                builder.add(footstep.getTime(), footstep.getPosition().getX(), footstep.getPosition().getY());
+            } else {
+                builder.add(footstep.getTime());
+            }
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    /**
+     * The number of footsteps in this series for which a position is known.
+     */
+    public int positionCount() {
+        return positionCount;
+    }
+
+    public long timeAt(int i) {
+        return times[i];
+    }
+
+    public double positionXAt(int i) {
+        return xs[i];
+    }
+
+    public double positionYAt(int i) {
+        return ys[i];
+    }
+
+    public boolean hasPositionAt(int i) {
+        return !Double.isNaN(xs[i]);
+    }
+
+    /**
+     * Returns the sub-series of footsteps that have a position, which is equivalent to filtering a list of footsteps
+     * on {@link Footstep#hasPosition()}. Returns this series itself when every footstep has a position.
+     */
+    public FootstepSeries withPositionOnly() {
+        if (positionCount == times.length) {
+            return this;
+        }
+        long[] filteredTimes = new long[positionCount];
+        double[] filteredXs = new double[positionCount];
+        double[] filteredYs = new double[positionCount];
+        int j = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (hasPositionAt(i)) {
+                filteredTimes[j] = times[i];
+                filteredXs[j] = xs[i];
+                filteredYs[j] = ys[i];
+                j++;
+            }
+        }
+        return new FootstepSeries(filteredTimes, filteredXs, filteredYs, positionCount);
+    }
+
+    /**
+     * Collects footsteps into a series. Footsteps are expected to be added in chronological order.
+     */
+    public static final class Builder {
+        private long[] times;
+        private double[] xs;
+        private double[] ys;
+        private int size = 0;
+        private int positionCount = 0;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.times = new long[capacity];
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+        }
+
+        /**
+         * Adds a footstep with a position.
+         */
+        public Builder add(long epochMillis, double x, double y) {
+            ensureCapacity();
+            times[size] = epochMillis;
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+            positionCount++;
+            return this;
+        }
+
+        public Builder add(LocalDateTime time, double x, double y) {
+            return add(time.toInstant(ZoneOffset.UTC).toEpochMilli(), x, y);
+        }
+
+        /**
+         * Adds a footstep for which no position is known.
+         */
+        public Builder add(LocalDateTime time) {
+            ensureCapacity();
+            times[size] = time.toInstant(ZoneOffset.UTC).toEpochMilli();
+            xs[size] = Double.NaN;
+            ys[size] = Double.NaN;
+            size++;
+            return this;
+        }
+
+        private void ensureCapacity() {
+            if (size == times.length) {
+                int capacity = times.length * 2;
+                times = Arrays.copyOf(times, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+            }
+        }
+
+        /**
+         * Builds the series. The builder should not be used anymore afterwards.
+         */
+        public FootstepSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new FootstepSeries(
+                    Arrays.copyOf(times, size),
+                    Arrays.copyOf(xs, size),
+                    Arrays.copyOf(ys, size),
+                    positionCount
+            );
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package smartfloor.domain.indicators.footstep;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import smartfloor.domain.entities.Footstep;
+
+/**
+ * <p>All footstep indicators of a (time-ordered) path of footsteps, computed in a single pass over the footsteps. The
+ * indicators that are derived from others (stride length, stride frequency and speed) reuse the covered distance,
+ * walking time and step count of this summary instead of computing them again.</p>
+ * The covered distance and first-to-last step distance only take footsteps with a position into account, while the
+ * step count and walking time are based on all footsteps. Use {@link #withPositionOnly()} to get the summary of only
+ * the footsteps that have a position, which is what the fall risk profiles are based on.
+ */
+public final class GaitSummary {
+
+    private final int stepCount;
+    private final double walkingTime;
+    private final double coveredDistance;
+    private final double firstToLastStepDistance;
+    private final int positionedStepCount;
+    private final double positionedWalkingTime;
+
+    private GaitSummary(
+            int stepCount,
+            double walkingTime,
+            double coveredDistance,
+            double firstToLastStepDistance,
+            int positionedStepCount,
+            double positionedWalkingTime
+    ) {
+        this.stepCount = stepCount;
+        this.walkingTime = walkingTime;
+        this.coveredDistance = coveredDistance;
+        this.firstToLastStepDistance = firstToLastStepDistance;
+        this.positionedStepCount = positionedStepCount;
+        this.positionedWalkingTime = positionedWalkingTime;
+    }
+
+    /**
+     * Summarizes the footsteps in a single pass.
+     */
+    public static GaitSummary of(List<Footstep> footsteps) {
+        Accumulator accumulator = accumulator();
+        for (Footstep footstep : footsteps) {
+            accumulator.add(footstep);
+        }
+        return accumulator.summarize();
+    }
+
+    /**
+     * Summarizes the footsteps of a series in a single pass over its arrays.
+     */
+    public static GaitSummary of(FootstepSeries footsteps) {
+        Accumulator accumulator = accumulator();
+        for (int i = 0; i < footsteps.size(); i++) {
+            if (footsteps.hasPositionAt(i)) {
+                accumulator.add(footsteps.timeAt(i), footsteps.positionXAt(i), footsteps.positionYAt(i));
+            } else {
+                accumulator.add(footsteps.timeAt(i));
+            }
+        }
+        return accumulator.summarize();
+    }
+
+    public static Accumulator accumulator() {
+        return new Accumulator();
+    }
+
+    /**
+     * Returns the summary of only the footsteps that have a position. This is equivalent to summarizing the footsteps
+     * after filtering them on {@link Footstep#hasPosition()}, without walking the footsteps again.
+     */
+    public GaitSummary withPositionOnly() {
+        if (positionedStepCount == stepCount) {
+            return this;
+        }
+        return new GaitSummary(
+                positionedStepCount,
+                positionedWalkingTime,
+                coveredDistance,
+                firstToLastStepDistance,
+                positionedStepCount,
+                positionedWalkingTime
+        );
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public boolean isEmpty() {
+        return stepCount == 0;
+    }
+
+    public CoveredDistance getCoveredDistance() {
+        return CoveredDistance.of(coveredDistance);
+    }
+
+    public FirstToLastStepDistance getFirstToLastStepDistance() {
+        return FirstToLastStepDistance.of(firstToLastStepDistance);
+    }
+
+    public WalkingTime getWalkingTime() {
+        return WalkingTime.of(walkingTime);
+    }
+
+    /**
+     * The covered distance divided by the amount of steps (in mm).
+     */
+    public AverageStrideLength getAverageStrideLength() {
+        if (stepCount == 0) {
+            return AverageStrideLength.of(0.0);
+        }
+        return AverageStrideLength.of(coveredDistance / stepCount);
+    }
+
+    /**
+     * <p>The amount of steps divided by the time it took to walk the path (in steps/second).</p>
+     * NOTE: When summarizing the footsteps of a SINGLE wearable, we should consider this the average STRIDE frequency.
+     */
+    public AverageStrideFrequency getAverageStrideFrequency() {
+        if (stepCount == 0) {
+            return AverageStrideFrequency.of(0.0);
+        }
+        return AverageStrideFrequency.of(stepCount / walkingTime);
+    }
+
+    /**
+     * The covered distance divided by the walking time (in mm/s).
+     */
+    public AverageSpeed getAverageSpeed() {
+        return getAverageSpeed(walkingTime);
+    }
+
+    /**
+     * The covered distance divided by a custom walking time (in mm/s), e.g. the duration of a trial.
+     */
+    public AverageSpeed getAverageSpeed(WalkingTime time) {
+        return getAverageSpeed(time.getValue());
+    }
+
+    private AverageSpeed getAverageSpeed(double walkingTimeInSeconds) {
+        if (walkingTimeInSeconds > 0) {
+            return AverageSpeed.of(coveredDistance / walkingTimeInSeconds);
+        }
+        return AverageSpeed.of(0.0);
+    }
+
+    /**
+     * Accumulates footsteps into a gait summary, one footstep at a time. Footsteps are expected to be added in
+     * chronological order.
+     */
+    public static final class Accumulator {
+        private int stepCount = 0;
+        private long firstTime;
+        private long lastTime;
+        private int positionedStepCount = 0;
+        private long firstPositionedTime;
+        private long lastPositionedTime;
+        private double firstX;
+        private double firstY;
+        private double lastX;
+        private double lastY;
+        private double coveredDistance = 0.0;
+
+        private Accumulator() {
+        }
+
+        /**
+         * Adds a footstep, with or without a position.
+         */
+        public Accumulator add(Footstep footstep) {
+            long epochMillis = toEpochMillis(footstep.getTime());
+            if (footstep.hasPosition()) {
+                return add(epochMillis, footstep.getPosition().getX(), footstep.getPosition().getY());
+            }
+            return add(epochMillis);
+        }
+
+        /**
+         * Adds a footstep with a position.
+         */
+        public Accumulator add(long epochMillis, double x, double y) {
+            add(epochMillis);
+            if (positionedStepCount == 0) {
+                firstPositionedTime = epochMillis;
+                firstX = x;
+                firstY = y;
+            } else {
+                coveredDistance += distance(lastX, lastY, x, y);
+            }
+            lastPositionedTime = epochMillis;
+            lastX = x;
+            lastY = y;
+            positionedStepCount++;
+            return this;
+        }
+
+        /**
+         * Adds a footstep for which no position is known.
+         */
+        public Accumulator add(long epochMillis) {
+            if (stepCount == 0) {
+                firstTime = epochMillis;
+            }
+            lastTime = epochMillis;
+            stepCount++;
+            return this;
+        }
+
+        /**
+         * Returns the summary of the footsteps that have been added so far.
+         */
+        public GaitSummary summarize() {
+            double firstToLastStepDistance = positionedStepCount >= 2 ? distance(firstX, firstY, lastX, lastY) : 0.0;
+            return new GaitSummary(
+                    stepCount,
+                    stepCount > 0 ? (lastTime - firstTime) / 1000.0 : 0.0,
+                    coveredDistance,
+                    firstToLastStepDistance,
+                    positionedStepCount,
+                    positionedStepCount > 0 ? (lastPositionedTime - firstPositionedTime) / 1000.0 : 0.0
+            );
+        }
+
+        private static double distance(double x1, double y1, double x2, double y2) {
+            double deltaX = x1 - x2;
+            double deltaY = y1 - y2;
+            return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        }
+
+        private static long toEpochMillis(LocalDateTime time) {
+            return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+    }
+}
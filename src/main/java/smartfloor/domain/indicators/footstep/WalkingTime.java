@@ -14,10 +14,6 @@ public final class WalkingTime implements Indicator {
     private WalkingTime() {
     }
 
-    private WalkingTime(List<Footstep> footsteps) {
-        this.value = compute(footsteps);
-    }
-
     private WalkingTime(Double value) {
         this.value = value;
     }
@@ -26,7 +22,18 @@ public final class WalkingTime implements Indicator {
      * TODO.
      */
     public static WalkingTime of(List<Footstep> footsteps) {
-        return new WalkingTime(footsteps);
+        return GaitSummary.of(footsteps).getWalkingTime();
+    }
+
+    /**
+     * The walking time (in seconds) between the first and the last footstep of the series.
+     */
+    public static WalkingTime of(FootstepSeries footsteps) {
+        return GaitSummary.of(footsteps).getWalkingTime();
+    }
+
+    public static WalkingTime of(Number seconds) {
+        return new WalkingTime(seconds.doubleValue());
     }
 
     /**
@@ -47,13 +54,4 @@ public final class WalkingTime implements Indicator {
     public String getUnit() {
         return this.unit;
     }
-
-    Double compute(List<Footstep> footsteps) {
-        if (!footsteps.isEmpty()) {
-            final long beginTime = footsteps.get(0).getTime().toInstant(ZoneOffset.UTC).toEpochMilli();
-            final long endTime = footsteps.get(footsteps.size() - 1).getTime().toInstant(ZoneOffset.UTC).toEpochMilli();
-            return (endTime - beginTime) / 1000.0;
-        }
-        return 0.0;
-    }
 }
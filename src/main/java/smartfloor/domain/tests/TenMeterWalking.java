@@ -12,6 +12,7 @@ import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.rehabilitation.TestResult;
 import smartfloor.domain.indicators.Indicator;
 import smartfloor.domain.indicators.footstep.AverageSpeed;
+import smartfloor.domain.indicators.footstep.GaitSummary;
 import smartfloor.domain.tests.util.TestUtils;
 import static tech.units.indriya.unit.Units.METRE;
 
@@ -74,13 +75,13 @@ public final class TenMeterWalking extends AbstractTest {
                     .stream()
                     .filter(Footstep::hasPosition)
                     .toList();
-            Double distance = 0.0;
+            double distance = 0.0;
             UnitConverter toMeters = MetricPrefix.MILLI(METRE).getConverterTo(METRE);
             for (int i = 0; i < footstepsWithPosition.size() - 1; i++) {
                 distance += footstepsWithPosition.get(i)
                         .getPosition()
                         .distanceTo(footstepsWithPosition.get(i + 1).getPosition());
-                final double distanceInMeters = toMeters.convert(distance).doubleValue();
+                final double distanceInMeters = toMeters.convert(distance);
                 /* We find the sub list of footsteps that has at least 10 meters (the last footstep makes it 10 meters
                  or a bit more). Sub list includes from 0 to i + 1 since we need to include the step beyond this
                  iteration since that is what we take the last distance to (i+2 since the endpoint is exclusive). */
@@ -100,7 +101,7 @@ public final class TenMeterWalking extends AbstractTest {
         @Override
         protected List<Indicator> compute(List<Footstep> footsteps) {
             return List.of(
-                    AverageSpeed.of(footsteps)
+                    GaitSummary.of(footsteps).getAverageSpeed()
             );
         }
 
@@ -12,6 +12,7 @@ import smartfloor.domain.indicators.Indicator;
 import smartfloor.domain.indicators.fall.risk.FallRiskScore;
 import smartfloor.domain.indicators.footstep.AverageSpeed;
 import smartfloor.domain.indicators.footstep.CoveredDistance;
+import smartfloor.domain.indicators.footstep.GaitSummary;
 import smartfloor.domain.indicators.footstep.WalkingTime;
 import smartfloor.domain.tests.util.TestUtils;
 
@@ -84,10 +85,11 @@ public class Walk extends AbstractTest {
 
         @Override
         protected List<Indicator> compute(List<Footstep> footsteps) {
+            GaitSummary gait = GaitSummary.of(footsteps);
             return List.of(
-                    CoveredDistance.of(footsteps),
-                    AverageSpeed.withWalkingTime(footsteps, WalkingTime.of(this.getBeginTime(), this.getEndTime())),
-                    FallRiskScore.of(footsteps, this.getBeginTime(), this.getEndTime())
+                    gait.getCoveredDistance(),
+                    gait.getAverageSpeed(WalkingTime.of(this.getBeginTime(), this.getEndTime())),
+                    FallRiskScore.of(gait)
             );
         }
     }
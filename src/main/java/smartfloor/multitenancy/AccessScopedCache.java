@@ -0,0 +1,66 @@
+package smartfloor.multitenancy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A Caffeine cache that scopes every key to the current access scope, see {@link AccessScopedCacheKey}. Hence, the
+ * keys of cached methods (e.g. of @Cacheable annotations) only have to identify the computation itself, and never have
+ * to include the tenant or the principal for which it was done.
+ */
+public class AccessScopedCache extends CaffeineCache {
+
+    public AccessScopedCache(String name, Cache<Object, Object> cache) {
+        super(name, cache);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return super.lookup(AccessScopedCacheKey.of(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return super.get(AccessScopedCacheKey.of(key), valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(AccessScopedCacheKey.of(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return super.putIfAbsent(AccessScopedCacheKey.of(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(AccessScopedCacheKey.of(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return super.evictIfPresent(AccessScopedCacheKey.of(key));
+    }
+
+    /**
+     * Evicts all entries (of any access scope) of which the value matches the given predicate.
+     */
+    public void evictValues(Predicate<Object> valuePredicate) {
+        getNativeCache().asMap().values().removeIf(valuePredicate);
+    }
+
+    /**
+     * Evicts all entries that may contain data of the given tenant, see
+     * {@link AccessScopedCacheKey#mayContainDataOf(Long)}.
+     */
+    public void evictTenant(Long tenantId) {
+        getNativeCache().asMap().keySet().removeIf(key ->
+                key instanceof AccessScopedCacheKey accessScopedCacheKey &&
+                        accessScopedCacheKey.mayContainDataOf(tenantId)
+        );
+    }
+}
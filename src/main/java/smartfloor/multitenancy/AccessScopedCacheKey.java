@@ -0,0 +1,91 @@
+package smartfloor.multitenancy;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import smartfloor.domain.UserType;
+import smartfloor.domain.entities.CompositeUser;
+import smartfloor.domain.entities.User;
+
+/**
+ * The key of a cache entry within the access scope in which it was computed: the tenant (for direct users) or the
+ * composite user (for composite users) of the {@link AccessScopeContext}, and the authenticated principal. Two requests
+ * only share a cache entry when they have the same access scope, so a cached result never leaks to another tenant, nor
+ * to another user of the same tenant that may not be authorized to see it.
+ *
+ * @param userType        the user type of the access scope
+ * @param tenantId        the tenant id of the access scope (only for direct users)
+ * @param compositeUserId the composite user id of the access scope (only for composite users)
+ * @param principal       the authenticated principal, e.g. "User#1", or null if there is none
+ * @param key             the key of the cache entry within the access scope
+ */
+public record AccessScopedCacheKey(
+        UserType userType,
+        Long tenantId,
+        Long compositeUserId,
+        String principal,
+        Object key
+) {
+
+    /**
+     * Scopes the given key to the current access scope. A key that has already been scoped is returned as is.
+     */
+    public static AccessScopedCacheKey of(Object key) {
+        if (key instanceof AccessScopedCacheKey accessScopedCacheKey) {
+            return accessScopedCacheKey;
+        }
+        return of(key, getCurrentPrincipal());
+    }
+
+    private static AccessScopedCacheKey of(Object key, String principal) {
+        // The thread local values of the access scope context are not reset in between requests, so only the value that
+        // belongs to the user type of the current request is taken into account.
+        UserType userType = AccessScopeContext.INSTANCE.getUserType();
+        if (userType == UserType.COMPOSITE_USER) {
+            return new AccessScopedCacheKey(
+                    userType,
+                    null,
+                    AccessScopeContext.INSTANCE.getCompositeUserId(),
+                    principal,
+                    key
+            );
+        }
+        return new AccessScopedCacheKey(
+                userType,
+                AccessScopeContext.INSTANCE.getTenantId(),
+                null,
+                principal,
+                key
+        );
+    }
+
+    /**
+     * Scopes the given key to the tenant or composite user of the current access scope, but not to the authenticated
+     * principal. Only meant for entries that are looked up before there is one, i.e. the authenticated principals.
+     */
+    public static AccessScopedCacheKey withoutPrincipal(Object key) {
+        return of(key, null);
+    }
+
+    /**
+     * Whether the cache entry may contain data of the given tenant. This holds for the entries of the tenant itself,
+     * but also for all entries of composite users, as the sub-users of a composite user can belong to any tenant.
+     */
+    public boolean mayContainDataOf(Long tenantId) {
+        return userType == UserType.COMPOSITE_USER || tenantId.equals(this.tenantId);
+    }
+
+    private static String getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return "User#" + user.getId();
+        }
+        if (principal instanceof CompositeUser compositeUser) {
+            return "CompositeUser#" + compositeUser.getId();
+        }
+        return authentication.getName();
+    }
+}
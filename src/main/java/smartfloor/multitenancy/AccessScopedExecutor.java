@@ -0,0 +1,139 @@
+package smartfloor.multitenancy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import smartfloor.domain.UserType;
+
+/**
+ * <p>Runs a function for every element of a list concurrently (e.g. a database lookup for every user of a group), on
+ * virtual threads. The {@link AccessScopeContext} and the security context of the calling thread are propagated to
+ * every worker. Hence, the connections that the workers obtain are scoped to the same tenant or composite user (see
+ * DataSourceConfig.TenantAwareDataSource) and the workers pass the same authorization checks as the calling thread.
+ * </p>
+ * <p>The number of functions that run at the same time is bounded over all callers, since every running function may
+ * hold a database connection. The bound should therefore stay well below the size of the connection pool. It only pays
+ * off for functions that mostly wait on the database: work that is done in memory (e.g. the authorization checks of
+ * the AccessGraph) is cheaper on the calling thread than the thread hops and the connections of the workers.</p>
+ * Note: the workers do not take part in the transaction (nor the persistence context) of the calling thread, so they
+ * should only be given functions that look up data by themselves, rather than functions that lazily load associations
+ * of entities of the calling thread.
+ */
+public class AccessScopedExecutor implements AutoCloseable {
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+
+    public AccessScopedExecutor(int maxConcurrency) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), maxConcurrency);
+    }
+
+    AccessScopedExecutor(ExecutorService executorService, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency should be at least 1.");
+        }
+        this.executorService = executorService;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Applies the given function to every element of the given list concurrently, within the access scope of the
+     * calling thread. Blocks until all results are available.
+     *
+     * @return the results of the function, in the order of the elements
+     * @throws RuntimeException the (first) exception that the function threw, any remaining work is cancelled
+     */
+    public <T, R> List<R> map(List<T> elements, Function<? super T, ? extends R> function) {
+        if (elements.size() <= 1) {
+            // Not worth a thread hop.
+            return elements.stream().<R>map(function).toList();
+        }
+        AccessScope accessScope = AccessScope.capture();
+        List<Future<R>> futures = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            futures.add(executorService.submit(() -> accessScope.<R>call(() -> {
+                permits.acquire();
+                try {
+                    return function.apply(element);
+                } finally {
+                    permits.release();
+                }
+            })));
+        }
+        List<R> results = new ArrayList<>(elements.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the results.");
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executorService.close();
+    }
+
+    /**
+     * A snapshot of the access scope (and security context) of a thread, that can be applied to another thread.
+     */
+    private record AccessScope(
+            UserType userType,
+            Long tenantId,
+            Long compositeUserId,
+            SecurityContext securityContext
+    ) {
+
+        static AccessScope capture() {
+            return new AccessScope(
+                    AccessScopeContext.INSTANCE.getUserType(),
+                    AccessScopeContext.INSTANCE.getTenantId(),
+                    AccessScopeContext.INSTANCE.getCompositeUserId(),
+                    SecurityContextHolder.getContext()
+            );
+        }
+
+        /**
+         * Calls the given callable within this access scope, and restores the access scope of the current thread
+         * afterwards.
+         */
+        <V> V call(Callable<V> callable) throws Exception {
+            AccessScope previous = capture();
+            apply();
+            try {
+                return callable.call();
+            } finally {
+                previous.apply();
+            }
+        }
+
+        private void apply() {
+            AccessScopeContext.INSTANCE.setUserType(userType);
+            AccessScopeContext.INSTANCE.setTenantId(tenantId);
+            AccessScopeContext.INSTANCE.setCompositeUserId(compositeUserId);
+            SecurityContextHolder.setContext(securityContext);
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package smartfloor.repository.jpa;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.indicators.fall.risk.FallRiskScore;
+import smartfloor.serializer.CustomLocalDateTimeSerializer;
 
 @Repository
 public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile, Long> {
 
+    /**
+     * The number of rows fetched per round trip when streaming fall risk profiles through a server-side cursor.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
     /**
      * <p>We query the fall risk profiles of the wearable for which the id is given.
      * A fall risk profile has three temporal properties: its creation time, begin time and end time. The begin and end
@@ -23,9 +35,8 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
     @Query(
             value =
                     "SELECT frp.* FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
                             "WHERE frp.wearable_id=?1 AND frp.hidden=false AND frp.created_at BETWEEN ?2 AND ?3 " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "AND frp.removed_at IS NULL " +
                             "ORDER BY frp.created_at",
             nativeQuery = true
     )
@@ -46,9 +57,8 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
     @Query(
             value =
                     "SELECT frp.* FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
                             "WHERE frp.wearable_id=?1 AND frp.created_at BETWEEN ?2 AND ?3 " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "AND frp.removed_at IS NULL " +
                             "ORDER BY frp.created_at",
             nativeQuery = true
     )
@@ -65,9 +75,8 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
     @Query(
             value =
                     "SELECT frp.* FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
                             "WHERE frp.wearable_id=?1 AND frp.hidden=false " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "AND frp.removed_at IS NULL " +
                             "ORDER BY frp.created_at",
             nativeQuery = true
     )
@@ -80,14 +89,62 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
     @Query(
             value =
                     "SELECT frp.* FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
                             "WHERE frp.wearable_id=?1 " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "AND frp.removed_at IS NULL " +
                             "ORDER BY frp.created_at",
             nativeQuery = true
     )
     List<FallRiskProfile> findByWearableIdOrderByCreationTime(String wearableId);
 
+    /**
+     * <p>We query the fall risk profiles of the user for which the id is given: the fall risk profiles of every
+     * wearable that the user has worn, which were created within the period of time in which the user wore it (see
+     * {@link #findByWearableIdAndCreationTimeBetweenOrderByCreationTime}).</p>
+     * <p>All user-wearable links of the user are handled at once, so the cost does not grow with their number. A fall
+     * risk profile that lies within multiple links appears only once.</p> Note: we include hidden FRPs in the result
+     * set.
+     */
+    @Query(
+            value =
+                    "WITH user_frp_ids AS ( " +
+                            "SELECT DISTINCT f.id " +
+                            "FROM user_wearable_links uwl " +
+                            "INNER JOIN fall_risk_profiles f ON f.wearable_id = uwl.wearable_id " +
+                            "AND f.created_at BETWEEN uwl.begin_time AND uwl.end_time " +
+                            "WHERE uwl.user_id = ?1 " +
+                            "AND f.removed_at IS NULL " +
+                            ") " +
+                            "SELECT frp.* " +
+                            "FROM fall_risk_profiles frp " +
+                            "INNER JOIN user_frp_ids ids ON ids.id = frp.id " +
+                            "ORDER BY frp.created_at, frp.id",
+            nativeQuery = true
+    )
+    List<FallRiskProfile> findByUserIdOrderByCreationTime(Long userId);
+
+    /**
+     * <p>We query the fall risk profiles of the user for which the id is given, see
+     * {@link #findByUserIdOrderByCreationTime}.</p> Note: we do not include hidden FRPs in the result set.
+     */
+    @Query(
+            value =
+                    "WITH user_frp_ids AS ( " +
+                            "SELECT DISTINCT f.id " +
+                            "FROM user_wearable_links uwl " +
+                            "INNER JOIN fall_risk_profiles f ON f.wearable_id = uwl.wearable_id " +
+                            "AND f.created_at BETWEEN uwl.begin_time AND uwl.end_time " +
+                            "WHERE uwl.user_id = ?1 " +
+                            "AND f.hidden = false " +
+                            "AND f.removed_at IS NULL " +
+                            ") " +
+                            "SELECT frp.* " +
+                            "FROM fall_risk_profiles frp " +
+                            "INNER JOIN user_frp_ids ids ON ids.id = frp.id " +
+                            "ORDER BY frp.created_at, frp.id",
+            nativeQuery = true
+    )
+    List<FallRiskProfile> findByUserIdAndHiddenFalseOrderByCreationTime(Long userId);
+
     /**
      * Retrieve the fall risk profiles of the user for which the id is given. Only the fall risk profiles that were
      * created within the period of time (beginTime, endTime) are returned. Added as part of VIT-714 to optimize the
@@ -105,10 +162,9 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
                     "WITH filtered_frp AS ( " +
                             "SELECT f.* " +
                             "FROM fall_risk_profiles f " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON f.id = frp_rem.fall_risk_profile_id " +
                             "WHERE f.begin_time >= ?2 " +
                             "AND f.end_time <= ?3 " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "AND f.removed_at IS NULL " +
                             ") " +
                             "SELECT frp.* " +
                             "FROM filtered_frp frp " +
@@ -121,31 +177,249 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
     )
     List<FallRiskProfile> findByUserIdBetweenTimes(Long userId, LocalDateTime beginTime, LocalDateTime endTime);
 
+    /**
+     * Aggregate the fall risk profiles of the user for which the id is given into buckets (e.g. weeks), see
+     * {@link FallRiskProfileTrendBucket}. Which fall risk profiles belong to the user is determined like
+     * {@link #findByUserIdBetweenTimes}, a fall risk profile is put in the bucket in which it ends. Only the bucket
+     * statistics are returned, so the size of the result only depends on the number of buckets.
+     *
+     * @param userId The id of the user for which we want to aggregate the fall risk profiles.
+     * @param beginTime The beginning time of the period of time for which we want to aggregate the fall risk profiles.
+     * @param endTime The end time of the period of time for which we want to aggregate the fall risk profiles.
+     * @param dateTruncField The size of the buckets, as a date_trunc field (e.g. "week").
+     * @return The statistics of the non-empty buckets, ordered by their begin time.
+     */
     @Query(
             value =
                     "WITH user_frps AS ( " +
-                            "SELECT frp.* " +
-                            "FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
-                            "INNER JOIN user_wearable_links uwl ON frp.wearable_id = uwl.wearable_id " +
-                            "WHERE uwl.user_id = ?1 AND frp.end_time BETWEEN uwl.begin_time AND uwl.end_time " +
-                            "AND frp_rem.fall_risk_profile_id IS NULL " +
+                            "SELECT date_trunc(?4, frp.end_time) AS bucket, " +
+                            "frp.walking_speed, frp.step_length, frp.step_frequency, frp.rms_vertical_accel, " +
+                            FallRiskScore.FALL_RISK_PROFILE_SQL + " AS fall_risk_score " +
+                            "FROM user_wearable_links uwl " +
+                            "INNER JOIN fall_risk_profiles frp ON frp.wearable_id = uwl.wearable_id " +
+                            "AND frp.begin_time >= uwl.begin_time " +
+                            "AND frp.end_time <= uwl.end_time " +
+                            "WHERE uwl.user_id = ?1 " +
+                            "AND frp.begin_time >= ?2 " +
+                            "AND frp.end_time <= ?3 " +
+                            "AND frp.hidden = false " +
+                            "AND frp.removed_at IS NULL " +
                             ") " +
-                            "SELECT * " +
+                            "SELECT bucket AS beginTime, COUNT(*) AS count, " +
+                            "AVG(walking_speed) AS walkingSpeedMean, " +
+                            "MIN(walking_speed) AS walkingSpeedMin, " +
+                            "MAX(walking_speed) AS walkingSpeedMax, " +
+                            "AVG(step_length) AS stepLengthMean, " +
+                            "MIN(step_length) AS stepLengthMin, " +
+                            "MAX(step_length) AS stepLengthMax, " +
+                            "AVG(step_frequency) AS stepFrequencyMean, " +
+                            "MIN(step_frequency) AS stepFrequencyMin, " +
+                            "MAX(step_frequency) AS stepFrequencyMax, " +
+                            "COUNT(rms_vertical_accel) AS rmsVerticalAccelerationCount, " +
+                            "AVG(rms_vertical_accel) AS rmsVerticalAccelerationMean, " +
+                            "MIN(rms_vertical_accel) AS rmsVerticalAccelerationMin, " +
+                            "MAX(rms_vertical_accel) AS rmsVerticalAccelerationMax, " +
+                            "AVG(fall_risk_score) AS fallRiskScoreMean, " +
+                            "MIN(fall_risk_score) AS fallRiskScoreMin, " +
+                            "MAX(fall_risk_score) AS fallRiskScoreMax " +
                             "FROM user_frps " +
-                            "ORDER BY end_time DESC " +
-                            "LIMIT 1",
+                            "GROUP BY bucket " +
+                            "ORDER BY bucket",
             nativeQuery = true
+    )
+    List<FallRiskProfileTrendBucket> findTrendByUserIdBetweenTimes(
+            Long userId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime,
+            String dateTruncField
+    );
 
+    /**
+     * Retrieve, for every user of the group for which the id is given, the fall risk profiles that are candidates for
+     * the latest best fall risk assessment of that user within the period of time (beginTime, endTime). Which fall
+     * risk profiles belong to a user is determined like {@link #findByUserIdBetweenTimes}. Of those, only the fall risk
+     * profiles that end on the latest day (date) of the user are returned. Picking the best of them (in terms of their
+     * fall risk score) is left to the caller. This way, the latest best fall risk assessments of a whole group take a
+     * single query, regardless of the number of users in the group.
+     *
+     * @param groupId The id of the group for which we want to retrieve the fall risk profiles.
+     * @param beginTime The beginning time of the period of time for which we want to retrieve the fall risk profiles.
+     * @param endTime The end time of the period of time for which we want to retrieve the fall risk profiles.
+     * @return The (user id, fall risk profile id) pairs of the non-hidden fall risk profiles that end on the latest day
+     * of each user within the period of time.
+     */
+    @Query(
+            value =
+                    "WITH group_frps AS ( " +
+                            "SELECT gu.user_id, f.id, f.end_time " +
+                            "FROM group_users gu " +
+                            "INNER JOIN user_wearable_links uwl ON uwl.user_id = gu.user_id " +
+                            "INNER JOIN fall_risk_profiles f ON f.wearable_id = uwl.wearable_id " +
+                            "AND f.begin_time >= uwl.begin_time " +
+                            "AND f.end_time <= uwl.end_time " +
+                            "WHERE gu.group_id = ?1 " +
+                            "AND f.begin_time >= ?2 " +
+                            "AND f.end_time <= ?3 " +
+                            "AND f.hidden = false " +
+                            "AND f.removed_at IS NULL " +
+                            "), ranked_frps AS ( " +
+                            "SELECT user_id, id, " +
+                            "RANK() OVER (PARTITION BY user_id ORDER BY CAST(end_time AS date) DESC) AS day_rank " +
+                            "FROM group_frps " +
+                            ") " +
+                            "SELECT DISTINCT user_id AS userId, id AS fallRiskProfileId " +
+                            "FROM ranked_frps " +
+                            "WHERE day_rank = 1",
+            nativeQuery = true
+    )
+    List<UserFallRiskProfileId> findLatestDayIdsByGroupIdBetweenTimes(
+            Long groupId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Retrieve the latest fall risk profile of the user for which the id is given: the (non-removed) fall risk profile
+     * that ends last within any of the user-wearable links of the user. The latest fall risk profile of every user is
+     * kept in the latest_fall_risk_profiles table (maintained by triggers, see its migration), so this is a primary key
+     * read.
+     */
+    @Query(
+            value =
+                    "SELECT frp.* " +
+                            "FROM latest_fall_risk_profiles l " +
+                            "INNER JOIN fall_risk_profiles frp ON frp.id = l.fall_risk_profile_id " +
+                            "WHERE l.user_id = ?1",
+            nativeQuery = true
     )
     Optional<FallRiskProfile> findLatestByUserId(Long userId);
 
+    /**
+     * Retrieve the (user id, fall risk profile id) pairs of the latest fall risk profiles of the users of the group for
+     * which the id is given, see {@link #findLatestByUserId}. Users without any fall risk profile are left out.
+     */
+    @Query(
+            value =
+                    "SELECT l.user_id AS userId, l.fall_risk_profile_id AS fallRiskProfileId " +
+                            "FROM group_users gu " +
+                            "INNER JOIN latest_fall_risk_profiles l ON l.user_id = gu.user_id " +
+                            "WHERE gu.group_id = ?1",
+            nativeQuery = true
+    )
+    List<UserFallRiskProfileId> findLatestIdsByGroupId(Long groupId);
+
+    /**
+     * Compares the latest fall risk profiles (see {@link #findLatestByUserId}) against a full recomputation and repairs
+     * the differences. Returns the number of users for which the latest fall risk profile was repaired. Must be called
+     * within a (read-write) transaction.
+     */
+    @Query(value = "SELECT repair_latest_fall_risk_profiles()", nativeQuery = true)
+    int repairLatestFallRiskProfiles();
+
+    /**
+     * Merge the histograms of the given parameter (see {@link FallRiskHistogramBin}) of the users of the group for
+     * which the id is given, over the months that overlap with the given period of time. The histograms are
+     * maintained by triggers (see their migration), so this does not read any fall risk profiles.
+     *
+     * @param groupId The id of the group for which we want to merge the histograms of its users.
+     * @param parameter The name of the parameter in the histograms (e.g. "walking_speed").
+     * @param beginTime The beginning time of the period of time, the histogram of the month it lies in is included.
+     * @param endTime The end time of the period of time, the histogram of the month it lies in is included.
+     * @return The non-empty bins of the merged histogram, ordered by bin.
+     */
+    @Query(
+            value =
+                    "SELECT p.lower_bound AS lowerBound, p.upper_bound AS upperBound, p.bin_count AS binCount, " +
+                            "h.bin AS bin, SUM(h.count) AS count " +
+                            "FROM group_users gu " +
+                            "INNER JOIN fall_risk_histograms h ON h.user_id = gu.user_id " +
+                            "INNER JOIN fall_risk_histogram_parameters p ON p.parameter = h.parameter " +
+                            "WHERE gu.group_id = ?1 " +
+                            "AND h.parameter = ?2 " +
+                            "AND h.month >= date_trunc('month', CAST(?3 AS timestamp)) " +
+                            "AND h.month <= ?4 " +
+                            "GROUP BY p.lower_bound, p.upper_bound, p.bin_count, h.bin " +
+                            "ORDER BY h.bin",
+            nativeQuery = true
+    )
+    List<FallRiskHistogramBin> findHistogramByGroupIdBetweenTimes(
+            Long groupId,
+            String parameter,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Merge the histograms of the given parameter of the users of the tenant for which the id is given, see
+     * {@link #findHistogramByGroupIdBetweenTimes}.
+     */
+    @Query(
+            value =
+                    "SELECT p.lower_bound AS lowerBound, p.upper_bound AS upperBound, p.bin_count AS binCount, " +
+                            "h.bin AS bin, SUM(h.count) AS count " +
+                            "FROM users u " +
+                            "INNER JOIN fall_risk_histograms h ON h.user_id = u.id " +
+                            "INNER JOIN fall_risk_histogram_parameters p ON p.parameter = h.parameter " +
+                            "WHERE u.tenant_id = ?1 " +
+                            "AND h.parameter = ?2 " +
+                            "AND h.month >= date_trunc('month', CAST(?3 AS timestamp)) " +
+                            "AND h.month <= ?4 " +
+                            "GROUP BY p.lower_bound, p.upper_bound, p.bin_count, h.bin " +
+                            "ORDER BY h.bin",
+            nativeQuery = true
+    )
+    List<FallRiskHistogramBin> findHistogramByTenantIdBetweenTimes(
+            Long tenantId,
+            String parameter,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Streams the fall risk parameters of the fall risk profiles of the users of the tenant for which the id is given
+     * through a server-side cursor, ordered by their end time. Which fall risk profiles belong to a user is determined
+     * like {@link #findByUserIdBetweenTimes}, but a fall risk profile that belongs to multiple users appears only once.
+     * Only the parameters are read, so the fall risk profiles are not loaded as entities. The returned stream must be
+     * consumed (and closed) within a transaction.
+     *
+     * @param tenantId The id of the tenant for which we want to stream the fall risk parameters.
+     * @param beginTime The beginning time of the period of time for which we want to stream the fall risk parameters.
+     * @param endTime The end time of the period of time for which we want to stream the fall risk parameters.
+     * @return The fall risk parameters of the non-hidden fall risk profiles of the tenant within the period of time.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(
+            value =
+                    "SELECT frp.id AS id, frp.walking_speed AS walkingSpeed, frp.step_length AS stepLength, " +
+                            "frp.step_frequency AS stepFrequency " +
+                            "FROM fall_risk_profiles frp " +
+                            "WHERE frp.begin_time >= ?2 " +
+                            "AND frp.end_time <= ?3 " +
+                            "AND frp.hidden = false " +
+                            "AND frp.removed_at IS NULL " +
+                            "AND EXISTS ( " +
+                            "SELECT 1 " +
+                            "FROM user_wearable_links uwl " +
+                            "INNER JOIN users u ON u.id = uwl.user_id " +
+                            "WHERE u.tenant_id = ?1 " +
+                            "AND uwl.wearable_id = frp.wearable_id " +
+                            "AND frp.begin_time >= uwl.begin_time " +
+                            "AND frp.end_time <= uwl.end_time " +
+                            ") " +
+                            "ORDER BY frp.end_time, frp.id",
+            nativeQuery = true
+    )
+    Stream<FallRiskProfileParameters> streamParametersByTenantIdBetweenTimes(
+            Long tenantId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
     @Query(
             value =
                     "SELECT frp.* " +
                             "FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
-                            "WHERE frp_rem.fall_risk_profile_id IS NULL and frp.id = ?1",
+                            "WHERE frp.removed_at IS NULL and frp.id = ?1",
             nativeQuery = true
     )
     Optional<FallRiskProfile> findById(Long id);
@@ -154,8 +428,7 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
             value =
                     "SELECT frp.* " +
                             "FROM fall_risk_profiles frp " +
-                            "LEFT JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
-                            "WHERE frp_rem.fall_risk_profile_id IS NULL",
+                            "WHERE frp.removed_at IS NULL",
             nativeQuery = true
     )
     List<FallRiskProfile> findAll();
@@ -164,9 +437,96 @@ public interface FallRiskProfileRepository extends JpaRepository<FallRiskProfile
             value =
                     "SELECT frp.* " +
                             "FROM fall_risk_profiles frp " +
-                            "JOIN fall_risk_profile_removals frp_rem ON frp.id = frp_rem.fall_risk_profile_id " +
-                            "WHERE frp_rem.fall_risk_profile_id IS NOT NULL",
+                            "WHERE frp.removed_at IS NOT NULL",
             nativeQuery = true
     )
     List<FallRiskProfile> findAllRemoved();
+
+    /**
+     * Projection for the (userId, fallRiskProfileId) pairs that we get back from
+     * {@link #findLatestDayIdsByGroupIdBetweenTimes} and {@link #findLatestIdsByGroupId}.
+     */
+    interface UserFallRiskProfileId {
+        Long getUserId();
+
+        Long getFallRiskProfileId();
+    }
+
+    /**
+     * Projection for the fall risk parameters of a fall risk profile that we get back from
+     * {@link #streamParametersByTenantIdBetweenTimes}. A parameter is null when it is missing.
+     */
+    interface FallRiskProfileParameters {
+        long getId();
+
+        Double getWalkingSpeed();
+
+        Double getStepLength();
+
+        Double getStepFrequency();
+    }
+
+    /**
+     * Projection for a bin of a merged fall risk histogram that we get back from
+     * {@link #findHistogramByGroupIdBetweenTimes} and {@link #findHistogramByTenantIdBetweenTimes}: the number of fall
+     * risk profiles in the bin, together with the range and number of bins of the histogram (see
+     * smartfloor.domain.FallRiskHistogram).
+     */
+    interface FallRiskHistogramBin {
+        double getLowerBound();
+
+        double getUpperBound();
+
+        int getBinCount();
+
+        int getBin();
+
+        long getCount();
+    }
+
+    /**
+     * Projection for the statistics of the fall risk profiles within a bucket (e.g. a week) that we get back from
+     * {@link #findTrendByUserIdBetweenTimes}. The count is the number of fall risk profiles in the bucket, all of
+     * which have a walking speed, step length, step frequency and fall risk score (see
+     * {@link FallRiskScore#FALL_RISK_PROFILE_SQL}). The RMS of the vertical acceleration is optional, so it has a count
+     * of its own.
+     */
+    interface FallRiskProfileTrendBucket {
+        @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+        LocalDateTime getBeginTime();
+
+        long getCount();
+
+        Double getWalkingSpeedMean();
+
+        Double getWalkingSpeedMin();
+
+        Double getWalkingSpeedMax();
+
+        Double getStepLengthMean();
+
+        Double getStepLengthMin();
+
+        Double getStepLengthMax();
+
+        Double getStepFrequencyMean();
+
+        Double getStepFrequencyMin();
+
+        Double getStepFrequencyMax();
+
+        long getRmsVerticalAccelerationCount();
+
+        Double getRmsVerticalAccelerationMean();
+
+        Double getRmsVerticalAccelerationMin();
+
+        Double getRmsVerticalAccelerationMax();
+
+        Double getFallRiskScoreMean();
+
+        Double getFallRiskScoreMin();
+
+        Double getFallRiskScoreMax();
+    }
 }
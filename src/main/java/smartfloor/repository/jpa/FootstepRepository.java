@@ -1,29 +1,187 @@
 package smartfloor.repository.jpa;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.Wearable;
+import smartfloor.repository.jpa.projections.FootstepProjection;
+import smartfloor.serializer.CustomLocalDateTimeSerializer;
 
 @Repository
 public interface FootstepRepository extends JpaRepository<Footstep, Long> {
 
     /**
-     * Get the (wearableId, footstepCount) tuples that describe the total amount of footsteps per wearable
-     * within the timeframe provided by the beginTime and endTime parameters.
+     * The number of rows fetched per round trip when streaming footsteps through a server-side cursor.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Selects a read-only {@link FootstepProjection} per footstep. The wearable and floor ids are read from the foreign
+     * key columns of the footsteps table, so neither the wearables nor the floors table is joined. The position is read
+     * from the footstep position joined by {@link #PROJECTION_FROM}.
+     */
+    String PROJECTION_SELECT = "SELECT new smartfloor.repository.jpa.projections.FootstepProjection(" +
+            "f.id, f.time, p.x, p.y, f.wearable.id, f.floor.id)";
+
+    /**
+     * Selects the footsteps (f) along with their positions (p), if any. The footstep_positions table is partitioned by
+     * month like the footsteps table, so the positions are joined on both the footstep id and the timestamp, and are
+     * bounded by the time window (?2, ?3) of the query as well, such that only the positions partitions of the months
+     * that overlap the time window are scanned.
+     */
+    String PROJECTION_FROM = " FROM Footstep f" +
+            " LEFT JOIN FootstepPosition p ON p.footstepId = f.id AND p.time = f.time" +
+            " AND p.time BETWEEN ?2 AND ?3";
+
+    /**
+     * Selects the footsteps of a wearable (?1) within a time window (?2, ?3), ordered by time.
+     */
+    String WEARABLE_FOOTSTEPS_QUERY = PROJECTION_SELECT + PROJECTION_FROM +
+            " WHERE f.wearable.id = ?1" +
+            " AND f.time BETWEEN ?2 AND ?3" +
+            " ORDER BY f.time ASC";
+
+    /**
+     * Selects the footsteps (f) that lie within a user-wearable link of the user (?1) that overlaps the time window
+     * (?2, ?3), i.e. within the link's own begin and end time. The links are checked by a semi-join rather than joined,
+     * so a footstep that lies within multiple links of its wearable (e.g. on the shared boundary of adjacent links) is
+     * selected once.
+     */
+    String USER_LINK_CONDITION = " EXISTS (SELECT 1 FROM UserWearableLink uwl" +
+            " WHERE uwl.user.id = ?1 AND uwl.wearable = f.wearable" +
+            " AND uwl.beginTime <= ?3 AND uwl.endTime >= ?2" +
+            " AND f.time BETWEEN uwl.beginTime AND uwl.endTime)";
+
+    /**
+     * Selects the footsteps of a user (?1) within a time window (?2, ?3) in a single query, of which the footsteps
+     * within a link of the user are selected by {@link #USER_LINK_CONDITION}. The result is ordered by time, also when
+     * the user wore multiple wearables at once.
+     */
+    String USER_FOOTSTEPS_QUERY = PROJECTION_SELECT + PROJECTION_FROM +
+            " WHERE" + USER_LINK_CONDITION +
+            " AND f.time BETWEEN ?2 AND ?3" +
+            " ORDER BY f.time ASC";
+
+    /**
+     * Selects a page of the footsteps of a wearable (?1) within a time window (?2, ?3) that come after a cursor
+     * (time ?4, id ?5). As the timestamps of a wearable's footsteps are unique, ordering by time alone is a total order
+     * here, which lets the database read the page straight from the footsteps(wearable_id, timestamp) index. The
+     * "f.time >= ?4" condition is implied by the cursor condition, but lets the index scan start at the cursor.
+     */
+    String WEARABLE_FOOTSTEPS_PAGE_QUERY = PROJECTION_SELECT + PROJECTION_FROM +
+            " WHERE f.wearable.id = ?1" +
+            " AND f.time BETWEEN ?2 AND ?3" +
+            " AND f.time >= ?4 AND (f.time > ?4 OR f.id > ?5)" +
+            " ORDER BY f.time ASC";
+
+    /**
+     * Selects a page of the footsteps of a user (?1) within a time window (?2, ?3) that come after a cursor (time ?4,
+     * id ?5). The footsteps of different wearables can share a timestamp, so the id is used as a tiebreaker.
+     * See also {@link #USER_FOOTSTEPS_QUERY}.
+     */
+    String USER_FOOTSTEPS_PAGE_QUERY = PROJECTION_SELECT + PROJECTION_FROM +
+            " WHERE" + USER_LINK_CONDITION +
+            " AND f.time BETWEEN ?2 AND ?3" +
+            " AND f.time >= ?4 AND (f.time > ?4 OR f.id > ?5)" +
+            " ORDER BY f.time ASC, f.id ASC";
+
+    /**
+     * Selects the (wearableId, footstepCount) tuples that describe the total amount of footsteps per wearable
+     * within the timeframe provided by the beginTime (?1) and endTime (?2) parameters. The full hours from ?3 up to
+     * (excluding) ?4 are counted from the footstep hourly rollups, only the remaining (partial) hours at the edges of
+     * the timeframe are counted from the footsteps themselves. The footsteps table is partitioned by month, so only the
+     * partitions that overlap those edges are scanned (using their BRIN index on the timestamp).
+     * The rollup of an hour is only visible when the hour lies within a visible lease completely (see V59). Within the
+     * full hours, a visible footstep whose rollup is not visible lies in an hour in which its lease begins or ends, so
+     * the footsteps of those hours (of which there are two per lease at most) are counted from the footsteps as well.
+     */
+    String WEARABLE_STEP_COUNTS_QUERY = "SELECT wearable_id AS wearableId," +
+            " CAST(SUM(footstep_count) AS integer) AS footstepCount FROM (" +
+            " SELECT wearable_id, step_count AS footstep_count FROM footstep_hourly_rollups" +
+            " WHERE hour >= ?3 AND hour < ?4" +
+            " UNION ALL" +
+            " SELECT wearable_id, COUNT(id) AS footstep_count FROM footsteps" +
+            " WHERE timestamp >= ?1 AND timestamp < ?3 GROUP BY wearable_id" +
+            " UNION ALL" +
+            " SELECT wearable_id, COUNT(id) AS footstep_count FROM footsteps" +
+            " WHERE timestamp >= ?4 AND timestamp <= ?2 GROUP BY wearable_id" +
+            " UNION ALL" +
+            " SELECT f.wearable_id, COUNT(f.id) AS footstep_count FROM (" +
+            " SELECT DISTINCT vwl.wearable_id, date_trunc('hour', b.boundary_time) AS hour" +
+            " FROM visible_wearable_leases() AS vwl," +
+            " LATERAL (VALUES (vwl.begin_time), (vwl.end_time)) AS b(boundary_time)" +
+            " ) AS lease_hours" +
+            " INNER JOIN footsteps AS f ON f.wearable_id = lease_hours.wearable_id" +
+            " AND f.timestamp >= lease_hours.hour AND f.timestamp < lease_hours.hour + interval '1 hour'" +
+            " WHERE lease_hours.hour >= ?3 AND lease_hours.hour < ?4" +
+            " AND NOT EXISTS (SELECT 1 FROM footstep_hourly_rollups AS r" +
+            " WHERE r.wearable_id = lease_hours.wearable_id AND r.hour = lease_hours.hour)" +
+            " GROUP BY f.wearable_id" +
+            ") AS counts GROUP BY wearable_id";
+
+    /**
+     * Get the (wearableId, footstepCount) tuples that describe the total amount of footsteps per wearable within the
+     * given timeframe. See {@link #WEARABLE_STEP_COUNTS_QUERY}.
+     */
+    @Query(value = WEARABLE_STEP_COUNTS_QUERY, nativeQuery = true)
+    Set<WearableStepCount> findWearableStepCounts(
+            LocalDateTime beginTime,
+            LocalDateTime endTime,
+            LocalDateTime fullHoursBeginTime,
+            LocalDateTime fullHoursEndTime
+    );
+
+    /**
+     * Get the hourly rollups of the footsteps of a wearable for the hours that start within the given time window
+     * (ordered by hour).
      */
     @Query(
-            value = "SELECT COUNT(id) as footstepCount, wearable_id AS wearableId FROM" +
-                    " footsteps WHERE footsteps.timestamp BETWEEN ?1 AND ?2 GROUP BY wearableId",
+            value = "SELECT wearable_id AS wearableId, floor_id AS floorId, hour, step_count AS stepCount," +
+                    " covered_distance AS coveredDistance, first_step_time AS firstStepTime," +
+                    " last_step_time AS lastStepTime" +
+                    " FROM footstep_hourly_rollups" +
+                    " WHERE wearable_id = ?1 AND hour BETWEEN ?2 AND ?3" +
+                    " ORDER BY hour ASC, floor_id ASC",
             nativeQuery = true
     )
-    Set<WearableStepCount> findWearableStepCounts(Date beginTime, Date endTime);
+    List<HourlyFootstepRollup> findHourlyRollupsByWearableIdAndHourBetween(
+            String wearableId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Get the hour up to which the footstep hourly rollups are complete, i.e. the start of the hour in which they were
+     * last refreshed. Empty when they have not been refreshed yet.
+     */
+    @Query(value = "SELECT covered_until FROM footstep_hourly_rollup_watermark", nativeQuery = true)
+    Optional<LocalDateTime> findHourlyRollupsCoveredUntil();
+
+    /**
+     * Rolls up the footsteps that have been committed since the previous refresh of the footstep hourly rollups.
+     * Returns the number of (wearable, floor, hour) rollups that were (re)computed. Must be called within a
+     * (read-write) transaction.
+     */
+    @Query(value = "SELECT refresh_footstep_hourly_rollups()", nativeQuery = true)
+    int refreshHourlyRollups();
+
+    /**
+     * Creates the footsteps partitions of the current month and of the given number of months ahead that do not exist
+     * yet. Returns the number of partitions that were created. Must be called within a (read-write) transaction.
+     */
+    @Query(value = "SELECT create_upcoming_footsteps_partitions(?1)", nativeQuery = true)
+    int createUpcomingPartitions(int monthsAhead);
 
     List<Footstep> findByWearableIdAndTimeBetweenOrderByTimeAsc(
             String wearableId,
@@ -31,6 +189,80 @@ public interface FootstepRepository extends JpaRepository<Footstep, Long> {
             LocalDateTime endTime
     );
 
+    /**
+     * Find the footsteps of a wearable within the given time window as read-only projections (ordered by time).
+     */
+    @Query(value = WEARABLE_FOOTSTEPS_QUERY)
+    List<FootstepProjection> findProjectionsByWearableIdAndTimeBetween(
+            String wearableId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Find the footsteps of a user within the given time window as read-only projections (ordered by time).
+     * See {@link #USER_FOOTSTEPS_QUERY}.
+     */
+    @Query(value = USER_FOOTSTEPS_QUERY)
+    List<FootstepProjection> findProjectionsByUserIdAndTimeBetween(
+            Long userId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Streams the footsteps of a wearable within the given time window (ordered by time) through a server-side cursor.
+     * Rows are fetched from the database in batches of {@link #STREAM_FETCH_SIZE}, so memory usage does not depend on
+     * the length of the time window. The returned stream must be consumed (and closed) within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(value = WEARABLE_FOOTSTEPS_QUERY)
+    Stream<FootstepProjection> streamProjectionsByWearableIdAndTimeBetween(
+            String wearableId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Streams the footsteps of a user within the given time window (ordered by time) through a server-side cursor.
+     * See also {@link #streamProjectionsByWearableIdAndTimeBetween} and {@link #USER_FOOTSTEPS_QUERY}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(value = USER_FOOTSTEPS_QUERY)
+    Stream<FootstepProjection> streamProjectionsByUserIdAndTimeBetween(
+            Long userId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime
+    );
+
+    /**
+     * Find a page of the footsteps of a wearable within the given time window, after the given cursor (time, id).
+     * The size of the page is given by the page size of the pageable. See {@link #WEARABLE_FOOTSTEPS_PAGE_QUERY}.
+     */
+    @Query(value = WEARABLE_FOOTSTEPS_PAGE_QUERY)
+    List<FootstepProjection> findProjectionPageByWearableIdAndTimeBetween(
+            String wearableId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime,
+            LocalDateTime cursorTime,
+            Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Find a page of the footsteps of a user within the given time window, after the given cursor (time, id).
+     * See {@link #USER_FOOTSTEPS_PAGE_QUERY}.
+     */
+    @Query(value = USER_FOOTSTEPS_PAGE_QUERY)
+    List<FootstepProjection> findProjectionPageByUserIdAndTimeBetween(
+            Long userId,
+            LocalDateTime beginTime,
+            LocalDateTime endTime,
+            LocalDateTime cursorTime,
+            Long cursorId,
+            Pageable pageable
+    );
+
     List<Footstep> findAllByWearableInAndTimeBetweenOrderByTimeAsc(
             List<Wearable> wearables,
             LocalDateTime beginTime,
@@ -52,4 +284,28 @@ public interface FootstepRepository extends JpaRepository<Footstep, Long> {
 
         String getWearableId();
     }
+
+    /**
+     * Projection for the rollup of the footsteps that a wearable made on a floor within an hour, see
+     * {@link #findHourlyRollupsByWearableIdAndHourBetween}. The covered distance only includes the distances between
+     * consecutive positioned footsteps within the hour.
+     */
+    interface HourlyFootstepRollup {
+        String getWearableId();
+
+        Long getFloorId();
+
+        @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+        LocalDateTime getHour();
+
+        int getStepCount();
+
+        double getCoveredDistance();
+
+        @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+        LocalDateTime getFirstStepTime();
+
+        @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+        LocalDateTime getLastStepTime();
+    }
 }
@@ -49,4 +49,44 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "10000")})
     Optional<Group> findWithLockingById(Long id);
 
+    /**
+     * Retrieve the (manager, group) pairs of all groups, i.e. the edges of the access graph (see
+     * smartfloor.domain.AccessGraph) that {@link UserRepository#isManagingGroup} follows.
+     */
+    @Query("SELECT m.id AS userId, g.id AS groupId FROM Group g JOIN g.managers m")
+    List<GroupUserId> findManagerIds();
+
+    /**
+     * Retrieve the (member, group) pairs of all groups, i.e. the edges of the access graph that
+     * {@link UserRepository#isManagingUser} and {@link UserRepository#isUserAllowedToAccessWearable} follow from a
+     * group to its users.
+     */
+    @Query("SELECT u.id AS userId, g.id AS groupId FROM Group g JOIN g.users u")
+    List<GroupUserId> findMemberIds();
+
+    /**
+     * Retrieve the (group, wearable) pairs of the wearable groups of all groups, i.e. the edges of the access graph
+     * that {@link UserRepository#isManagerAllowedToAccessWearable} follows from a group to its wearables.
+     */
+    @Query("SELECT g.id AS groupId, w.id AS wearableId FROM Group g JOIN g.wearableGroup wg JOIN wg.wearables w")
+    List<GroupWearableId> findWearableIds();
+
+    /**
+     * Projection for the (userId, groupId) pairs that we get back from {@link #findManagerIds} and
+     * {@link #findMemberIds}.
+     */
+    interface GroupUserId {
+        Long getUserId();
+
+        Long getGroupId();
+    }
+
+    /**
+     * Projection for the (groupId, wearableId) pairs that we get back from {@link #findWearableIds}.
+     */
+    interface GroupWearableId {
+        Long getGroupId();
+
+        String getWearableId();
+    }
 }
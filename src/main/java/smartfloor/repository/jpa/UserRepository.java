@@ -12,8 +12,8 @@ import smartfloor.domain.entities.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Look up user by authentication identifier (Cognito UUID), we cache this as looking up the authenticated user
-     * is pretty frequently used throughout multiple API (route) calls.
+     * Look up user by authentication identifier (Cognito UUID). Note: this is not cached by itself, the authenticated
+     * users that are looked up for every API (route) call are cached by UserDetailsServiceImpl.
      *
      * @param authId authentication identifier (Cognito UUID)
      * @return Optional user object matching the authentication identifier
@@ -22,6 +22,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByCompositeUserId(Long compositeUserId);
 
+    /**
+     * Retrieve the (composite user, sub-user) pairs of all users that belong to a composite user, i.e. the edges of the
+     * access graph (see smartfloor.domain.AccessGraph) that {@link #findByCompositeUserId} follows.
+     */
+    @Query("SELECT u.compositeUser.id AS compositeUserId, u.id AS userId FROM User u WHERE u.compositeUser IS NOT NULL")
+    List<CompositeUserSubUserId> findSubUserIds();
+
     /**
      * This method verifies whether a given user manages the (user) group with the given identifier.
      *
@@ -101,4 +108,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     )
     Boolean isUserAllowedToAccessWearable(@Param("userId") Long userId, @Param("wearableId") String wearableId);
 
+    /**
+     * Projection for the (compositeUserId, userId) pairs that we get back from {@link #findSubUserIds}.
+     */
+    interface CompositeUserSubUserId {
+        Long getCompositeUserId();
+
+        Long getUserId();
+    }
 }
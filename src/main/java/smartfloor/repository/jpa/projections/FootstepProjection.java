@@ -0,0 +1,47 @@
+package smartfloor.repository.jpa.projections;
+
+import java.time.LocalDateTime;
+import smartfloor.domain.entities.Floor;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Position;
+import smartfloor.domain.entities.Wearable;
+
+/**
+ * <p>Read-only projection of a footstep that only carries the columns needed for analyses and footstep responses.</p>
+ * Unlike the footstep entity, a projection is not managed by the persistence context: reading it neither hydrates the
+ * (eagerly fetched) floor and wearable entities nor registers anything for dirty checking. The x and y coordinates are
+ * null whenever no position could be determined for the footstep. Likewise, the floor id can be null.
+ */
+public record FootstepProjection(
+        Long id,
+        LocalDateTime time,
+        Double x,
+        Double y,
+        String wearableId,
+        Long floorId
+) {
+
+    public boolean hasPosition() {
+        return x != null && y != null;
+    }
+
+    /**
+     * Converts this projection to a transient (i.e. unmanaged) footstep. The wearable and floor of the footstep only
+     * carry their identifiers, which is all that is serialized for a footstep.
+     */
+    public Footstep toFootstep() {
+        Wearable wearable = new Wearable();
+        wearable.setId(wearableId);
+        Floor floor = null;
+        if (floorId != null) {
+            floor = new Floor();
+            floor.setId(floorId);
+        }
+        return Footstep.builder()
+                .time(time)
+                .position(hasPosition() ? new Position(x, y) : null)
+                .wearable(wearable)
+                .floor(floor)
+                .build();
+    }
+}
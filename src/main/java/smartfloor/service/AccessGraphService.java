@@ -0,0 +1,104 @@
+package smartfloor.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import smartfloor.configuration.CacheConfig;
+import smartfloor.domain.AccessGraph;
+import smartfloor.domain.UserType;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.multitenancy.AccessScopedCache;
+import smartfloor.multitenancy.AccessScopedCacheKey;
+import smartfloor.repository.jpa.GroupRepository;
+import smartfloor.repository.jpa.UserRepository;
+
+/**
+ * Provides the {@link AccessGraph} of the current access scope, which AuthorizationService uses to decide whether the
+ * authenticated user may operate on a user, group or wearable.
+ */
+@Service
+public class AccessGraphService {
+
+    private static final String ACCESS_GRAPH_CACHE_KEY = "accessGraph";
+
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final AccessScopedCache accessGraphCache;
+
+    /**
+     * Creates the service, which caches the access graphs in the {@link CacheConfig#ACCESS_GRAPHS_CACHE_NAME} cache.
+     */
+    @Autowired
+    public AccessGraphService(
+            GroupRepository groupRepository,
+            UserRepository userRepository,
+            CacheManager cacheManager
+    ) {
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.accessGraphCache = (AccessScopedCache) cacheManager.getCache(CacheConfig.ACCESS_GRAPHS_CACHE_NAME);
+    }
+
+    /**
+     * <p>Get the access graph of the tenant (or composite user) of the current access scope. The graph is loaded once
+     * and then cached for all principals of the access scope, so the (possibly repeated) authorization checks of a
+     * request do not query the database.</p>
+     * The graph is evicted when its edges are changed through this instance (see {@link #evictAccessGraph()}),
+     * otherwise a change applies once the cached graph expires (see CacheConfig).
+     */
+    public AccessGraph getAccessGraph() {
+        AccessScopedCacheKey cacheKey = AccessScopedCacheKey.withoutPrincipal(ACCESS_GRAPH_CACHE_KEY);
+        AccessGraph cachedAccessGraph = accessGraphCache.get(cacheKey, AccessGraph.class);
+        if (cachedAccessGraph != null) {
+            return cachedAccessGraph;
+        }
+        AccessGraph accessGraph = loadAccessGraph();
+        accessGraphCache.put(cacheKey, accessGraph);
+        return accessGraph;
+    }
+
+    /**
+     * Load the access graph of the current access scope from the database. Since the edges are subject to the same RLS
+     * policies as the queries of the individual checks, the graph holds exactly the edges that these would follow.
+     */
+    AccessGraph loadAccessGraph() {
+        Map<Long, Set<Long>> managedGroupIds = groupRepository.findManagerIds().stream().collect(Collectors.groupingBy(
+                GroupRepository.GroupUserId::getUserId,
+                Collectors.mapping(GroupRepository.GroupUserId::getGroupId, Collectors.toSet())
+        ));
+        Map<Long, Set<Long>> memberIds = groupRepository.findMemberIds().stream().collect(Collectors.groupingBy(
+                GroupRepository.GroupUserId::getGroupId,
+                Collectors.mapping(GroupRepository.GroupUserId::getUserId, Collectors.toSet())
+        ));
+        Map<Long, Set<String>> wearableIds = groupRepository.findWearableIds().stream().collect(Collectors.groupingBy(
+                GroupRepository.GroupWearableId::getGroupId,
+                Collectors.mapping(GroupRepository.GroupWearableId::getWearableId, Collectors.toSet())
+        ));
+        Map<Long, Set<Long>> subUserIds = userRepository.findSubUserIds().stream().collect(Collectors.groupingBy(
+                UserRepository.CompositeUserSubUserId::getCompositeUserId,
+                Collectors.mapping(UserRepository.CompositeUserSubUserId::getUserId, Collectors.toSet())
+        ));
+        return new AccessGraph(managedGroupIds, memberIds, wearableIds, subUserIds);
+    }
+
+    /**
+     * Evict the cached access graphs that may contain edges of the tenant of the current access scope, such that a
+     * change to its groups or users applies to the next authorization check. Within a transaction, the graphs are only
+     * evicted once the change has been committed (see {@link AfterCommit}).
+     */
+    public void evictAccessGraph() {
+        Long tenantId = AccessScopeContext.INSTANCE.getTenantId();
+        boolean isDirectUserOfTenant = AccessScopeContext.INSTANCE.getUserType() == UserType.DIRECT_USER &&
+                tenantId != null;
+        AfterCommit.run(() -> {
+            if (isDirectUserOfTenant) {
+                accessGraphCache.evictTenant(tenantId);
+            } else {
+                accessGraphCache.clear();
+            }
+        });
+    }
+}
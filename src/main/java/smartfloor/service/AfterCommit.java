@@ -0,0 +1,33 @@
+package smartfloor.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers the eviction of cached entries until the change that they depend on is visible to other transactions. An
+ * entry that is evicted before the change is committed could be loaded again (from the unchanged data) by a concurrent
+ * request, and would then stay in the cache until it expires.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action once the transaction of the current thread has committed, or right away when the current thread
+     * has no transaction (in which case any change has already been committed). The action is not run when the
+     * transaction is rolled back.
+     */
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
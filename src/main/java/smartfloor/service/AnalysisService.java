@@ -2,20 +2,36 @@ package smartfloor.service;
 
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartfloor.configuration.CacheConfig;
+import smartfloor.configuration.ReadReplicaRouting;
 import smartfloor.domain.TimeWindow;
-import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
+import smartfloor.domain.indicators.Indicator;
 import smartfloor.domain.indicators.footstep.AverageSpeed;
 import smartfloor.domain.indicators.footstep.AverageStrideFrequency;
 import smartfloor.domain.indicators.footstep.AverageStrideLength;
 import smartfloor.domain.indicators.footstep.CoveredDistance;
 import smartfloor.domain.indicators.footstep.FirstToLastStepDistance;
+import smartfloor.domain.indicators.footstep.GaitSummary;
 
 @Service
+@Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
 public class AnalysisService {
 
+    /**
+     * The (access scoped, see CacheConfig) cache keys of the analyses of a user or a wearable within a time window. The
+     * method name is part of the key, as all analyses share the same cache. A cache hit skips the authorization checks
+     * of these methods, which is safe as the access scope includes the principal that passed them.
+     */
+    private static final String USER_CACHE_KEY =
+            "{#root.methodName, #user.id, #timeWindow.beginTime, #timeWindow.endTime}";
+    private static final String WEARABLE_CACHE_KEY =
+            "{#root.methodName, #wearable.id, #timeWindow.beginTime, #timeWindow.endTime}";
+
     private final FootstepService footstepService;
     private final AuthorizationService authorizationService;
 
@@ -35,80 +51,120 @@ public class AnalysisService {
      * Get covered distance for user and timewindow.
      * @param user           user
      * @param timeWindow     begin- and endtime
-     * @return
+     * @return the covered distance
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = USER_CACHE_KEY)
     public CoveredDistance getCoveredDistanceForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
         authorizationService.validateUserOperationAuthority(user);
 
-        List<Footstep> footsteps = footstepService.getForUserWithinTimeWindow(user, timeWindow);
-        return CoveredDistance.of(footsteps);
+        return getGaitSummaryForUserWithinTimeWindow(user, timeWindow).getCoveredDistance();
     }
 
     /**
      * Get covered distance for wearable and timewindow.
      * @param wearable     wearable
      * @param timeWindow   begin- and endtime
-     * @return
+     * @return the covered distance
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public CoveredDistance getCoveredDistanceForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
-        List<Footstep> footsteps = footstepService.getForWearableWithinTimeWindow(wearable, timeWindow);
-        return CoveredDistance.of(footsteps);
+        return getGaitSummaryForWearableWithinTimeWindow(wearable, timeWindow).getCoveredDistance();
     }
 
     /**
      * TODO.
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public FirstToLastStepDistance getFirstToLastStepDistanceForWearableWithinTimeWindow(
             Wearable wearable,
             TimeWindow timeWindow
     ) {
-        List<Footstep> footsteps = footstepService.getForWearableWithinTimeWindow(wearable, timeWindow);
-        return new FirstToLastStepDistance(footsteps);
+        return getGaitSummaryForWearableWithinTimeWindow(wearable, timeWindow).getFirstToLastStepDistance();
     }
 
     /**
      * TODO.
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = USER_CACHE_KEY)
     public AverageSpeed getAverageSpeedForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
         authorizationService.validateUserOperationAuthority(user.getId());
 
-        List<Footstep> footsteps = footstepService.getForUserWithinTimeWindow(user, timeWindow);
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        return AverageSpeed.of(footstepsWithPosition);
+        return getGaitSummaryForUserWithinTimeWindow(user, timeWindow).withPositionOnly().getAverageSpeed();
     }
 
     /**
      * TODO.
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = WEARABLE_CACHE_KEY)
     public AverageSpeed getAverageSpeedForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
-        List<Footstep> footsteps = footstepService.getForWearableWithinTimeWindow(wearable, timeWindow);
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        return AverageSpeed.of(footstepsWithPosition);
+        return getGaitSummaryForWearableWithinTimeWindow(wearable, timeWindow).withPositionOnly().getAverageSpeed();
     }
 
     /**
      * TODO.
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = USER_CACHE_KEY)
     public AverageStrideLength getAverageStrideLengthForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
         authorizationService.validateUserOperationAuthority(user);
 
-        List<Footstep> footsteps = footstepService.getForUserWithinTimeWindow(user, timeWindow);
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        return AverageStrideLength.of(footstepsWithPosition);
+        return getGaitSummaryForUserWithinTimeWindow(user, timeWindow).withPositionOnly().getAverageStrideLength();
     }
 
     /**
      * TODO.
      */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = USER_CACHE_KEY)
     public AverageStrideFrequency getStrideFrequencyForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
         authorizationService.validateUserOperationAuthority(user);
 
-        List<Footstep> footsteps = footstepService.getForUserWithinTimeWindow(user, timeWindow);
-        List<Footstep> footstepsWithPosition =
-                footsteps.stream().filter(Footstep::hasPosition).toList();
-        return AverageStrideFrequency.of(footstepsWithPosition);
+        return getGaitSummaryForUserWithinTimeWindow(user, timeWindow).withPositionOnly().getAverageStrideFrequency();
+    }
+
+    /**
+     * Get all gait indicators (covered distance, first-to-last step distance, average speed, average stride length and
+     * average stride frequency) for a user within a time window. Unlike requesting each of these indicators separately,
+     * the footsteps are fetched (and the indicators computed) only once.
+     */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = USER_CACHE_KEY)
+    public List<Indicator> getGaitIndicatorsForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        authorizationService.validateUserOperationAuthority(user);
+
+        return toGaitIndicators(getGaitSummaryForUserWithinTimeWindow(user, timeWindow));
+    }
+
+    /**
+     * Get all gait indicators for a wearable within a time window.
+     * See {@link #getGaitIndicatorsForUserWithinTimeWindow(User, TimeWindow)}.
+     */
+    @Cacheable(value = CacheConfig.GAIT_INDICATORS_CACHE_NAME, key = WEARABLE_CACHE_KEY)
+    public List<Indicator> getGaitIndicatorsForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
+        return toGaitIndicators(getGaitSummaryForWearableWithinTimeWindow(wearable, timeWindow));
+    }
+
+    /**
+     * The indicators are computed the same way as by their separate getters: the average speed, stride length and
+     * stride frequency only take the footsteps with a position into account.
+     */
+    private static List<Indicator> toGaitIndicators(GaitSummary gait) {
+        GaitSummary gaitWithPosition = gait.withPositionOnly();
+        return List.of(
+                gait.getCoveredDistance(),
+                gait.getFirstToLastStepDistance(),
+                gaitWithPosition.getAverageSpeed(),
+                gaitWithPosition.getAverageStrideLength(),
+                gaitWithPosition.getAverageStrideFrequency()
+        );
+    }
+
+    /**
+     * The callers have validated the operation authority for the user already, so the footsteps are fetched without
+     * validating it again.
+     */
+    private GaitSummary getGaitSummaryForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        return GaitSummary.of(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow));
+    }
+
+    private GaitSummary getGaitSummaryForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
+        return GaitSummary.of(footstepService.getSeriesForWearableWithinTimeWindow(wearable, timeWindow));
     }
 }
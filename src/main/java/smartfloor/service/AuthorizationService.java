@@ -9,29 +9,28 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import smartfloor.domain.AccessGraph;
 import smartfloor.domain.Role;
 import smartfloor.domain.entities.CompositeUser;
 import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.Tenant;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
-import smartfloor.repository.jpa.CompositeUserRepository;
-import smartfloor.repository.jpa.UserRepository;
 
 /**
- * This class provides authorization checks for the service layer.
+ * This class provides authorization checks for the service layer. The relations between managers, groups, users,
+ * wearables and composite users that the checks follow are looked up in the {@link AccessGraph} of the current access
+ * scope, so repeated checks within (and across) requests do not query the database.
  */
 @Service
 public class AuthorizationService {
     private static final String FAILED_TO_VALIDATE_AUTHENTICATED_USER_AUTHORIZATIONS =
             "Failed to validate (authenticated) user authorizations.";
-    private final UserRepository userRepository;
-    private final CompositeUserRepository compositeUserRepository;
+    private final AccessGraphService accessGraphService;
 
     @Autowired
-    public AuthorizationService(UserRepository userRepository, CompositeUserRepository compositeUserRepository) {
-        this.userRepository = userRepository;
-        this.compositeUserRepository = compositeUserRepository;
+    public AuthorizationService(AccessGraphService accessGraphService) {
+        this.accessGraphService = accessGraphService;
     }
 
     /**
@@ -55,7 +54,7 @@ public class AuthorizationService {
             Collection<? extends GrantedAuthority> authorities = authenticatedUser.getAuthorities();
             boolean isAdmin = authorities.contains(Role.ADMIN.toGrantedAuthority());
             boolean isManager = authorities.contains(Role.MANAGER.toGrantedAuthority()) &&
-                    userRepository.isManagingUser(authenticatedUser.getId(), userId);
+                    accessGraphService.getAccessGraph().isManagingUser(authenticatedUser.getId(), userId);
 
             if (!(isAdmin || isRequestingSelf || isManager)) {
                 throw new AccessDeniedException(
@@ -68,11 +67,8 @@ public class AuthorizationService {
             }
         } else if (authenticated instanceof CompositeUser) {
             CompositeUser authenticatedCU = (CompositeUser) authenticated;
-            boolean isRequestingSubUser = userRepository
-                    .findByCompositeUserId(authenticatedCU.getId())
-                    .stream()
-                    .map(User::getId)
-                    .toList().contains(userId);
+            boolean isRequestingSubUser = accessGraphService.getAccessGraph()
+                    .isSubUser(authenticatedCU.getId(), userId);
             if (!isRequestingSubUser) {
                 throw new AccessDeniedException(
                         String.format(
@@ -123,7 +119,7 @@ public class AuthorizationService {
             Collection<? extends GrantedAuthority> authorities = authenticatedUser.getAuthorities();
             boolean isAdmin = authorities.contains(Role.ADMIN.toGrantedAuthority());
             boolean isManager = authorities.contains(Role.MANAGER.toGrantedAuthority()) &&
-                    userRepository.isManagingGroup(authenticatedUser.getId(), groupId);
+                    accessGraphService.getAccessGraph().isManagingGroup(authenticatedUser.getId(), groupId);
 
             if (!(isAdmin || isManager)) {
                 throw new AccessDeniedException(
@@ -195,10 +191,10 @@ public class AuthorizationService {
             boolean isRegularUser = authorities.contains(Role.USER.toGrantedAuthority());
 
             boolean isAllowedToAccessWearable =
-                    (isManager && userRepository.isManagerAllowedToAccessWearable(
+                    (isManager && accessGraphService.getAccessGraph().isManagerAllowedToAccessWearable(
                             authenticatedUser.getId(),
                             wearableId
-                    )) || (isRegularUser && userRepository.isUserAllowedToAccessWearable(
+                    )) || (isRegularUser && accessGraphService.getAccessGraph().isUserAllowedToAccessWearable(
                             authenticatedUser.getId(),
                             wearableId
                     ));
@@ -217,7 +213,7 @@ public class AuthorizationService {
             Collection<? extends GrantedAuthority> authorities = authenticatedCU.getAuthorities();
             boolean isRegularUser = authorities.contains(Role.USER.toGrantedAuthority());
             boolean isAllowedToAccessWearable =
-                    isRegularUser && compositeUserRepository.isCUAllowedToAccessWearable(
+                    isRegularUser && accessGraphService.getAccessGraph().isCompositeUserAllowedToAccessWearable(
                             authenticatedCU.getId(),
                             wearableId
                     );
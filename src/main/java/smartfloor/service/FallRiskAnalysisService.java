@@ -2,13 +2,23 @@ package smartfloor.service;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import static java.util.stream.Collectors.toList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartfloor.configuration.ReadReplicaRouting;
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.ColumnarFallRiskScores;
+import smartfloor.domain.FallRiskHistogram;
+import smartfloor.domain.FallRiskParameter;
+import smartfloor.domain.FallRiskPercentiles;
 import smartfloor.domain.TimeWindow;
+import smartfloor.domain.TrendInterval;
 import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskAssessmentModel;
@@ -16,10 +26,20 @@ import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
 import smartfloor.domain.entities.fall.risk.profile.LatestFallRiskProfileAssessment;
 import smartfloor.domain.entities.fall.risk.profile.V1FallRiskScoreAssessment;
+import smartfloor.domain.indicators.fall.risk.BatchFallRiskScorer;
+import smartfloor.repository.jpa.FallRiskProfileRepository;
 
 @Service
+@Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
 public class FallRiskAnalysisService {
 
+    /**
+     * Orders fall risk assessments by the date (not time) of their FRP's end time, then by their total score.
+     */
+    private static final Comparator<FallRiskScoreAssessment> LATEST_BEST_FALL_RISK_ASSESSMENT = Comparator
+            .comparing((FallRiskScoreAssessment frsa) -> frsa.getFallRiskProfile().getEndTime().toLocalDate())
+            .thenComparing(FallRiskScoreAssessment::getTotal);
+
     private final FootstepService footstepService;
     private final FallRiskProfileService fallRiskProfileService;
     private final AuthorizationService authorizationService;
@@ -118,15 +138,35 @@ public class FallRiskAnalysisService {
 
         return fallRiskProfileService.getFallRiskProfilesForUserWithinTimeWindow(user, timeWindow).stream()
                 .map(FallRiskScoreAssessment::new)
-                .max(Comparator
-                        .comparing((FallRiskScoreAssessment frsa) -> frsa.getFallRiskProfile()
-                                .getEndTime()
-                                .toLocalDate())
-                        .thenComparing(FallRiskScoreAssessment::getTotal)
-                )
+                .max(LATEST_BEST_FALL_RISK_ASSESSMENT)
                 .map(fsa -> new LatestFallRiskProfileAssessment(user, fsa));
     }
 
+    /**
+     * Fetches the latest and best fall risk measurement for every user of a given group, see
+     * {@link #computeLatestBestFallRiskAssessmentsForUserWithinTimeWindow}. The candidate FRPs of all users (those of
+     * the latest day of each user) are looked up at once, so the number of queries does not depend on the number of
+     * users in the group.
+     *
+     * @return The latest best fall risk assessment of every user of the group that has one within the time window, in
+     * the order of the users of the group.
+     */
+    public List<LatestFallRiskProfileAssessment> computeLatestBestFallRiskAssessmentsForGroupWithinTimeWindow(
+            Group group,
+            TimeWindow timeWindow
+    ) {
+        Map<Long, List<FallRiskProfile>> fallRiskProfilesByUserId =
+                fallRiskProfileService.getLatestDayFallRiskProfilesForGroupWithinTimeWindow(group, timeWindow);
+
+        return group.getUsers().stream()
+                .flatMap(user -> fallRiskProfilesByUserId.getOrDefault(user.getId(), List.of()).stream()
+                        .map(FallRiskScoreAssessment::new)
+                        .max(LATEST_BEST_FALL_RISK_ASSESSMENT)
+                        .map(fsa -> new LatestFallRiskProfileAssessment(user, fsa))
+                        .stream())
+                .toList();
+    }
+
     /**
      * Compute the latest V1FallRiskAssessment (from the latest FRP session) of a given user.
      */
@@ -135,6 +175,35 @@ public class FallRiskAnalysisService {
         return fallRiskProfileForUser.map(frp -> new V1FallRiskScoreAssessment(user, frp));
     }
 
+    /**
+     * Compute the latest V1FallRiskAssessment of every user of a given group, see
+     * {@link #computeLatestV1FallRiskAssessmentForUser}. The latest FRPs of all users are looked up at once.
+     *
+     * @return The latest fall risk assessment of every user of the group that has one, in the order of the users of the
+     * group.
+     */
+    public List<V1FallRiskScoreAssessment> computeLatestV1FallRiskAssessmentsForGroup(Group group) {
+        Map<Long, FallRiskProfile> fallRiskProfilesByUserId =
+                fallRiskProfileService.getLatestFallRiskProfilesForGroup(group);
+
+        return group.getUsers().stream()
+                .filter(user -> fallRiskProfilesByUserId.containsKey(user.getId()))
+                .map(user -> new V1FallRiskScoreAssessment(user, fallRiskProfilesByUserId.get(user.getId())))
+                .toList();
+    }
+
+    /**
+     * Compute the trend of the fall risk profiles (and their fall risk scores) of a user within a time window: the
+     * statistics of the fall risk profiles per bucket of the given interval, aggregated by the database.
+     */
+    public List<FallRiskProfileRepository.FallRiskProfileTrendBucket> computeFallRiskTrendForUserWithinTimeWindow(
+            User user,
+            TimeWindow timeWindow,
+            TrendInterval interval
+    ) {
+        return fallRiskProfileService.getFallRiskProfileTrendForUserWithinTimeWindow(user, timeWindow, interval);
+    }
+
     /**
      * Compute a list of V1FallRiskAssessments for user within a time window.
      */
@@ -146,4 +215,52 @@ public class FallRiskAnalysisService {
                 .map(frp -> new V1FallRiskScoreAssessment(user, frp))
                 .toList();
     }
+
+    /**
+     * Score many fall risk profiles at once (e.g. for a research export), given their fall risk parameters in columnar
+     * form, see {@link BatchFallRiskScorer}.
+     */
+    public ColumnarFallRiskScores computeFallRiskScores(ColumnarFallRiskProfiles fallRiskProfiles) {
+        return BatchFallRiskScorer.score(fallRiskProfiles);
+    }
+
+    /**
+     * Score the (stored) fall risk profiles of the users of the given tenant within the given time window at once, see
+     * {@link BatchFallRiskScorer}. The scores carry the ids of the fall risk profiles, ordered by their end time.
+     */
+    public ColumnarFallRiskScores computeFallRiskScoresForTenantWithinTimeWindow(Long tenantId, TimeWindow timeWindow) {
+        return BatchFallRiskScorer.score(
+                fallRiskProfileService.getColumnarFallRiskProfilesForTenantWithinTimeWindow(tenantId, timeWindow)
+        );
+    }
+
+    /**
+     * Compute the percentiles of the given parameter within the given group over the given time window (widened to
+     * whole months), and the percentile rank of the given value (if any) within the group.
+     */
+    public FallRiskPercentiles computeFallRiskPercentilesForGroupWithinTimeWindow(
+            Group group,
+            FallRiskParameter parameter,
+            TimeWindow timeWindow,
+            Double value
+    ) {
+        FallRiskHistogram histogram =
+                fallRiskProfileService.getFallRiskHistogramForGroupWithinTimeWindow(group, parameter, timeWindow);
+        return FallRiskPercentiles.of(parameter, histogram, value);
+    }
+
+    /**
+     * Compute the percentiles of the given parameter within the given tenant over the given time window (widened to
+     * whole months), and the percentile rank of the given value (if any) within the tenant.
+     */
+    public FallRiskPercentiles computeFallRiskPercentilesForTenantWithinTimeWindow(
+            Long tenantId,
+            FallRiskParameter parameter,
+            TimeWindow timeWindow,
+            Double value
+    ) {
+        FallRiskHistogram histogram =
+                fallRiskProfileService.getFallRiskHistogramForTenantWithinTimeWindow(tenantId, parameter, timeWindow);
+        return FallRiskPercentiles.of(parameter, histogram, value);
+    }
 }
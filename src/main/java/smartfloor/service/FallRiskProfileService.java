@@ -2,26 +2,40 @@ package smartfloor.service;
 
 import java.util.AbstractMap;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartfloor.configuration.CacheConfig;
+import smartfloor.configuration.ReadReplicaRouting;
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.FallRiskHistogram;
+import smartfloor.domain.FallRiskParameter;
 import smartfloor.domain.TimeWindow;
+import smartfloor.domain.TrendInterval;
+import smartfloor.domain.UserType;
 import smartfloor.domain.dto.FallRiskProfileNoteForm;
 import smartfloor.domain.dto.FallRiskProfileRemovalForm;
 import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.User;
-import smartfloor.domain.entities.UserWearableLink;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileNote;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileRemoval;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileRemovalReason;
 import smartfloor.domain.exception.FallRiskProfileNotFoundException;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.multitenancy.AccessScopedCache;
 import smartfloor.repository.jpa.FallRiskProfileNoteRepository;
 import smartfloor.repository.jpa.FallRiskProfileRepository;
 import smartfloor.repository.jpa.FallRiskRemovalRepository;
@@ -29,11 +43,22 @@ import smartfloor.repository.jpa.FallRiskRemovalRepository;
 @Service
 public class FallRiskProfileService {
 
+    private static final Logger log = LoggerFactory.getLogger(FallRiskProfileService.class);
+
+    /**
+     * The caches of the analyses that are computed from fall risk profiles (and their notes).
+     */
+    private static final List<String> ANALYSES_CACHE_NAMES = List.of(
+            CacheConfig.LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME,
+            CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME,
+            CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME
+    );
+
     private final FallRiskProfileRepository fallRiskProfileRepository;
-    private final UserWearableLinkService userWearableLinkService;
     private final AuthorizationService authorizationService;
     private final FallRiskRemovalRepository fallRiskRemovalRepository;
     private final FallRiskProfileNoteRepository fallRiskProfileNoteRepository;
+    private final CacheManager cacheManager;
 
     /**
      * TODO.
@@ -42,15 +67,15 @@ public class FallRiskProfileService {
     public FallRiskProfileService(
             FallRiskProfileRepository fallRiskProfileRepository,
             FallRiskRemovalRepository fallRiskRemovalRepository,
-            UserWearableLinkService userWearableLinkService,
             AuthorizationService authorizationService,
-            FallRiskProfileNoteRepository fallRiskProfileNoteRepository
+            FallRiskProfileNoteRepository fallRiskProfileNoteRepository,
+            CacheManager cacheManager
     ) {
         this.fallRiskProfileRepository = fallRiskProfileRepository;
-        this.userWearableLinkService = userWearableLinkService;
         this.authorizationService = authorizationService;
         this.fallRiskRemovalRepository = fallRiskRemovalRepository;
         this.fallRiskProfileNoteRepository = fallRiskProfileNoteRepository;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -70,6 +95,145 @@ public class FallRiskProfileService {
         );
     }
 
+    /**
+     * We aggregate the fall risk profiles of the given user within the given time window into buckets of the given
+     * interval, see {@link FallRiskProfileRepository#findTrendByUserIdBetweenTimes}.
+     */
+    List<FallRiskProfileRepository.FallRiskProfileTrendBucket> getFallRiskProfileTrendForUserWithinTimeWindow(
+            User user,
+            TimeWindow timeWindow,
+            TrendInterval interval
+    ) {
+        authorizationService.validateUserOperationAuthority(user);
+
+        return fallRiskProfileRepository.findTrendByUserIdBetweenTimes(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                interval.getDateTruncField()
+        );
+    }
+
+    /**
+     * We look up, for every user of the given group, the fall risk profiles within the given time window that end on
+     * the latest day of that user, see {@link FallRiskProfileRepository#findLatestDayIdsByGroupIdBetweenTimes}.
+     * Authorization for the group covers all of its users.
+     *
+     * @param group the group for which to look up the fall risk profiles
+     * @param timeWindow the time window within which to look up the fall risk profiles
+     * @return a map from user id to the fall risk profiles of the latest day of that user (users without fall risk
+     * profiles within the time window are absent)
+     */
+    Map<Long, List<FallRiskProfile>> getLatestDayFallRiskProfilesForGroupWithinTimeWindow(
+            Group group,
+            TimeWindow timeWindow
+    ) {
+        authorizationService.validateGroupOperationAuthority(group.getId());
+
+        List<FallRiskProfileRepository.UserFallRiskProfileId> ids =
+                fallRiskProfileRepository.findLatestDayIdsByGroupIdBetweenTimes(
+                        group.getId(),
+                        timeWindow.getBeginTime(),
+                        timeWindow.getEndTime()
+                );
+        Set<Long> fallRiskProfileIds = ids.stream()
+                .map(FallRiskProfileRepository.UserFallRiskProfileId::getFallRiskProfileId)
+                .collect(Collectors.toSet());
+        Map<Long, FallRiskProfile> fallRiskProfilesById = fallRiskProfileRepository.findAllById(fallRiskProfileIds)
+                .stream()
+                .collect(Collectors.toMap(FallRiskProfile::getId, frp -> frp));
+        return ids.stream()
+                .collect(Collectors.groupingBy(
+                        FallRiskProfileRepository.UserFallRiskProfileId::getUserId,
+                        Collectors.mapping(
+                                id -> fallRiskProfilesById.get(id.getFallRiskProfileId()),
+                                Collectors.toList()
+                        )
+                ));
+    }
+
+    /**
+     * We merge the histograms of the given parameter of the users of the given group over the months that overlap with
+     * the given time window, see {@link FallRiskProfileRepository#findHistogramByGroupIdBetweenTimes}.
+     *
+     * @return the merged histogram, which is empty when the users have no fall risk profiles within those months
+     */
+    FallRiskHistogram getFallRiskHistogramForGroupWithinTimeWindow(
+            Group group,
+            FallRiskParameter parameter,
+            TimeWindow timeWindow
+    ) {
+        authorizationService.validateGroupOperationAuthority(group.getId());
+
+        return toHistogram(fallRiskProfileRepository.findHistogramByGroupIdBetweenTimes(
+                group.getId(),
+                parameter.getHistogramParameter(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        ));
+    }
+
+    /**
+     * We merge the histograms of the given parameter of the users of the given tenant over the months that overlap
+     * with the given time window, see {@link FallRiskProfileRepository#findHistogramByTenantIdBetweenTimes}.
+     *
+     * @return the merged histogram, which is empty when the users have no fall risk profiles within those months
+     */
+    FallRiskHistogram getFallRiskHistogramForTenantWithinTimeWindow(
+            Long tenantId,
+            FallRiskParameter parameter,
+            TimeWindow timeWindow
+    ) {
+        authorizationService.validateTenantOperationAuthority(tenantId);
+
+        return toHistogram(fallRiskProfileRepository.findHistogramByTenantIdBetweenTimes(
+                tenantId,
+                parameter.getHistogramParameter(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        ));
+    }
+
+    /**
+     * We collect the fall risk parameters of the fall risk profiles of the users of the given tenant within the given
+     * time window (ordered by their end time) in their columnar representation. The parameters are streamed straight
+     * into the columns through a server-side cursor, see
+     * {@link FallRiskProfileRepository#streamParametersByTenantIdBetweenTimes}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    ColumnarFallRiskProfiles getColumnarFallRiskProfilesForTenantWithinTimeWindow(
+            Long tenantId,
+            TimeWindow timeWindow
+    ) {
+        authorizationService.validateTenantOperationAuthority(tenantId);
+
+        ColumnarFallRiskProfiles.Builder builder = ColumnarFallRiskProfiles.builder(0);
+        try (Stream<FallRiskProfileRepository.FallRiskProfileParameters> fallRiskProfiles = fallRiskProfileRepository
+                .streamParametersByTenantIdBetweenTimes(tenantId, timeWindow.getBeginTime(), timeWindow.getEndTime())) {
+            fallRiskProfiles.forEach(frp -> builder.add(
+                    frp.getId(),
+                    frp.getWalkingSpeed(),
+                    frp.getStepLength(),
+                    frp.getStepFrequency()
+            ));
+        }
+        return builder.build();
+    }
+
+    private static FallRiskHistogram toHistogram(List<FallRiskProfileRepository.FallRiskHistogramBin> bins) {
+        if (bins.isEmpty()) {
+            return FallRiskHistogram.empty();
+        }
+        FallRiskProfileRepository.FallRiskHistogramBin first = bins.get(0);
+        FallRiskHistogram histogram = new FallRiskHistogram(
+                first.getLowerBound(),
+                first.getUpperBound(),
+                first.getBinCount()
+        );
+        bins.forEach(bin -> histogram.add(bin.getBin(), bin.getCount()));
+        return histogram;
+    }
+
     /**
      * We look up the fall risk profiles for the user with the given user id within the given time window.
      *
@@ -90,19 +254,22 @@ public class FallRiskProfileService {
     }
 
     /**
-     * We look up the fall risk profiles for the user with the given user id. This means we need to first look up all
-     * wearables that the user has worn. Then, for each of these wearables, we look up the fall risk profiles that were
-     * created during the time window in which the user has worn the wearable.
+     * We look up the fall risk profiles for the user with the given user id. These are, for every wearable that the
+     * user has worn, the fall risk profiles that were created during the time window in which the user has worn the
+     * wearable. All user-wearable links of the user are handled by a single query, see
+     * {@link FallRiskProfileRepository#findByUserIdOrderByCreationTime}.
      *
      * @param userId the id of the user for which to look up the fall risk profiles
      * @param includeHiddenFRPs whether to include hidden FRPs in the result set
-     * @return a list of fall risk profiles for the user
+     * @return a list of fall risk profiles for the user, ordered by their creation time
      */
     public List<FallRiskProfile> getFallRiskProfilesForUser(Long userId, boolean includeHiddenFRPs) {
         authorizationService.validateUserOperationAuthority(userId);
 
-        List<UserWearableLink> userWearableLinksForUser = userWearableLinkService.getByUserId(userId);
-        return getFallRiskProfilesForUserWearableLinks(userWearableLinksForUser, includeHiddenFRPs);
+        if (includeHiddenFRPs) {
+            return fallRiskProfileRepository.findByUserIdOrderByCreationTime(userId);
+        }
+        return fallRiskProfileRepository.findByUserIdAndHiddenFalseOrderByCreationTime(userId);
     }
 
     /**
@@ -120,19 +287,6 @@ public class FallRiskProfileService {
         return getFallRiskProfilesForUser(userId, false);
     }
 
-    private List<FallRiskProfile> getFallRiskProfilesForUserWearableLinks(
-            List<UserWearableLink> userWearableLinks,
-            boolean includeHiddenFRPs
-    ) {
-        return userWearableLinks.stream()
-                .map(uwl -> getFallRiskProfilesForWearableWithinTimeWindow(uwl.getWearable(),
-                        new TimeWindow(uwl.getBeginTime(), uwl.getEndTime()), includeHiddenFRPs
-                ))
-                .flatMap(Collection::stream)
-                .distinct()
-                .toList();
-    }
-
     /**
      * <p>We query the fall risk profiles of the wearable for which the id is given.
      * A fall risk profile has three temporal properties: its creation time, begin time and end time. The begin and end
@@ -171,6 +325,47 @@ public class FallRiskProfileService {
         return fallRiskProfileRepository.findLatestByUserId(user.getId());
     }
 
+    /**
+     * Gets the latest FRP of every user of the given group, see {@link #getLatestFallRiskProfileForUser}. Authorization
+     * for the group covers all of its users.
+     *
+     * @param group the group for which to look up the latest fall risk profiles
+     * @return a map from user id to the latest fall risk profile of that user (users without fall risk profiles are
+     * absent)
+     */
+    Map<Long, FallRiskProfile> getLatestFallRiskProfilesForGroup(Group group) {
+        authorizationService.validateGroupOperationAuthority(group.getId());
+
+        List<FallRiskProfileRepository.UserFallRiskProfileId> ids =
+                fallRiskProfileRepository.findLatestIdsByGroupId(group.getId());
+        Map<Long, FallRiskProfile> fallRiskProfilesById = fallRiskProfileRepository.findAllById(
+                        ids.stream().map(FallRiskProfileRepository.UserFallRiskProfileId::getFallRiskProfileId).toList()
+                )
+                .stream()
+                .collect(Collectors.toMap(FallRiskProfile::getId, frp -> frp));
+        return ids.stream()
+                .filter(id -> fallRiskProfilesById.containsKey(id.getFallRiskProfileId()))
+                .collect(Collectors.toMap(
+                        FallRiskProfileRepository.UserFallRiskProfileId::getUserId,
+                        id -> fallRiskProfilesById.get(id.getFallRiskProfileId())
+                ));
+    }
+
+    /**
+     * The latest FRP of every user is maintained by the database whenever FRPs, their removals or user-wearable links
+     * change. This consistency check compares them against a full recomputation once a day, and repairs (and reports)
+     * any differences. Returns the number of users for which the latest FRP was repaired.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public int repairLatestFallRiskProfiles() {
+        int repairedCount = fallRiskProfileRepository.repairLatestFallRiskProfiles();
+        if (repairedCount > 0) {
+            log.warn("Repaired the latest fall risk profile of {} user(s).", repairedCount);
+        }
+        return repairedCount;
+    }
+
     /**
      * Soft deletion of FRP with given ID.
      *
@@ -179,6 +374,7 @@ public class FallRiskProfileService {
      * @param fallRiskProfileRemovalForm contains details for the soft-deletion
      * @throws FallRiskProfileNotFoundException When an FRP with the provided ID does not exist
      */
+    @Transactional
     public void softDeleteFallRiskProfile(
             Long fallRiskProfileId,
             User user,
@@ -196,6 +392,7 @@ public class FallRiskProfileService {
                     .deletedBy(user)
                     .build();
             fallRiskRemovalRepository.save(frpRemoval);
+            evictAnalyses();
         } else {
             throw new FallRiskProfileNotFoundException(fallRiskProfileId);
         }
@@ -239,12 +436,35 @@ public class FallRiskProfileService {
                 fallRiskProfile.setFallRiskProfileNote(null);
                 fallRiskProfileNoteRepository.deleteById(noteToDelete.id);
             }
-            return fallRiskProfileRepository.save(fallRiskProfile);
+            FallRiskProfile savedFallRiskProfile = fallRiskProfileRepository.save(fallRiskProfile);
+            evictAnalyses();
+            return savedFallRiskProfile;
         } else {
             throw new FallRiskProfileNotFoundException();
         }
     }
 
+    /**
+     * Evict the cached analyses that may contain fall risk profiles of the tenant of the current access scope, such
+     * that a removed fall risk profile (or a changed note) is reflected by the next request. Within a transaction, the
+     * analyses are only evicted once the change has been committed (see {@link AfterCommit}).
+     */
+    private void evictAnalyses() {
+        Long tenantId = AccessScopeContext.INSTANCE.getTenantId();
+        boolean isDirectUserOfTenant = AccessScopeContext.INSTANCE.getUserType() == UserType.DIRECT_USER &&
+                tenantId != null;
+        AfterCommit.run(() -> {
+            for (String cacheName : ANALYSES_CACHE_NAMES) {
+                AccessScopedCache cache = (AccessScopedCache) cacheManager.getCache(cacheName);
+                if (isDirectUserOfTenant) {
+                    cache.evictTenant(tenantId);
+                } else {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
     public List<FallRiskProfileRemovalReason> getRemovalReasons() {
         return Arrays.asList(FallRiskProfileRemovalReason.values());
     }
@@ -1,16 +1,31 @@
 package smartfloor.service;
 
-import java.util.Collection;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartfloor.configuration.ReadReplicaRouting;
+import smartfloor.domain.ColumnarFootsteps;
+import smartfloor.domain.FootstepCursor;
+import smartfloor.domain.FootstepPage;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
+import smartfloor.domain.indicators.footstep.FootstepSeries;
 import smartfloor.repository.jpa.FootstepRepository;
+import smartfloor.repository.jpa.projections.FootstepProjection;
 
 /**
  * Allows for some read operations on footsteps.
@@ -19,8 +34,19 @@ import smartfloor.repository.jpa.FootstepRepository;
  */
 @Service
 public class FootstepService {
+    /**
+     * The maximum number of footsteps that can be requested per page.
+     */
+    public static final int MAX_PAGE_SIZE = 10000;
+
+    /**
+     * The number of months ahead for which the footsteps partitions are created.
+     */
+    static final int PARTITION_MONTHS_AHEAD = 12;
+
+    private static final Logger log = LoggerFactory.getLogger(FootstepService.class);
+
     private final FootstepRepository footstepRepository;
-    private final UserWearableLinkService userWearableLinkService;
     private final AuthorizationService authorizationService;
 
     /**
@@ -29,11 +55,9 @@ public class FootstepService {
     @Autowired
     public FootstepService(
             FootstepRepository footstepRepository,
-            UserWearableLinkService userWearableLinkService,
             AuthorizationService authorizationService
     ) {
         this.footstepRepository = footstepRepository;
-        this.userWearableLinkService = userWearableLinkService;
         this.authorizationService = authorizationService;
     }
 
@@ -42,10 +66,35 @@ public class FootstepService {
     }
 
     /**
-     * TODO.
+     * Get all footsteps of a wearable within the given time window (ordered by time). The footsteps are read as
+     * projections and are therefore not managed by the persistence context,
+     * see {@link FootstepProjection#toFootstep()}.
      */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
     public List<Footstep> getForWearableWithinTimeWindow(String wearableId, TimeWindow timeWindow) {
-        return footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
+        return getProjectionsForWearableWithinTimeWindow(wearableId, timeWindow).stream()
+                .map(FootstepProjection::toFootstep)
+                .toList();
+    }
+
+    /**
+     * See {@link #getForWearableWithinTimeWindow(String, TimeWindow)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public List<Footstep> getForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
+        return getForWearableWithinTimeWindow(wearable.getId(), timeWindow);
+    }
+
+    /**
+     * Get the read-only projections (time, position, wearable id and floor id) of all footsteps of a wearable within
+     * the given time window (ordered by time).
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public List<FootstepProjection> getProjectionsForWearableWithinTimeWindow(
+            String wearableId,
+            TimeWindow timeWindow
+    ) {
+        return footstepRepository.findProjectionsByWearableIdAndTimeBetween(
                 wearableId,
                 timeWindow.getBeginTime(),
                 timeWindow.getEndTime()
@@ -53,13 +102,134 @@ public class FootstepService {
     }
 
     /**
-     * TODO.
+     * Get all footsteps of a wearable within the given time window (ordered by time) as a series for computing
+     * indicators. The series is built directly from the projections, without creating a footstep per row.
      */
-    public List<Footstep> getForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
-        return footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public FootstepSeries getSeriesForWearableWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
+        return toSeries(getProjectionsForWearableWithinTimeWindow(wearable.getId(), timeWindow));
+    }
+
+    /**
+     * Get a page of the footsteps of a wearable within the given time window (ordered by time), starting after the
+     * given cursor. See {@link FootstepCursor}.
+     *
+     * @param cursor the encoded cursor of the page, or null to get the first page
+     * @param size   the maximum number of footsteps in the page
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public FootstepPage getPageForWearableWithinTimeWindow(
+            Wearable wearable,
+            TimeWindow timeWindow,
+            @Nullable String cursor,
+            int size
+    ) {
+        validatePageSize(size);
+        FootstepCursor after = cursor == null ? FootstepCursor.first(timeWindow) : FootstepCursor.decode(cursor);
+        return toPage(footstepRepository.findProjectionPageByWearableIdAndTimeBetween(
+                wearable.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                after.time(),
+                after.id(),
+                PageRequest.ofSize(size + 1)
+        ), size);
+    }
+
+    /**
+     * <p>Passes all footsteps of a wearable within the given time window (ordered by time) to the given consumer, one
+     * footstep at a time.</p>
+     * Unlike {@link #getForWearableWithinTimeWindow(Wearable, TimeWindow)}, the footsteps are read through a
+     * server-side cursor. Hence, memory usage stays flat no matter the length of the time window. The (read-only)
+     * transaction is held open until every footstep has been consumed.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public void streamForWearableWithinTimeWindow(
+            Wearable wearable,
+            TimeWindow timeWindow,
+            Consumer<FootstepProjection> consumer
+    ) {
+        try (Stream<FootstepProjection> footsteps = footstepRepository.streamProjectionsByWearableIdAndTimeBetween(
+                wearable.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        )) {
+            footsteps.forEach(consumer);
+        }
+    }
+
+    /**
+     * Passes all footsteps of a user within the given time window (ordered by time) to the given consumer, one
+     * footstep at a time. See also {@link #streamForWearableWithinTimeWindow(Wearable, TimeWindow, Consumer)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public void streamForUserWithinTimeWindow(
+            User user,
+            TimeWindow timeWindow,
+            Consumer<FootstepProjection> consumer
+    ) {
+        authorizationService.validateUserOperationAuthority(user);
+
+        try (Stream<FootstepProjection> footsteps = footstepRepository.streamProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        )) {
+            footsteps.forEach(consumer);
+        }
+    }
+
+    /**
+     * Get all footsteps of a wearable within the given time window (ordered by time) in their columnar representation.
+     * The footsteps are streamed straight into the columns, without creating a footstep per row.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public ColumnarFootsteps getColumnarForWearableWithinTimeWindow(
+            Wearable wearable,
+            TimeWindow timeWindow,
+            ColumnarFootsteps.TimeEncoding timeEncoding
+    ) {
+        ColumnarFootsteps.Builder builder = ColumnarFootsteps.builder(0, timeEncoding);
+        try (Stream<FootstepProjection> footsteps = footstepRepository.streamProjectionsByWearableIdAndTimeBetween(
                 wearable.getId(),
                 timeWindow.getBeginTime(),
                 timeWindow.getEndTime()
+        )) {
+            footsteps.forEach(addTo(builder));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get all footsteps of a user within the given time window (ordered by time) in their columnar representation.
+     * See also {@link #getColumnarForWearableWithinTimeWindow(Wearable, TimeWindow, ColumnarFootsteps.TimeEncoding)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public ColumnarFootsteps getColumnarForUserWithinTimeWindow(
+            User user,
+            TimeWindow timeWindow,
+            ColumnarFootsteps.TimeEncoding timeEncoding
+    ) {
+        authorizationService.validateUserOperationAuthority(user);
+
+        ColumnarFootsteps.Builder builder = ColumnarFootsteps.builder(0, timeEncoding);
+        try (Stream<FootstepProjection> footsteps = footstepRepository.streamProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        )) {
+            footsteps.forEach(addTo(builder));
+        }
+        return builder.build();
+    }
+
+    private static Consumer<FootstepProjection> addTo(ColumnarFootsteps.Builder builder) {
+        return footstep -> builder.add(
+                footstep.time(),
+                footstep.x(),
+                footstep.y(),
+                footstep.wearableId(),
+                footstep.floorId()
         );
     }
 
@@ -74,26 +244,182 @@ public class FootstepService {
         );
     }
 
-    public Set<FootstepRepository.WearableStepCount> getCountsWithinTimeWindow(Date beginTime, Date endTime) {
-        return footstepRepository.findWearableStepCounts(beginTime, endTime);
+    /**
+     * Get the number of footsteps per wearable within the given time window. The full hours of the time window are
+     * counted from the footstep hourly rollups (as far as those are complete), only the partial hours at the edges of
+     * the time window (and the hours that have not been rolled up yet) are counted from the footsteps themselves.
+     * The rollup of an hour in which a tenant-wearable lease begins or ends is not visible to the tenant, so the
+     * footsteps of such an hour are counted from the footsteps themselves as well.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public Set<FootstepRepository.WearableStepCount> getCountsWithinTimeWindow(TimeWindow timeWindow) {
+        LocalDateTime beginTime = timeWindow.getBeginTime();
+        LocalDateTime endTime = timeWindow.getEndTime();
+        LocalDateTime fullHoursBeginTime = beginTime.truncatedTo(ChronoUnit.HOURS);
+        if (fullHoursBeginTime.isBefore(beginTime)) {
+            fullHoursBeginTime = fullHoursBeginTime.plusHours(1);
+        }
+        LocalDateTime fullHoursEndTime = endTime.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime coveredUntil = footstepRepository.findHourlyRollupsCoveredUntil().orElse(fullHoursBeginTime);
+        if (coveredUntil.isBefore(fullHoursEndTime)) {
+            fullHoursEndTime = coveredUntil;
+        }
+        if (!fullHoursBeginTime.isBefore(fullHoursEndTime)) {
+            // There are no full hours to read from the rollups, so all footsteps are counted from [begin, end].
+            fullHoursBeginTime = endTime;
+            fullHoursEndTime = endTime;
+        }
+        return footstepRepository.findWearableStepCounts(beginTime, endTime, fullHoursBeginTime, fullHoursEndTime);
     }
 
     /**
-     * TODO.
+     * Get the hourly rollups (step count, covered distance, first and last step time) of the footsteps of a wearable,
+     * for the hours that start within the given time window (ordered by hour).
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public List<FootstepRepository.HourlyFootstepRollup> getHourlyRollupsForWearableWithinTimeWindow(
+            Wearable wearable,
+            TimeWindow timeWindow
+    ) {
+        return footstepRepository.findHourlyRollupsByWearableIdAndHourBetween(
+                wearable.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        );
+    }
+
+    /**
+     * Rolls up the footsteps that have been committed since the previous refresh into the footstep hourly rollups.
+     * Returns the number of (wearable, floor, hour) rollups that were (re)computed.
      */
+    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    @Transactional
+    public int refreshHourlyRollups() {
+        return footstepRepository.refreshHourlyRollups();
+    }
+
+    /**
+     * Creates the footsteps partitions of the upcoming months (up to {@link #PARTITION_MONTHS_AHEAD} months ahead) that
+     * do not exist yet, such that the footsteps of those months do not end up in the default partition. Returns the
+     * number of partitions that were created.
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    @Transactional
+    public int createUpcomingPartitions() {
+        int createdCount = footstepRepository.createUpcomingPartitions(PARTITION_MONTHS_AHEAD);
+        if (createdCount > 0) {
+            log.info("Created {} footsteps partition(s).", createdCount);
+        }
+        return createdCount;
+    }
+
+    /**
+     * Get all footsteps of a user within the given time window (ordered by time). The footsteps of every wearable the
+     * user was linked to within the time window are resolved in a single query, each clipped to the time window of its
+     * user-wearable link. Like {@link #getForWearableWithinTimeWindow(String, TimeWindow)}, the footsteps are not
+     * managed by the persistence context.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
     public List<Footstep> getForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        return getProjectionsForUserWithinTimeWindow(user, timeWindow).stream()
+                .map(FootstepProjection::toFootstep)
+                .toList();
+    }
+
+    /**
+     * Get the read-only projections of all footsteps of a user within the given time window (ordered by time). See
+     * also {@link #getForUserWithinTimeWindow(User, TimeWindow)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public List<FootstepProjection> getProjectionsForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
         authorizationService.validateUserOperationAuthority(user);
 
-        return userWearableLinkService.getByUserWithOverlappingTimeWindow(user, timeWindow).stream()
-                .map(uwl -> footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
-                        uwl.getWearable().getId(),
-                        uwl.getBeginTime(),
-                        uwl.getEndTime()
-                ))
-                .flatMap(Collection::stream)
-                .filter(timeWindow::includes)
-                .sorted()
-                .toList();
+        return findProjectionsForUserWithinTimeWindow(user, timeWindow);
+    }
+
+    private List<FootstepProjection> findProjectionsForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        return footstepRepository.findProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        );
+    }
+
+    /**
+     * Get a page of the footsteps of a user within the given time window (ordered by time), starting after the given
+     * cursor. See also {@link #getPageForWearableWithinTimeWindow(Wearable, TimeWindow, String, int)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public FootstepPage getPageForUserWithinTimeWindow(
+            User user,
+            TimeWindow timeWindow,
+            @Nullable String cursor,
+            int size
+    ) {
+        authorizationService.validateUserOperationAuthority(user);
+        validatePageSize(size);
+        FootstepCursor after = cursor == null ? FootstepCursor.first(timeWindow) : FootstepCursor.decode(cursor);
+        return toPage(footstepRepository.findProjectionPageByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                after.time(),
+                after.id(),
+                PageRequest.ofSize(size + 1)
+        ), size);
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("The page size should be between 1 and %d.", MAX_PAGE_SIZE)
+            );
+        }
+    }
+
+    /**
+     * Builds a page from the (at most size + 1) projections that were read after the cursor. We read one footstep more
+     * than fits the page to find out whether there is a next page, without an additional count query.
+     */
+    private static FootstepPage toPage(List<FootstepProjection> projections, int size) {
+        if (projections.size() <= size) {
+            return new FootstepPage(projections.stream().map(FootstepProjection::toFootstep).toList(), null);
+        }
+        List<FootstepProjection> page = projections.subList(0, size);
+        FootstepProjection last = page.get(size - 1);
+        return new FootstepPage(
+                page.stream().map(FootstepProjection::toFootstep).toList(),
+                new FootstepCursor(last.time(), last.id()).encode()
+        );
+    }
+
+    /**
+     * Get all footsteps of a user within the given time window (ordered by time) as a series for computing indicators.
+     * See also {@link #getSeriesForWearableWithinTimeWindow(Wearable, TimeWindow)}.
+     */
+    @Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
+    public FootstepSeries getSeriesForUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        return toSeries(getProjectionsForUserWithinTimeWindow(user, timeWindow));
+    }
+
+    /**
+     * See {@link #getSeriesForUserWithinTimeWindow(User, TimeWindow)}, but without validating the operation authority
+     * for the user. Only meant for callers that have validated it already (i.e. the analyses of AnalysisService).
+     */
+    FootstepSeries getSeriesForAuthorizedUserWithinTimeWindow(User user, TimeWindow timeWindow) {
+        return toSeries(findProjectionsForUserWithinTimeWindow(user, timeWindow));
+    }
+
+    private static FootstepSeries toSeries(List<FootstepProjection> projections) {
+        FootstepSeries.Builder builder = FootstepSeries.builder(projections.size());
+        for (FootstepProjection projection : projections) {
+            if (projection.hasPosition()) {
+                builder.add(projection.time(), projection.x(), projection.y());
+            } else {
+                builder.add(projection.time());
+            }
+        }
+        return builder.build();
     }
 
     /**
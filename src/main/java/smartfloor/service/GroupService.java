@@ -30,11 +30,20 @@ public class GroupService {
     private static final Logger log = LoggerFactory.getLogger(GroupService.class);
     private final GroupRepository groupRepository;
     private final AuthorizationService authorizationService;
+    private final AccessGraphService accessGraphService;
 
+    /**
+     * Creates the service, which evicts the cached access graphs (see {@link AccessGraphService}) when a group changes.
+     */
     @Autowired
-    public GroupService(GroupRepository groupRepository, AuthorizationService authorizationService) {
+    public GroupService(
+            GroupRepository groupRepository,
+            AuthorizationService authorizationService,
+            AccessGraphService accessGraphService
+    ) {
         this.groupRepository = groupRepository;
         this.authorizationService = authorizationService;
+        this.accessGraphService = accessGraphService;
     }
 
     /**
@@ -51,6 +60,7 @@ public class GroupService {
             throw new GroupAlreadyExistsException(group.getName());
         }
         Group createdGroup = groupRepository.save(group);
+        accessGraphService.evictAccessGraph();
         log.debug(
                 "Created new group {} with id {} (tenant: {})",
                 group.getName(),
@@ -83,7 +93,9 @@ public class GroupService {
                 group.getId(),
                 group.getTenant().getName()
         );
-        return groupRepository.save(group);
+        Group updatedGroup = groupRepository.save(group);
+        accessGraphService.evictAccessGraph();
+        return updatedGroup;
     }
 
     /**
@@ -147,6 +159,7 @@ public class GroupService {
                 group.getTenant().getName()
         );
         groupRepository.delete(group);
+        accessGraphService.evictAccessGraph();
     }
 
     /**
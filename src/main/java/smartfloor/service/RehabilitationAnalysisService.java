@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartfloor.configuration.ReadReplicaRouting;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.User;
@@ -21,6 +23,7 @@ import smartfloor.domain.tests.Walk;
 import smartfloor.repository.jpa.UserInfoHistoryRepository;
 
 @Service
+@Transactional(readOnly = true, label = ReadReplicaRouting.LABEL)
 public class RehabilitationAnalysisService {
 
     private final FootstepService footstepService;
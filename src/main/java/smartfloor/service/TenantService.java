@@ -1,20 +1,32 @@
 package smartfloor.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import smartfloor.domain.entities.Tenant;
 import smartfloor.domain.exception.TenantNotFoundException;
+import smartfloor.multitenancy.AccessScopedCache;
 import smartfloor.repository.jpa.TenantRepository;
 
 @Service
 public class TenantService {
     private final TenantRepository tenantRepository;
     private final AuthorizationService authorizationService;
+    private final CacheManager cacheManager;
 
+    /**
+     * Creates the service, which evicts the cached results of a tenant from the caches of the given cache manager.
+     */
     @Autowired
-    public TenantService(TenantRepository tenantRepository, AuthorizationService authorizationService) {
+    public TenantService(
+            TenantRepository tenantRepository,
+            AuthorizationService authorizationService,
+            CacheManager cacheManager
+    ) {
         this.tenantRepository = tenantRepository;
         this.authorizationService = authorizationService;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -31,4 +43,19 @@ public class TenantService {
 
         return tenant;
     }
+
+    /**
+     * Evicts the cached results (e.g. analyses) that may contain data of the given tenant from all caches, such that
+     * changes to the data of the tenant are reflected immediately instead of once the cached results expire.
+     */
+    public void evictCaches(Long tenantId) {
+        authorizationService.validateTenantOperationAuthority(tenantId);
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof AccessScopedCache accessScopedCache) {
+                accessScopedCache.evictTenant(tenantId);
+            }
+        }
+    }
 }
@@ -1,12 +1,17 @@
 package smartfloor.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import smartfloor.configuration.CacheConfig;
 import smartfloor.domain.UserType;
+import smartfloor.domain.entities.User;
 import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.multitenancy.AccessScopedCache;
+import smartfloor.multitenancy.AccessScopedCacheKey;
 import smartfloor.repository.jpa.CompositeUserRepository;
 import smartfloor.repository.jpa.TenantRepository;
 import smartfloor.repository.jpa.UserRepository;
@@ -17,6 +22,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
     private final CompositeUserRepository compositeUserRepository;
+    private final AccessScopedCache principalCache;
 
     /**
      * TODO.
@@ -25,11 +31,47 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetailsServiceImpl(
             TenantRepository tenantRepository,
             UserRepository userRepository,
-            CompositeUserRepository compositeUserRepository
+            CompositeUserRepository compositeUserRepository,
+            CacheManager cacheManager
     ) {
         this.tenantRepository = tenantRepository;
         this.userRepository = userRepository;
         this.compositeUserRepository = compositeUserRepository;
+        this.principalCache = (AccessScopedCache) cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE_NAME);
+    }
+
+    /**
+     * <p>Every request is authenticated, so the principals are cached per auth id within the tenant (or composite
+     * user) of the request, instead of being looked up again for every request. Only existing principals are cached, so
+     * a new user can authenticate right away. A principal that is changed or removed is evicted (see
+     * {@link #evictUser(Long)}, or TenantService#evictCaches for all principals of a tenant), otherwise it is revoked
+     * once its cache entry expires (see CacheConfig).</p>
+     * Note: the roles are not part of the cached principal, they are taken from every request (see RoleFilter). The
+     * cached principals are shared by concurrent requests, so they should not be modified.
+     *
+     * @see #lookUpUserByUsername(String)
+     */
+    @Override
+    public UserDetails loadUserByUsername(String userAuthId) {
+        AccessScopedCacheKey cacheKey = AccessScopedCacheKey.withoutPrincipal(userAuthId);
+        UserDetails cachedUserDetails = principalCache.get(cacheKey, UserDetails.class);
+        if (cachedUserDetails != null) {
+            return cachedUserDetails;
+        }
+        UserDetails userDetails = lookUpUserByUsername(userAuthId);
+        principalCache.put(cacheKey, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Evicts the cached principal of the user with the given id (in any access scope), such that a change to the user
+     * (e.g. its removal) applies to the next request of the user. Within a transaction, the principal is only evicted
+     * once the change has been committed (see {@link AfterCommit}).
+     */
+    public void evictUser(Long userId) {
+        AfterCommit.run(() -> principalCache.evictValues(
+                principal -> principal instanceof User user && userId.equals(user.getId())
+        ));
     }
 
     /**
@@ -45,8 +87,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @param userAuthId the user authentication id (ex. a Cognito UUID, hardcoded development/test user id, etc.)
      * @return the user details object describing the user to be authenticated with Spring Security
      */
-    @Override
-    public UserDetails loadUserByUsername(String userAuthId) {
+    private UserDetails lookUpUserByUsername(String userAuthId) {
         UserType currentUserType = AccessScopeContext.INSTANCE.getUserType();
         if (currentUserType == UserType.COMPOSITE_USER) {
             // We could look the composite user up either by auth id or id. For consistency, we do it by auth id.
@@ -48,6 +48,8 @@ public class UserService {
     private final GroupService groupService;
     private final AuthorizationService authorizationService;
     private final ApplicationRepository applicationRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final AccessGraphService accessGraphService;
 
     /**
      * TODO.
@@ -60,7 +62,9 @@ public class UserService {
             UserWearableLinkService userWearableLinkService,
             GroupService groupService,
             AuthorizationService authorizationService,
-            ApplicationRepository applicationRepository
+            ApplicationRepository applicationRepository,
+            UserDetailsServiceImpl userDetailsService,
+            AccessGraphService accessGraphService
     ) {
         this.userRepository = userRepository;
         this.userMeasurementRepository = userMeasurementRepository;
@@ -69,6 +73,8 @@ public class UserService {
         this.groupService = groupService;
         this.authorizationService = authorizationService;
         this.applicationRepository = applicationRepository;
+        this.userDetailsService = userDetailsService;
+        this.accessGraphService = accessGraphService;
     }
 
     /**
@@ -149,7 +155,10 @@ public class UserService {
             throw new UserIsArchivedException();
         }
 
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        userDetailsService.evictUser(updatedUser.getId());
+        accessGraphService.evictAccessGraph();
+        return updatedUser;
     }
 
     /**
@@ -161,6 +170,8 @@ public class UserService {
 
         User user = getUser(userId);
         userRepository.delete(user);
+        userDetailsService.evictUser(userId);
+        accessGraphService.evictAccessGraph();
     }
 
     /**
@@ -293,7 +304,9 @@ public class UserService {
             userWearableLinkService.updateUserWearableLink(activeUserWearableLink);
         }
         user.archive();
-        return userRepository.save(user);
+        User archivedUser = userRepository.save(user);
+        userDetailsService.evictUser(userId);
+        return archivedUser;
     }
 
     /**
@@ -322,7 +335,9 @@ public class UserService {
         }
         if (userToUnarchive.isArchived() && enoughTimePassedSinceArchiving) {
             userToUnarchive.unarchive();
-            return userRepository.save(userToUnarchive);
+            User unarchivedUser = userRepository.save(userToUnarchive);
+            userDetailsService.evictUser(userId);
+            return unarchivedUser;
         } else {
             throw new CannotUnarchiveUserException();
         }
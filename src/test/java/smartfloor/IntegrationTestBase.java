@@ -7,6 +7,8 @@ import org.springframework.beans.BeansException;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.test.context.ActiveProfiles;
@@ -19,10 +21,12 @@ import smartfloor.repository.jpa.PostgresqlContainer;
 @Tag("IntegrationTest")
 public class IntegrationTestBase extends TenantTestBase implements ApplicationContextAware {
     private static Flyway f;
+    private static CacheManager cacheManager;
 
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         f = applicationContext.getBean(Flyway.class);
+        cacheManager = applicationContext.getBean(CacheManager.class);
     }
 
     @Container
@@ -32,7 +36,8 @@ public class IntegrationTestBase extends TenantTestBase implements ApplicationCo
     private TestRestTemplate restTemplate = new TestRestTemplate();
 
     /**
-     * Re-run all migrations before each integration test suite we have.
+     * Re-run all migrations before each integration test suite we have. The caches are cleared as well, as the ids of
+     * the entities (and hence the cache keys) are reused after the migrations have been re-run.
      */
     @BeforeAll
     public static void cleanUpDatabase() {
@@ -40,6 +45,9 @@ public class IntegrationTestBase extends TenantTestBase implements ApplicationCo
             f.clean();
             f.migrate();
         }
+        if (cacheManager != null) {
+            cacheManager.getCacheNames().stream().map(cacheManager::getCache).forEach(Cache::clear);
+        }
     }
 
     public int getPort() {
@@ -0,0 +1,94 @@
+package smartfloor.configuration;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+@Tag("UnitTest")
+class CacheConfigTest {
+
+    private static CacheProperties.CacheSpec createCacheSpec(long maximumSize, Duration timeToLive) {
+        CacheProperties.CacheSpec cacheSpec = new CacheProperties.CacheSpec();
+        cacheSpec.setMaximumSize(maximumSize);
+        cacheSpec.setTimeToLive(timeToLive);
+        return cacheSpec;
+    }
+
+    @Test
+    void testCacheStaysBoundedUnderKeyChurn() {
+        // given
+        long maximumSize = 100;
+        CaffeineCache cache = CacheConfig.createCache("test", createCacheSpec(maximumSize, Duration.ofHours(1)));
+        // when: Many more distinct keys are written than the cache can hold, e.g. a new key every 5-minute interval.
+        int keyCount = 100_000;
+        for (int i = 0; i < keyCount; i++) {
+            cache.put(i, new long[16]);
+        }
+        cache.getNativeCache().cleanUp();
+        // then: The cache did not grow beyond its maximum size, the other entries were evicted.
+        CacheStats stats = cache.getNativeCache().stats();
+        assertTrue(cache.getNativeCache().estimatedSize() <= maximumSize);
+        assertTrue(stats.evictionCount() >= keyCount - maximumSize);
+    }
+
+    @Test
+    void testCacheEntriesExpireAfterTimeToLive() throws InterruptedException {
+        // given
+        // The time to live leaves room for a pause (e.g. of the garbage collector) in between the put and the get.
+        CaffeineCache cache = CacheConfig.createCache("test", createCacheSpec(100, Duration.ofMillis(500)));
+        cache.put("key", "value");
+        assertNotNull(cache.get("key"));
+        // when
+        Thread.sleep(1000);
+        // then
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void testCacheRecordsHitsAndMisses() {
+        // given
+        CaffeineCache cache = CacheConfig.createCache("test", createCacheSpec(100, Duration.ofHours(1)));
+        // when
+        cache.get("key");
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("key");
+        // then
+        CacheStats stats = cache.getNativeCache().stats();
+        assertEquals(1, stats.missCount());
+        assertEquals(2, stats.hitCount());
+    }
+
+    @Test
+    void testCacheManagerIsConfiguredFromProperties() {
+        // given
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setCaches(Map.of(
+                CacheConfig.LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME,
+                createCacheSpec(10, Duration.ofMinutes(5))
+        ));
+        // when
+        CacheManager cacheManager = new CacheConfig().cacheManager(cacheProperties);
+        ((SimpleCacheManager) cacheManager).afterPropertiesSet();
+        // then
+        CaffeineCache cache = assertInstanceOf(
+                CaffeineCache.class,
+                cacheManager.getCache(CacheConfig.LATEST_FALL_RISK_ASSESSMENTS_CACHE_NAME)
+        );
+        assertEquals(10, cache.getNativeCache().policy().eviction().orElseThrow().getMaximum());
+        assertEquals(
+                Duration.ofMinutes(5),
+                cache.getNativeCache().policy().expireAfterWrite().orElseThrow().getExpiresAfter()
+        );
+    }
+}
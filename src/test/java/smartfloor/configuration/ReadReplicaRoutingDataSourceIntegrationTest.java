@@ -0,0 +1,192 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import smartfloor.configuration.DataSourceConfig.ReadReplicaRoutingDataSource;
+import smartfloor.configuration.DataSourceConfig.TenantAwareDataSource;
+import smartfloor.domain.UserType;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.repository.jpa.PostgresqlContainer;
+
+/**
+ * Verifies the routing of the {@link ReadReplicaRoutingDataSource} between two local Postgres containers, one acting as
+ * the primary and one acting as the read replica. As the containers do not replicate, the lag of the replica is looked
+ * up from a table of the replica that the tests control.
+ */
+@Testcontainers
+@Tag("IntegrationTest")
+class ReadReplicaRoutingDataSourceIntegrationTest {
+
+    private static final String REPLICA_DATABASE_NAME = "replica";
+    private static final int THREADS = 16;
+    private static final int CHECKOUTS_PER_THREAD = 50;
+    private static final Duration LAG_CHECK_INTERVAL = Duration.ofMillis(10);
+    private static final Duration ROUTING_TIMEOUT = Duration.ofSeconds(5);
+
+    @Container
+    public static PostgreSQLContainer<PostgresqlContainer> primaryContainer = PostgresqlContainer.getInstance();
+    @Container
+    public static PostgreSQLContainer<?> replicaContainer =
+            new PostgreSQLContainer<>("postgres:11.1").withDatabaseName(REPLICA_DATABASE_NAME);
+
+    private TenantAwareDataSource replica;
+    private ReadReplicaRoutingDataSource dataSource;
+
+    private static TenantAwareDataSource createDataSource(PostgreSQLContainer<?> container) {
+        TenantAwareDataSource dataSource = new TenantAwareDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(4);
+        return dataSource;
+    }
+
+    private static RuleBasedTransactionAttribute readOnlyTransaction(boolean isLabeled) {
+        RuleBasedTransactionAttribute transactionAttribute = new RuleBasedTransactionAttribute();
+        transactionAttribute.setReadOnly(true);
+        transactionAttribute.setLabels(isLabeled ? Set.of(ReadReplicaRouting.LABEL) : Set.of());
+        return transactionAttribute;
+    }
+
+    private static void setTenant(long tenantId) {
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(tenantId);
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        replica = createDataSource(replicaContainer);
+        setLag(0);
+        ReadReplicaProperties readReplicaProperties = new ReadReplicaProperties();
+        readReplicaProperties.setMaxLag(Duration.ofSeconds(5));
+        readReplicaProperties.setLagCheckInterval(LAG_CHECK_INTERVAL);
+        readReplicaProperties.setLagQuery("SELECT seconds FROM replica_lag");
+        dataSource = new ReadReplicaRoutingDataSource(
+                createDataSource(primaryContainer),
+                replica,
+                readReplicaProperties
+        );
+        setTenant(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+        AccessScopeContext.INSTANCE.setUserType(null);
+        AccessScopeContext.INSTANCE.setTenantId(null);
+    }
+
+    private void setLag(double seconds) throws SQLException {
+        try (Connection connection = replica.getConnection(); Statement sql = connection.createStatement()) {
+            sql.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds double precision)");
+            sql.execute("DELETE FROM replica_lag");
+            sql.execute("INSERT INTO replica_lag VALUES (" + seconds + ")");
+        }
+    }
+
+    /**
+     * The database that a connection of the routing data source is obtained from and its app.tenant_id parameter, e.g.
+     * "replica/1".
+     */
+    private String getDatabaseAndTenant() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement sql = connection.createStatement()) {
+            ResultSet resultSet = sql.executeQuery(
+                    "SELECT current_database() || '/' || current_setting('app.tenant_id', true)"
+            );
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private String getDatabaseAndTenantWithinTransaction(boolean isLabeled) throws SQLException {
+        ReadReplicaRouting.begin(readOnlyTransaction(isLabeled));
+        try {
+            return getDatabaseAndTenant();
+        } finally {
+            ReadReplicaRouting.end();
+        }
+    }
+
+    /**
+     * Waits until a labeled transaction is served by the given database, as the lag of the replica is looked up in
+     * the background.
+     */
+    private void awaitLabeledTransactionsServedBy(String database) throws SQLException, InterruptedException {
+        long deadline = System.nanoTime() + ROUTING_TIMEOUT.toNanos();
+        while (!(database + "/1").equals(getDatabaseAndTenantWithinTransaction(true))) {
+            assertTrue(System.nanoTime() - deadline < 0, "Labeled transactions are not served by " + database);
+            Thread.sleep(LAG_CHECK_INTERVAL.toMillis());
+        }
+    }
+
+    @Test
+    void testOnlyLabeledReadOnlyTransactionsAreServedByReplica() throws Exception {
+        awaitLabeledTransactionsServedBy(REPLICA_DATABASE_NAME);
+        String primaryDatabaseName = primaryContainer.getDatabaseName();
+        assertEquals(primaryDatabaseName + "/1", getDatabaseAndTenant());
+        assertEquals(primaryDatabaseName + "/1", getDatabaseAndTenantWithinTransaction(false));
+        assertEquals(REPLICA_DATABASE_NAME + "/1", getDatabaseAndTenantWithinTransaction(true));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() throws Exception {
+        awaitLabeledTransactionsServedBy(REPLICA_DATABASE_NAME);
+        // when
+        setLag(60);
+        // then
+        awaitLabeledTransactionsServedBy(primaryContainer.getDatabaseName());
+        // when: The replica catches up again.
+        setLag(1);
+        // then
+        awaitLabeledTransactionsServedBy(REPLICA_DATABASE_NAME);
+    }
+
+    @Test
+    void testConcurrentTransactionsAreServedWithinTheAccessScopeOfTheirThread() throws Exception {
+        // given: Every thread alternates between transactions for the replica and the primary, for a tenant of its own.
+        List<Callable<Integer>> threads = IntStream.range(0, THREADS).<Callable<Integer>>mapToObj(t -> () -> {
+            setTenant(100L + t);
+            int mismatches = 0;
+            for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+                boolean isLabeled = i % 2 == 0;
+                String database = isLabeled ? REPLICA_DATABASE_NAME : primaryContainer.getDatabaseName();
+                if (!(database + "/" + (100L + t)).equals(getDatabaseAndTenantWithinTransaction(isLabeled))) {
+                    mismatches++;
+                }
+            }
+            return mismatches;
+        }).toList();
+        // The replica is only used once its lag has been looked up.
+        awaitLabeledTransactionsServedBy(REPLICA_DATABASE_NAME);
+        // when
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            // then
+            for (Future<Integer> mismatches : executorService.invokeAll(threads)) {
+                assertEquals(0, mismatches.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
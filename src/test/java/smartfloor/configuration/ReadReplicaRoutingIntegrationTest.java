@@ -0,0 +1,138 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.flywaydb.core.Flyway;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.TimeWindow;
+import smartfloor.domain.entities.Tenant;
+import smartfloor.repository.jpa.FootstepRepository;
+import smartfloor.service.FootstepService;
+
+/**
+ * Verifies that a labeled read-only service method is served by the read replica end to end, i.e. through the
+ * {@link DataSourceConfig.ReadReplicaRoutingTransactionManager}, Hibernate and the lazy connection proxy of the
+ * {@link DataSourceConfig.ReadReplicaRoutingDataSource}. The replica is a second (migrated) Postgres container that
+ * does not replicate, so it holds footsteps of its own that tell it apart from the primary.
+ */
+class ReadReplicaRoutingIntegrationTest extends IntegrationTestBase {
+
+    private static final String WEARABLE_ID = "read_replica_routing";
+    private static final Duration ROUTING_TIMEOUT = Duration.ofSeconds(5);
+
+    @Container
+    public static PostgreSQLContainer<?> replicaContainer = new PostgreSQLContainer<>("postgres:11.1");
+
+    @Autowired
+    private FootstepService footstepService;
+
+    @Autowired
+    private FootstepRepository footstepRepository;
+
+    @DynamicPropertySource
+    static void readReplicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("smartfloor.read-replica.url", replicaContainer::getJdbcUrl);
+        registry.add("smartfloor.read-replica.username", () -> System.getProperty("POSTGRES_APP_USER"));
+        registry.add("smartfloor.read-replica.password", () -> System.getProperty("POSTGRES_APP_PASSWORD"));
+        registry.add("smartfloor.read-replica.lag-query", () -> "SELECT 0");
+        registry.add("smartfloor.read-replica.lag-check-interval", () -> "PT0.01S");
+    }
+
+    /**
+     * Migrates both the primary (which is otherwise only migrated once the application context starts) and the
+     * replica, and inserts a lease of the wearable by the default tenant with one footstep on the primary and two
+     * footsteps on the replica.
+     */
+    @BeforeAll
+    static void setUpPrimaryAndReplica() throws SQLException {
+        try (
+                Connection primary = migrate(
+                        System.getProperty("POSTGRES_URL"),
+                        System.getProperty("POSTGRES_USER"),
+                        System.getProperty("POSTGRES_PASSWORD")
+                );
+                Connection replica = migrate(
+                        replicaContainer.getJdbcUrl(),
+                        replicaContainer.getUsername(),
+                        replicaContainer.getPassword()
+                )
+        ) {
+            insertLeasedWearableWithFootsteps(primary, 1);
+            insertLeasedWearableWithFootsteps(replica, 2);
+        }
+    }
+
+    private static Connection migrate(String url, String user, String password) throws SQLException {
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations(
+                        "filesystem:database-migrations/migration/test",
+                        "filesystem:database-migrations/migration/prod"
+                )
+                .load()
+                .migrate();
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private static void insertLeasedWearableWithFootsteps(Connection owner, int amountOfFootsteps) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement sql = owner.prepareStatement("INSERT INTO wearables (id) VALUES (?)")) {
+            sql.setString(1, WEARABLE_ID);
+            sql.executeUpdate();
+        }
+        try (
+                PreparedStatement sql = owner.prepareStatement(
+                        "INSERT INTO tenant_wearable_leases (tenant_id, wearable_id, begin_time) VALUES (?, ?, ?)"
+                )
+        ) {
+            sql.setLong(1, Tenant.getDefaultTenant().getId());
+            sql.setString(2, WEARABLE_ID);
+            sql.setTimestamp(3, Timestamp.valueOf(now.minusDays(1)));
+            sql.executeUpdate();
+        }
+        try (PreparedStatement sql = owner.prepareStatement(
+                "INSERT INTO footsteps (wearable_id, timestamp) VALUES (?, ?)"
+        )) {
+            for (int i = 1; i <= amountOfFootsteps; i++) {
+                sql.setString(1, WEARABLE_ID);
+                sql.setTimestamp(2, Timestamp.valueOf(now.minusMinutes(i)));
+                sql.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void testLabeledServiceMethodIsServedByReplica() throws InterruptedException {
+        // given
+        TimeWindow timeWindow = new TimeWindow(LocalDateTime.now().minusHours(1), LocalDateTime.now());
+        // when: The replica is only used once its lag has been looked up in the background.
+        long deadline = System.nanoTime() + ROUTING_TIMEOUT.toNanos();
+        while (footstepService.getForWearableWithinTimeWindow(WEARABLE_ID, timeWindow).size() != 2) {
+            assertTrue(System.nanoTime() - deadline < 0, "The labeled service method is not served by the replica");
+            Thread.sleep(10);
+        }
+        // then: The (unlabeled) read-only transactions of Spring Data are still served by the primary.
+        assertEquals(
+                1,
+                footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
+                        WEARABLE_ID,
+                        timeWindow.getBeginTime(),
+                        timeWindow.getEndTime()
+                ).size()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package smartfloor.configuration;
+
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+@Tag("UnitTest")
+class ReadReplicaRoutingTest {
+
+    private static RuleBasedTransactionAttribute transaction(boolean isReadOnly, String... labels) {
+        RuleBasedTransactionAttribute transactionAttribute = new RuleBasedTransactionAttribute();
+        transactionAttribute.setReadOnly(isReadOnly);
+        transactionAttribute.setLabels(Set.of(labels));
+        return transactionAttribute;
+    }
+
+    @Test
+    void testOnlyLabeledReadOnlyTransactionsAreRoutedToReplica() {
+        assertTrue(ReadReplicaRouting.isRoutedToReplica(transaction(true, ReadReplicaRouting.LABEL)));
+        assertFalse(ReadReplicaRouting.isRoutedToReplica(transaction(false, ReadReplicaRouting.LABEL)));
+        assertFalse(ReadReplicaRouting.isRoutedToReplica(transaction(true)));
+        DefaultTransactionDefinition readOnlyDefinition = new DefaultTransactionDefinition();
+        readOnlyDefinition.setReadOnly(true);
+        assertFalse(ReadReplicaRouting.isRoutedToReplica(readOnlyDefinition));
+    }
+
+    @Test
+    void testRoutingIsRestoredWhenSuspendingTransactionEnds() {
+        // given
+        assertFalse(ReadReplicaRouting.isRoutedToReplica());
+        ReadReplicaRouting.begin(transaction(true, ReadReplicaRouting.LABEL));
+        assertTrue(ReadReplicaRouting.isRoutedToReplica());
+        // when: A new (writing) transaction suspends the transaction for the replica.
+        ReadReplicaRouting.begin(transaction(false));
+        // then
+        assertFalse(ReadReplicaRouting.isRoutedToReplica());
+        ReadReplicaRouting.end();
+        assertTrue(ReadReplicaRouting.isRoutedToReplica());
+        ReadReplicaRouting.end();
+        assertFalse(ReadReplicaRouting.isRoutedToReplica());
+    }
+}
@@ -0,0 +1,139 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("UnitTest")
+class ReplicaLagMonitorTest {
+
+    private static final Duration LAG_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ReadReplicaProperties readReplicaProperties = new ReadReplicaProperties();
+        readReplicaProperties.setMaxLag(Duration.ofSeconds(5));
+        readReplicaProperties.setLagCheckInterval(LAG_CHECK_INTERVAL);
+        replicaLagMonitor = new ReplicaLagMonitor(replica, readReplicaProperties, nanoTime::get);
+        lenient().when(replica.getConnection()).thenReturn(connection);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        lenient().when(resultSet.next()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicaLagMonitor.close();
+    }
+
+    @Test
+    void testReplicaIsNotUpToDateBeforeItsLagIsLookedUp() {
+        assertFalse(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testReplicaWithinMaxLagIsUpToDate() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(4.5);
+        // when
+        replicaLagMonitor.checkLag();
+        // then
+        assertTrue(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testReplicaBeyondMaxLagIsNotUpToDate() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(5.5);
+        // when
+        replicaLagMonitor.checkLag();
+        // then
+        assertFalse(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testReplicaWithUnknownLagIsNotUpToDate() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(0.0);
+        when(resultSet.wasNull()).thenReturn(true);
+        // when
+        replicaLagMonitor.checkLag();
+        // then
+        assertFalse(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testUnreachableReplicaIsNotUpToDate() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(0.0);
+        replicaLagMonitor.checkLag();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        // when
+        replicaLagMonitor.checkLag();
+        // then
+        assertFalse(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testLookupOnlyVouchesForReplicaUntilMaxLagMinusLagHasPassed() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(2.0);
+        // when
+        replicaLagMonitor.checkLag();
+        // then: Without a later lookup (e.g. as it waits for an unreachable replica), the replica may have fallen
+        // behind by the max lag 3 seconds later.
+        nanoTime.addAndGet(Duration.ofSeconds(3).minusNanos(1).toNanos());
+        assertTrue(replicaLagMonitor.isReplicaUpToDate());
+        nanoTime.addAndGet(1);
+        assertFalse(replicaLagMonitor.isReplicaUpToDate());
+    }
+
+    @Test
+    void testLagIsLookedUpInBackgroundOncePerLagCheckInterval() throws SQLException {
+        // given
+        when(resultSet.getDouble(1)).thenReturn(0.0);
+        // when
+        replicaLagMonitor.start();
+        // then
+        verify(statement, timeout(LAG_CHECK_INTERVAL.toMillis() / 2).times(1)).executeQuery(anyString());
+        verify(statement, after(LAG_CHECK_INTERVAL.toMillis() / 2).times(1)).executeQuery(anyString());
+        verify(statement, timeout(LAG_CHECK_INTERVAL.toMillis()).times(2)).executeQuery(anyString());
+        assertTrue(replicaLagMonitor.isReplicaUpToDate());
+    }
+}
@@ -0,0 +1,103 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.UserType;
+import smartfloor.multitenancy.AccessScopeContext;
+
+/**
+ * Verifies that every connection of the {@link DataSourceConfig.TenantAwareDataSource} holds the access scope of the
+ * thread that checked it out, while its physical connections are shared by threads of many different access scopes.
+ */
+class TenantAwareDataSourceIntegrationTest extends IntegrationTestBase {
+
+    // More threads than the pool has connections, so every physical connection is shared by multiple access scopes.
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS_PER_THREAD = 100;
+
+    @Autowired
+    DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        AccessScopeContext.INSTANCE.setCompositeUserId(null);
+    }
+
+    private static void setAccessScope(UserType userType, long id) {
+        AccessScopeContext.INSTANCE.setUserType(userType);
+        AccessScopeContext.INSTANCE.setTenantId(userType == UserType.DIRECT_USER ? id : null);
+        AccessScopeContext.INSTANCE.setCompositeUserId(userType == UserType.COMPOSITE_USER ? id : null);
+    }
+
+    /**
+     * The app.tenant_id and app.composite_user_id parameters of a connection that is checked out by the current thread.
+     */
+    private String getAccessScope() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement sql = connection.createStatement()) {
+            ResultSet resultSet = sql.executeQuery(
+                    "SELECT current_setting('app.tenant_id', true), current_setting('app.composite_user_id', true)"
+            );
+            resultSet.next();
+            return resultSet.getString(1) + "/" + resultSet.getString(2);
+        }
+    }
+
+    @Test
+    void testConcurrentCheckoutsHoldTheAccessScopeOfTheirThread() throws Exception {
+        // given: Every thread switches between a tenant and a composite user of its own on every other checkout.
+        List<Callable<Integer>> threads = IntStream.range(0, THREADS).<Callable<Integer>>mapToObj(t -> () -> {
+            int mismatches = 0;
+            for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+                long id = 1000L + t;
+                boolean isCompositeUser = i % 4 >= 2;
+                setAccessScope(isCompositeUser ? UserType.COMPOSITE_USER : UserType.DIRECT_USER, id);
+                String expectedAccessScope = isCompositeUser ? "0/" + id : id + "/0";
+                if (!expectedAccessScope.equals(getAccessScope())) {
+                    mismatches++;
+                }
+            }
+            return mismatches;
+        }).toList();
+        // when
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            // then
+            for (Future<Integer> mismatches : executorService.invokeAll(threads)) {
+                assertEquals(0, mismatches.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void testAccessScopeIsKeptAfterRolledBackTransaction() throws SQLException {
+        // given: A transaction of a tenant is rolled back after its connection was scoped.
+        setAccessScope(UserType.DIRECT_USER, 2001L);
+        try (Connection connection = dataSource.getConnection(); Statement sql = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            sql.execute("SELECT 1");
+            connection.rollback();
+        }
+        // then: The rollback did not reset the parameters of any connection that is handed out afterwards.
+        assertEquals("2001/0", getAccessScope());
+        setAccessScope(UserType.DIRECT_USER, 2002L);
+        assertEquals("2002/0", getAccessScope());
+        setAccessScope(UserType.COMPOSITE_USER, 2003L);
+        assertEquals("0/2003", getAccessScope());
+    }
+}
@@ -0,0 +1,123 @@
+package smartfloor.configuration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import smartfloor.configuration.DataSourceConfig.TenantAwareDataSource;
+import smartfloor.configuration.DataSourceConfig.TenantAwareDataSource.AccessScope;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("UnitTest")
+class TenantAwareDataSourceTest {
+
+    private static final AccessScope FIRST_TENANT = new AccessScope("1", "0");
+    private static final AccessScope SECOND_TENANT = new AccessScope("2", "0");
+    private static final AccessScope COMPOSITE_USER = new AccessScope("0", "1");
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Connection physicalConnection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private TenantAwareDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = spy(new TenantAwareDataSource());
+        when(connection.unwrap(Connection.class)).thenReturn(physicalConnection);
+        lenient().when(connection.getAutoCommit()).thenReturn(true);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testAccessScopeIsAppliedOncePerPhysicalConnection() throws SQLException {
+        // when
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        // then
+        verify(statement, times(1)).execute();
+        verify(statement).setString(1, "1");
+        verify(statement).setString(2, "0");
+    }
+
+    @Test
+    void testDifferentAccessScopeIsApplied() throws SQLException {
+        // when
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        dataSource.applyAccessScope(connection, SECOND_TENANT);
+        dataSource.applyAccessScope(connection, COMPOSITE_USER);
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        // then
+        verify(statement, times(4)).execute();
+        verify(statement, times(2)).setString(1, "1");
+        verify(statement).setString(1, "2");
+        verify(statement).setString(2, "1");
+    }
+
+    @Test
+    void testAccessScopeIsTrackedPerPhysicalConnection() throws SQLException {
+        // given
+        Connection otherConnection = mock(Connection.class);
+        Connection otherPhysicalConnection = mock(Connection.class);
+        when(otherConnection.unwrap(Connection.class)).thenReturn(otherPhysicalConnection);
+        when(otherConnection.getAutoCommit()).thenReturn(true);
+        when(otherConnection.prepareStatement(anyString())).thenReturn(statement);
+        // when
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        dataSource.applyAccessScope(otherConnection, FIRST_TENANT);
+        // then
+        verify(statement, times(2)).execute();
+    }
+
+    @Test
+    void testAccessScopeIsAlwaysAppliedWithinTransaction() throws SQLException {
+        // given: A rollback of the transaction would reset the parameters, so they cannot be tracked.
+        when(connection.getAutoCommit()).thenReturn(false);
+        // when
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        // then
+        verify(statement, times(2)).execute();
+    }
+
+    @Test
+    void testAccessScopeIsNotTrackedWhenApplyingFails() throws SQLException {
+        // given
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        when(statement.execute()).thenThrow(new PSQLException("failure", PSQLState.UNKNOWN_STATE)).thenReturn(true);
+        // when: The second access scope fails to apply, so the parameters may hold either access scope.
+        assertThrows(SQLException.class, () -> dataSource.applyAccessScope(connection, SECOND_TENANT));
+        // then: The connection is not handed out, and its access scope is not tracked anymore.
+        verify(dataSource).evictConnection(connection);
+        verify(connection).close();
+        dataSource.applyAccessScope(connection, FIRST_TENANT);
+        verify(statement, times(3)).execute();
+    }
+}
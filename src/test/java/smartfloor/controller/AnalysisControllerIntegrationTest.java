@@ -296,6 +296,74 @@ class AnalysisControllerIntegrationTest extends IntegrationTestBase {
         assertEquals(1.0, speed, 0.000001);
     }
 
+    @Test
+    void testGetGaitSummary() throws IOException {
+        User user = User.builder()
+                .tenant(getTestTenant())
+                .authId("testGetGaitSummaryUser")
+                .build();
+        user = userRepository.save(user);
+
+        Wearable wearable = Wearable.builder()
+                .id("testGetGaitSummaryWearable")
+                .build();
+        wearable = wearableRepository.save(wearable);
+
+        WearableGroup wg = WearableGroup.builder()
+                .name("getGaitSummaryWG")
+                .wearables(List.of(wearable))
+                .build();
+        wg = wearableGroupRepository.save(wg);
+
+        Group g = Group.builder()
+                .users(List.of(user))
+                .wearableGroup(wg)
+                .tenant(getTestTenant())
+                .name("getGaitSummaryG")
+                .build();
+        groupRepository.save(g);
+        final LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        UserWearableLink userWearableLink = UserWearableLink.builder()
+                .beginTime(currentTime.minusDays(2))
+                .endTime(currentTime)
+                .user(user)
+                .wearable(wearable)
+                .build();
+        userWearableLinkRepository.save(userWearableLink);
+
+        Footstep footstep1 = new Footstep();
+        footstep1.setWearable(wearable);
+        footstep1.setPosition(new Position(1, 1));
+        footstep1.setTime(currentTime.minusSeconds(1));
+        Footstep footstep2 = new Footstep();
+        footstep2.setWearable(wearable);
+        footstep2.setPosition(new Position(1, 2));
+        footstep2.setTime(currentTime);
+        footstepRepository.saveAll(List.of(footstep1, footstep2));
+
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(String.format(
+                        "/analyses/gait-summary/users/%d?begin=%d&end=%d",
+                        user.getId(),
+                        currentTime.minusDays(2).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                        currentTime.toInstant(ZoneOffset.UTC).toEpochMilli()
+                ), getPort()),
+                HttpMethod.GET, entity, String.class
+        );
+        List<Map<String, Object>> indicators = mapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+        assertEquals(5, indicators.size());
+        assertEquals("CoveredDistance", indicators.get(0).get("name"));
+        assertEquals(1.0, (double) indicators.get(0).get("value"), 0.000001);
+        assertEquals("mm", indicators.get(0).get("unit"));
+        assertEquals("AverageSpeed", indicators.get(2).get("name"));
+        assertEquals(1.0, (double) indicators.get(2).get("value"), 0.000001);
+        assertEquals("AverageStrideFrequency", indicators.get(4).get("name"));
+        assertEquals(2.0, (double) indicators.get(4).get("value"), 0.000001);
+    }
+
     private double extractIndicatorValueFromResponseEntity(ResponseEntity<String> response)
             throws JsonProcessingException {
         Object resp = mapper.readValue(response.getBody(), new TypeReference<>() {
@@ -1,5 +1,6 @@
 package smartfloor.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -9,15 +10,19 @@ import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.geo.GeoModule;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import smartfloor.IntegrationTestBase;
+import smartfloor.domain.ColumnarFootsteps;
 import smartfloor.domain.Role;
 import smartfloor.domain.UserType;
 import smartfloor.domain.entities.CompositeUser;
@@ -37,6 +42,7 @@ import smartfloor.repository.jpa.UserRepository;
 import smartfloor.repository.jpa.UserWearableLinkRepository;
 import smartfloor.repository.jpa.WearableGroupRepository;
 import smartfloor.repository.jpa.WearableRepository;
+import smartfloor.service.FootstepService;
 import smartfloor.util.TestUtils;
 
 class FootstepControllerIntegrationTest extends IntegrationTestBase {
@@ -56,6 +62,8 @@ class FootstepControllerIntegrationTest extends IntegrationTestBase {
     WearableGroupRepository wearableGroupRepository;
     @Autowired
     CompositeUserRepository compositeUserRepository;
+    @Autowired
+    FootstepService footstepService;
 
     /**
      * TODO.
@@ -210,6 +218,216 @@ class FootstepControllerIntegrationTest extends IntegrationTestBase {
         assertEquals(0, returnedFootsteps.size());
     }
 
+    @Test
+    void testStreamFootstepsForWearableAsNdjson() throws IOException {
+        // given: a wearable with a number of footsteps, inserted in reverse chronological order
+        Wearable wearable = getTestWearable();
+        final LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Footstep> footsteps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Footstep footstep = new Footstep();
+            footstep.setWearable(wearable);
+            footstep.setPosition(new Position(i, i));
+            footstep.setTime(currentTime.minusMinutes(10).minusSeconds(i));
+            footsteps.add(footstep);
+        }
+        footstepRepository.saveAll(footsteps);
+        // when: we request the footsteps of the wearable as newline-delimited JSON
+        HttpHeaders headers = TestUtils.defaultHttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                "/footsteps/wearables/%s?begin=%d&end=%d",
+                                wearable.getId(),
+                                currentTime.minusMinutes(11).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                currentTime.minusMinutes(9).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        ),
+                        getPort()
+                ), HttpMethod.GET, entity, String.class);
+        // then: every footstep is written on its own line, ordered by time
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        assertEquals(footsteps.size(), lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            assertTrue(lines.get(i - 1).get("time").asLong() <= lines.get(i).get("time").asLong());
+        }
+    }
+
+    @Test
+    void testGetFootstepPagesForWearable() throws IOException {
+        // given: a wearable with a number of footsteps
+        Wearable wearable = getTestWearable();
+        final LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Footstep> footsteps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Footstep footstep = new Footstep();
+            footstep.setWearable(wearable);
+            footstep.setPosition(new Position(i, i));
+            footstep.setTime(currentTime.minusMinutes(20).plusSeconds(i));
+            footsteps.add(footstep);
+        }
+        footstepRepository.saveAll(footsteps);
+        // when: we page through the footsteps of the wearable, two footsteps at a time
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        List<Long> times = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            String url = String.format(
+                    "/footsteps/wearables/%s/page?begin=%d&end=%d&size=2",
+                    wearable.getId(),
+                    currentTime.minusMinutes(21).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    currentTime.minusMinutes(19).toInstant(ZoneOffset.UTC).toEpochMilli()
+            );
+            if (cursor != null) {
+                url += "&cursor=" + cursor;
+            }
+            ResponseEntity<String> response = getRestTemplate().exchange(
+                    TestUtils.createURLWithPort(url, getPort()), HttpMethod.GET, entity, String.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            JsonNode page = mapper.readTree(response.getBody());
+            page.get("footsteps").forEach(footstep -> times.add(footstep.get("time").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+        // then: every footstep is returned exactly once, ordered by time
+        assertEquals(3, pages);
+        assertEquals(footsteps.size(), times.size());
+        for (int i = 1; i < times.size(); i++) {
+            assertTrue(times.get(i - 1) < times.get(i));
+        }
+    }
+
+    @Test
+    void testGetColumnarFootstepsForWearable() throws IOException {
+        // given: a wearable with a number of footsteps
+        Wearable wearable = getTestWearable();
+        final LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Footstep> footsteps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Footstep footstep = new Footstep();
+            footstep.setWearable(wearable);
+            footstep.setPosition(new Position(i, i));
+            footstep.setTime(currentTime.minusMinutes(30).plusSeconds(i));
+            footsteps.add(footstep);
+        }
+        footstepRepository.saveAll(footsteps);
+        // when: we request the footsteps of the wearable in their columnar representation with delta-encoded times
+        HttpHeaders headers = TestUtils.defaultHttpHeaders();
+        headers.setAccept(List.of(MediaType.parseMediaType(ColumnarFootsteps.MEDIA_TYPE)));
+        HttpEntity<String> entity = new HttpEntity<>(null, headers);
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                "/footsteps/wearables/%s?begin=%d&end=%d&timeEncoding=DELTA",
+                                wearable.getId(),
+                                currentTime.minusMinutes(31).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                currentTime.minusMinutes(29).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        ),
+                        getPort()
+                ), HttpMethod.GET, entity, String.class);
+        // then: the wearable appears once, followed by a column per attribute
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode columns = mapper.readTree(response.getBody());
+        assertEquals(1, columns.get("wearableIds").size());
+        assertEquals(wearable.getId(), columns.get("wearableIds").get(0).asText());
+        assertEquals(footsteps.size(), columns.get("time").size());
+        assertEquals(footsteps.size(), columns.get("x").size());
+        for (int i = 1; i < footsteps.size(); i++) {
+            assertEquals(1000, columns.get("time").get(i).asLong());
+        }
+    }
+
+    @Test
+    void testGetFootstepCountsFromHourlyRollups() throws IOException {
+        // given: a wearable with footsteps in a number of past hours, which are rolled up
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("testWearableForHourlyRollups").build());
+        WearableGroup wearableGroup = wearableGroupRepository.save(
+                WearableGroup.builder()
+                        .name("testWearableGroupForHourlyRollups")
+                        .wearables(List.of(wearable))
+                        .build()
+        );
+        groupRepository.save(
+                Group.builder()
+                        .wearableGroup(wearableGroup)
+                        .tenant(getTestTenant())
+                        .name("testGroupForHourlyRollups")
+                        .build()
+        );
+        final LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(3);
+        List<Footstep> footsteps = new ArrayList<>();
+        footsteps.add(createFootstep(wearable, hour.minusMinutes(5), new Position(0, 0)));
+        footsteps.add(createFootstep(wearable, hour.plusMinutes(10), new Position(0, 0)));
+        footsteps.add(createFootstep(wearable, hour.plusMinutes(11), new Position(3, 4)));
+        footsteps.add(createFootstep(wearable, hour.plusMinutes(12), new Position(6, 8)));
+        footsteps.add(createFootstep(wearable, hour.plusMinutes(90), null));
+        footstepRepository.saveAll(footsteps);
+        footstepService.refreshHourlyRollups();
+        // when: we request the footstep counts for a time window that starts within an hour and ends on an hour
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                "/footsteps/count?begin=%d&end=%d",
+                                hour.minusMinutes(10).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                hour.plusHours(2).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        ),
+                        getPort()
+                ), HttpMethod.GET, entity, String.class);
+        // then: the footsteps of the full hours (from the rollups) and of the partial hour are counted
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        int count = 0;
+        for (JsonNode stepCount : mapper.readTree(response.getBody())) {
+            if (wearable.getId().equals(stepCount.get("wearableId").asText())) {
+                count = stepCount.get("footstepCount").asInt();
+            }
+        }
+        assertEquals(footsteps.size(), count);
+
+        // when: we request the hourly rollups of the wearable
+        response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                "/footsteps/wearables/%s/hourly?begin=%d&end=%d",
+                                wearable.getId(),
+                                hour.minusHours(1).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                hour.plusHours(1).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        ),
+                        getPort()
+                ), HttpMethod.GET, entity, String.class);
+        // then: there is a rollup for every hour in which the wearable made footsteps
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode rollups = mapper.readTree(response.getBody());
+        assertEquals(3, rollups.size());
+        JsonNode rollup = rollups.get(1);
+        assertEquals(hour.toInstant(ZoneOffset.UTC).toEpochMilli(), rollup.get("hour").asLong());
+        assertEquals(3, rollup.get("stepCount").asInt());
+        assertEquals(10.0, rollup.get("coveredDistance").asDouble(), 1e-9);
+        assertEquals(
+                hour.plusMinutes(10).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                rollup.get("firstStepTime").asLong()
+        );
+        assertEquals(
+                hour.plusMinutes(12).toInstant(ZoneOffset.UTC).toEpochMilli(),
+                rollup.get("lastStepTime").asLong()
+        );
+    }
+
+    private static Footstep createFootstep(Wearable wearable, LocalDateTime time, @Nullable Position position) {
+        Footstep footstep = new Footstep();
+        footstep.setWearable(wearable);
+        footstep.setPosition(position);
+        footstep.setTime(time);
+        return footstep;
+    }
+
     private HttpHeaders setCUWithUserAndGetHTTPHeaders(@Nullable User user, String cuAuthId) {
         // We find/create a composite user and, if such is provided, link them to a sub-user.
         CompositeUser compositeUser = compositeUserRepository.findByAuthId(cuAuthId)
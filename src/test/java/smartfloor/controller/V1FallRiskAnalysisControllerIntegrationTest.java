@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.data.geo.GeoModule;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import smartfloor.IntegrationTestBase;
@@ -29,8 +31,12 @@ import smartfloor.domain.entities.UserWearableLink;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.entities.WearableGroup;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskThresholdAssessment;
 import smartfloor.domain.entities.fall.risk.profile.V1FallRiskScoreAssessment;
 import smartfloor.domain.indicators.Indicator;
+import smartfloor.domain.indicators.fall.risk.BatchFallRiskScorer;
+import smartfloor.domain.indicators.fall.risk.FallRiskScore;
 import smartfloor.multitenancy.AccessScopeContext;
 import smartfloor.repository.jpa.CompositeUserRepository;
 import smartfloor.repository.jpa.FallRiskProfileRepository;
@@ -289,6 +295,315 @@ class V1FallRiskAnalysisControllerIntegrationTest extends IntegrationTestBase {
         }
     }
 
+    @Test
+    void testGetUserFallRiskTrend() throws JsonProcessingException {
+        String endpoint = "/v1/analyses/fall-risk/users/%d/trend?begin=%d&end=%d&interval=WEEK";
+        Floor floor = floorRepository.save(Floor.builder().name("FRP trend test floor").build());
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("wearableForFRPTrend").build());
+        User user = userRepository.save(User.builder().authId("trend user").tenant(getTestTenant()).build());
+
+        // Two Mondays (the begin of a week bucket), with a week in between that has no FRPs.
+        LocalDateTime firstWeek = LocalDateTime.of(2023, 1, 2, 0, 0);
+        LocalDateTime thirdWeek = firstWeek.plusWeeks(2);
+        UserWearableLink userWearableLink = new UserWearableLink();
+        userWearableLink.setBeginTime(firstWeek);
+        userWearableLink.setEndTime(thirdWeek.plusWeeks(1));
+        userWearableLink.setUser(user);
+        userWearableLink.setWearable(wearable);
+        userWearableLinkRepository.save(userWearableLink);
+
+        List<FallRiskProfile> firstWeekFRPs = List.of(
+                FallRiskProfile.builder()
+                        .wearable(wearable).floor(floor)
+                        .creationTime(firstWeek.plusDays(1))
+                        .beginTime(firstWeek.plusDays(1)).endTime(firstWeek.plusDays(1).plusMinutes(5))
+                        .walkingSpeed(500.0).stepLength(600.0).stepFrequency(1.5).rmsVerticalAcceleration(2.0).build(),
+                FallRiskProfile.builder()
+                        .wearable(wearable).floor(floor)
+                        .creationTime(firstWeek.plusDays(3))
+                        .beginTime(firstWeek.plusDays(3)).endTime(firstWeek.plusDays(3).plusMinutes(5))
+                        .walkingSpeed(400.0).stepLength(500.0).stepFrequency(1.6).build()
+        );
+        FallRiskProfile thirdWeekFRP = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(thirdWeek.plusDays(6))
+                .beginTime(thirdWeek.plusDays(6)).endTime(thirdWeek.plusDays(6).plusMinutes(5))
+                .walkingSpeed(300.0).stepLength(400.0).stepFrequency(1.2).rmsVerticalAcceleration(3.0).build();
+        fallRiskProfileRepository.saveAll(List.of(firstWeekFRPs.get(0), firstWeekFRPs.get(1), thirdWeekFRP));
+
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                endpoint,
+                                user.getId(),
+                                firstWeek.toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                thirdWeek.plusWeeks(1).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        ),
+                        getPort()
+                ),
+                HttpMethod.GET, entity, String.class
+        );
+        List<Map<String, Object>> trend = mapper.readValue(
+                response.getBody(),
+                new TypeReference<List<Map<String, Object>>>() {
+                }
+        );
+
+        // Only the non-empty buckets are returned
+        assertEquals(2, trend.size());
+        Map<String, Object> firstWeekBucket = trend.get(0);
+        assertEquals(2, ((Number) firstWeekBucket.get("count")).intValue());
+        assertEquals(450.0, ((Number) firstWeekBucket.get("walkingSpeedMean")).doubleValue(), 1e-9);
+        assertEquals(400.0, ((Number) firstWeekBucket.get("walkingSpeedMin")).doubleValue(), 1e-9);
+        assertEquals(500.0, ((Number) firstWeekBucket.get("walkingSpeedMax")).doubleValue(), 1e-9);
+        assertEquals(550.0, ((Number) firstWeekBucket.get("stepLengthMean")).doubleValue(), 1e-9);
+        assertEquals(1.55, ((Number) firstWeekBucket.get("stepFrequencyMean")).doubleValue(), 1e-9);
+        assertEquals(1, ((Number) firstWeekBucket.get("rmsVerticalAccelerationCount")).intValue());
+        assertEquals(2.0, ((Number) firstWeekBucket.get("rmsVerticalAccelerationMean")).doubleValue(), 1e-9);
+        // The fall risk scores are the same as the ones of the fall risk score indicators of the FRPs
+        double firstScore = FallRiskScore.ofFallRiskProfile(firstWeekFRPs.get(0)).getValue().doubleValue();
+        double secondScore = FallRiskScore.ofFallRiskProfile(firstWeekFRPs.get(1)).getValue().doubleValue();
+        assertEquals(
+                (firstScore + secondScore) / 2,
+                ((Number) firstWeekBucket.get("fallRiskScoreMean")).doubleValue(),
+                1e-9
+        );
+        assertEquals(
+                Math.min(firstScore, secondScore),
+                ((Number) firstWeekBucket.get("fallRiskScoreMin")).doubleValue(),
+                1e-9
+        );
+        assertEquals(
+                Math.max(firstScore, secondScore),
+                ((Number) firstWeekBucket.get("fallRiskScoreMax")).doubleValue(),
+                1e-9
+        );
+
+        Map<String, Object> thirdWeekBucket = trend.get(1);
+        assertEquals(1, ((Number) thirdWeekBucket.get("count")).intValue());
+        assertEquals(300.0, ((Number) thirdWeekBucket.get("walkingSpeedMean")).doubleValue(), 1e-9);
+        assertEquals(
+                FallRiskScore.ofFallRiskProfile(thirdWeekFRP).getValue().doubleValue(),
+                ((Number) thirdWeekBucket.get("fallRiskScoreMean")).doubleValue(),
+                1e-9
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetGroupFallRiskPercentiles() throws JsonProcessingException {
+        String endpoint = "/v1/analyses/fall-risk/percentiles/groups/%d?parameter=%s&begin=%d&end=%d&value=%s";
+        Floor floor = floorRepository.save(Floor.builder().name("FRP percentiles test floor").build());
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("wearableForFRPPercentiles").build());
+        WearableGroup wearableGroup = wearableGroupRepository.save(
+                WearableGroup.builder().wearables(List.of(wearable)).name("wg_frp_percentiles").build()
+        );
+        User user = userRepository.save(User.builder().authId("percentiles user").tenant(getTestTenant()).build());
+        Group group = groupRepository.save(
+                Group.builder()
+                        .tenant(getTestTenant())
+                        .users(List.of(user))
+                        .wearableGroup(wearableGroup)
+                        .name("group_frp_percentiles")
+                        .build()
+        );
+        LocalDateTime beginTime = LocalDateTime.of(2023, 3, 1, 0, 0);
+        UserWearableLink userWearableLink = new UserWearableLink();
+        userWearableLink.setBeginTime(beginTime);
+        userWearableLink.setEndTime(beginTime.plusMonths(1));
+        userWearableLink.setUser(user);
+        userWearableLink.setWearable(wearable);
+        userWearableLinkRepository.save(userWearableLink);
+        // The FRPs are added after the link, so the histograms are updated for every FRP that arrives
+        List<FallRiskProfile> frps = List.of(300.0, 500.0, 700.0).stream()
+                .map(walkingSpeed -> FallRiskProfile.builder()
+                        .wearable(wearable).floor(floor)
+                        .creationTime(beginTime.plusDays(walkingSpeed.longValue() / 100))
+                        .beginTime(beginTime.plusDays(walkingSpeed.longValue() / 100))
+                        .endTime(beginTime.plusDays(walkingSpeed.longValue() / 100).plusMinutes(5))
+                        .walkingSpeed(walkingSpeed).stepLength(600.0).stepFrequency(1.5).build())
+                .toList();
+        fallRiskProfileRepository.saveAll(frps);
+
+        Map<String, Object> walkingSpeedPercentiles = getFallRiskPercentiles(
+                String.format(endpoint, group.getId(), "WALKING_SPEED", toEpochMilli(beginTime),
+                        toEpochMilli(beginTime.plusDays(14)), "500.0")
+        );
+        Map<String, Object> scorePercentiles = getFallRiskPercentiles(
+                String.format(endpoint, group.getId(), "FALL_RISK_SCORE", toEpochMilli(beginTime),
+                        toEpochMilli(beginTime.plusDays(14)), "0.0")
+        );
+
+        // The percentiles are exact up to the width of a bin (20 mm/s for the walking speed, 0.1 for the score)
+        assertEquals(3, ((Number) walkingSpeedPercentiles.get("count")).intValue());
+        Map<String, Number> percentiles = (Map<String, Number>) walkingSpeedPercentiles.get("percentiles");
+        assertEquals(500.0, percentiles.get("50").doubleValue(), 20.0);
+        assertEquals(100.0 / 3, ((Number) walkingSpeedPercentiles.get("percentileRank")).doubleValue(), 1e-9);
+        assertEquals(3, ((Number) scorePercentiles.get("count")).intValue());
+        assertEquals(
+                FallRiskScore.ofFallRiskProfile(frps.get(1)).getValue().doubleValue(),
+                ((Map<String, Number>) scorePercentiles.get("percentiles")).get("50").doubleValue(),
+                0.1
+        );
+    }
+
+    private long toEpochMilli(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private Map<String, Object> getFallRiskPercentiles(String endpoint) throws JsonProcessingException {
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(endpoint, getPort()),
+                HttpMethod.GET, entity, String.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return mapper.readValue(response.getBody(), new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    @Test
+    void testComputeFallRiskScores() throws JsonProcessingException {
+        String endpoint = "/v1/analyses/fall-risk/scores";
+        FallRiskProfile frp = FallRiskProfile.builder()
+                .walkingSpeed(400.0).stepLength(500.0).stepFrequency(1.33).build();
+        // The second FRP has no walking speed (e.g. when it has no footsteps)
+        String body = "{\"walkingSpeed\": [400.0, null], \"stepLength\": [500.0, 600.0], " +
+                "\"stepFrequency\": [1.33, 1.5]}";
+
+        HttpEntity<String> entity = new HttpEntity<>(body, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(endpoint, getPort()),
+                HttpMethod.POST, entity, String.class
+        );
+        Map<String, List<Number>> scores = mapper.readValue(
+                response.getBody(),
+                new TypeReference<Map<String, List<Number>>>() {
+                }
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(
+                new FallRiskScoreAssessment(frp).getTotal(),
+                scores.get("total").get(0).doubleValue(),
+                1e-9
+        );
+        assertEquals(
+                FallRiskScore.ofFallRiskProfile(frp).getValue().doubleValue(),
+                scores.get("score").get(0).doubleValue(),
+                1e-9
+        );
+        assertEquals(
+                (int) new FallRiskThresholdAssessment(frp).getTotal(),
+                scores.get("riskGroup").get(0).intValue()
+        );
+        assertEquals(0.0, scores.get("total").get(1).doubleValue(), 1e-9);
+        assertEquals(0.0, scores.get("score").get(1).doubleValue(), 1e-9);
+        assertEquals(BatchFallRiskScorer.UNKNOWN_RISK_GROUP, scores.get("riskGroup").get(1).intValue());
+    }
+
+    @Test
+    void testComputeFallRiskScoresOfUnequalColumns() {
+        String endpoint = "/v1/analyses/fall-risk/scores";
+        String body = "{\"walkingSpeed\": [400.0], \"stepLength\": [500.0, 600.0], \"stepFrequency\": [1.33]}";
+
+        HttpEntity<String> entity = new HttpEntity<>(body, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(endpoint, getPort()),
+                HttpMethod.POST, entity, String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testComputeFallRiskScoresOfTenant() throws JsonProcessingException {
+        String endpoint = "/v1/analyses/fall-risk/scores/tenants/%d?begin=%d&end=%d";
+        Floor floor = floorRepository.save(Floor.builder().name("FRP scores test floor").build());
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("wearableForFRPScores").build());
+        User user = userRepository.save(User.builder().authId("scores user").tenant(getTestTenant()).build());
+
+        LocalDateTime begin = LocalDateTime.of(2023, 3, 1, 0, 0);
+        UserWearableLink userWearableLink = new UserWearableLink();
+        userWearableLink.setBeginTime(begin);
+        userWearableLink.setEndTime(begin.plusDays(10));
+        userWearableLink.setUser(user);
+        userWearableLink.setWearable(wearable);
+        userWearableLinkRepository.save(userWearableLink);
+
+        // The FRPs within the time window are saved out of order, the third one has no walking speed.
+        FallRiskProfile later = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(begin.plusDays(2))
+                .beginTime(begin.plusDays(2)).endTime(begin.plusDays(2).plusMinutes(5))
+                .walkingSpeed(300.0).stepLength(400.0).stepFrequency(1.2).build();
+        FallRiskProfile earlier = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(begin.plusDays(1))
+                .beginTime(begin.plusDays(1)).endTime(begin.plusDays(1).plusMinutes(5))
+                .walkingSpeed(500.0).stepLength(600.0).stepFrequency(1.5).build();
+        FallRiskProfile withoutWalkingSpeed = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(begin.plusDays(3))
+                .beginTime(begin.plusDays(3)).endTime(begin.plusDays(3).plusMinutes(5))
+                .stepLength(600.0).stepFrequency(1.5).build();
+        FallRiskProfile hidden = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(begin.plusDays(4))
+                .beginTime(begin.plusDays(4)).endTime(begin.plusDays(4).plusMinutes(5))
+                .walkingSpeed(500.0).stepLength(600.0).stepFrequency(1.5).hidden(true).build();
+        FallRiskProfile outsideTimeWindow = FallRiskProfile.builder()
+                .wearable(wearable).floor(floor)
+                .creationTime(begin.plusDays(8))
+                .beginTime(begin.plusDays(8)).endTime(begin.plusDays(8).plusMinutes(5))
+                .walkingSpeed(500.0).stepLength(600.0).stepFrequency(1.5).build();
+        List<FallRiskProfile> frps = fallRiskProfileRepository.saveAll(
+                List.of(later, earlier, withoutWalkingSpeed, hidden, outsideTimeWindow)
+        );
+
+        HttpEntity<String> entity = new HttpEntity<>(null, TestUtils.defaultHttpHeaders());
+        ResponseEntity<String> response = getRestTemplate().exchange(
+                TestUtils.createURLWithPort(
+                        String.format(
+                                endpoint,
+                                getTestTenant().getId(),
+                                toEpochMilli(begin),
+                                toEpochMilli(begin.plusDays(7))
+                        ),
+                        getPort()
+                ),
+                HttpMethod.GET, entity, String.class
+        );
+        Map<String, List<Number>> scores = mapper.readValue(
+                response.getBody(),
+                new TypeReference<Map<String, List<Number>>>() {
+                }
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        // The FRPs are ordered by their end time
+        assertEquals(
+                List.of(frps.get(1).getId(), frps.get(0).getId(), frps.get(2).getId()),
+                scores.get("id").stream().map(Number::longValue).toList()
+        );
+        List<FallRiskProfile> expectedFRPs = List.of(earlier, later);
+        for (int i = 0; i < expectedFRPs.size(); i++) {
+            FallRiskProfile frp = expectedFRPs.get(i);
+            assertEquals(new FallRiskScoreAssessment(frp).getTotal(), scores.get("total").get(i).doubleValue(), 1e-9);
+            assertEquals(
+                    FallRiskScore.ofFallRiskProfile(frp).getValue().doubleValue(),
+                    scores.get("score").get(i).doubleValue(),
+                    1e-9
+            );
+            assertEquals(
+                    (int) new FallRiskThresholdAssessment(frp).getTotal(),
+                    scores.get("riskGroup").get(i).intValue()
+            );
+        }
+        assertEquals(BatchFallRiskScorer.UNKNOWN_RISK_GROUP, scores.get("riskGroup").get(2).intValue());
+    }
+
     private HttpHeaders setCUWithUserAndGetHTTPHeaders(@Nullable User user, String cuAuthId) {
         // We find/create a composite user and, if such is provided, link them to a sub-user.
         CompositeUser compositeUser = compositeUserRepository.findByAuthId(cuAuthId)
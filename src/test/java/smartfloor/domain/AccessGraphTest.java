@@ -0,0 +1,54 @@
+package smartfloor.domain;
+
+import java.util.Map;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class AccessGraphTest {
+
+    private static final Long MANAGER_ID = 1L;
+    private static final Long FIRST_MEMBER_ID = 2L;
+    private static final Long SECOND_MEMBER_ID = 3L;
+    private static final Long COMPOSITE_USER_ID = 4L;
+    private static final Long FIRST_GROUP_ID = 10L;
+    private static final Long SECOND_GROUP_ID = 11L;
+
+    // The manager manages the first group only, the second member is only in the second group.
+    private final AccessGraph accessGraph = new AccessGraph(
+            Map.of(MANAGER_ID, Set.of(FIRST_GROUP_ID)),
+            Map.of(FIRST_GROUP_ID, Set.of(FIRST_MEMBER_ID), SECOND_GROUP_ID, Set.of(SECOND_MEMBER_ID)),
+            Map.of(FIRST_GROUP_ID, Set.of("heelable1"), SECOND_GROUP_ID, Set.of("heelable2")),
+            Map.of(COMPOSITE_USER_ID, Set.of(SECOND_MEMBER_ID))
+    );
+
+    @Test
+    void testManagerReachesUsersAndWearablesOfManagedGroupsOnly() {
+        assertTrue(accessGraph.isManagingGroup(MANAGER_ID, FIRST_GROUP_ID));
+        assertFalse(accessGraph.isManagingGroup(MANAGER_ID, SECOND_GROUP_ID));
+        assertTrue(accessGraph.isManagingUser(MANAGER_ID, FIRST_MEMBER_ID));
+        assertFalse(accessGraph.isManagingUser(MANAGER_ID, SECOND_MEMBER_ID));
+        assertTrue(accessGraph.isManagerAllowedToAccessWearable(MANAGER_ID, "heelable1"));
+        assertFalse(accessGraph.isManagerAllowedToAccessWearable(MANAGER_ID, "heelable2"));
+    }
+
+    @Test
+    void testMembersAndCompositeUsersReachWearablesOfTheirGroupsOnly() {
+        assertTrue(accessGraph.isUserAllowedToAccessWearable(FIRST_MEMBER_ID, "heelable1"));
+        assertFalse(accessGraph.isUserAllowedToAccessWearable(FIRST_MEMBER_ID, "heelable2"));
+        assertTrue(accessGraph.isSubUser(COMPOSITE_USER_ID, SECOND_MEMBER_ID));
+        assertFalse(accessGraph.isSubUser(COMPOSITE_USER_ID, FIRST_MEMBER_ID));
+        assertTrue(accessGraph.isCompositeUserAllowedToAccessWearable(COMPOSITE_USER_ID, "heelable2"));
+        assertFalse(accessGraph.isCompositeUserAllowedToAccessWearable(COMPOSITE_USER_ID, "heelable1"));
+    }
+
+    @Test
+    void testUnknownOrMissingIdsAreNotAllowed() {
+        assertFalse(accessGraph.isManagingUser(MANAGER_ID, null));
+        assertFalse(accessGraph.isManagingGroup(null, FIRST_GROUP_ID));
+        assertFalse(AccessGraph.EMPTY.isUserAllowedToAccessWearable(FIRST_MEMBER_ID, "heelable1"));
+    }
+}
@@ -0,0 +1,89 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import smartfloor.domain.entities.Floor;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Position;
+import smartfloor.domain.entities.Wearable;
+
+/**
+ * <p>Compares the serialized size and serialization throughput of a list of footsteps against its columnar
+ * representation (with absolute and with delta-encoded timestamps) for a day of footsteps of a single wearable. Tagged
+ * as a benchmark, so it is not part of the unit or integration tests; run it with {@code mvn test -Dgroups=Benchmark}.
+ * </p>
+ * The representations are serialized with a plain ObjectMapper, so without the application's Jackson configuration.
+ * The logged sizes are exact (and each representation must be smaller than the previous one), whereas the logged
+ * serialization times are averages over the measured iterations.
+ */
+@Tag("Benchmark")
+class ColumnarFootstepsBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarFootstepsBenchmark.class);
+
+    private static final int AMOUNT_OF_FOOTSTEPS = 100_000;
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void benchmarkFootstepRepresentations() throws JsonProcessingException {
+        Wearable wearable = Wearable.builder().id("benchmark_wearable").build();
+        Floor floor = new Floor();
+        floor.setId(1L);
+        LocalDateTime beginTime = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Footstep> footsteps = new ArrayList<>(AMOUNT_OF_FOOTSTEPS);
+        ColumnarFootsteps.Builder absolute =
+                ColumnarFootsteps.builder(AMOUNT_OF_FOOTSTEPS, ColumnarFootsteps.TimeEncoding.ABSOLUTE);
+        ColumnarFootsteps.Builder delta =
+                ColumnarFootsteps.builder(AMOUNT_OF_FOOTSTEPS, ColumnarFootsteps.TimeEncoding.DELTA);
+        for (int i = 0; i < AMOUNT_OF_FOOTSTEPS; i++) {
+            LocalDateTime time = beginTime.plusNanos(512_000_000L * i);
+            Double x = i % 10 == 0 ? null : (double) (i % 5000);
+            Double y = i % 10 == 0 ? null : (double) ((i * 7) % 5000);
+            Position position = x == null ? null : new Position(x, y);
+            footsteps.add(Footstep.builder().time(time).position(position).wearable(wearable).floor(floor).build());
+            absolute.add(time, x, y, wearable.getId(), floor.getId());
+            delta.add(time, x, y, wearable.getId(), floor.getId());
+        }
+
+        int listSize = measure("List<Footstep>", footsteps);
+        int absoluteSize = measure("ColumnarFootsteps (absolute time)", absolute.build());
+        int deltaSize = measure("ColumnarFootsteps (delta time)", delta.build());
+        assertTrue(absoluteSize < listSize);
+        assertTrue(deltaSize < absoluteSize);
+    }
+
+    /**
+     * Logs the serialized size and the average serialization time of the footsteps, and returns the size.
+     */
+    private int measure(String name, Object footsteps) throws JsonProcessingException {
+        int size = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            size = mapper.writeValueAsBytes(footsteps).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(footsteps);
+        }
+        double averageMillis = (System.nanoTime() - start) / (MEASURED_ITERATIONS * 1_000_000.0);
+        log.info(String.format(
+                "%s: %d bytes (%.1f bytes/footstep), %.2f ms per serialization (%.0f footsteps/s)",
+                name,
+                size,
+                (double) size / AMOUNT_OF_FOOTSTEPS,
+                averageMillis,
+                AMOUNT_OF_FOOTSTEPS / (averageMillis / 1000)
+        ));
+        return size;
+    }
+}
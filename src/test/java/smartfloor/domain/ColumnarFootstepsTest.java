@@ -0,0 +1,74 @@
+package smartfloor.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class ColumnarFootstepsTest {
+
+    private static final LocalDateTime BEGIN_TIME = LocalDateTime.of(2023, 1, 1, 12, 0);
+    private static final long BEGIN_MILLIS = BEGIN_TIME.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private ColumnarFootsteps.Builder buildFootsteps(ColumnarFootsteps.TimeEncoding timeEncoding) {
+        return ColumnarFootsteps.builder(0, timeEncoding)
+                .add(BEGIN_TIME, 1.0, 2.0, "left", 1L)
+                .add(BEGIN_TIME.plusNanos(500_000_000L), null, null, "right", 1L)
+                .add(BEGIN_TIME.plusSeconds(1), 3.0, 4.0, "left", 1L);
+    }
+
+    @Test
+    void testAbsoluteTimestamps() {
+        ColumnarFootsteps footsteps = buildFootsteps(ColumnarFootsteps.TimeEncoding.ABSOLUTE).build();
+        assertArrayEquals(new long[] {BEGIN_MILLIS, BEGIN_MILLIS + 500, BEGIN_MILLIS + 1000}, footsteps.getTime());
+        assertArrayEquals(new Double[] {1.0, null, 3.0}, footsteps.getX());
+        assertArrayEquals(new Double[] {2.0, null, 4.0}, footsteps.getY());
+    }
+
+    @Test
+    void testDeltaEncodedTimestamps() {
+        ColumnarFootsteps footsteps = buildFootsteps(ColumnarFootsteps.TimeEncoding.DELTA).build();
+        assertArrayEquals(new long[] {BEGIN_MILLIS, 500, 500}, footsteps.getTime());
+    }
+
+    /**
+     * The wearable index array is only needed when there is more than one wearable, likewise for the floors.
+     */
+    @Test
+    void testWearableAndFloorIndices() {
+        ColumnarFootsteps footsteps = buildFootsteps(ColumnarFootsteps.TimeEncoding.ABSOLUTE).build();
+        assertEquals(2, footsteps.getWearableIds().size());
+        assertEquals("left", footsteps.getWearableIds().get(0));
+        assertArrayEquals(new int[] {0, 1, 0}, footsteps.getWearable());
+        assertEquals(1, footsteps.getFloorIds().size());
+        assertNull(footsteps.getFloor());
+    }
+
+    @Test
+    void testSerialization() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode json = mapper.readTree(
+                mapper.writeValueAsString(buildFootsteps(ColumnarFootsteps.TimeEncoding.DELTA).build())
+        );
+        assertEquals("DELTA", json.get("timeEncoding").asText());
+        assertEquals(3, json.get("time").size());
+        assertTrue(json.get("x").get(1).isNull());
+        assertTrue(json.has("wearable"));
+        assertFalse(json.has("floor"));
+    }
+
+    @Test
+    void testEmpty() {
+        ColumnarFootsteps footsteps = ColumnarFootsteps.builder(0, ColumnarFootsteps.TimeEncoding.DELTA).build();
+        assertEquals(0, footsteps.getTime().length);
+        assertTrue(footsteps.getWearableIds().isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package smartfloor.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("UnitTest")
+class FallRiskHistogramTest {
+
+    /**
+     * Ten bins of width 10 over [0, 100), with one value in each of the bins 1 to 10 (i.e. spread evenly over the
+     * range).
+     */
+    private FallRiskHistogram uniformHistogram() {
+        FallRiskHistogram histogram = new FallRiskHistogram(0, 100, 10);
+        for (int bin = 1; bin <= 10; bin++) {
+            histogram.add(bin, 1);
+        }
+        return histogram;
+    }
+
+    @Test
+    void testPercentilesOfUniformHistogram() {
+        FallRiskHistogram histogram = uniformHistogram();
+        assertEquals(10, histogram.getTotalCount());
+        assertEquals(0.0, histogram.getPercentile(0), 1e-9);
+        assertEquals(25.0, histogram.getPercentile(25), 1e-9);
+        assertEquals(50.0, histogram.getPercentile(50), 1e-9);
+        assertEquals(100.0, histogram.getPercentile(100), 1e-9);
+    }
+
+    @Test
+    void testPercentileRanksOfUniformHistogram() {
+        FallRiskHistogram histogram = uniformHistogram();
+        assertEquals(0.0, histogram.getPercentileRank(-5), 1e-9);
+        assertEquals(25.0, histogram.getPercentileRank(25), 1e-9);
+        assertEquals(90.0, histogram.getPercentileRank(90), 1e-9);
+        assertEquals(100.0, histogram.getPercentileRank(100), 1e-9);
+    }
+
+    @Test
+    void testValuesOutsideOfRange() {
+        FallRiskHistogram histogram = new FallRiskHistogram(0, 100, 10);
+        histogram.add(0, 1);
+        histogram.add(5, 2);
+        histogram.add(11, 1);
+        // The values below (above) the range are estimated as the lower (upper) bound
+        assertEquals(0.0, histogram.getPercentile(10), 1e-9);
+        assertEquals(100.0, histogram.getPercentile(90), 1e-9);
+        assertEquals(25.0, histogram.getPercentileRank(0), 1e-9);
+        assertEquals(75.0, histogram.getPercentileRank(100), 1e-9);
+    }
+
+    @Test
+    void testMergedHistogramsAddUp() {
+        FallRiskHistogram histogram = new FallRiskHistogram(0, 100, 10);
+        // Merging the histograms of two users: one with 3 values in bin 2, the other with 1 value in bin 2
+        histogram.add(2, 3);
+        histogram.add(2, 1);
+        assertEquals(4, histogram.getTotalCount());
+        assertEquals(15.0, histogram.getPercentile(50), 1e-9);
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        FallRiskHistogram histogram = FallRiskHistogram.empty();
+        assertEquals(0, histogram.getTotalCount());
+        assertNull(histogram.getPercentile(50));
+        assertNull(histogram.getPercentileRank(1));
+    }
+
+    @Test
+    void testBinOutsideOfHistogram() {
+        FallRiskHistogram histogram = new FallRiskHistogram(0, 100, 10);
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(12, 1));
+    }
+}
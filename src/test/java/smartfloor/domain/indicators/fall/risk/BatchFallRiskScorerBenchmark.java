@@ -0,0 +1,94 @@
+package smartfloor.domain.indicators.fall.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.ColumnarFallRiskScores;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskThresholdAssessment;
+
+/**
+ * <p>Compares scoring one million fall risk profiles one by one (a FallRiskScoreAssessment, a FallRiskScore and a
+ * FallRiskThresholdAssessment per fall risk profile) against scoring them at once with the batch scorer. Tagged as a
+ * benchmark, so it is not part of the unit or integration tests; run it with {@code mvn test -Dgroups=Benchmark}.</p>
+ * The columns are extracted from the fall risk profiles once up front, so the logged times only cover the scoring
+ * itself. Both ways of scoring must yield the same sum of totals, scores and risk groups.
+ */
+@Tag("Benchmark")
+class BatchFallRiskScorerBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchFallRiskScorerBenchmark.class);
+
+    private static final int AMOUNT_OF_FALL_RISK_PROFILES = 1_000_000;
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Test
+    void benchmarkSingleAndBatchScoring() {
+        List<FallRiskProfile> fallRiskProfiles = new ArrayList<>(AMOUNT_OF_FALL_RISK_PROFILES);
+        ColumnarFallRiskProfiles.Builder builder = ColumnarFallRiskProfiles.builder(AMOUNT_OF_FALL_RISK_PROFILES);
+        for (int i = 0; i < AMOUNT_OF_FALL_RISK_PROFILES; i++) {
+            FallRiskProfile fallRiskProfile = FallRiskProfile.builder()
+                    .walkingSpeed(200.0 + i % 800)
+                    .stepLength(400.0 + i % 600)
+                    .stepFrequency(0.4 + (i % 100) / 100.0)
+                    .build();
+            fallRiskProfiles.add(fallRiskProfile);
+            builder.add(
+                    i,
+                    fallRiskProfile.getWalkingSpeed(),
+                    fallRiskProfile.getStepLength(),
+                    fallRiskProfile.getStepFrequency()
+            );
+        }
+        ColumnarFallRiskProfiles columns = builder.build();
+
+        double singleResult = measure("Per fall risk profile", () -> scoreOneByOne(fallRiskProfiles));
+        double batchResult = measure("BatchFallRiskScorer", () -> sum(BatchFallRiskScorer.score(columns)));
+        assertEquals(singleResult, batchResult, 1e-6);
+    }
+
+    private double scoreOneByOne(List<FallRiskProfile> fallRiskProfiles) {
+        double sum = 0.0;
+        for (FallRiskProfile fallRiskProfile : fallRiskProfiles) {
+            sum += new FallRiskScoreAssessment(fallRiskProfile).getTotal() +
+                    FallRiskScore.ofFallRiskProfile(fallRiskProfile).getValue().doubleValue() +
+                    new FallRiskThresholdAssessment(fallRiskProfile).getTotal();
+        }
+        return sum;
+    }
+
+    private double sum(ColumnarFallRiskScores scores) {
+        double sum = 0.0;
+        for (int i = 0; i < scores.getTotal().length; i++) {
+            sum += scores.getTotal()[i] + scores.getScore()[i] + scores.getRiskGroup()[i];
+        }
+        return sum;
+    }
+
+    private double measure(String name, Supplier<Double> computation) {
+        double result = 0.0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            result = computation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            result = computation.get();
+        }
+        long averageNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        log.info(String.format(
+                "%s: %.2f ms per scoring of %d fall risk profiles",
+                name,
+                averageNanos / 1_000_000.0,
+                AMOUNT_OF_FALL_RISK_PROFILES
+        ));
+        return result;
+    }
+}
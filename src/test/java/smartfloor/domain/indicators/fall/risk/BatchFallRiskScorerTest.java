@@ -0,0 +1,129 @@
+package smartfloor.domain.indicators.fall.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import smartfloor.domain.ColumnarFallRiskProfiles;
+import smartfloor.domain.ColumnarFallRiskScores;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskThresholdAssessment;
+
+@Tag("UnitTest")
+class BatchFallRiskScorerTest {
+
+    /**
+     * Fall risk profiles with parameters around the thresholds of the risk groups, and with totals below 0 and above
+     * the upper bound of the Tinetti score.
+     */
+    private static List<FallRiskProfile> fallRiskProfiles() {
+        double[] walkingSpeeds = {0.0, 0.5, 0.55, 0.6, 0.65, 400.0, 1000.0, 2000.0};
+        double[] stepLengths = {0.0, 700.0, 720.0, 800.0, 820.0, 900.0, 3000.0};
+        double[] stepFrequencies = {0.0, 0.5, 0.55, 0.7, 0.75, 1.33, 4.0};
+        List<FallRiskProfile> fallRiskProfiles = new ArrayList<>();
+        for (double walkingSpeed : walkingSpeeds) {
+            for (double stepLength : stepLengths) {
+                for (double stepFrequency : stepFrequencies) {
+                    fallRiskProfiles.add(FallRiskProfile.builder()
+                            .walkingSpeed(walkingSpeed)
+                            .stepLength(stepLength)
+                            .stepFrequency(stepFrequency)
+                            .build());
+                }
+            }
+        }
+        return fallRiskProfiles;
+    }
+
+    /**
+     * The columnar representation of the given fall risk profiles, of which the ids are their indices.
+     */
+    private static ColumnarFallRiskProfiles toColumns(List<FallRiskProfile> fallRiskProfiles) {
+        ColumnarFallRiskProfiles.Builder builder = ColumnarFallRiskProfiles.builder(fallRiskProfiles.size());
+        for (int i = 0; i < fallRiskProfiles.size(); i++) {
+            FallRiskProfile fallRiskProfile = fallRiskProfiles.get(i);
+            builder.add(
+                    i,
+                    fallRiskProfile.getWalkingSpeed(),
+                    fallRiskProfile.getStepLength(),
+                    fallRiskProfile.getStepFrequency()
+            );
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testScoresAreEqualToThoseOfSingleFallRiskProfiles() {
+        // given
+        List<FallRiskProfile> fallRiskProfiles = fallRiskProfiles();
+        // when
+        ColumnarFallRiskScores scores = BatchFallRiskScorer.score(toColumns(fallRiskProfiles));
+        // then
+        for (int i = 0; i < fallRiskProfiles.size(); i++) {
+            FallRiskProfile fallRiskProfile = fallRiskProfiles.get(i);
+            assertEquals(new FallRiskScoreAssessment(fallRiskProfile).getTotal(), scores.getTotal()[i]);
+            assertEquals(
+                    FallRiskScore.ofFallRiskProfile(fallRiskProfile).getValue().doubleValue(),
+                    scores.getScore()[i]
+            );
+            assertEquals(
+                    (int) new FallRiskThresholdAssessment(fallRiskProfile).getTotal(),
+                    scores.getRiskGroup()[i]
+            );
+        }
+    }
+
+    @Test
+    void testFallRiskProfileWithMissingParameter() {
+        // given
+        FallRiskProfile fallRiskProfile = FallRiskProfile.builder().stepLength(500.0).stepFrequency(1.0).build();
+        // when
+        ColumnarFallRiskScores scores = BatchFallRiskScorer.score(toColumns(List.of(fallRiskProfile)));
+        // then
+        assertEquals(new FallRiskScoreAssessment(fallRiskProfile).getTotal(), scores.getTotal()[0]);
+        assertEquals(FallRiskScore.ofFallRiskProfile(fallRiskProfile).getValue().doubleValue(), scores.getScore()[0]);
+        assertEquals(BatchFallRiskScorer.UNKNOWN_RISK_GROUP, scores.getRiskGroup()[0]);
+    }
+
+    @Test
+    void testScoresCarryIdsOfFallRiskProfiles() {
+        // given: more fall risk profiles than the initial capacity of the builder
+        List<FallRiskProfile> fallRiskProfiles = fallRiskProfiles();
+        ColumnarFallRiskProfiles.Builder builder = ColumnarFallRiskProfiles.builder(0);
+        long[] ids = new long[fallRiskProfiles.size()];
+        for (int i = 0; i < fallRiskProfiles.size(); i++) {
+            ids[i] = 1000L + i;
+            builder.add(ids[i], fallRiskProfiles.get(i).getWalkingSpeed(), null, 1.0);
+        }
+        // when
+        ColumnarFallRiskScores scores = BatchFallRiskScorer.score(builder.build());
+        // then
+        assertArrayEquals(ids, scores.getId());
+        assertEquals(fallRiskProfiles.size(), scores.getTotal().length);
+        assertEquals(BatchFallRiskScorer.UNKNOWN_RISK_GROUP, scores.getRiskGroup()[fallRiskProfiles.size() - 1]);
+    }
+
+    @Test
+    void testScoresOfGivenColumnsHaveNoIds() {
+        // when
+        ColumnarFallRiskScores scores = BatchFallRiskScorer.score(
+                new ColumnarFallRiskProfiles(new double[] {400.0}, new double[] {500.0}, new double[] {1.33})
+        );
+        // then
+        assertNull(scores.getId());
+    }
+
+    @Test
+    void testColumnsOfUnequalLength() {
+        // when, then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ColumnarFallRiskProfiles(new double[2], new double[1], new double[2])
+        );
+    }
+}
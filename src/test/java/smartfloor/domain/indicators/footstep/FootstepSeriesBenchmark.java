@@ -0,0 +1,85 @@
+package smartfloor.domain.indicators.footstep;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Position;
+
+/**
+ * <p>Compares computing the footstep indicators from a list of footsteps against computing them from a footstep series
+ * for a path of one million footsteps, of which every tenth has no position. Tagged as a benchmark, so it is not part
+ * of the unit or integration tests; run it with {@code mvn test -Dgroups=Benchmark}.</p>
+ * Both computations yield the same sum of indicators, which is asserted. The series is built once up front, so the
+ * logged times only cover walking the footsteps: the list computation filters and dereferences the boxed positions
+ * on every pass, whereas the series computation reads its primitive arrays.
+ */
+@Tag("Benchmark")
+class FootstepSeriesBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FootstepSeriesBenchmark.class);
+
+    private static final int AMOUNT_OF_FOOTSTEPS = 1_000_000;
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Test
+    void benchmarkIndicatorsOfListAndSeries() {
+        List<Footstep> footsteps = new ArrayList<>(AMOUNT_OF_FOOTSTEPS);
+        LocalDateTime beginTime = LocalDateTime.of(2023, 1, 1, 0, 0);
+        for (int i = 0; i < AMOUNT_OF_FOOTSTEPS; i++) {
+            Position position = i % 10 == 0 ? null : new Position(i % 500, (i * 7) % 500);
+            footsteps.add(Footstep.builder().time(beginTime.plusNanos(500_000_000L * i)).position(position).build());
+        }
+        FootstepSeries series = FootstepSeries.of(footsteps);
+
+        double listResult = measure("List<Footstep>", () -> computeAll(footsteps));
+        double seriesResult = measure("FootstepSeries", () -> computeAll(series));
+        assertEquals(listResult, seriesResult, 1e-6);
+    }
+
+    /**
+     * Mimics the indicator computation from before the footstep series: every indicator filters and walks the list of
+     * footsteps on its own.
+     */
+    private double computeAll(List<Footstep> footsteps) {
+        List<Footstep> withPosition = footsteps.stream().filter(Footstep::hasPosition).toList();
+        double distance = 0.0;
+        for (int i = 0; i < withPosition.size() - 1; i++) {
+            distance += withPosition.get(i).getPosition().distanceTo(withPosition.get(i + 1).getPosition());
+        }
+        double walkingTime = Duration.between(
+                footsteps.get(0).getTime(),
+                footsteps.get(footsteps.size() - 1).getTime()
+        ).toMillis() / 1000.0;
+        return distance + distance / walkingTime + distance / footsteps.size() + footsteps.size() / walkingTime;
+    }
+
+    private double computeAll(FootstepSeries series) {
+        return CoveredDistance.of(series).getValue() +
+                AverageSpeed.of(series).getValue() +
+                AverageStrideLength.of(series).getValue() +
+                AverageStrideFrequency.of(series).getValue();
+    }
+
+    private double measure(String name, Supplier<Double> computation) {
+        double result = 0.0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            result = computation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            result = computation.get();
+        }
+        String averageMillis = String.format("%.2f", (System.nanoTime() - start) / (MEASURED_ITERATIONS * 1_000_000.0));
+        log.info("{}: {} ms per computation of all indicators", name, averageMillis);
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package smartfloor.domain.indicators.footstep;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Position;
+
+@Tag("UnitTest")
+class FootstepSeriesTest {
+
+    private static final LocalDateTime BEGIN_TIME = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    /**
+     * A path of five footsteps (one second apart) of which the second and the last one have no position. The footsteps
+     * with a position form a 3-4-5 triangle: (0, 0) -> (300, 400) -> (600, 0), so the covered distance is 1000 mm.
+     */
+    private List<Footstep> buildPath() {
+        List<Footstep> footsteps = new ArrayList<>();
+        footsteps.add(footstep(0, new Position(0, 0)));
+        footsteps.add(footstep(1, null));
+        footsteps.add(footstep(2, new Position(300, 400)));
+        footsteps.add(footstep(3, new Position(600, 0)));
+        footsteps.add(footstep(4, null));
+        return footsteps;
+    }
+
+    private Footstep footstep(int second, Position position) {
+        return Footstep.builder().time(BEGIN_TIME.plusSeconds(second)).position(position).build();
+    }
+
+    @Test
+    void testSeriesOfFootsteps() {
+        FootstepSeries series = FootstepSeries.of(buildPath());
+        assertEquals(5, series.size());
+        assertEquals(3, series.positionCount());
+        assertTrue(series.hasPositionAt(0));
+        assertFalse(series.hasPositionAt(1));
+        assertEquals(4000L, series.timeAt(4) - series.timeAt(0));
+        assertEquals(300.0, series.positionXAt(2), 0.0);
+        assertEquals(400.0, series.positionYAt(2), 0.0);
+    }
+
+    @Test
+    void testWithPositionOnly() {
+        FootstepSeries series = FootstepSeries.of(buildPath()).withPositionOnly();
+        assertEquals(3, series.size());
+        assertEquals(3, series.positionCount());
+        assertEquals(3000L, series.timeAt(2) - series.timeAt(0));
+        assertSame(series, series.withPositionOnly());
+    }
+
+    @Test
+    void testIndicatorsOfSeries() {
+        FootstepSeries series = FootstepSeries.of(buildPath());
+        assertEquals(1000.0, CoveredDistance.of(series).getValue(), 1e-9);
+        assertEquals(4.0, WalkingTime.of(series).getValue(), 0.0);
+        assertEquals(600.0, new FirstToLastStepDistance(series).getValue(), 1e-9);
+        assertEquals(1000.0 / 5, AverageStrideLength.of(series).getValue(), 1e-9);
+        assertEquals(1000.0 / 4, AverageSpeed.of(series).getValue(), 1e-9);
+        assertEquals(5 / 4.0, AverageStrideFrequency.of(series).getValue(), 1e-9);
+    }
+
+    /**
+     * The indicators should be the same whether they are computed from a list of footsteps or from a series.
+     */
+    @Test
+    void testIndicatorsOfListAndSeriesAreEqual() {
+        List<Footstep> footsteps = buildPath();
+        FootstepSeries series = FootstepSeries.of(footsteps);
+        assertEquals(CoveredDistance.of(footsteps).getValue(), CoveredDistance.of(series).getValue(), 0.0);
+        assertEquals(AverageSpeed.of(footsteps).getValue(), AverageSpeed.of(series).getValue(), 0.0);
+        assertEquals(AverageStrideLength.of(footsteps).getValue(), AverageStrideLength.of(series).getValue(), 0.0);
+        assertEquals(
+                AverageStrideFrequency.of(footsteps).getValue(),
+                AverageStrideFrequency.of(series).getValue(),
+                0.0
+        );
+    }
+
+    @Test
+    void testIndicatorsOfEmptySeries() {
+        FootstepSeries series = FootstepSeries.empty();
+        assertTrue(series.isEmpty());
+        assertEquals(0.0, CoveredDistance.of(series).getValue(), 0.0);
+        assertEquals(0.0, WalkingTime.of(series).getValue(), 0.0);
+        assertEquals(0.0, new FirstToLastStepDistance(series).getValue(), 0.0);
+        assertEquals(0.0, AverageStrideLength.of(series).getValue(), 0.0);
+        assertEquals(0.0, AverageSpeed.of(series).getValue(), 0.0);
+        assertEquals(0.0, AverageStrideFrequency.of(series).getValue(), 0.0);
+    }
+
+    @Test
+    void testBuilderGrowsBeyondExpectedSize() {
+        FootstepSeries.Builder builder = FootstepSeries.builder(0);
+        for (int i = 0; i < 100; i++) {
+            builder.add(BEGIN_TIME.plusSeconds(i), i, 0);
+        }
+        FootstepSeries series = builder.build();
+        assertEquals(100, series.size());
+        assertEquals(99.0, CoveredDistance.of(series).getValue(), 1e-9);
+    }
+}
@@ -0,0 +1,112 @@
+package smartfloor.domain.indicators.footstep;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Position;
+import smartfloor.domain.indicators.fall.risk.FallRiskScore;
+
+@Tag("UnitTest")
+class GaitSummaryTest {
+
+    private static final LocalDateTime BEGIN_TIME = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    /**
+     * A path of five footsteps (one second apart) of which the first and the last one have no position. The footsteps
+     * with a position form a 3-4-5 triangle: (0, 0) -> (300, 400) -> (600, 0), so the covered distance is 1000 mm.
+     */
+    private List<Footstep> buildPath() {
+        List<Footstep> footsteps = new ArrayList<>();
+        footsteps.add(footstep(0, null));
+        footsteps.add(footstep(1, new Position(0, 0)));
+        footsteps.add(footstep(2, new Position(300, 400)));
+        footsteps.add(footstep(3, new Position(600, 0)));
+        footsteps.add(footstep(4, null));
+        return footsteps;
+    }
+
+    private Footstep footstep(int second, Position position) {
+        return Footstep.builder().time(BEGIN_TIME.plusSeconds(second)).position(position).build();
+    }
+
+    @Test
+    void testGaitSummary() {
+        GaitSummary gait = GaitSummary.of(buildPath());
+        assertEquals(5, gait.getStepCount());
+        assertEquals(1000.0, gait.getCoveredDistance().getValue(), 1e-9);
+        assertEquals(600.0, gait.getFirstToLastStepDistance().getValue(), 1e-9);
+        assertEquals(4.0, gait.getWalkingTime().getValue(), 0.0);
+        assertEquals(1000.0 / 5, gait.getAverageStrideLength().getValue(), 1e-9);
+        assertEquals(5 / 4.0, gait.getAverageStrideFrequency().getValue(), 1e-9);
+        assertEquals(1000.0 / 4, gait.getAverageSpeed().getValue(), 1e-9);
+        assertEquals(1000.0 / 10, gait.getAverageSpeed(WalkingTime.of(10)).getValue(), 1e-9);
+    }
+
+    /**
+     * The summary of only the footsteps with a position should be equal to the summary of the filtered footsteps.
+     */
+    @Test
+    void testGaitSummaryWithPositionOnly() {
+        List<Footstep> footsteps = buildPath();
+        GaitSummary expected = GaitSummary.of(footsteps.stream().filter(Footstep::hasPosition).toList());
+        GaitSummary actual = GaitSummary.of(footsteps).withPositionOnly();
+        assertEquals(3, actual.getStepCount());
+        assertEquals(expected.getWalkingTime().getValue(), actual.getWalkingTime().getValue(), 0.0);
+        assertEquals(expected.getCoveredDistance().getValue(), actual.getCoveredDistance().getValue(), 0.0);
+        assertEquals(expected.getAverageSpeed().getValue(), actual.getAverageSpeed().getValue(), 0.0);
+        assertEquals(
+                expected.getAverageStrideLength().getValue(),
+                actual.getAverageStrideLength().getValue(),
+                0.0
+        );
+        assertEquals(
+                expected.getAverageStrideFrequency().getValue(),
+                actual.getAverageStrideFrequency().getValue(),
+                0.0
+        );
+        assertSame(actual, actual.withPositionOnly());
+    }
+
+    @Test
+    void testGaitSummaryOfListAndSeriesAreEqual() {
+        List<Footstep> footsteps = buildPath();
+        GaitSummary ofList = GaitSummary.of(footsteps);
+        GaitSummary ofSeries = GaitSummary.of(FootstepSeries.of(footsteps));
+        assertEquals(ofList.getStepCount(), ofSeries.getStepCount());
+        assertEquals(ofList.getCoveredDistance().getValue(), ofSeries.getCoveredDistance().getValue(), 0.0);
+        assertEquals(ofList.getWalkingTime().getValue(), ofSeries.getWalkingTime().getValue(), 0.0);
+        assertEquals(
+                ofList.getFirstToLastStepDistance().getValue(),
+                ofSeries.getFirstToLastStepDistance().getValue(),
+                0.0
+        );
+    }
+
+    @Test
+    void testEmptyGaitSummary() {
+        GaitSummary gait = GaitSummary.of(List.of());
+        assertTrue(gait.isEmpty());
+        assertEquals(0.0, gait.getCoveredDistance().getValue(), 0.0);
+        assertEquals(0.0, gait.getWalkingTime().getValue(), 0.0);
+        assertEquals(0.0, gait.getAverageStrideLength().getValue(), 0.0);
+        assertEquals(0.0, gait.getAverageStrideFrequency().getValue(), 0.0);
+        assertEquals(0.0, gait.getAverageSpeed().getValue(), 0.0);
+    }
+
+    /**
+     * The fall risk score of a gait summary should be equal to the one computed through a fall risk profile.
+     */
+    @Test
+    void testFallRiskScoreOfGaitSummary() {
+        List<Footstep> footsteps = buildPath();
+        FallRiskScore expected = FallRiskScore.of(footsteps);
+        FallRiskScore actual = FallRiskScore.of(GaitSummary.of(footsteps));
+        assertEquals(expected.getValue().doubleValue(), actual.getValue().doubleValue(), 0.0);
+    }
+}
@@ -0,0 +1,101 @@
+package smartfloor.multitenancy;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import smartfloor.domain.UserType;
+
+@Tag("UnitTest")
+class AccessScopedCacheTest {
+
+    private static final String KEY = "key";
+
+    private AccessScopedCache cache;
+
+    private static void setDirectUserScope(Long tenantId, String principal) {
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(tenantId);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+    }
+
+    private static void setCompositeUserScope(Long compositeUserId, String principal) {
+        AccessScopeContext.INSTANCE.setUserType(UserType.COMPOSITE_USER);
+        AccessScopeContext.INSTANCE.setCompositeUserId(compositeUserId);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccessScopedCache("test", Caffeine.newBuilder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        AccessScopeContext.INSTANCE.setUserType(null);
+        AccessScopeContext.INSTANCE.setTenantId(null);
+        AccessScopeContext.INSTANCE.setCompositeUserId(null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testEntryIsNotSharedBetweenTenants() {
+        // given
+        setDirectUserScope(1L, "manager");
+        cache.put(KEY, "value of tenant 1");
+        // when
+        setDirectUserScope(2L, "manager");
+        // then
+        assertNull(cache.get(KEY));
+        setDirectUserScope(1L, "manager");
+        assertEquals("value of tenant 1", cache.get(KEY, String.class));
+    }
+
+    @Test
+    void testEntryIsNotSharedBetweenPrincipals() {
+        // given
+        setDirectUserScope(1L, "manager");
+        cache.put(KEY, "value of manager");
+        // when
+        setDirectUserScope(1L, "other manager");
+        // then
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    void testCompositeUserScopeIgnoresStaleTenant() {
+        // given: A thread that handled a request of a direct user of tenant 1 before.
+        setDirectUserScope(1L, "user");
+        cache.put(KEY, "value of tenant 1");
+        // when
+        setCompositeUserScope(3L, "user");
+        // then
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    void testEvictTenant() {
+        // given
+        setDirectUserScope(1L, "manager");
+        cache.put(KEY, "value of tenant 1");
+        setDirectUserScope(2L, "manager");
+        cache.put(KEY, "value of tenant 2");
+        setCompositeUserScope(3L, "composite user");
+        cache.put(KEY, "value of composite user");
+        // when
+        cache.evictTenant(1L);
+        // then: Only the entry of tenant 2 is kept, the composite user may have sub-users within tenant 1.
+        assertNull(cache.get(KEY));
+        setDirectUserScope(1L, "manager");
+        assertNull(cache.get(KEY));
+        setDirectUserScope(2L, "manager");
+        assertNotNull(cache.get(KEY));
+        assertEquals(1, cache.getNativeCache().estimatedSize());
+    }
+}
@@ -0,0 +1,82 @@
+package smartfloor.multitenancy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.UserType;
+
+/**
+ * Verifies that the workers of the {@link AccessScopedExecutor} obtain database connections that are scoped (through
+ * the RLS configuration parameters) to the tenant or composite user of the thread that fanned out the work.
+ */
+class AccessScopedExecutorIntegrationTest extends IntegrationTestBase {
+
+    private static final List<Integer> ELEMENTS = IntStream.range(0, 50).boxed().toList();
+
+    @Autowired
+    AccessScopedExecutor accessScopedExecutor;
+
+    @Autowired
+    DataSource dataSource;
+
+    private String getSetting(String name) {
+        try (Connection connection = dataSource.getConnection(); Statement sql = connection.createStatement()) {
+            ResultSet resultSet = sql.executeQuery(String.format("SELECT current_setting('%s', true)", name));
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> getTenantIdsOfWorkersForTenant(long tenantId) {
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(tenantId);
+        return accessScopedExecutor.map(ELEMENTS, i -> getSetting("app.tenant_id"));
+    }
+
+    @Test
+    void testWorkersAreScopedToTenantOfCaller() {
+        // when
+        List<String> tenantIds = getTenantIdsOfWorkersForTenant(42L);
+        // then
+        assertEquals(ELEMENTS.size(), tenantIds.size());
+        assertTrue(tenantIds.stream().allMatch("42"::equals));
+    }
+
+    @Test
+    void testWorkersOfConcurrentCallersAreScopedToTheirOwnTenant() {
+        // when: Two "requests" of different tenants fan out their work at the same time.
+        CompletableFuture<List<String>> firstTenantIds =
+                CompletableFuture.supplyAsync(() -> getTenantIdsOfWorkersForTenant(1001L));
+        CompletableFuture<List<String>> secondTenantIds =
+                CompletableFuture.supplyAsync(() -> getTenantIdsOfWorkersForTenant(1002L));
+        // then
+        assertTrue(firstTenantIds.join().stream().allMatch("1001"::equals));
+        assertTrue(secondTenantIds.join().stream().allMatch("1002"::equals));
+    }
+
+    @Test
+    void testWorkersAreScopedToCompositeUserOfCaller() {
+        // given
+        AccessScopeContext.INSTANCE.setUserType(UserType.COMPOSITE_USER);
+        AccessScopeContext.INSTANCE.setCompositeUserId(7L);
+        // when
+        List<String> scopes = accessScopedExecutor.map(
+                ELEMENTS,
+                i -> getSetting("app.composite_user_id") + "/" + getSetting("app.tenant_id")
+        );
+        // then
+        assertTrue(scopes.stream().allMatch("7/0"::equals));
+    }
+}
@@ -0,0 +1,132 @@
+package smartfloor.multitenancy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import smartfloor.domain.UserType;
+
+@Tag("UnitTest")
+class AccessScopedExecutorTest {
+
+    private static final int MAX_CONCURRENCY = 4;
+
+    private AccessScopedExecutor executor;
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        executor = new AccessScopedExecutor(MAX_CONCURRENCY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+        AccessScopeContext.INSTANCE.setUserType(null);
+        AccessScopeContext.INSTANCE.setTenantId(null);
+        AccessScopeContext.INSTANCE.setCompositeUserId(null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testWorkersSeeAccessScopeOfCaller() {
+        // given
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(7L);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("manager", null));
+        // when
+        List<String> scopes = executor.map(range(50), i ->
+                AccessScopeContext.INSTANCE.getUserType() + "/" +
+                        AccessScopeContext.INSTANCE.getTenantId() + "/" +
+                        SecurityContextHolder.getContext().getAuthentication().getName()
+        );
+        // then
+        assertEquals(50, scopes.size());
+        assertTrue(scopes.stream().allMatch("DIRECT_USER/7/manager"::equals));
+    }
+
+    @Test
+    void testWorkersSeeCompositeUserScopeOfCaller() {
+        // given
+        AccessScopeContext.INSTANCE.setUserType(UserType.COMPOSITE_USER);
+        AccessScopeContext.INSTANCE.setCompositeUserId(3L);
+        // when
+        List<Long> compositeUserIds = executor.map(range(10), i -> AccessScopeContext.INSTANCE.getCompositeUserId());
+        // then
+        assertTrue(compositeUserIds.stream().allMatch(id -> id == 3L));
+    }
+
+    @Test
+    void testResultsAreInOrderOfElements() {
+        // when
+        List<Integer> results = executor.map(range(100), i -> {
+            // Let later elements finish first.
+            sleep(100 - i);
+            return i * 2;
+        });
+        // then
+        assertEquals(range(100).stream().map(i -> i * 2).toList(), results);
+    }
+
+    @Test
+    void testConcurrencyIsBounded() {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        // when
+        executor.map(range(40), i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+            return i;
+        });
+        // then
+        assertTrue(maxRunning.get() <= MAX_CONCURRENCY);
+        assertTrue(maxRunning.get() > 1);
+    }
+
+    @Test
+    void testExceptionOfWorkerIsRethrown() {
+        // when, then
+        assertThrows(AccessDeniedException.class, () -> executor.map(range(10), i -> {
+            if (i == 5) {
+                throw new AccessDeniedException("Not allowed to access user 5.");
+            }
+            return i;
+        }));
+    }
+
+    @Test
+    void testWorkersDoNotChangeAccessScopeOfCaller() {
+        // given
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(1L);
+        // when
+        executor.map(range(10), i -> {
+            AccessScopeContext.INSTANCE.setTenantId(2L);
+            return i;
+        });
+        // then
+        assertEquals(1L, AccessScopeContext.INSTANCE.getTenantId());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,22 @@
 package smartfloor.repository.jpa;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +25,21 @@ import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Floor;
 import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.Tenant;
+import smartfloor.domain.entities.User;
+import smartfloor.domain.entities.UserWearableLink;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.entities.WearableGroup;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileRemoval;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileRemovalReason;
+import smartfloor.domain.indicators.fall.risk.FallRiskRegressionModel;
+import smartfloor.domain.indicators.fall.risk.FallRiskScore;
+import smartfloor.service.FallRiskProfileService;
 
 class FallRiskProfileRepositoryIntegrationTest extends IntegrationTestBase {
 
+    private static final Duration CONCURRENCY_TIMEOUT = Duration.ofSeconds(10);
+
     @Autowired
     WearableRepository wearableRepository;
 
@@ -32,6 +55,151 @@ class FallRiskProfileRepositoryIntegrationTest extends IntegrationTestBase {
     @Autowired
     GroupRepository groupRepository;
 
+    @Autowired
+    UserWearableLinkRepository userWearableLinkRepository;
+
+    @Autowired
+    FallRiskRemovalRepository fallRiskRemovalRepository;
+
+    /* Repairs the latest fall risk profiles within a (read-write) transaction. */
+    @Autowired
+    FallRiskProfileService fallRiskProfileService;
+
+    private User saveUser(String authId) {
+        return userRepository.save(User.builder().authId(authId).tenant(getTestTenant()).build());
+    }
+
+    private Long findLatestIdOf(User user) {
+        return fallRiskProfileRepository.findLatestByUserId(user.getId()).map(FallRiskProfile::getId).orElse(null);
+    }
+
+    private FallRiskProfile saveFallRiskProfile(Wearable wearable, Floor floor, LocalDateTime endTime) {
+        return fallRiskProfileRepository.save(
+                FallRiskProfile.builder()
+                        .wearable(wearable)
+                        .floor(floor)
+                        .creationTime(endTime)
+                        .beginTime(endTime.minusMinutes(1))
+                        .endTime(endTime)
+                        .walkingSpeed(0.5)
+                        .stepLength(0.5)
+                        .stepFrequency(0.5)
+                        .build()
+        );
+    }
+
+    private UserWearableLink saveUserWearableLink(User user, Wearable wearable, TimeWindow timeWindow) {
+        return userWearableLinkRepository.save(
+                UserWearableLink.builder()
+                        .user(user)
+                        .wearable(wearable)
+                        .beginTime(timeWindow.getBeginTime())
+                        .endTime(timeWindow.getEndTime())
+                        .build()
+        );
+    }
+
+    /**
+     * A connection as the owner of the tables, with which fall risk profiles are inserted in transactions that the test
+     * controls (like the analysis pipeline, which inserts them outside of the application).
+     */
+    private static Connection getOwnerConnection() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("POSTGRES_URL"),
+                System.getProperty("POSTGRES_USER"),
+                System.getProperty("POSTGRES_PASSWORD")
+        );
+    }
+
+    private static void insertFallRiskProfile(Connection owner, Wearable wearable, LocalDateTime endTime)
+            throws SQLException {
+        try (
+                PreparedStatement sql = owner.prepareStatement(
+                        "INSERT INTO fall_risk_profiles" +
+                                " (wearable_id, begin_time, end_time, walking_speed, step_length, step_frequency)" +
+                                " VALUES (?, ?, ?, 0.5, 0.5, 0.5)"
+                )
+        ) {
+            sql.setString(1, wearable.getId());
+            sql.setTimestamp(2, Timestamp.valueOf(endTime.minusMinutes(1)));
+            sql.setTimestamp(3, Timestamp.valueOf(endTime));
+            sql.executeUpdate();
+        }
+    }
+
+    /**
+     * Inserts a fall risk profile of the wearable in each of two transactions: the second transaction inserts its fall
+     * risk profile while the first one has not committed yet, and commits after the first one.
+     */
+    private static void insertFallRiskProfilesConcurrently(
+            Wearable wearable,
+            LocalDateTime firstEndTime,
+            LocalDateTime secondEndTime
+    ) throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (
+                Connection first = getOwnerConnection();
+                Connection second = getOwnerConnection();
+                Connection observer = getOwnerConnection()
+        ) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            insertFallRiskProfile(first, wearable, firstEndTime);
+            Future<?> secondTransaction = executorService.submit(() -> {
+                insertFallRiskProfile(second, wearable, secondEndTime);
+                second.commit();
+                return null;
+            });
+            awaitBlockedTransaction(observer);
+            first.commit();
+            secondTransaction.get(CONCURRENCY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until a transaction waits for a lock, i.e. until the second transaction waits for the first one.
+     */
+    private static void awaitBlockedTransaction(Connection observer) throws SQLException, InterruptedException {
+        long deadline = System.nanoTime() + CONCURRENCY_TIMEOUT.toNanos();
+        while (true) {
+            try (
+                    PreparedStatement sql = observer.prepareStatement(
+                            "SELECT count(*) FROM pg_locks WHERE NOT granted"
+                    );
+                    ResultSet resultSet = sql.executeQuery()
+            ) {
+                resultSet.next();
+                if (resultSet.getInt(1) > 0) {
+                    return;
+                }
+            }
+            assertTrue(System.nanoTime() - deadline < 0, "The second transaction does not wait for the first one");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * The number of fall risk profiles of the user in the walking speed histogram of the month of the given time.
+     */
+    private static int countInHistogram(User user, LocalDateTime time) throws SQLException {
+        try (
+                Connection owner = getOwnerConnection();
+                PreparedStatement sql = owner.prepareStatement(
+                        "SELECT COALESCE(SUM(count), 0) FROM fall_risk_histograms" +
+                                " WHERE user_id = ? AND parameter = 'walking_speed'" +
+                                " AND month = date_trunc('month', CAST(? AS timestamp))"
+                )
+        ) {
+            sql.setLong(1, user.getId());
+            sql.setTimestamp(2, Timestamp.valueOf(time));
+            try (ResultSet resultSet = sql.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
 
     @Test
     void testFindByWearableIdAndCreationTimeBetweenOrderByCreationTime() {
@@ -76,4 +244,263 @@ class FallRiskProfileRepositoryIntegrationTest extends IntegrationTestBase {
         assertTrue(foundFallRiskProfiles.contains(frp));
     }
 
+    @Test
+    void testFindByUserIdOrderByCreationTime() {
+        // given
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        User user = saveUser("testFrpsOfAllLinks");
+        Wearable firstWearable = wearableRepository.save(Wearable.builder().id("test_all_links_heelable1").build());
+        Wearable secondWearable = wearableRepository.save(Wearable.builder().id("test_all_links_heelable2").build());
+        Floor floor = floorRepository.save(Floor.builder().name("All links FRP test floor").build());
+        // The second link of the first wearable overlaps with its first link
+        saveUserWearableLink(user, firstWearable, new TimeWindow(currentTime.minusDays(10), currentTime.minusDays(5)));
+        saveUserWearableLink(user, firstWearable, new TimeWindow(currentTime.minusDays(7), currentTime.minusDays(3)));
+        saveUserWearableLink(user, secondWearable, new TimeWindow(currentTime.minusDays(3), currentTime));
+        FallRiskProfile firstFrp = saveFallRiskProfile(firstWearable, floor, currentTime.minusDays(8));
+        FallRiskProfile frpOfOverlappingLinks = saveFallRiskProfile(firstWearable, floor, currentTime.minusDays(6));
+        FallRiskProfile thirdFrp = saveFallRiskProfile(firstWearable, floor, currentTime.minusDays(4));
+        FallRiskProfile fourthFrp = saveFallRiskProfile(secondWearable, floor, currentTime.minusDays(2));
+        FallRiskProfile hiddenFrp = fallRiskProfileRepository.save(
+                FallRiskProfile.builder()
+                        .wearable(secondWearable)
+                        .floor(floor)
+                        .creationTime(currentTime.minusDays(1))
+                        .beginTime(currentTime.minusDays(1).minusMinutes(1))
+                        .endTime(currentTime.minusDays(1))
+                        .walkingSpeed(0.5)
+                        .stepLength(0.5)
+                        .stepFrequency(0.5)
+                        .hidden(true)
+                        .build()
+        );
+        // Not within a link of the wearable
+        saveFallRiskProfile(firstWearable, floor, currentTime.minusDays(1));
+        FallRiskProfile removedFrp = saveFallRiskProfile(secondWearable, floor, currentTime.minusHours(1));
+        fallRiskRemovalRepository.save(
+                FallRiskProfileRemoval.builder()
+                        .fallRiskProfile(removedFrp)
+                        .reasonForRemoval(FallRiskProfileRemovalReason.OTHER)
+                        .deletedBy(getTestUser())
+                        .build()
+        );
+        // when
+        List<FallRiskProfile> frps = fallRiskProfileRepository.findByUserIdAndHiddenFalseOrderByCreationTime(
+                user.getId()
+        );
+        List<FallRiskProfile> frpsIncludingHidden = fallRiskProfileRepository.findByUserIdOrderByCreationTime(
+                user.getId()
+        );
+        // then
+        assertEquals(
+                List.of(firstFrp.getId(), frpOfOverlappingLinks.getId(), thirdFrp.getId(), fourthFrp.getId()),
+                frps.stream().map(FallRiskProfile::getId).toList()
+        );
+        assertEquals(
+                List.of(
+                        firstFrp.getId(),
+                        frpOfOverlappingLinks.getId(),
+                        thirdFrp.getId(),
+                        fourthFrp.getId(),
+                        hiddenFrp.getId()
+                ),
+                frpsIncludingHidden.stream().map(FallRiskProfile::getId).toList()
+        );
+    }
+
+    @Test
+    void testFindLatestByUserIdIsMaintainedOnInsertAndRemoval() {
+        // given
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        User user = saveUser("testLatestFrpOnInsertAndRemoval");
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_latest_frp_heelable").build());
+        Floor floor = floorRepository.save(Floor.builder().name("Latest FRP test floor").build());
+        saveUserWearableLink(user, wearable, new TimeWindow(currentTime.minusDays(1), currentTime.plusDays(1)));
+        // when
+        FallRiskProfile firstFrp = saveFallRiskProfile(wearable, floor, currentTime.minusHours(2));
+        FallRiskProfile secondFrp = saveFallRiskProfile(wearable, floor, currentTime.minusHours(1));
+        // then
+        assertEquals(secondFrp.getId(), findLatestIdOf(user));
+        // when: The latest FRP is soft-deleted, the one before it becomes the latest.
+        fallRiskRemovalRepository.save(
+                FallRiskProfileRemoval.builder()
+                        .fallRiskProfile(secondFrp)
+                        .reasonForRemoval(FallRiskProfileRemovalReason.OTHER)
+                        .deletedBy(getTestUser())
+                        .build()
+        );
+        // then
+        assertEquals(firstFrp.getId(), findLatestIdOf(user));
+        // when: The remaining FRP is soft-deleted as well, there is no latest FRP anymore.
+        fallRiskRemovalRepository.save(
+                FallRiskProfileRemoval.builder()
+                        .fallRiskProfile(firstFrp)
+                        .reasonForRemoval(FallRiskProfileRemovalReason.OTHER)
+                        .deletedBy(getTestUser())
+                        .build()
+        );
+        // then
+        assertFalse(fallRiskProfileRepository.findLatestByUserId(user.getId()).isPresent());
+        assertEquals(0, fallRiskProfileService.repairLatestFallRiskProfiles());
+    }
+
+    @Test
+    void testRemovalStateFollowsRemovals() {
+        // given
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_removed_frp_heelable").build());
+        Floor floor = floorRepository.save(Floor.builder().name("Removed FRP test floor").build());
+        FallRiskProfile frp = saveFallRiskProfile(wearable, floor, currentTime.minusHours(1));
+        // when
+        FallRiskProfileRemoval removal = fallRiskRemovalRepository.save(
+                FallRiskProfileRemoval.builder()
+                        .fallRiskProfile(frp)
+                        .reasonForRemoval(FallRiskProfileRemovalReason.OTHER)
+                        .deletedBy(getTestUser())
+                        .build()
+        );
+        // then
+        assertFalse(fallRiskProfileRepository.findById(frp.getId()).isPresent());
+        assertFalse(fallRiskProfileRepository.findAll().contains(frp));
+        assertTrue(fallRiskProfileRepository.findAllRemoved().contains(frp));
+        // when: The removal is undone.
+        fallRiskRemovalRepository.delete(removal);
+        // then
+        assertTrue(fallRiskProfileRepository.findById(frp.getId()).isPresent());
+        assertFalse(fallRiskProfileRepository.findAllRemoved().contains(frp));
+    }
+
+    @Test
+    void testFindLatestByUserIdIsMaintainedOnRelink() {
+        // given
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        User firstUser = saveUser("testLatestFrpOnRelink1");
+        User secondUser = saveUser("testLatestFrpOnRelink2");
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_relinked_heelable").build());
+        Floor floor = floorRepository.save(Floor.builder().name("Relinked FRP test floor").build());
+        UserWearableLink userWearableLink = saveUserWearableLink(
+                firstUser,
+                wearable,
+                new TimeWindow(currentTime.minusDays(1), currentTime.plusDays(1))
+        );
+        FallRiskProfile frp = saveFallRiskProfile(wearable, floor, currentTime.minusHours(1));
+        assertEquals(frp.getId(), findLatestIdOf(firstUser));
+        // when: The wearable turns out to have been worn by the other user.
+        userWearableLink.setUser(secondUser);
+        userWearableLinkRepository.save(userWearableLink);
+        // then
+        assertFalse(fallRiskProfileRepository.findLatestByUserId(firstUser.getId()).isPresent());
+        assertEquals(frp.getId(), findLatestIdOf(secondUser));
+        assertEquals(0, fallRiskProfileService.repairLatestFallRiskProfiles());
+    }
+
+    @Test
+    void testFindLatestIdsByGroupId() {
+        // given
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        User userWithFrp = saveUser("testLatestFrpOfGroup1");
+        User userWithoutFrp = saveUser("testLatestFrpOfGroup2");
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_group_heelable").build());
+        Floor floor = floorRepository.save(Floor.builder().name("Group FRP test floor").build());
+        WearableGroup wearableGroup = wearableGroupRepository.save(
+                WearableGroup.builder().wearables(List.of(wearable)).name("testFindLatestIdsByGroupId").build()
+        );
+        Group group = groupRepository.save(
+                Group.builder()
+                        .name("testFindLatestIdsByGroupId")
+                        .wearableGroup(wearableGroup)
+                        .tenant(getTestTenant())
+                        .users(List.of(userWithFrp, userWithoutFrp))
+                        .build()
+        );
+        saveUserWearableLink(userWithFrp, wearable, new TimeWindow(currentTime.minusDays(1), currentTime.plusDays(1)));
+        saveFallRiskProfile(wearable, floor, currentTime.minusHours(2));
+        FallRiskProfile latestFrp = saveFallRiskProfile(wearable, floor, currentTime.minusHours(1));
+        // when
+        List<FallRiskProfileRepository.UserFallRiskProfileId> latestIds =
+                fallRiskProfileRepository.findLatestIdsByGroupId(group.getId());
+        // then
+        assertEquals(1, latestIds.size());
+        assertEquals(userWithFrp.getId(), latestIds.get(0).getUserId());
+        assertEquals(latestFrp.getId(), latestIds.get(0).getFallRiskProfileId());
+        Optional<FallRiskProfile> latestOfUserWithoutFrp = fallRiskProfileRepository.findLatestByUserId(
+                userWithoutFrp.getId()
+        );
+        assertFalse(latestOfUserWithoutFrp.isPresent());
+    }
+
+    @Test
+    void testHistogramsOfConcurrentlyInsertedFallRiskProfiles() throws Exception {
+        // given
+        LocalDateTime time = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(15);
+        User user = saveUser("testHistogramsOfConcurrentFrps");
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_histograms_heelable").build());
+        saveUserWearableLink(user, wearable, new TimeWindow(time.minusDays(1), time.plusDays(1)));
+        // when: Two fall risk profiles of the user within the same month are inserted concurrently.
+        insertFallRiskProfilesConcurrently(wearable, time.minusHours(2), time.minusHours(1));
+        // then: Both transactions succeed, and both fall risk profiles are counted.
+        assertEquals(2, countInHistogram(user, time));
+    }
+
+    @Test
+    void testLatestOfConcurrentlyInsertedFallRiskProfiles() throws Exception {
+        // given
+        LocalDateTime time = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(15);
+        User user = saveUser("testLatestOfConcurrentFrps");
+        Wearable wearable = wearableRepository.save(Wearable.builder().id("test_concurrent_latest_heelable").build());
+        saveUserWearableLink(user, wearable, new TimeWindow(time.minusDays(1), time.plusDays(1)));
+        // when: An older fall risk profile is committed after a newer one that was inserted concurrently.
+        insertFallRiskProfilesConcurrently(wearable, time.minusHours(1), time.minusHours(2));
+        // then: The newer fall risk profile remains the latest one.
+        Optional<FallRiskProfile> latestFrp = fallRiskProfileRepository.findLatestByUserId(user.getId());
+        assertTrue(latestFrp.isPresent());
+        assertEquals(time.minusHours(1), latestFrp.get().getEndTime());
+        assertEquals(0, fallRiskProfileService.repairLatestFallRiskProfiles());
+    }
+
+    /**
+     * Test to see if the database scores fall risk profiles like the {@link FallRiskRegressionModel} of the
+     * application, both through fall_risk_profile_score and through {@link FallRiskScore#FALL_RISK_PROFILE_SQL}. The
+     * samples include scores that are clamped to either bound and fall risk profiles with missing parameters.
+     */
+    @Test
+    void testDatabaseScoresFallRiskProfilesLikeRegressionModel() throws SQLException {
+        Double[][] samples = {
+                {500.0, 400.0, 1.2},
+                {1000.0, 600.0, 1.7},
+                {1400.0, 700.0, 2.0},
+                {100.0, 200.0, 0.1},
+                {0.0, 1500.0, 3.0},
+                {800.0, null, 1.5},
+        };
+        try (
+                Connection owner = getOwnerConnection();
+                PreparedStatement sql = owner.prepareStatement(
+                        "SELECT fall_risk_profile_score(frp.walking_speed, frp.step_length, frp.step_frequency), " +
+                                FallRiskScore.FALL_RISK_PROFILE_SQL +
+                                " FROM (SELECT CAST(? AS double precision) AS walking_speed," +
+                                " CAST(? AS double precision) AS step_length," +
+                                " CAST(? AS double precision) AS step_frequency) AS frp"
+                )
+        ) {
+            for (Double[] sample : samples) {
+                // given
+                FallRiskProfile fallRiskProfile = FallRiskProfile.builder()
+                        .walkingSpeed(sample[0])
+                        .stepLength(sample[1])
+                        .stepFrequency(sample[2])
+                        .build();
+                double expectedScore = FallRiskScore.ofFallRiskProfile(fallRiskProfile).getValue().doubleValue();
+                for (int i = 0; i < sample.length; i++) {
+                    sql.setObject(i + 1, sample[i]);
+                }
+                // when
+                try (ResultSet resultSet = sql.executeQuery()) {
+                    resultSet.next();
+                    // then
+                    assertEquals(expectedScore, resultSet.getDouble(1), 0.001);
+                    assertEquals(expectedScore, resultSet.getDouble(2), 0.001);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,275 @@
+package smartfloor.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.entities.Footstep;
+import smartfloor.domain.entities.Group;
+import smartfloor.domain.entities.Position;
+import smartfloor.domain.entities.User;
+import smartfloor.domain.entities.UserWearableLink;
+import smartfloor.domain.entities.Wearable;
+import smartfloor.domain.entities.WearableGroup;
+import smartfloor.repository.jpa.projections.FootstepProjection;
+
+class FootstepRepositoryIntegrationTest extends IntegrationTestBase {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\?(\\d+)");
+
+    @Autowired
+    FootstepRepository footstepRepository;
+
+    @Autowired
+    WearableRepository wearableRepository;
+
+    @Autowired
+    WearableGroupRepository wearableGroupRepository;
+
+    @Autowired
+    GroupRepository groupRepository;
+
+    @Autowired
+    UserWearableLinkRepository userWearableLinkRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private Wearable getTestWearable(String name) {
+        Wearable wearable = wearableRepository.save(Wearable.builder().id(name).build());
+        WearableGroup wearableGroup = wearableGroupRepository.save(
+                WearableGroup.builder()
+                        .wearables(List.of(wearable))
+                        .name(name)
+                        .build()
+        );
+        groupRepository.save(
+                Group.builder()
+                        .name(name)
+                        .wearableGroup(wearableGroup)
+                        .tenant(getTestTenant())
+                        .build()
+        );
+        return wearable;
+    }
+
+    private void saveUserWearableLink(User user, Wearable wearable, LocalDateTime beginTime, LocalDateTime endTime) {
+        userWearableLinkRepository.save(
+                UserWearableLink.builder()
+                        .user(user)
+                        .wearable(wearable)
+                        .beginTime(beginTime)
+                        .endTime(endTime)
+                        .build()
+        );
+    }
+
+    private static Footstep createFootstep(Wearable wearable, LocalDateTime time, Position position) {
+        Footstep footstep = new Footstep();
+        footstep.setWearable(wearable);
+        footstep.setTime(time);
+        footstep.setPosition(position);
+        return footstep;
+    }
+
+    @Test
+    void testFindFootstepsInDifferentPartitions() {
+        // given: A recent footstep (stored in the partition of the current month) and a footstep from long ago (stored
+        // in the default partition, as no partition exists for its month).
+        Wearable wearable = getTestWearable("testFindFootstepsInDifferentPartitions");
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime pastTime = LocalDateTime.of(2000, 1, 1, 12, 0);
+        footstepRepository.saveAll(List.of(
+                createFootstep(wearable, pastTime, null),
+                createFootstep(wearable, currentTime, new Position(1, 2))
+        ));
+        // when
+        List<FootstepProjection> footsteps = footstepRepository.findProjectionsByWearableIdAndTimeBetween(
+                wearable.getId(),
+                pastTime.minusDays(1),
+                currentTime
+        );
+        // then: Both footsteps are found, in chronological order and along with their positions.
+        assertEquals(List.of(pastTime, currentTime), footsteps.stream().map(FootstepProjection::time).toList());
+        assertFalse(footsteps.get(0).hasPosition());
+        assertEquals(2.0, footsteps.get(1).y().doubleValue());
+    }
+
+    @Test
+    void testFindFootstepsOfUserAcrossOverlappingAndAdjacentLinks() {
+        // given: The user wore wearable A, put on wearable B while still wearing A (overlapping links), took off A, and
+        // put A back on at the moment that B was taken off (adjacent links).
+        User user = getTestUser();
+        Wearable a = getTestWearable("testFindFootstepsOfUserAcrossLinksA");
+        Wearable b = getTestWearable("testFindFootstepsOfUserAcrossLinksB");
+        LocalDateTime t = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(1);
+        saveUserWearableLink(user, a, t, t.plusMinutes(20));
+        saveUserWearableLink(user, b, t.plusMinutes(10), t.plusMinutes(30));
+        saveUserWearableLink(user, a, t.plusMinutes(30), t.plusMinutes(40));
+        footstepRepository.saveAll(List.of(
+                createFootstep(a, t.minusMinutes(5), null), // before any link of A
+                createFootstep(a, t.plusMinutes(5), null), // before the time window
+                createFootstep(a, t.plusMinutes(15), null),
+                createFootstep(a, t.plusMinutes(25), null), // in between the links of A
+                createFootstep(a, t.plusMinutes(31), null),
+                createFootstep(a, t.plusMinutes(35), null), // after the time window
+                createFootstep(b, t.plusMinutes(8), null), // before the link of B
+                createFootstep(b, t.plusMinutes(12), null),
+                createFootstep(b, t.plusMinutes(30), null), // at the end of the link of B
+                createFootstep(b, t.plusMinutes(32), null) // after the link of B
+        ));
+        // when
+        List<FootstepProjection> footsteps = footstepRepository.findProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                t.plusMinutes(6),
+                t.plusMinutes(34)
+        );
+        // then: Only the footsteps within both a link of their wearable and the time window are found, ordered by time
+        // across the wearables.
+        assertEquals(
+                List.of(
+                        b.getId() + "@" + t.plusMinutes(12),
+                        a.getId() + "@" + t.plusMinutes(15),
+                        b.getId() + "@" + t.plusMinutes(30),
+                        a.getId() + "@" + t.plusMinutes(31)
+                ),
+                footsteps.stream().map(footstep -> footstep.wearableId() + "@" + footstep.time()).toList()
+        );
+    }
+
+    @Test
+    void testFindFootstepsOfUserOnBoundaryOfAdjacentLinksOfSameWearable() {
+        // given: The user took off a wearable and put it back on at the same moment (adjacent links of one wearable),
+        // with a footstep exactly on the shared boundary of the links.
+        User user = getTestUser();
+        Wearable wearable = getTestWearable("testFindFootstepsOfUserOnBoundaryOfAdjacentLinks");
+        LocalDateTime t = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(1);
+        saveUserWearableLink(user, wearable, t, t.plusMinutes(10));
+        saveUserWearableLink(user, wearable, t.plusMinutes(10), t.plusMinutes(20));
+        footstepRepository.saveAll(List.of(
+                createFootstep(wearable, t.plusMinutes(5), null),
+                createFootstep(wearable, t.plusMinutes(10), null), // on the boundary of the links
+                createFootstep(wearable, t.plusMinutes(15), null)
+        ));
+        // when
+        List<FootstepProjection> footsteps = footstepRepository.findProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                t,
+                t.plusMinutes(20)
+        );
+        List<FootstepProjection> page = footstepRepository.findProjectionPageByUserIdAndTimeBetween(
+                user.getId(),
+                t,
+                t.plusMinutes(20),
+                t,
+                0L,
+                PageRequest.ofSize(10)
+        );
+        // then: The footstep on the boundary is found once, by both the query and the page query.
+        List<LocalDateTime> expectedTimes = List.of(t.plusMinutes(5), t.plusMinutes(10), t.plusMinutes(15));
+        assertEquals(expectedTimes, footsteps.stream().map(FootstepProjection::time).toList());
+        assertEquals(expectedTimes, page.stream().map(FootstepProjection::time).toList());
+    }
+
+    /**
+     * Returns the plan of the SQL that Hibernate generates for a JPQL query of the {@link FootstepRepository}, with the
+     * given values for its positional parameters. The SQL is captured by running the query in a session of its own.
+     * Hibernate binds a positional parameter at every occurrence, so the values are bound to the SQL in the order in
+     * which the parameters occur in the JPQL query.
+     */
+    private String explainJpqlQuery(String jpql, Object... parameters) {
+        List<String> statements = new ArrayList<>();
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        try (
+                Session session = sessionFactory.withOptions().statementInspector(statement -> {
+                    statements.add(statement);
+                    return statement;
+                }).openSession()
+        ) {
+            Query<FootstepProjection> query = session.createQuery(jpql, FootstepProjection.class);
+            for (int i = 0; i < parameters.length; i++) {
+                query.setParameter(i + 1, parameters[i]);
+            }
+            query.getResultList();
+            return session.doReturningWork(connection -> {
+                try (PreparedStatement sql = connection.prepareStatement("EXPLAIN " + statements.get(0))) {
+                    Matcher parameterMatcher = POSITIONAL_PARAMETER.matcher(jpql);
+                    for (int i = 1; parameterMatcher.find(); i++) {
+                        sql.setObject(i, parameters[Integer.parseInt(parameterMatcher.group(1)) - 1]);
+                    }
+                    List<String> plan = new ArrayList<>();
+                    try (ResultSet resultSet = sql.executeQuery()) {
+                        while (resultSet.next()) {
+                            plan.add(resultSet.getString(1));
+                        }
+                    }
+                    return String.join("\n", plan);
+                }
+            });
+        }
+    }
+
+    /**
+     * Asserts that the plan only scans the partition of the given (partitioned) table for the month that starts at the
+     * given time.
+     */
+    private static void assertOnlyScansPartitionOf(String tableName, LocalDateTime monthStart, String plan) {
+        assertTrue(plan.contains(tableName + "_" + monthStart.format(MONTH_FORMAT)), plan);
+        assertFalse(plan.contains(tableName + "_default"), plan);
+        assertFalse(plan.contains(tableName + "_" + monthStart.plusMonths(1).format(MONTH_FORMAT)), plan);
+    }
+
+    @Test
+    void testWearableFootstepsQueryOnlyScansOverlappingPartitions() {
+        // given: A time window that lies within the current month.
+        LocalDateTime monthStart = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        LocalDateTime beginTime = monthStart.plusDays(1);
+        LocalDateTime endTime = monthStart.plusDays(2);
+        // when
+        String plan = explainJpqlQuery(
+                FootstepRepository.WEARABLE_FOOTSTEPS_QUERY,
+                "testWearableFootstepsQueryOnlyScansOverlappingPartitions",
+                beginTime,
+                endTime
+        );
+        // then: The positions are only looked up in the positions partition of the month as well.
+        assertOnlyScansPartitionOf("footsteps", monthStart, plan);
+        assertOnlyScansPartitionOf("footstep_positions", monthStart, plan);
+    }
+
+    @Test
+    void testWearableStepCountsQueryOnlyScansOverlappingPartitions() {
+        // given: A time window within the current month, of which the full hours are counted from the rollups.
+        LocalDateTime monthStart = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        LocalDateTime beginTime = monthStart.plusDays(1).plusMinutes(30);
+        LocalDateTime endTime = monthStart.plusDays(2).plusMinutes(15);
+        // when
+        @SuppressWarnings("unchecked")
+        List<String> plan = entityManager.createNativeQuery("EXPLAIN " + FootstepRepository.WEARABLE_STEP_COUNTS_QUERY)
+                .setParameter(1, beginTime)
+                .setParameter(2, endTime)
+                .setParameter(3, beginTime.truncatedTo(ChronoUnit.HOURS).plusHours(1))
+                .setParameter(4, endTime.truncatedTo(ChronoUnit.HOURS))
+                .getResultList();
+        // then: The partial hours at the edges of the time window are only looked up in the partition of the month.
+        assertOnlyScansPartitionOf("footsteps", monthStart, String.join("\n", plan));
+    }
+}
@@ -0,0 +1,224 @@
+package smartfloor.repository.jpa;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Compares the plan shape and the latency of footstep queries of a tenant under the previous footsteps select policy
+ * (see V58, an EXISTS subquery on the leases per footstep) and under the current one (see V63, the lease windows of
+ * visible_wearable_leases() evaluated once per query). The dataset consists of 20 tenants that lease 200 wearables
+ * (every wearable moved to another tenant a month ago) with a footstep every 15 minutes over the last 60 days, 1.2
+ * million footsteps in total. Tagged as a benchmark, so it is not part of the unit or integration tests; run it with
+ * {@code mvn test -Dgroups=Benchmark} (Docker is required, like for the integration tests).</p>
+ * The plans are obtained with EXPLAIN ANALYZE before the queries are timed, and are logged along with the average time
+ * per query. Under the current policy, the plans must show the intended shape: the visible wearables are collected in
+ * an InitPlan, once per query, and the footsteps are looked up by an index condition on those wearables.
+ */
+@Tag("Benchmark")
+class FootstepSelectPolicyBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FootstepSelectPolicyBenchmark.class);
+
+    private static final int AMOUNT_OF_TENANTS = 20;
+    private static final int AMOUNT_OF_WEARABLES = 200;
+    private static final int FOOTSTEPS_PER_WEARABLE = 60 * 24 * 4;
+    private static final int WARM_UP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private static final String PREVIOUS_POLICY = """
+            EXISTS(
+                SELECT 1
+                FROM tenant_wearable_leases AS twl
+                WHERE footsteps.wearable_id = twl.wearable_id
+                AND twl.tenant_id::TEXT = current_setting('app.tenant_id', true)
+                AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+            )
+            OR
+            EXISTS(
+                SELECT 1
+                FROM users AS u
+                INNER JOIN tenant_wearable_leases AS twl ON u.tenant_id = twl.tenant_id
+                WHERE footsteps.wearable_id = twl.wearable_id
+                AND u.composite_user_id::TEXT = current_setting('app.composite_user_id', true)
+                AND footsteps.timestamp BETWEEN twl.begin_time AND COALESCE(twl.end_time, NOW())
+            )
+            """;
+
+    private static final String CURRENT_POLICY = """
+            footsteps.wearable_id = ANY (ARRAY(SELECT vwl.wearable_id FROM visible_wearable_leases() AS vwl))
+            AND EXISTS(
+                SELECT 1
+                FROM visible_wearable_leases() AS vwl
+                WHERE footsteps.wearable_id = vwl.wearable_id
+                AND footsteps.timestamp BETWEEN vwl.begin_time AND vwl.end_time
+            )
+            """;
+
+    // The queries resemble those of FootstepRepository: all footsteps of the tenant within a week (e.g. for the
+    // footstep counts of a group) and the footsteps of a single wearable within a day (e.g. for the gait analysis).
+    private static final Map<String, String> QUERIES = Map.of(
+            "count of a week",
+            "SELECT count(*) FROM footsteps WHERE timestamp BETWEEN NOW() - interval '7 days' AND NOW()",
+            "wearable of a day",
+            "SELECT * FROM footsteps WHERE wearable_id = 'benchmark_20' " +
+                    "AND timestamp BETWEEN NOW() - interval '2 days' AND NOW() - interval '1 day' ORDER BY timestamp"
+    );
+
+    @Test
+    void benchmarkFootstepSelectPolicy() throws SQLException {
+        PostgresqlContainer.getInstance().start();
+        String url = System.getProperty("POSTGRES_URL");
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, System.getProperty("POSTGRES_USER"), System.getProperty("POSTGRES_PASSWORD"))
+                .locations(
+                        "filesystem:database-migrations/migration/test",
+                        "filesystem:database-migrations/migration/prod"
+                )
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        try (
+                Connection owner = DriverManager.getConnection(
+                        url,
+                        System.getProperty("POSTGRES_USER"),
+                        System.getProperty("POSTGRES_PASSWORD")
+                );
+                Connection app = DriverManager.getConnection(
+                        url,
+                        System.getProperty("POSTGRES_APP_USER"),
+                        System.getProperty("POSTGRES_APP_PASSWORD")
+                )
+        ) {
+            insertDataset(owner);
+            try (Statement sql = app.createStatement()) {
+                sql.execute(
+                        "SELECT set_config('app.tenant_id', id::TEXT, false) " +
+                                "FROM tenants WHERE name = 'benchmark_tenant_1'"
+                );
+            }
+            try {
+                for (Map.Entry<String, String> policy : List.of(
+                        Map.entry("previous (V58)", PREVIOUS_POLICY),
+                        Map.entry("current (V63)", CURRENT_POLICY)
+                )) {
+                    alterFootstepSelectPolicy(owner, policy.getValue());
+                    for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                        String plan = measure(app, policy.getKey() + ", " + query.getKey(), query.getValue());
+                        if (policy.getValue().equals(CURRENT_POLICY)) {
+                            assertIntendedPlanShape(query.getKey(), plan);
+                        }
+                    }
+                }
+            } finally {
+                alterFootstepSelectPolicy(owner, CURRENT_POLICY);
+            }
+        }
+    }
+
+    /**
+     * Inserts the tenants, wearables, leases and footsteps of the dataset as the owner of the tables, which is not
+     * subject to the RLS policies.
+     */
+    private static void insertDataset(Connection owner) throws SQLException {
+        try (Statement sql = owner.createStatement()) {
+            // The footsteps partitions are only created from the month of the migration onwards.
+            for (int month = 0; month <= 2; month++) {
+                sql.execute(String.format(
+                        "SELECT create_footsteps_partition((NOW() - interval '%d months')::date)",
+                        month
+                ));
+            }
+            sql.execute(String.format(
+                    "INSERT INTO tenants (name) SELECT 'benchmark_tenant_' || t FROM generate_series(0, %d) AS t",
+                    AMOUNT_OF_TENANTS - 1
+            ));
+            sql.execute(String.format(
+                    "INSERT INTO wearables (id) SELECT 'benchmark_' || w FROM generate_series(0, %d) AS w",
+                    AMOUNT_OF_WEARABLES - 1
+            ));
+            // Every wearable was leased by one tenant up to a month ago and is leased by the next tenant since.
+            sql.execute(String.format(
+                    """
+                    INSERT INTO tenant_wearable_leases (tenant_id, wearable_id, begin_time, end_time)
+                    SELECT t.id, 'benchmark_' || w, NOW() - interval '61 days', NOW() - interval '31 days'
+                    FROM generate_series(0, %1$d) AS w
+                    INNER JOIN tenants AS t ON t.name = 'benchmark_tenant_' || (w %% %2$d)
+                    UNION ALL
+                    SELECT t.id, 'benchmark_' || w, NOW() - interval '30 days', NULL
+                    FROM generate_series(0, %1$d) AS w
+                    INNER JOIN tenants AS t ON t.name = 'benchmark_tenant_' || ((w + 1) %% %2$d)
+                    """,
+                    AMOUNT_OF_WEARABLES - 1,
+                    AMOUNT_OF_TENANTS
+            ));
+            sql.execute(String.format(
+                    """
+                    INSERT INTO footsteps (wearable_id, timestamp)
+                    SELECT 'benchmark_' || w, date_trunc('minute', NOW()::timestamp) - s * interval '15 minutes'
+                    FROM generate_series(0, %d) AS w, generate_series(1, %d) AS s
+                    """,
+                    AMOUNT_OF_WEARABLES - 1,
+                    FOOTSTEPS_PER_WEARABLE
+            ));
+            sql.execute("ANALYZE");
+        }
+    }
+
+    private static void alterFootstepSelectPolicy(Connection owner, String policy) throws SQLException {
+        try (Statement sql = owner.createStatement()) {
+            sql.execute("ALTER POLICY footstep_select_isolation_policy ON footsteps USING (" + policy + ")");
+        }
+    }
+
+    /**
+     * Asserts that the visible wearables are evaluated once (in an InitPlan) and that the footsteps are looked up by
+     * an index condition on them, rather than filtered row by row.
+     */
+    private static void assertIntendedPlanShape(String name, String plan) {
+        assertTrue(plan.contains("InitPlan"), name + ": the visible wearables are not evaluated in an InitPlan");
+        assertTrue(
+                plan.lines().anyMatch(
+                        line -> line.contains("Index Cond:") && line.contains("wearable_id)::text = ANY")
+                ),
+                name + ": the visible wearables are not an index condition"
+        );
+    }
+
+    /**
+     * Logs the plan and the average time of the query, and returns the plan.
+     */
+    private static String measure(Connection app, String name, String query) throws SQLException {
+        try (Statement sql = app.createStatement()) {
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = sql.executeQuery("EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) " + query)) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append(System.lineSeparator());
+                }
+            }
+            for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                sql.executeQuery(query).close();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sql.executeQuery(query).close();
+            }
+            double averageNanos = (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+            String averageMillis = String.format("%.1f", averageNanos / 1_000_000.0);
+            log.info("{}: {} ms per query{}{}", name, averageMillis, System.lineSeparator(), plan);
+            return plan.toString();
+        }
+    }
+}
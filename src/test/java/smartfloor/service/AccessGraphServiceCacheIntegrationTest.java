@@ -0,0 +1,88 @@
+package smartfloor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.Role;
+import smartfloor.domain.UserType;
+import smartfloor.domain.dto.CreateWearableUserForm;
+import smartfloor.domain.entities.Group;
+import smartfloor.domain.entities.User;
+import smartfloor.repository.jpa.GroupRepository;
+import smartfloor.util.TestUtils;
+
+/**
+ * Verifies that a cached access graph does not outlive a change to a group. Unlike the other integration tests (see
+ * application-test.properties), the access graphs are cached here.
+ */
+@TestPropertySource(properties = "smartfloor.caches.accessGraphs.time-to-live=PT1M")
+class AccessGraphServiceCacheIntegrationTest extends IntegrationTestBase {
+
+    private static final String USERS_REST_ENDPOINT = "/users";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private ResponseEntity<String> exchange(String uri, HttpMethod method, HttpEntity<String> entity) {
+        return getRestTemplate().exchange(TestUtils.createURLWithPort(uri, getPort()), method, entity, String.class);
+    }
+
+    /**
+     * Requests the user with the given id as the given manager, which caches the access graph of the tenant.
+     */
+    private ResponseEntity<String> getUserAsManager(User manager, Long userId) {
+        HttpHeaders headers = TestUtils.httpHeadersBuilder(
+                getTestTenant().getId(),
+                manager,
+                Role.MANAGER,
+                UserType.DIRECT_USER
+        );
+        return exchange(USERS_REST_ENDPOINT + '/' + userId, HttpMethod.GET, new HttpEntity<>(null, headers));
+    }
+
+    /**
+     * Test to see if a manager can access a user that is added to its group, even though the access graph was cached
+     * by a request of the manager right before the user was added.
+     */
+    @Test
+    void testManagerCanAccessUserAddedToGroup() throws JsonProcessingException {
+        // given
+        User manager = userRepository.save(User.builder().tenant(getTestTenant()).authId("testCachedManager").build());
+        User member = userRepository.save(User.builder().tenant(getTestTenant()).authId("testCachedMember").build());
+        Group group = groupRepository.save(
+                Group.builder()
+                        .tenant(getTestTenant())
+                        .name("testCachedAccessGraphGroup")
+                        .managers(List.of(manager))
+                        .users(new ArrayList<>(List.of(member)))
+                        .build()
+        );
+        assertEquals(HttpStatus.OK, getUserAsManager(manager, member.getId()).getStatusCode());
+        CreateWearableUserForm createWearableUserForm = CreateWearableUserForm.builder()
+                .userGroupId(group.getId())
+                .build();
+        // when
+        ResponseEntity<String> createResponse = exchange(
+                USERS_REST_ENDPOINT,
+                HttpMethod.POST,
+                new HttpEntity<>(mapper.writeValueAsString(createWearableUserForm), TestUtils.defaultHttpHeaders())
+        );
+        // then
+        assertEquals(HttpStatus.CREATED, createResponse.getStatusCode());
+        User createdUser = mapper.readValue(createResponse.getBody(), User.class);
+        assertEquals(HttpStatus.OK, getUserAsManager(manager, createdUser.getId()).getStatusCode());
+    }
+}
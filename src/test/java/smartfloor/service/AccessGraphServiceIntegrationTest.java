@@ -0,0 +1,182 @@
+package smartfloor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.AccessGraph;
+import smartfloor.domain.UserType;
+import smartfloor.domain.entities.CompositeUser;
+import smartfloor.domain.entities.Group;
+import smartfloor.domain.entities.User;
+import smartfloor.domain.entities.Wearable;
+import smartfloor.domain.entities.WearableGroup;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.repository.jpa.CompositeUserRepository;
+import smartfloor.repository.jpa.GroupRepository;
+import smartfloor.repository.jpa.WearableGroupRepository;
+import smartfloor.repository.jpa.WearableRepository;
+
+/**
+ * Verifies that the decisions of the {@link AccessGraph} are equivalent to those of the SQL checks of the repositories
+ * that it replaces, for every combination of (composite) users, groups and wearables of a set up set of entities.
+ */
+class AccessGraphServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final AtomicInteger SET_UP_COUNT = new AtomicInteger();
+
+    @Autowired
+    private AccessGraphService accessGraphService;
+    @Autowired
+    private CompositeUserRepository compositeUserRepository;
+    @Autowired
+    private GroupRepository groupRepository;
+    @Autowired
+    private WearableRepository wearableRepository;
+    @Autowired
+    private WearableGroupRepository wearableGroupRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Group> groups = new ArrayList<>();
+    private final List<Wearable> wearables = new ArrayList<>();
+    private final List<CompositeUser> compositeUsers = new ArrayList<>();
+    // Every test sets up its own entities, so their (unique) names get a suffix.
+    private String suffix;
+
+    private User saveUser(String authId, CompositeUser compositeUser) {
+        User user = userRepository.save(
+                User.builder().tenant(getTestTenant()).authId(authId + suffix).compositeUser(compositeUser).build()
+        );
+        users.add(user);
+        return user;
+    }
+
+    private WearableGroup saveWearableGroup(String name, List<Wearable> wearablesOfGroup) {
+        return wearableGroupRepository.save(
+                WearableGroup.builder().name(name + suffix).wearables(wearablesOfGroup).build()
+        );
+    }
+
+    private void saveGroup(String name, List<User> managers, List<User> members, WearableGroup wearableGroup) {
+        groups.add(groupRepository.save(
+                Group.builder()
+                        .tenant(getTestTenant())
+                        .name(name + suffix)
+                        .managers(managers)
+                        .users(members)
+                        .wearableGroup(wearableGroup)
+                        .build()
+        ));
+    }
+
+    /**
+     * Sets up two managers that (partly) manage the same groups, members that are in multiple groups, a group without
+     * managers, a group without a wearable group, a wearable that is in no group and composite users with sub-users.
+     */
+    @BeforeEach
+    void setUp() {
+        suffix = "_" + SET_UP_COUNT.incrementAndGet();
+        for (int i = 0; i < 4; i++) {
+            wearables.add(wearableRepository.save(Wearable.builder().id("access_graph_heelable" + i + suffix).build()));
+        }
+        for (int i = 0; i < 2; i++) {
+            compositeUsers.add(compositeUserRepository.save(
+                    CompositeUser.builder().authId("accessGraphCU" + i + suffix).build()
+            ));
+        }
+        User firstManager = saveUser("accessGraphManager1", null);
+        User secondManager = saveUser("accessGraphManager2", null);
+        User firstMember = saveUser("accessGraphMember1", compositeUsers.get(0));
+        User secondMember = saveUser("accessGraphMember2", compositeUsers.get(0));
+        User thirdMember = saveUser("accessGraphMember3", compositeUsers.get(1));
+        User fourthMember = saveUser("accessGraphMember4", null);
+        saveGroup(
+                "accessGraphGroup1",
+                List.of(firstManager),
+                List.of(firstMember, secondMember),
+                saveWearableGroup("accessGraphWearableGroup1", List.of(wearables.get(0), wearables.get(1)))
+        );
+        saveGroup(
+                "accessGraphGroup2",
+                List.of(firstManager, secondManager),
+                List.of(secondMember, thirdMember),
+                saveWearableGroup("accessGraphWearableGroup2", List.of(wearables.get(2)))
+        );
+        saveGroup("accessGraphGroup3", List.of(), List.of(fourthMember), null);
+        saveGroup(
+                "accessGraphGroup4",
+                List.of(secondManager),
+                List.of(),
+                saveWearableGroup("accessGraphWearableGroup4", List.of(wearables.get(1)))
+        );
+    }
+
+    @Test
+    void testUserDecisionsAreEquivalentToSqlChecks() {
+        // given
+        AccessGraph accessGraph = accessGraphService.loadAccessGraph();
+        // then
+        for (User user : users) {
+            Long userId = user.getId();
+            for (Group group : groups) {
+                assertEquals(
+                        userRepository.isManagingGroup(userId, group.getId()),
+                        accessGraph.isManagingGroup(userId, group.getId()),
+                        String.format("isManagingGroup(%d, %d)", userId, group.getId())
+                );
+            }
+            for (User otherUser : users) {
+                assertEquals(
+                        userRepository.isManagingUser(userId, otherUser.getId()),
+                        accessGraph.isManagingUser(userId, otherUser.getId()),
+                        String.format("isManagingUser(%d, %d)", userId, otherUser.getId())
+                );
+            }
+            for (Wearable wearable : wearables) {
+                assertEquals(
+                        userRepository.isManagerAllowedToAccessWearable(userId, wearable.getId()),
+                        accessGraph.isManagerAllowedToAccessWearable(userId, wearable.getId()),
+                        String.format("isManagerAllowedToAccessWearable(%d, %s)", userId, wearable.getId())
+                );
+                assertEquals(
+                        userRepository.isUserAllowedToAccessWearable(userId, wearable.getId()),
+                        accessGraph.isUserAllowedToAccessWearable(userId, wearable.getId()),
+                        String.format("isUserAllowedToAccessWearable(%d, %s)", userId, wearable.getId())
+                );
+            }
+        }
+    }
+
+    @Test
+    void testCompositeUserDecisionsAreEquivalentToSqlChecks() {
+        for (CompositeUser compositeUser : compositeUsers) {
+            // given: the access scope of the composite user
+            AccessScopeContext.INSTANCE.setTenantId(null);
+            AccessScopeContext.INSTANCE.setUserType(UserType.COMPOSITE_USER);
+            AccessScopeContext.INSTANCE.setCompositeUserId(compositeUser.getId());
+            AccessGraph accessGraph = accessGraphService.loadAccessGraph();
+            // then
+            List<Long> subUserIds = userRepository.findByCompositeUserId(compositeUser.getId()).stream()
+                    .map(User::getId)
+                    .toList();
+            for (User user : users) {
+                assertEquals(
+                        subUserIds.contains(user.getId()),
+                        accessGraph.isSubUser(compositeUser.getId(), user.getId()),
+                        String.format("isSubUser(%d, %d)", compositeUser.getId(), user.getId())
+                );
+            }
+            for (Wearable wearable : wearables) {
+                assertEquals(
+                        compositeUserRepository.isCUAllowedToAccessWearable(compositeUser.getId(), wearable.getId()),
+                        accessGraph.isCompositeUserAllowedToAccessWearable(compositeUser.getId(), wearable.getId()),
+                        String.format("isCUAllowedToAccessWearable(%d, %s)", compositeUser.getId(), wearable.getId())
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package smartfloor.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@Tag("UnitTest")
+class AfterCommitTest {
+
+    private final AtomicInteger runCount = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRunsRightAwayWithoutTransaction() {
+        // when
+        AfterCommit.run(runCount::incrementAndGet);
+        // then
+        assertEquals(1, runCount.get());
+    }
+
+    @Test
+    void testRunsOnceTransactionHasCommitted() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        AfterCommit.run(runCount::incrementAndGet);
+        // then
+        assertEquals(0, runCount.get());
+        // when
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        // then
+        assertEquals(1, runCount.get());
+    }
+
+    @Test
+    void testDoesNotRunWhenTransactionIsRolledBack() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        // when
+        AfterCommit.run(runCount::incrementAndGet);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+        // then
+        assertEquals(0, runCount.get());
+    }
+}
@@ -13,7 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
 import org.mockito.junit.jupiter.MockitoExtension;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Floor;
@@ -21,10 +21,12 @@ import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.Position;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
+import smartfloor.domain.indicators.Indicator;
 import smartfloor.domain.indicators.footstep.AverageSpeed;
 import smartfloor.domain.indicators.footstep.AverageStrideFrequency;
 import smartfloor.domain.indicators.footstep.AverageStrideLength;
 import smartfloor.domain.indicators.footstep.CoveredDistance;
+import smartfloor.domain.indicators.footstep.FootstepSeries;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("UnitTest")
@@ -56,10 +58,11 @@ class AnalysisServiceTest {
                 new TimeWindow(footsteps.get(0).getTime(), footsteps.get(footsteps.size() - 1).getTime());
         CoveredDistance cd = CoveredDistance.of(footsteps);
         // when
-        Mockito.when(footstepService.getForUserWithinTimeWindow(user, timeWindow)).thenReturn(footsteps);
+        Mockito.when(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow))
+                .thenReturn(FootstepSeries.of(footsteps));
         CoveredDistance actual = analysisService.getCoveredDistanceForUserWithinTimeWindow(user, timeWindow);
         // then
-        Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
+        Mockito.verify(authorizationService).validateUserOperationAuthority(user);
         assertEquals(cd.getValue(), actual.getValue(), 0.0);
     }
 
@@ -77,10 +80,11 @@ class AnalysisServiceTest {
                 new TimeWindow(footsteps.get(0).getTime(), footsteps.get(footsteps.size() - 1).getTime());
         AverageSpeed as = AverageSpeed.of(footsteps);
         // when
-        Mockito.when(footstepService.getForUserWithinTimeWindow(user, timeWindow)).thenReturn(footsteps);
+        Mockito.when(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow))
+                .thenReturn(FootstepSeries.of(footsteps));
         AverageSpeed actual = analysisService.getAverageSpeedForUserWithinTimeWindow(user, timeWindow);
         // then
-        Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user.getId());
+        Mockito.verify(authorizationService).validateUserOperationAuthority(user.getId());
         assertEquals(as.getValue(), actual.getValue(), 0.0);
     }
 
@@ -98,10 +102,11 @@ class AnalysisServiceTest {
                 new TimeWindow(footsteps.get(0).getTime(), footsteps.get(footsteps.size() - 1).getTime());
         AverageStrideLength asl = AverageStrideLength.of(footsteps);
         // when
-        Mockito.when(footstepService.getForUserWithinTimeWindow(user, timeWindow)).thenReturn(footsteps);
+        Mockito.when(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow))
+                .thenReturn(FootstepSeries.of(footsteps));
         AverageStrideLength actual = analysisService.getAverageStrideLengthForUserWithinTimeWindow(user, timeWindow);
         // then
-        Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
+        Mockito.verify(authorizationService).validateUserOperationAuthority(user);
         assertEquals(asl.getValue(), actual.getValue(), 0.0);
     }
 
@@ -119,13 +124,40 @@ class AnalysisServiceTest {
                 new TimeWindow(footsteps.get(0).getTime(), footsteps.get(footsteps.size() - 1).getTime());
         AverageStrideFrequency asf = AverageStrideFrequency.of(footsteps);
         // when
-        Mockito.when(footstepService.getForUserWithinTimeWindow(user, timeWindow)).thenReturn(footsteps);
+        Mockito.when(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow))
+                .thenReturn(FootstepSeries.of(footsteps));
         AverageStrideFrequency actual = analysisService.getStrideFrequencyForUserWithinTimeWindow(user, timeWindow);
         // then
-        Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
+        Mockito.verify(authorizationService).validateUserOperationAuthority(user);
         assertEquals(asf.getValue(), actual.getValue(), 0.0);
     }
 
+    /**
+     * Get all gait indicators based on a given set of footsteps for a user within a given time window. The footsteps
+     * should be fetched only once and every indicator should equal the one computed by its separate getter.
+     */
+    @Test
+    void testGetGaitIndicatorsForUserWithinTimeWindow() {
+        // given
+        List<Footstep> footsteps = buildRandomListOfFootsteps(100);
+        User user = User.builder().build();
+        user.setId(1L);
+        TimeWindow timeWindow =
+                new TimeWindow(footsteps.get(0).getTime(), footsteps.get(footsteps.size() - 1).getTime());
+        // when
+        Mockito.when(footstepService.getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow))
+                .thenReturn(FootstepSeries.of(footsteps));
+        List<Indicator> actual = analysisService.getGaitIndicatorsForUserWithinTimeWindow(user, timeWindow);
+        // then
+        Mockito.verify(footstepService, times(1)).getSeriesForAuthorizedUserWithinTimeWindow(user, timeWindow);
+        Mockito.verify(authorizationService).validateUserOperationAuthority(user);
+        assertEquals(5, actual.size());
+        assertEquals(CoveredDistance.of(footsteps).getValue(), actual.get(0).getValue().doubleValue(), 0.0);
+        assertEquals(AverageSpeed.of(footsteps).getValue(), actual.get(2).getValue().doubleValue(), 0.0);
+        assertEquals(AverageStrideLength.of(footsteps).getValue(), actual.get(3).getValue().doubleValue(), 0.0);
+        assertEquals(AverageStrideFrequency.of(footsteps).getValue(), actual.get(4).getValue().doubleValue(), 0.0);
+    }
+
     /**
      * Utility method to build a random list of footsteps for use in tests.
      */
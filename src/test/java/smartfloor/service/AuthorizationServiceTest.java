@@ -1,9 +1,12 @@
 package smartfloor.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,12 +27,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import smartfloor.configuration.TestUser;
+import smartfloor.domain.AccessGraph;
 import smartfloor.domain.Role;
 import smartfloor.domain.UserType;
 import smartfloor.domain.entities.Tenant;
 import smartfloor.domain.entities.User;
 import smartfloor.multitenancy.AccessScopeContext;
-import smartfloor.repository.jpa.UserRepository;
 
 /**
  * This class tests the authorization service.
@@ -52,11 +55,17 @@ import smartfloor.repository.jpa.UserRepository;
 class AuthorizationServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private AccessGraphService accessGraphService;
 
     @InjectMocks
     private AuthorizationService authorizationService;
 
+    @BeforeEach
+    void setUp() {
+        // note: made lenient since the access graph is not consulted for every role
+        lenient().when(accessGraphService.getAccessGraph()).thenReturn(AccessGraph.EMPTY);
+    }
+
     private static Stream<Arguments> userUserOperationTestParams() {
         // Given a regular user (no admin or group manager role)
         return Stream.of(
@@ -121,9 +130,13 @@ class AuthorizationServiceTest {
         // second
         // note: made lenient to avoid stubbing exception that does not apply for this
         // parameterized scenario
-        lenient().when(
-                userRepository.isManagingUser(TestUser.GROUP_MANAGER_USER.getId(), TestUser.FIRST_REGULAR_USER.getId()))
-                .thenReturn(true);
+        Long testGroupId = 1L;
+        lenient().when(accessGraphService.getAccessGraph()).thenReturn(new AccessGraph(
+                Map.of(TestUser.GROUP_MANAGER_USER.getId(), Set.of(testGroupId)),
+                Map.of(testGroupId, Set.of(TestUser.FIRST_REGULAR_USER.getId())),
+                Map.of(),
+                Map.of()
+        ));
 
         // then
         if (shouldThrowException) {
@@ -175,7 +188,12 @@ class AuthorizationServiceTest {
         });
 
         // when: the group manager is now managing the group
-        when(userRepository.isManagingGroup(TestUser.GROUP_MANAGER_USER.getId(), testGroupId)).thenReturn(true);
+        when(accessGraphService.getAccessGraph()).thenReturn(new AccessGraph(
+                Map.of(TestUser.GROUP_MANAGER_USER.getId(), Set.of(testGroupId)),
+                Map.of(),
+                Map.of(),
+                Map.of()
+        ));
 
         // then: the user should be allowed to perform the operation
         assertDoesNotThrow(() -> {
@@ -222,9 +240,13 @@ class AuthorizationServiceTest {
         });
 
         // when: the group manager is now managing the wearable
-        when(userRepository.isManagerAllowedToAccessWearable(
-                TestUser.GROUP_MANAGER_USER.getId(),
-                testWearableId)).thenReturn(true);
+        Long testGroupId = 1L;
+        when(accessGraphService.getAccessGraph()).thenReturn(new AccessGraph(
+                Map.of(TestUser.GROUP_MANAGER_USER.getId(), Set.of(testGroupId)),
+                Map.of(),
+                Map.of(testGroupId, Set.of(testWearableId)),
+                Map.of()
+        ));
 
         // then: the user should be allowed to perform the operation
         assertDoesNotThrow(() -> {
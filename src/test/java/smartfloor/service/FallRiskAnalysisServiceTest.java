@@ -2,6 +2,7 @@ package smartfloor.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -14,6 +15,7 @@ import org.mockito.Mockito;
 import static org.mockito.Mockito.atLeast;
 import org.mockito.junit.jupiter.MockitoExtension;
 import smartfloor.domain.TimeWindow;
+import smartfloor.domain.entities.Group;
 import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskScoreAssessment;
@@ -127,4 +129,53 @@ class FallRiskAnalysisServiceTest {
         Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
     }
 
+    /**
+     * Test case that asserts that we get the latest best fall risk assessment for every user of a group that has fall
+     * risk profiles, in the order of the users of the group.
+     */
+    @Test
+    void testComputeLatestBestFallRiskAssessmentsForGroup() {
+        // given
+        User first = User.builder().authId("first").build();
+        first.setId(1L);
+        User second = User.builder().authId("second").build();
+        second.setId(2L);
+        User third = User.builder().authId("third").build();
+        third.setId(3L);
+        Group group = Group.builder().name("test").users(List.of(first, second, third)).build();
+        LocalDateTime now = LocalDateTime.now();
+        TimeWindow timeWindow = new TimeWindow(now.minusDays(1), now);
+
+        FallRiskProfile worse = FallRiskProfile.builder()
+                .walkingSpeed(50.0)
+                .stepLength(25.0)
+                .stepFrequency(1.0)
+                .endTime(now.minusMinutes(1))
+                .build();
+        FallRiskProfile best = FallRiskProfile.builder()
+                .walkingSpeed(100.0)
+                .stepLength(50.0)
+                .stepFrequency(1.0)
+                .endTime(now.minusMinutes(2))
+                .build();
+        FallRiskProfile other = FallRiskProfile.builder()
+                .walkingSpeed(75.0)
+                .stepLength(50.0)
+                .stepFrequency(1.0)
+                .endTime(now.minusMinutes(3))
+                .build();
+        Mockito.when(fallRiskProfileService.getLatestDayFallRiskProfilesForGroupWithinTimeWindow(group, timeWindow))
+                .thenReturn(Map.of(3L, List.of(other), 1L, List.of(worse, best)));
+        // when
+        List<LatestFallRiskProfileAssessment> assessments =
+                fallRiskAnalysisService.computeLatestBestFallRiskAssessmentsForGroupWithinTimeWindow(group, timeWindow);
+        // then
+        assertEquals(
+                List.of(
+                        new LatestFallRiskProfileAssessment(first, new FallRiskScoreAssessment(best)),
+                        new LatestFallRiskProfileAssessment(third, new FallRiskScoreAssessment(other))
+                ),
+                assessments
+        );
+    }
 }
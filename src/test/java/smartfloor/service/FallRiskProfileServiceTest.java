@@ -4,7 +4,9 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +14,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import smartfloor.configuration.CacheConfig;
 import smartfloor.domain.TimeWindow;
+import smartfloor.domain.UserType;
+import smartfloor.domain.dto.FallRiskProfileRemovalForm;
+import smartfloor.domain.entities.Tenant;
+import smartfloor.domain.entities.User;
 import smartfloor.domain.entities.Wearable;
 import smartfloor.domain.entities.fall.risk.profile.FallRiskProfile;
+import smartfloor.domain.entities.fall.risk.profile.FallRiskProfileRemovalReason;
+import smartfloor.domain.exception.FallRiskProfileNotFoundException;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.multitenancy.AccessScopedCache;
 import smartfloor.repository.jpa.FallRiskProfileRepository;
+import smartfloor.repository.jpa.FallRiskRemovalRepository;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("UnitTest")
@@ -27,9 +40,21 @@ class FallRiskProfileServiceTest {
     @Mock
     private FallRiskProfileRepository fallRiskProfileRepository;
 
+    @Mock
+    private FallRiskRemovalRepository fallRiskRemovalRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private FallRiskProfileService fallRiskProfileService;
 
+    @AfterEach
+    void tearDown() {
+        AccessScopeContext.INSTANCE.setUserType(null);
+        AccessScopeContext.INSTANCE.setTenantId(null);
+    }
+
     @Test
     void testGetFallRiskProfilesForWearableIdWithinTimeWindow() {
         // given
@@ -51,4 +76,29 @@ class FallRiskProfileServiceTest {
                 fallRiskProfileService.getFallRiskProfilesForWearableWithinTimeWindow(wearable, timeWindow);
         assertEquals(foundFallRiskProfiles, fallRiskProfiles);
     }
+
+    @Test
+    void testSoftDeleteFallRiskProfileEvictsAnalysesOfTenant() throws FallRiskProfileNotFoundException {
+        // given
+        Long tenantId = Tenant.getDefaultTenant().getId();
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(tenantId);
+        FallRiskProfile frp = FallRiskProfile.builder().build();
+        Mockito.when(fallRiskProfileRepository.findById(1L)).thenReturn(Optional.of(frp));
+        AccessScopedCache fallRiskAssessmentsCache = Mockito.mock(AccessScopedCache.class);
+        AccessScopedCache rehabilitationAnalysesCache = Mockito.mock(AccessScopedCache.class);
+        Mockito.when(cacheManager.getCache(Mockito.anyString())).thenReturn(Mockito.mock(AccessScopedCache.class));
+        Mockito.when(cacheManager.getCache(CacheConfig.FALL_RISK_ASSESSMENTS_CACHE_NAME))
+                .thenReturn(fallRiskAssessmentsCache);
+        Mockito.when(cacheManager.getCache(CacheConfig.REHABILITATION_ANALYSES_CACHE_NAME))
+                .thenReturn(rehabilitationAnalysesCache);
+        FallRiskProfileRemovalForm removalForm = FallRiskProfileRemovalForm.builder()
+                .reasonForRemoval(FallRiskProfileRemovalReason.OTHER)
+                .build();
+        // when
+        fallRiskProfileService.softDeleteFallRiskProfile(1L, User.builder().build(), removalForm);
+        // then
+        Mockito.verify(fallRiskAssessmentsCache).evictTenant(tenantId);
+        Mockito.verify(rehabilitationAnalysesCache).evictTenant(tenantId);
+    }
 }
@@ -0,0 +1,303 @@
+package smartfloor.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.TimeWindow;
+import smartfloor.domain.entities.Wearable;
+import smartfloor.repository.jpa.FootstepRepository;
+import smartfloor.repository.jpa.WearableRepository;
+
+class FootstepServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private FootstepService footstepService;
+
+    @Autowired
+    private WearableRepository wearableRepository;
+
+    /**
+     * A connection as the owner of the tables, which (unlike the user of the application) is able to detach and drop
+     * footsteps partitions and to insert tenant-wearable leases.
+     */
+    private static Connection getOwnerConnection() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("POSTGRES_URL"),
+                System.getProperty("POSTGRES_USER"),
+                System.getProperty("POSTGRES_PASSWORD")
+        );
+    }
+
+    private static boolean partitionExists(Connection owner, String partitionName) throws SQLException {
+        try (PreparedStatement sql = owner.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            sql.setString(1, partitionName);
+            try (ResultSet resultSet = sql.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Saves a wearable that is leased by the test tenant from the given time onwards (rather than being visible through
+     * a wearable group of one of its groups).
+     */
+    private Wearable saveLeasedWearable(Connection owner, String id, LocalDateTime beginTime) throws SQLException {
+        Wearable wearable = wearableRepository.save(Wearable.builder().id(id).build());
+        try (
+                PreparedStatement sql = owner.prepareStatement(
+                        "INSERT INTO tenant_wearable_leases (tenant_id, wearable_id, begin_time) VALUES (?, ?, ?)"
+                )
+        ) {
+            sql.setLong(1, getTestTenant().getId());
+            sql.setString(2, id);
+            sql.setTimestamp(3, Timestamp.valueOf(beginTime));
+            sql.executeUpdate();
+        }
+        return wearable;
+    }
+
+    private static void insertFootstep(Connection owner, Wearable wearable, LocalDateTime time) throws SQLException {
+        try (PreparedStatement sql = owner.prepareStatement(
+                "INSERT INTO footsteps (wearable_id, timestamp) VALUES (?, ?)"
+        )) {
+            sql.setString(1, wearable.getId());
+            sql.setTimestamp(2, Timestamp.valueOf(time));
+            sql.executeUpdate();
+        }
+    }
+
+    /**
+     * Inserts a footstep along with its position, and returns the id of the footstep.
+     */
+    private static long insertPositionedFootstep(Connection owner, Wearable wearable, LocalDateTime time)
+            throws SQLException {
+        long footstepId;
+        try (PreparedStatement sql = owner.prepareStatement(
+                "INSERT INTO footsteps (wearable_id, timestamp) VALUES (?, ?) RETURNING id"
+        )) {
+            sql.setString(1, wearable.getId());
+            sql.setTimestamp(2, Timestamp.valueOf(time));
+            try (ResultSet resultSet = sql.executeQuery()) {
+                resultSet.next();
+                footstepId = resultSet.getLong(1);
+            }
+        }
+        try (PreparedStatement sql = owner.prepareStatement(
+                "INSERT INTO footstep_positions (footstep_id, timestamp, x, y) VALUES (?, ?, 1, 1)"
+        )) {
+            sql.setLong(1, footstepId);
+            sql.setTimestamp(2, Timestamp.valueOf(time));
+            sql.executeUpdate();
+        }
+        return footstepId;
+    }
+
+    private static int countRows(Connection owner, String tableName, long footstepId) throws SQLException {
+        try (PreparedStatement sql = owner.prepareStatement(
+                "SELECT count(*) FROM " + tableName + " WHERE footstep_id = ?"
+        )) {
+            sql.setLong(1, footstepId);
+            try (ResultSet resultSet = sql.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private int getCountWithinTimeWindow(Wearable wearable, TimeWindow timeWindow) {
+        return footstepService.getCountsWithinTimeWindow(timeWindow).stream()
+                .filter(stepCount -> wearable.getId().equals(stepCount.getWearableId()))
+                .mapToInt(FootstepRepository.WearableStepCount::getFootstepCount)
+                .sum();
+    }
+
+    /**
+     * Test to see if the scheduled job creates the partition of the last upcoming month when it does not exist (yet),
+     * as the user of the application, and leaves the existing partitions alone.
+     */
+    @Test
+    void testCreateUpcomingPartitions() throws SQLException {
+        // given: The partitions a year ahead do not exist.
+        LocalDate lastMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).plusMonths(12);
+        String partitionName = "footsteps_" + lastMonth.format(MONTH_FORMAT);
+        String positionsPartitionName = "footstep_positions_" + lastMonth.format(MONTH_FORMAT);
+        try (Connection owner = getOwnerConnection()) {
+            try (PreparedStatement sql = owner.prepareStatement("SELECT detach_footsteps_partition(?)")) {
+                sql.setObject(1, lastMonth);
+                sql.execute();
+            }
+            try (
+                    PreparedStatement sql = owner.prepareStatement(
+                            "DROP TABLE " + positionsPartitionName + ", " + partitionName
+                    )
+            ) {
+                sql.execute();
+            }
+            // when
+            int createdCount = footstepService.createUpcomingPartitions();
+            // then
+            assertEquals(1, createdCount);
+            assertTrue(partitionExists(owner, partitionName));
+            assertTrue(partitionExists(owner, positionsPartitionName));
+            assertEquals(0, footstepService.createUpcomingPartitions());
+        }
+    }
+
+    /**
+     * Test to see if detaching the partition of a month detaches the positions of its footsteps along with it, such
+     * that no position of that month is left behind.
+     */
+    @Test
+    void testDetachPartitionDetachesPositionsAlongWithFootsteps() throws SQLException {
+        // given: A positioned footstep in the month before the last upcoming month.
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).plusMonths(11);
+        LocalDateTime time = month.atStartOfDay().plusDays(1);
+        String partitionName = "footsteps_" + month.format(MONTH_FORMAT);
+        String positionsPartitionName = "footstep_positions_" + month.format(MONTH_FORMAT);
+        try (Connection owner = getOwnerConnection()) {
+            Wearable wearable = wearableRepository.save(
+                    Wearable.builder().id("testDetachPartitionWithPositions").build()
+            );
+            long footstepId = insertPositionedFootstep(owner, wearable, time);
+            // when
+            try (PreparedStatement sql = owner.prepareStatement("SELECT detach_footsteps_partition(?)")) {
+                sql.setObject(1, month);
+                sql.execute();
+            }
+            // then: The position is no longer part of the footstep positions, but of the detached positions partition.
+            assertEquals(0, countRows(owner, "footstep_positions", footstepId));
+            assertEquals(1, countRows(owner, positionsPartitionName, footstepId));
+            try (
+                    PreparedStatement sql = owner.prepareStatement(
+                            "DROP TABLE " + positionsPartitionName + ", " + partitionName
+                    )
+            ) {
+                sql.execute();
+            }
+            assertEquals(1, footstepService.createUpcomingPartitions());
+        }
+    }
+
+    /**
+     * Test to see if deleting a footstep deletes its position as well.
+     */
+    @Test
+    void testDeletingFootstepDeletesPosition() throws SQLException {
+        // given
+        LocalDateTime time = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).minusDays(1);
+        try (Connection owner = getOwnerConnection()) {
+            Wearable wearable = wearableRepository.save(Wearable.builder().id("testDeletingFootstepPosition").build());
+            long footstepId = insertPositionedFootstep(owner, wearable, time);
+            assertEquals(1, countRows(owner, "footstep_positions", footstepId));
+            // when
+            try (PreparedStatement sql = owner.prepareStatement("DELETE FROM footsteps WHERE id = ?")) {
+                sql.setLong(1, footstepId);
+                sql.executeUpdate();
+            }
+            // then
+            assertEquals(0, countRows(owner, "footstep_positions", footstepId));
+        }
+    }
+
+    /**
+     * Test to see if the footsteps of a full hour in which the lease of the wearable begins are counted, even though
+     * the rollup of that hour is not visible to the tenant.
+     */
+    @Test
+    void testCountsIncludeFootstepsOfHourInWhichLeaseBegins() throws SQLException {
+        // given: The lease begins halfway a past hour, which has a footstep before and a footstep after that.
+        LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(4);
+        try (Connection owner = getOwnerConnection()) {
+            Wearable wearable = saveLeasedWearable(owner, "testCountsOfHourInWhichLeaseBegins", hour.plusMinutes(30));
+            insertFootstep(owner, wearable, hour.plusMinutes(10));
+            insertFootstep(owner, wearable, hour.plusMinutes(40));
+            insertFootstep(owner, wearable, hour.plusMinutes(90));
+            footstepService.refreshHourlyRollups();
+            // when: The counts of a time window of which all hours have been rolled up.
+            int count = getCountWithinTimeWindow(wearable, new TimeWindow(hour.minusHours(1), hour.plusHours(3)));
+            // then: The footsteps within the lease are counted, from the footsteps and from the rollups respectively.
+            assertEquals(2, count);
+        }
+    }
+
+    /**
+     * Test to see if a footstep that is committed after a footstep with a greater id, and after the rollups have been
+     * refreshed in between, is still rolled up by the next refresh.
+     */
+    @Test
+    void testFootstepCommittedAfterRefreshIsRolledUp() throws SQLException {
+        // given
+        LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(2);
+        try (Connection first = getOwnerConnection(); Connection second = getOwnerConnection()) {
+            Wearable wearable = saveLeasedWearable(first, "testFootstepCommittedAfterRefresh", hour.minusDays(1));
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            // when: The first footstep (with the smaller id) is committed after the second one and after a refresh.
+            insertFootstep(first, wearable, hour.plusMinutes(10));
+            insertFootstep(second, wearable, hour.plusMinutes(20));
+            second.commit();
+            footstepService.refreshHourlyRollups();
+            first.commit();
+            footstepService.refreshHourlyRollups();
+            // then
+            List<FootstepRepository.HourlyFootstepRollup> rollups =
+                    footstepService.getHourlyRollupsForWearableWithinTimeWindow(wearable, new TimeWindow(hour, hour));
+            assertEquals(1, rollups.size());
+            assertEquals(2, rollups.get(0).getStepCount());
+        }
+    }
+
+    /**
+     * Test to see if a statement that inserts many footsteps of the same wearable and hour queues their bucket once.
+     */
+    @Test
+    void testInsertStatementQueuesEveryBucketOnce() throws SQLException {
+        // given
+        LocalDateTime hour = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(2);
+        try (Connection owner = getOwnerConnection()) {
+            Wearable wearable = saveLeasedWearable(owner, "testInsertStatementQueuesBucketOnce", hour.minusDays(1));
+            // when: The footsteps of two hours are inserted at once.
+            try (PreparedStatement sql = owner.prepareStatement(
+                    "INSERT INTO footsteps (wearable_id, timestamp)" +
+                            " SELECT ?, CAST(? AS timestamp) + minute * interval '1 minute'" +
+                            " FROM generate_series(0, 119) AS minute"
+            )) {
+                sql.setString(1, wearable.getId());
+                sql.setTimestamp(2, Timestamp.valueOf(hour));
+                sql.executeUpdate();
+            }
+            // then
+            try (PreparedStatement sql = owner.prepareStatement(
+                    "SELECT count(*) FROM footstep_hourly_rollup_queue WHERE wearable_id = ?"
+            )) {
+                sql.setString(1, wearable.getId());
+                try (ResultSet resultSet = sql.executeQuery()) {
+                    resultSet.next();
+                    assertEquals(2, resultSet.getInt(1));
+                }
+            }
+            footstepService.refreshHourlyRollups();
+            List<FootstepRepository.HourlyFootstepRollup> rollups = footstepService
+                    .getHourlyRollupsForWearableWithinTimeWindow(wearable, new TimeWindow(hour, hour.plusHours(1)));
+            assertEquals(2, rollups.size());
+            assertEquals(60, rollups.get(0).getStepCount());
+        }
+    }
+}
@@ -3,10 +3,13 @@ package smartfloor.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -17,15 +20,16 @@ import org.mockito.Mockito;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.times;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import smartfloor.domain.FootstepCursor;
+import smartfloor.domain.FootstepPage;
 import smartfloor.domain.TimeWindow;
 import smartfloor.domain.entities.Footstep;
 import smartfloor.domain.entities.Position;
 import smartfloor.domain.entities.User;
-import smartfloor.domain.entities.UserWearableLink;
 import smartfloor.domain.entities.Wearable;
-import smartfloor.domain.exception.UserNotFoundException;
-import smartfloor.domain.exception.UserWearableLinkNotFoundException;
 import smartfloor.repository.jpa.FootstepRepository;
+import smartfloor.repository.jpa.projections.FootstepProjection;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("UnitTest")
@@ -34,9 +38,6 @@ class FootstepServiceTest {
     @Mock
     private FootstepRepository footstepRepository;
 
-    @Mock
-    private UserWearableLinkService userWearableLinkService;
-
     @Mock
     private AuthorizationService authorizationService;
 
@@ -65,7 +66,8 @@ class FootstepServiceTest {
     }
 
     /**
-     * Test to see if we get a valid list of footsteps for the provided wearable.
+     * Test to see if we get a valid list of footsteps for the provided wearable, built from the footstep projections
+     * returned by the repository.
      */
     @Test
     void testGetByWearableWithinTimeWindow() {
@@ -76,17 +78,116 @@ class FootstepServiceTest {
         Wearable wearable = new Wearable();
         wearable.setId("test_wearable");
         int amountOfFootsteps = 50;
-        List<Footstep> footsteps = buildRandomListOfFootsteps(amountOfFootsteps, wearable);
+        List<FootstepProjection> projections = buildRandomListOfProjections(amountOfFootsteps, wearable, timeWindow);
         // when
-        Mockito.when(footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
+        Mockito.when(footstepRepository.findProjectionsByWearableIdAndTimeBetween(
                 wearable.getId(),
                 timeWindow.getBeginTime(),
                 timeWindow.getEndTime()
-        )).thenReturn(footsteps);
+        )).thenReturn(projections);
         List<Footstep> actual = footstepService.getForWearableWithinTimeWindow(wearable, timeWindow);
         // then
         assertNotNull(actual);
-        assertEquals(footsteps, actual);
+        assertEquals(amountOfFootsteps, actual.size());
+        for (int i = 0; i < amountOfFootsteps; i++) {
+            assertEquals(projections.get(i).time(), actual.get(i).getTime());
+            assertEquals(projections.get(i).x(), actual.get(i).getPosition().getX(), 0.0);
+            assertEquals(projections.get(i).y(), actual.get(i).getPosition().getY(), 0.0);
+            assertEquals(wearable.getId(), actual.get(i).getWearable().getId());
+        }
+    }
+
+    /**
+     * Test to see if a projection without a position (and floor) is converted to a footstep without a position.
+     */
+    @Test
+    void testProjectionWithoutPositionToFootstep() {
+        FootstepProjection projection =
+                new FootstepProjection(1L, LocalDateTime.now(), null, null, "test_wearable", null);
+        Footstep footstep = projection.toFootstep();
+        assertFalse(footstep.hasPosition());
+        assertNull(footstep.getFloor());
+        assertEquals("test_wearable", footstep.getWearable().getId());
+    }
+
+    /**
+     * Test to see if a page of footsteps is cut off at the requested size and comes with a cursor that points at the
+     * last footstep of the page when there are more footsteps.
+     */
+    @Test
+    void testGetPageForWearableWithinTimeWindow() {
+        // given
+        TimeWindow timeWindow = new TimeWindow();
+        timeWindow.setBeginTime(LocalDateTime.now().minusMinutes(5));
+        timeWindow.setEndTime(LocalDateTime.now());
+        Wearable wearable = new Wearable();
+        wearable.setId("test_wearable");
+        int pageSize = 10;
+        List<FootstepProjection> projections = buildRandomListOfProjections(pageSize + 1, wearable, timeWindow);
+        // when
+        Mockito.when(footstepRepository.findProjectionPageByWearableIdAndTimeBetween(
+                wearable.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                timeWindow.getBeginTime(),
+                Long.MIN_VALUE,
+                PageRequest.ofSize(pageSize + 1)
+        )).thenReturn(projections);
+        FootstepPage page = footstepService.getPageForWearableWithinTimeWindow(wearable, timeWindow, null, pageSize);
+        // then
+        assertEquals(pageSize, page.getFootsteps().size());
+        assertNotNull(page.getNextCursor());
+        FootstepCursor next = FootstepCursor.decode(page.getNextCursor());
+        assertEquals(projections.get(pageSize - 1).time(), next.time());
+        assertEquals(projections.get(pageSize - 1).id(), next.id());
+    }
+
+    /**
+     * Test to see if the last page of footsteps does not come with a cursor.
+     */
+    @Test
+    void testGetLastPageForWearableWithinTimeWindow() {
+        // given
+        TimeWindow timeWindow = new TimeWindow();
+        timeWindow.setBeginTime(LocalDateTime.now().minusMinutes(5));
+        timeWindow.setEndTime(LocalDateTime.now());
+        Wearable wearable = new Wearable();
+        wearable.setId("test_wearable");
+        FootstepCursor cursor = new FootstepCursor(timeWindow.getBeginTime().plusSeconds(30), 42L);
+        List<FootstepProjection> projections = buildRandomListOfProjections(5, wearable, timeWindow);
+        // when
+        Mockito.when(footstepRepository.findProjectionPageByWearableIdAndTimeBetween(
+                wearable.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                cursor.time(),
+                cursor.id(),
+                PageRequest.ofSize(11)
+        )).thenReturn(projections);
+        FootstepPage page = footstepService.getPageForWearableWithinTimeWindow(
+                wearable,
+                timeWindow,
+                cursor.encode(),
+                10
+        );
+        // then
+        assertEquals(5, page.getFootsteps().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetPageWithInvalidCursorOrSize() {
+        TimeWindow timeWindow = new TimeWindow(LocalDateTime.now().minusMinutes(5), LocalDateTime.now());
+        Wearable wearable = new Wearable();
+        wearable.setId("test_wearable");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> footstepService.getPageForWearableWithinTimeWindow(wearable, timeWindow, "not-a-cursor", 10)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> footstepService.getPageForWearableWithinTimeWindow(wearable, timeWindow, null, 0)
+        );
     }
 
     /**
@@ -113,6 +214,79 @@ class FootstepServiceTest {
         assertEquals(amountOfFootsteps, actual);
     }
 
+    /**
+     * Test to see if the full hours of a time window are counted from the hourly rollups (as far as those are complete)
+     * and only the partial hours at its edges from the footsteps themselves.
+     */
+    @Test
+    void testGetCountsWithinTimeWindowUsesHourlyRollupsForFullHours() {
+        // given
+        LocalDateTime day = LocalDateTime.of(2023, 5, 1, 0, 0);
+        TimeWindow timeWindow = new TimeWindow(day.withHour(10).withMinute(30), day.withHour(14).withMinute(15));
+        Mockito.when(footstepRepository.findHourlyRollupsCoveredUntil()).thenReturn(Optional.of(day.withHour(13)));
+        // when
+        footstepService.getCountsWithinTimeWindow(timeWindow);
+        // then: hours 11 and 12 are read from the rollups, the hour 13 has not been rolled up completely yet
+        Mockito.verify(footstepRepository).findWearableStepCounts(
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                day.withHour(11),
+                day.withHour(13)
+        );
+    }
+
+    /**
+     * Test to see if all footsteps are counted from the footsteps themselves when no full hour has been rolled up.
+     */
+    @Test
+    void testGetCountsWithinTimeWindowWithoutHourlyRollups() {
+        // given
+        LocalDateTime day = LocalDateTime.of(2023, 5, 1, 0, 0);
+        TimeWindow timeWindow = new TimeWindow(day.withHour(10).withMinute(30), day.withHour(14).withMinute(15));
+        Mockito.when(footstepRepository.findHourlyRollupsCoveredUntil()).thenReturn(Optional.empty());
+        // when
+        footstepService.getCountsWithinTimeWindow(timeWindow);
+        // then
+        Mockito.verify(footstepRepository).findWearableStepCounts(
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime(),
+                timeWindow.getEndTime(),
+                timeWindow.getEndTime()
+        );
+    }
+
+    /**
+     * Test to see if the footsteps partitions are created up to a year ahead.
+     */
+    @Test
+    void testCreateUpcomingPartitions() {
+        // given
+        Mockito.when(footstepRepository.createUpcomingPartitions(12)).thenReturn(1);
+        // when
+        int createdCount = footstepService.createUpcomingPartitions();
+        // then
+        assertEquals(1, createdCount);
+    }
+
+    private List<FootstepProjection> buildRandomListOfProjections(
+            int amount,
+            Wearable madeByWearable,
+            TimeWindow timeWindow
+    ) {
+        List<FootstepProjection> projections = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            projections.add(new FootstepProjection(
+                    (long) i,
+                    timeWindow.getBeginTime().plusSeconds(i),
+                    (double) rand.nextInt(50),
+                    (double) rand.nextInt(50),
+                    madeByWearable.getId(),
+                    null
+            ));
+        }
+        return projections;
+    }
+
     private List<Footstep> buildRandomListOfFootsteps(int amount, Wearable madeByWearable) {
         List<Footstep> footsteps = new ArrayList<>();
         for (int i = 0; i < amount; i++) {
@@ -125,44 +299,35 @@ class FootstepServiceTest {
     }
 
     @Test
-    void testGetSortedFootsteps() throws UserNotFoundException, UserWearableLinkNotFoundException {
-        Wearable wearable = new Wearable();
-        wearable.setId("testWearable");
-        UserWearableLink userWearableLink = new UserWearableLink();
-        userWearableLink.setWearable(wearable);
-        userWearableLink.setBeginTime(LocalDateTime.now().minusDays(1));
-        userWearableLink.setEndTime(LocalDateTime.now());
-        List<UserWearableLink> userWearableLinks = new ArrayList<>();
-        userWearableLinks.add(userWearableLink);
-
+    void testGetSortedFootsteps() {
         User user = new User();
         user.setId(1L);
 
-        Footstep footstep1 = new Footstep();
-        footstep1.setPosition(new Position(50, 50));
-        footstep1.setTime(LocalDateTime.now().minusSeconds(2));
-        footstep1.setWearable(wearable);
+        FootstepProjection footstep1 =
+                new FootstepProjection(1L, LocalDateTime.now().minusSeconds(2), 50.0, 50.0, "testWearable", null);
+        FootstepProjection footstep2 =
+                new FootstepProjection(2L, LocalDateTime.now(), 200.0, 200.0, "testWearable", null);
 
-        Footstep footstep2 = new Footstep();
-        footstep2.setPosition(new Position(200, 200));
-        footstep2.setTime(LocalDateTime.now());
-        footstep2.setWearable(wearable);
+        TimeWindow timeWindow = new TimeWindow(footstep1.time(), footstep2.time());
 
-        TimeWindow timeWindow = new TimeWindow(footstep1.getTime(), footstep2.getTime());
-
-        List<Footstep> footsteps = new ArrayList<>();
+        List<FootstepProjection> footsteps = new ArrayList<>();
         footsteps.add(footstep1);
         footsteps.add(footstep2);
 
-        Mockito.when(userWearableLinkService.getByUserWithOverlappingTimeWindow(user, timeWindow))
-                .thenReturn(userWearableLinks);
-        Mockito.when(footstepRepository.findByWearableIdAndTimeBetweenOrderByTimeAsc(
-                wearable.getId(),
-                userWearableLink.getBeginTime(),
-                userWearableLink.getEndTime()
+        Mockito.when(footstepRepository.findProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
         )).thenReturn(footsteps);
-        assertEquals(footsteps, footstepService.getForUserWithinTimeWindow(user, timeWindow));
+        List<Footstep> actual = footstepService.getForUserWithinTimeWindow(user, timeWindow);
+        assertEquals(footstep1.time(), actual.get(0).getTime());
+        assertEquals(footstep2.time(), actual.get(1).getTime());
         Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
+        Mockito.verify(footstepRepository, times(1)).findProjectionsByUserIdAndTimeBetween(
+                user.getId(),
+                timeWindow.getBeginTime(),
+                timeWindow.getEndTime()
+        );
     }
 
     /**
@@ -40,6 +40,9 @@ class GroupServiceTest {
     @Mock
     private AuthorizationService authorizationService;
 
+    @Mock
+    private AccessGraphService accessGraphService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -77,6 +80,7 @@ class GroupServiceTest {
         Group createdGroup = groupService.createGroup(group);
         // then
         assertEquals(group, createdGroup);
+        Mockito.verify(accessGraphService).evictAccessGraph();
     }
 
     @Test
@@ -111,6 +115,7 @@ class GroupServiceTest {
         Group updatedGroup = groupService.updateGroup(group);
         // then
         assertEquals(updatedGroup, group);
+        Mockito.verify(accessGraphService).evictAccessGraph();
     }
 
     @Test
@@ -1,5 +1,6 @@
 package smartfloor.service;
 
+import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -11,8 +12,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.atLeast;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import smartfloor.domain.entities.Tenant;
 import smartfloor.domain.exception.TenantNotFoundException;
+import smartfloor.multitenancy.AccessScopedCache;
 import smartfloor.repository.jpa.TenantRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +28,9 @@ class TenantServiceTest {
     @Mock
     private AuthorizationService authorizationService;
 
+    @Mock
+    private CacheManager cacheManager;
+
     /**
      * Service to test.
      */
@@ -43,4 +49,18 @@ class TenantServiceTest {
         assertEquals(tenant, actual);
         Mockito.verify(authorizationService, atLeast(1)).validateTenantOperationAuthority(tenant.getId());
     }
+
+    @Test
+    void testEvictCaches() {
+        // given
+        Long tenantId = Tenant.getDefaultTenant().getId();
+        AccessScopedCache cache = Mockito.mock(AccessScopedCache.class);
+        Mockito.when(cacheManager.getCacheNames()).thenReturn(List.of("test"));
+        Mockito.when(cacheManager.getCache("test")).thenReturn(cache);
+        // when
+        tenantService.evictCaches(tenantId);
+        // then
+        Mockito.verify(authorizationService).validateTenantOperationAuthority(tenantId);
+        Mockito.verify(cache).evictTenant(tenantId);
+    }
 }
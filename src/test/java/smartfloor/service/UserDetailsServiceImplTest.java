@@ -0,0 +1,150 @@
+package smartfloor.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import smartfloor.configuration.CacheConfig;
+import smartfloor.domain.UserType;
+import smartfloor.domain.entities.Tenant;
+import smartfloor.domain.entities.User;
+import smartfloor.multitenancy.AccessScopeContext;
+import smartfloor.multitenancy.AccessScopedCache;
+import smartfloor.repository.jpa.CompositeUserRepository;
+import smartfloor.repository.jpa.TenantRepository;
+import smartfloor.repository.jpa.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("UnitTest")
+class UserDetailsServiceImplTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+    private static final String AUTH_ID = "auth-id";
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CompositeUserRepository compositeUserRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private static void setDirectUserScope(Long tenantId) {
+        AccessScopeContext.INSTANCE.setUserType(UserType.DIRECT_USER);
+        AccessScopeContext.INSTANCE.setTenantId(tenantId);
+    }
+
+    @BeforeEach
+    void setUp() {
+        AccessScopedCache principalCache = new AccessScopedCache(
+                CacheConfig.PRINCIPALS_CACHE_NAME,
+                Caffeine.newBuilder().expireAfterWrite(TIME_TO_LIVE).ticker(nanoTime::get).build()
+        );
+        when(cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE_NAME)).thenReturn(principalCache);
+        userDetailsService = new UserDetailsServiceImpl(
+                tenantRepository,
+                userRepository,
+                compositeUserRepository,
+                cacheManager
+        );
+        setDirectUserScope(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        AccessScopeContext.INSTANCE.setUserType(null);
+        AccessScopeContext.INSTANCE.setTenantId(null);
+    }
+
+    private User mockExistingUser(Long tenantId) {
+        User user = User.builder().id(tenantId * 10).authId(AUTH_ID).tenant(Tenant.getDefaultTenant()).build();
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(Tenant.getDefaultTenant()));
+        when(userRepository.findByAuthId(AUTH_ID)).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    @Test
+    void testPrincipalIsLookedUpOnce() {
+        // given
+        User user = mockExistingUser(1L);
+        // when
+        userDetailsService.loadUserByUsername(AUTH_ID);
+        userDetailsService.loadUserByUsername(AUTH_ID);
+        // then
+        assertEquals(user, userDetailsService.loadUserByUsername(AUTH_ID));
+        verify(tenantRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findByAuthId(AUTH_ID);
+    }
+
+    @Test
+    void testPrincipalIsNotSharedBetweenTenants() {
+        // given
+        mockExistingUser(1L);
+        userDetailsService.loadUserByUsername(AUTH_ID);
+        // when
+        setDirectUserScope(2L);
+        when(tenantRepository.findById(2L)).thenReturn(Optional.empty());
+        // then
+        assertThrows(AuthenticationServiceException.class, () -> userDetailsService.loadUserByUsername(AUTH_ID));
+    }
+
+    @Test
+    void testNonExistingPrincipalIsNotCached() {
+        // given
+        when(tenantRepository.findById(1L)).thenReturn(Optional.of(Tenant.getDefaultTenant()));
+        when(userRepository.findByAuthId(AUTH_ID)).thenReturn(Optional.empty());
+        assertThrows(AuthenticationServiceException.class, () -> userDetailsService.loadUserByUsername(AUTH_ID));
+        // when
+        User user = mockExistingUser(1L);
+        // then
+        assertEquals(user, userDetailsService.loadUserByUsername(AUTH_ID));
+    }
+
+    @Test
+    void testEvictedPrincipalIsRevokedImmediately() {
+        // given
+        User user = mockExistingUser(1L);
+        userDetailsService.loadUserByUsername(AUTH_ID);
+        // when: The user is removed through this instance.
+        when(userRepository.findByAuthId(AUTH_ID)).thenReturn(Optional.empty());
+        userDetailsService.evictUser(user.getId());
+        // then
+        assertThrows(AuthenticationServiceException.class, () -> userDetailsService.loadUserByUsername(AUTH_ID));
+    }
+
+    @Test
+    void testPrincipalIsRevokedWithinTimeToLive() {
+        // given
+        User user = mockExistingUser(1L);
+        userDetailsService.loadUserByUsername(AUTH_ID);
+        // when: The user is removed by other means, so its cached principal is not evicted.
+        when(userRepository.findByAuthId(AUTH_ID)).thenReturn(Optional.empty());
+        nanoTime.addAndGet(TIME_TO_LIVE.minusSeconds(1).toNanos());
+        // then: The principal is still authenticated until its cache entry expires, but not any longer.
+        assertEquals(user, userDetailsService.loadUserByUsername(AUTH_ID));
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThrows(AuthenticationServiceException.class, () -> userDetailsService.loadUserByUsername(AUTH_ID));
+    }
+}
@@ -0,0 +1,97 @@
+package smartfloor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import smartfloor.IntegrationTestBase;
+import smartfloor.domain.Role;
+import smartfloor.domain.UserType;
+import smartfloor.domain.dto.UpdateWearableUserForm;
+import smartfloor.domain.entities.User;
+import smartfloor.domain.entities.UserInfo;
+import smartfloor.repository.jpa.UserRepository;
+import smartfloor.util.TestUtils;
+
+/**
+ * Verifies that a cached principal does not outlive a change to its user. Unlike the other integration tests (see
+ * application-test.properties), the principals are cached here, so every user of these tests has an auth id of its own.
+ */
+@TestPropertySource(properties = "smartfloor.caches.principals.time-to-live=PT1M")
+class UserDetailsServiceIntegrationTest extends IntegrationTestBase {
+
+    private static final String USERS_REST_ENDPOINT = "/users";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ResponseEntity<String> exchange(String uri, HttpMethod method, HttpEntity<String> entity) {
+        return getRestTemplate().exchange(TestUtils.createURLWithPort(uri, getPort()), method, entity, String.class);
+    }
+
+    /**
+     * Requests the authenticated object as the given user, which caches the principal of the user.
+     */
+    private ResponseEntity<String> getAuthenticatedObject(User user) {
+        HttpHeaders headers = TestUtils.httpHeadersBuilder(
+                getTestTenant().getId(),
+                user,
+                Role.ADMIN,
+                UserType.DIRECT_USER
+        );
+        return exchange(USERS_REST_ENDPOINT + "/me", HttpMethod.GET, new HttpEntity<>(null, headers));
+    }
+
+    /**
+     * Test to see if a deleted user can no longer authenticate, even though its principal was cached by a request
+     * right before the deletion.
+     */
+    @Test
+    void testDeletedUserIsNoLongerAuthenticated() {
+        // given
+        User user = userRepository.save(User.builder().tenant(getTestTenant()).authId("testCachedDeletedUser").build());
+        assertEquals(HttpStatus.OK, getAuthenticatedObject(user).getStatusCode());
+        // when
+        ResponseEntity<String> deleteResponse = exchange(
+                USERS_REST_ENDPOINT + '/' + user.getId(),
+                HttpMethod.DELETE,
+                new HttpEntity<>(null, TestUtils.defaultHttpHeaders())
+        );
+        // then
+        assertEquals(HttpStatus.OK, deleteResponse.getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, getAuthenticatedObject(user).getStatusCode());
+    }
+
+    /**
+     * Test to see if the next request of an updated user is authenticated with the updated user, even though its
+     * principal was cached by a request right before the update.
+     */
+    @Test
+    void testUpdatedUserIsAuthenticatedWithUpdate() throws JsonProcessingException {
+        // given
+        User user = userRepository.save(User.builder().tenant(getTestTenant()).authId("testCachedUpdatedUser").build());
+        assertEquals(HttpStatus.OK, getAuthenticatedObject(user).getStatusCode());
+        UserInfo info = UserInfo.builder().age(50).height(170).build();
+        UpdateWearableUserForm updateWearableUserForm = UpdateWearableUserForm.builder().info(info).build();
+        // when
+        ResponseEntity<String> updateResponse = exchange(
+                USERS_REST_ENDPOINT + '/' + user.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(mapper.writeValueAsString(updateWearableUserForm), TestUtils.defaultHttpHeaders())
+        );
+        // then
+        assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+        ResponseEntity<String> response = getAuthenticatedObject(user);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(info, mapper.readValue(response.getBody(), User.class).getInfo());
+    }
+}
@@ -40,6 +40,12 @@ class UserServiceTest {
     @Mock
     private AuthorizationService authorizationService;
 
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private AccessGraphService accessGraphService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -168,6 +174,7 @@ class UserServiceTest {
         User actual = userService.updateUser(user);
         // then
         Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user);
+        Mockito.verify(userDetailsService).evictUser(userId);
         assertEquals(user, actual);
     }
 
@@ -182,6 +189,8 @@ class UserServiceTest {
         // then
         Mockito.verify(authorizationService, atLeast(1)).validateUserOperationAuthority(user.getId());
         Mockito.verify(userRepository, times(1)).delete(user);
+        Mockito.verify(userDetailsService).evictUser(user.getId());
+        Mockito.verify(accessGraphService).evictAccessGraph();
     }
 
     @Test